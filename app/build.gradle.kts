@@ -38,6 +38,10 @@ android {
     buildFeatures {
         compose = true
     }
+    testOptions {
+        // Robolectric runs the SQLite, Volley and android.* parts on the JVM
+        unitTests.isIncludeAndroidResources = true
+    }
 }
 
 dependencies {
@@ -57,6 +61,9 @@ dependencies {
     implementation(libs.firebase.database)
 
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    // Volley's BasicNetwork links the legacy Apache HTTP classes, which Robolectric lacks
+    testImplementation(libs.apache.httpclient)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
     androidTestImplementation(platform(libs.androidx.compose.bom))
@@ -70,6 +77,7 @@ dependencies {
     implementation("com.journeyapps:zxing-android-embedded:4.3.0")
     implementation("com.google.zxing:core:3.5.3")
     implementation("com.google.android.material:material:1.11.0")
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("com.android.volley:volley:1.2.1")
     implementation("com.google.android.gms:play-services-location:21.0.1")
     implementation("com.google.firebase:firebase-messaging-ktx:23.4.1")
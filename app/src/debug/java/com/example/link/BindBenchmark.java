@@ -0,0 +1,187 @@
+package com.example.link;
+
+import android.os.SystemClock;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cost per row of the text the list adapters bind, on this device. Run from
+ * {@link DebugPanel}.
+ *
+ * For the history ({@link SOSAlert}), activity ({@link DeviceLocation}) and
+ * dashboard ({@link CustomerDevice}) rows it times three things. "Before" is
+ * the parsing and formatting the adapters used to do on every bind, kept
+ * here as it was. "Bind" is reading the precomputed strings, which is all a
+ * bind does now. "Prepare" is the one-off cost at ingest, on the parse or
+ * database thread. Views are left out, so only the data side is measured.
+ */
+final class BindBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int TIMED_ROUNDS  = 100;
+
+    private static int sink;   // keeps the results live
+
+    private BindBenchmark() {
+    }
+
+    /** Blocks for a few seconds; call off the main thread. */
+    static String run(int rows) {
+        List<SOSAlert>       alerts    = new ArrayList<>(rows);
+        List<DeviceLocation> locations = new ArrayList<>(rows);
+        List<CustomerDevice> devices   = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            alerts.add(alert(i));
+            locations.add(location(i));
+            devices.add(device(i));
+        }
+
+        return "Rows: " + rows + " (ns per row)\n\n"
+            + "History\n" + measure(rows,
+                () -> { for (SOSAlert a : alerts) sink += legacyBind(a); },
+                () -> { for (SOSAlert a : alerts) sink += bind(a); },
+                () -> { for (SOSAlert a : alerts) sink += copy(a).getFormattedDateTime().length(); })
+            + "\nActivity\n" + measure(rows,
+                () -> { for (DeviceLocation l : locations) sink += legacyBind(l); },
+                () -> { for (DeviceLocation l : locations) sink += bind(l); },
+                () -> { for (DeviceLocation l : locations) { l.prepareDisplay(); sink++; } })
+            + "\nDashboard\n" + measure(rows,
+                () -> { for (CustomerDevice d : devices) sink += legacyBind(d); },
+                () -> { for (CustomerDevice d : devices) sink += bind(d); },
+                () -> { for (CustomerDevice d : devices) { d.prepareDisplay(); sink++; } });
+    }
+
+    private static String measure(int rows, Runnable before, Runnable bind, Runnable prepare) {
+        return String.format(Locale.US, "  Before: %,.0f\n  Bind: %,.0f\n  Prepare: %,.0f\n",
+            time(before, rows), time(bind, rows), time(prepare, rows));
+    }
+
+    private static double time(Runnable pass, int rows) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) pass.run();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < TIMED_ROUNDS; i++) pass.run();
+        return (double) (SystemClock.elapsedRealtimeNanos() - start) / TIMED_ROUNDS / rows;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Binds now
+    // ─────────────────────────────────────────────────────────
+
+    private static int bind(SOSAlert alert) {
+        return alert.getCustomerName().length() + alert.getFormattedLocation().length()
+            + alert.getFormattedDateTime().length() + alert.getDisplayResolvedBy().length()
+            + alert.getDisplaySerial().length();
+    }
+
+    private static int bind(DeviceLocation location) {
+        return location.getSerialNumber().length() + location.getDisplayCustomerName().length()
+            + location.getFormattedLongitude().length() + location.getFormattedLatitude().length()
+            + location.getFormattedDateTime().length();
+    }
+
+    private static int bind(CustomerDevice device) {
+        return device.getDeviceName().length() + device.getFormattedLastUpdate().length()
+            + device.getFormattedLocation().length() + device.getCustomerName().length();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Binds before (as the adapters and models used to do it)
+    // ─────────────────────────────────────────────────────────
+
+    private static int legacyBind(SOSAlert alert) {
+        String resolvedAt = alert.getResolvedAt();
+        String dateString = resolvedAt != null && !resolvedAt.isEmpty() && !resolvedAt.equals("null")
+            ? resolvedAt : alert.getAlertTime();
+        String date, time;
+        try {
+            date = new SimpleDateFormat("M/d/yyyy", Locale.US)
+                .format(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).parse(dateString));
+            time = new SimpleDateFormat("h:mm a", Locale.US)
+                .format(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).parse(dateString));
+        } catch (ParseException e) {
+            date = time = "N/A";
+        }
+        String location = String.format(Locale.US, "%.6f, %.6f", alert.getLatitude(), alert.getLongitude());
+        return alert.getCustomerName().length() + location.length() + (date + " " + time).length();
+    }
+
+    private static int legacyBind(DeviceLocation location) {
+        String dateTime = location.getDateTime();
+        Date date = null;
+        for (SimpleDateFormat format : new SimpleDateFormat[]{
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()),
+                new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault()),
+                new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault())}) {
+            try {
+                date = format.parse(dateTime);
+                if (date != null) break;
+            } catch (ParseException e) {
+                // Try next format
+            }
+        }
+        String formatted = date != null
+            ? new SimpleDateFormat("MM/dd/yyyy hh:mm a", Locale.getDefault()).format(date) : dateTime;
+        return formatted.length() + String.valueOf(location.getLatitude()).length()
+            + String.valueOf(location.getLongitude()).length();
+    }
+
+    private static int legacyBind(CustomerDevice device) {
+        String location = String.format("%.5f, %.5f", device.getLatitude(), device.getLongitude());
+        int minutes = device.getMinutesAgo();
+        String lastUpdate = minutes < 60 ? minutes + " minutes ago" : minutes / 60 + " hours ago";
+        return location.length() + ("Last Update: " + lastUpdate).length();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Synthetic rows
+    // ─────────────────────────────────────────────────────────
+
+    private static String timestamp(int i) {
+        return String.format(Locale.US, "2025-%02d-%02d %02d:%02d:%02d",
+            1 + i % 12, 1 + i % 28, i % 24, i % 60, (i * 7) % 60);
+    }
+
+    private static SOSAlert alert(int i) {
+        return new SOSAlert(i, "TX-" + (100_000 + i), i, "Customer " + i, "0917" + i,
+            14.5 + i * 1e-4, 121.0 + i * 1e-4, 80, -70, timestamp(i), timestamp(i + 1), "Staff",
+            timestamp(i + 2), "Resolver " + i % 5, "");
+    }
+
+    /** A fresh alert, so the constructor's precompute is what gets timed. */
+    private static SOSAlert copy(SOSAlert a) {
+        return new SOSAlert(a.getId(), a.getTransmitterSerial(), a.getAssignmentId(), a.getCustomerName(),
+            a.getCustomerContact(), a.getLatitude(), a.getLongitude(), a.getBatteryPercent(), a.getRssi(),
+            a.getAlertTime(), a.getAcknowledgedAt(), a.getAcknowledgedByName(), a.getResolvedAt(),
+            a.getResolvedByName(), a.getResolutionNotes());
+    }
+
+    private static DeviceLocation location(int i) {
+        DeviceLocation location = new DeviceLocation();
+        location.setId(i);
+        location.setSerialNumber("TX-" + (100_000 + i));
+        location.setCustomerName("Customer " + i);
+        location.setLatitude(14.5 + i * 1e-4);
+        location.setLongitude(121.0 + i * 1e-4);
+        location.setDateTime(timestamp(i));
+        location.prepareDisplay();
+        return location;
+    }
+
+    private static CustomerDevice device(int i) {
+        CustomerDevice device = new CustomerDevice();
+        device.setAssignmentId(i);
+        device.setDeviceName("Device " + i);
+        device.setCustomerName("Customer " + i);
+        device.setLatitude(14.5 + i * 1e-4);
+        device.setLongitude(121.0 + i * 1e-4);
+        device.setLastUpdate(timestamp(i));
+        device.setMinutesAgo(i % 180);
+        device.prepareDisplay();
+        return device;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.link;
+
+import android.app.Activity;
+import android.app.AlertDialog;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * Debug-build dialog with the networking state: data mode, lanes, caches,
+ * outbox, sync and prefetch. Long-press the dashboard greeting to open it.
+ *
+ * "Simulate network" pins {@link NetworkQuality} to one class, so the reduced
+ * and minimal behaviour (page sizes, poll rate, images, map tiles) can be
+ * tried on a good connection. "Tools" has the per-endpoint
+ * {@link NetworkTelemetry} (with CSV export for field investigations), the
+ * {@link FaultInjector} for trying the {@link RequestPolicy} against a failing
+ * backend, and the on-device benchmarks, including a scroll through the
+ * paged activity list ({@link ScrollBenchmark}) and the per-row bind cost
+ * ({@link BindBenchmark}).
+ */
+public final class DebugPanel {
+
+    private static final String TAG = "DebugPanel";
+
+    private static final int BENCHMARK_ROWS = 500;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static final String[] TOOLS = {
+        "Telemetry", "Export telemetry", "Inject faults", "Benchmark: wire format",
+        "Benchmark: telemetry overhead", "Benchmark: activity scroll", "Benchmark: row binding"
+    };
+
+    private static final String[] SIMULATE_CHOICES = {"Auto (measured)", "Full", "Reduced", "Minimal"};
+
+    private DebugPanel() {
+    }
+
+    public static boolean isEnabled(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    public static void show(Context context) {
+        new AlertDialog.Builder(context)
+            .setTitle("Network debug")
+            .setMessage(buildReport(context))
+            .setPositiveButton("Close", null)
+            .setNeutralButton("Simulate network", (dialog, which) -> showSimulate(context))
+            .setNegativeButton("Tools", (dialog, which) -> showTools(context))
+            .show();
+    }
+
+    private static void showTools(Context context) {
+        new AlertDialog.Builder(context)
+            .setTitle("Tools")
+            .setItems(TOOLS, (dialog, which) -> {
+                switch (which) {
+                    case 0:
+                        showTelemetry(context);
+                        break;
+                    case 1:
+                        exportTelemetry(context);
+                        break;
+                    case 2:
+                        showFaults(context);
+                        break;
+                    case 3:
+                        runInBackground(context, "Wire format", () -> WireFormatBenchmark.run(BENCHMARK_ROWS));
+                        break;
+                    case 4:
+                        runInBackground(context, "Telemetry overhead", TelemetryBenchmark::run);
+                        break;
+                    case 5:
+                        DeviceLocationActivity.startScrollBenchmark(context);
+                        break;
+                    default:
+                        runInBackground(context, "Row binding", () -> BindBenchmark.run(BENCHMARK_ROWS));
+                        break;
+                }
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private static void showFaults(Context context) {
+        ApiClient.getInstance(context);   // installs the injector
+        FaultInjector injector = FaultInjector.get();
+        FaultInjector.Fault[] faults = FaultInjector.Fault.values();
+        String[] names = new String[faults.length];
+        for (int i = 0; i < faults.length; i++) {
+            names[i] = faults[i].name();
+        }
+
+        new AlertDialog.Builder(context)
+            .setTitle("Inject faults")
+            .setSingleChoiceItems(names, injector.getFault().ordinal(), (dialog, which) -> {
+                injector.setFault(faults[which]);
+                dialog.dismiss();
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private static void showTelemetry(Context context) {
+        new AlertDialog.Builder(context)
+            .setTitle("Telemetry")
+            .setMessage(ApiClient.getInstance(context).getTelemetry().getStats())
+            .setPositiveButton("Close", null)
+            .setNeutralButton("Export", (dialog, which) -> exportTelemetry(context))
+            .show();
+    }
+
+    /** Writes the telemetry to app-specific external storage, which needs no permission. */
+    private static void exportTelemetry(Context context) {
+        NetworkTelemetry telemetry = ApiClient.getInstance(context).getTelemetry();
+        File dir = context.getExternalFilesDir("telemetry");
+        if (dir == null) dir = new File(context.getFilesDir(), "telemetry");
+        File file = new File(dir, "telemetry-" + System.currentTimeMillis() + ".csv");
+
+        runInBackground(context, "Export", () -> {
+            if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+                throw new IOException("Cannot create " + file.getParent());
+            }
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                telemetry.export(out);
+            }
+            return "Saved to " + file.getAbsolutePath();
+        });
+    }
+
+    private static void runInBackground(Context context, String title, Callable<String> task) {
+        Toast.makeText(context, title + "…", Toast.LENGTH_SHORT).show();
+        new Thread(() -> {
+            String report;
+            try {
+                report = task.call();
+            } catch (Exception e) {
+                Log.e(TAG, title + " failed", e);
+                report = "Failed: " + e;
+            }
+            String message = report;
+            MAIN_HANDLER.post(() -> {
+                if (context instanceof Activity && ((Activity) context).isFinishing()) return;
+                new AlertDialog.Builder(context)
+                    .setTitle(title)
+                    .setMessage(message)
+                    .setPositiveButton("Close", null)
+                    .show();
+            });
+        }, "DebugPanel").start();
+    }
+
+    private static void showSimulate(Context context) {
+        NetworkQuality quality = NetworkQuality.getInstance(context);
+        NetworkQuality.Mode pinned = quality.getOverride();
+        int checked = pinned == null ? 0 : pinned.ordinal() + 1;
+
+        new AlertDialog.Builder(context)
+            .setTitle("Simulate network")
+            .setSingleChoiceItems(SIMULATE_CHOICES, checked, (dialog, which) -> {
+                quality.setOverride(which == 0 ? null : NetworkQuality.Mode.values()[which - 1]);
+                dialog.dismiss();
+                show(context);
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private static String buildReport(Context context) {
+        ApiClient client = ApiClient.getInstance(context);
+        return section("Connection", NetworkQuality.getInstance(context).getStats())
+            + section("Lanes",      client.getLaneStats())
+            + section("HTTP cache", client.getCacheStats().getStats())
+            + section("Coalescing", client.getCoalescer().getStats())
+            + section("Wire bytes", client.getWireStats().getStats())
+            + section("Breakers",   client.getPolicy().getStats())
+            + section("Warm-up",    ConnectionWarmer.getInstance(context).getStats())
+            + section("Outbox",     Outbox.getInstance(context).getStats())
+            + section("Sync",       SyncEngine.getInstance(context).getStats())
+            + section("Prefetch",   Prefetcher.getInstance(context).getStats()).trim();
+    }
+
+    private static String section(String title, String body) {
+        return "── " + title + " ──\n" + body + "\n\n";
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.link;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for a misbehaving backend, in front of the real connection. Off
+ * unless picked under "Inject faults" in {@link DebugPanel}. It lets the
+ * {@link RequestPolicy} timeouts, retries and breaker, and the outbox, be
+ * exercised without touching the server.
+ *
+ * Debug builds only; the release FaultInjector installs nothing.
+ */
+class FaultInjector extends BaseHttpStack {
+
+    private static final String TAG = "FaultInjector";
+
+    private static final int  FLAKY_PERCENT = 50;
+    private static final long SLOW_MS       = 3_000;
+
+    public enum Fault { NONE, DOWN_503, TIMEOUTS, REFUSED, SLOW, FLAKY }
+
+    private static volatile FaultInjector installed;
+
+    private final BaseHttpStack delegate;
+    private volatile Fault fault = Fault.NONE;
+
+    FaultInjector(BaseHttpStack delegate) {
+        this.delegate = delegate;
+    }
+
+    /** Put an injector in front of {@code delegate}; {@link ApiClient} calls this once. */
+    static BaseHttpStack install(BaseHttpStack delegate) {
+        installed = new FaultInjector(delegate);
+        return installed;
+    }
+
+    /** The injector in the shared network stack, or null before the first {@link ApiClient}. */
+    static FaultInjector get() {
+        return installed;
+    }
+
+    void setFault(Fault fault) {
+        Log.w(TAG, "Injecting " + fault);
+        this.fault = fault;
+    }
+
+    Fault getFault() {
+        return fault;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        switch (fault) {
+            case DOWN_503:
+                return unavailable();
+            case TIMEOUTS:
+                SystemClock.sleep(request.getTimeoutMs());
+                throw new SocketTimeoutException("Injected timeout");
+            case REFUSED:
+                throw new ConnectException("Injected connection refused");
+            case SLOW:
+                SystemClock.sleep(SLOW_MS);
+                break;
+            case FLAKY:
+                if (ThreadLocalRandom.current().nextInt(100) < FLAKY_PERCENT) return unavailable();
+                break;
+            default:
+                break;
+        }
+        return delegate.executeRequest(request, additionalHeaders);
+    }
+
+    private static HttpResponse unavailable() {
+        byte[] body = "{\"success\":false,\"message\":\"Injected 503\"}".getBytes(StandardCharsets.UTF_8);
+        return new HttpResponse(503, Collections.emptyList(), body.length, new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.link;
+
+import android.app.Activity;
+import android.app.AlertDialog;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scrolls a {@link Pager} list at a steady reading speed, on this device and
+ * network, and reports its stalls per 1,000 rows: how often the user would
+ * have hit the end of the loaded rows and waited. Run from {@link DebugPanel},
+ * which opens DeviceLocationActivity with EXTRA_SCROLL_BENCHMARK.
+ */
+final class ScrollBenchmark implements Choreographer.FrameCallback {
+
+    private static final int  ROWS            = 1_000;
+    private static final int  ROWS_PER_SECOND = 25;
+    private static final long TIMEOUT_MS      = 3 * 60_000;
+
+    private final Activity     activity;
+    private final RecyclerView recyclerView;
+    private final Pager<?>     pager;
+    private final long         startedAt = SystemClock.elapsedRealtime();
+    private long   lastFrameNanos = 0;
+    private double carryPx        = 0;
+
+    private ScrollBenchmark(Activity activity, RecyclerView recyclerView, Pager<?> pager) {
+        this.activity     = activity;
+        this.recyclerView = recyclerView;
+        this.pager        = pager;
+    }
+
+    static void start(Activity activity, RecyclerView recyclerView, Pager<?> pager) {
+        pager.resetStats();
+        Choreographer.getInstance().postFrameCallback(new ScrollBenchmark(activity, recyclerView, pager));
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (activity.isFinishing()) return;
+
+        long elapsed = SystemClock.elapsedRealtime() - startedAt;
+        if (pager.getRowsScrolled() >= ROWS || pager.isAtEnd() || elapsed > TIMEOUT_MS) {
+            finish(elapsed);
+            return;
+        }
+
+        View row = recyclerView.getChildAt(0);
+        if (row != null && lastFrameNanos != 0) {
+            carryPx += row.getHeight() * ROWS_PER_SECOND * (frameTimeNanos - lastFrameNanos) / 1e9;
+            int px = (int) carryPx;
+            carryPx -= px;
+            recyclerView.scrollBy(0, px);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void finish(long elapsedMs) {
+        String ending = pager.getRowsScrolled() >= ROWS ? ""
+            : pager.isAtEnd() ? "Reached the end of the data\n" : "Timed out\n";
+        new AlertDialog.Builder(activity)
+            .setTitle("Scroll benchmark")
+            .setMessage(ending + ROWS_PER_SECOND + " rows/s for " + elapsedMs / 1000 + " s\n\n" + pager.getStats())
+            .setPositiveButton("Close", null)
+            .show();
+    }
+}
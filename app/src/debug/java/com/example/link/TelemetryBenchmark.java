@@ -0,0 +1,52 @@
+package com.example.link;
+
+import android.os.SystemClock;
+
+import java.util.Locale;
+
+/**
+ * Cost of the telemetry bookkeeping per HTTP attempt, on this device: the
+ * endpoint lookup {@link TelemetryStack} does plus {@link NetworkTelemetry#record}.
+ * Run from {@link DebugPanel}.
+ *
+ * Records into a private instance, spread over ten ApiConfig endpoints, and
+ * compares the per-call time with a fast (50 ms) request.
+ */
+final class TelemetryBenchmark {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int TIMED_CALLS  = 200_000;
+    private static final int FAST_REQUEST_MS = 50;
+
+    private static final String[] URLS = {
+        ApiConfig.LOGIN_URL, ApiConfig.GET_DEVICES_URL + "?staff_id=3",
+        ApiConfig.GET_DEVICE_ACTIVITIES + "?user_id=7&page=1&limit=20", ApiConfig.GET_ACTIVE_CUSTOMERS_URL + "?user_id=7",
+        ApiConfig.GET_RESOLVED_SOS_URL + "?user_id=7", ApiConfig.GET_RESOLVED_SOS_COUNT_URL + "?user_id=7",
+        ApiConfig.ACKNOWLEDGE_SOS_URL, ApiConfig.RESOLVE_SOS_URL, ApiConfig.UPDATE_PROFILE_URL,
+        ApiConfig.GET_BASE_STATIONS_URL
+    };
+
+    private TelemetryBenchmark() {
+    }
+
+    /** Blocks for a moment; call off the main thread. */
+    static String run() {
+        NetworkTelemetry telemetry = new NetworkTelemetry();
+        record(telemetry, WARMUP_CALLS);
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        record(telemetry, TIMED_CALLS);
+        double nsPerCall = (double) (SystemClock.elapsedRealtimeNanos() - start) / TIMED_CALLS;
+
+        return String.format(Locale.US,
+            "Telemetry: %.0f ns per attempt\n%.5f%% of a %d ms request",
+            nsPerCall, nsPerCall / (FAST_REQUEST_MS * 1e6) * 100, FAST_REQUEST_MS);
+    }
+
+    private static void record(NetworkTelemetry telemetry, int calls) {
+        for (int i = 0; i < calls; i++) {
+            telemetry.record(WireStats.endpointOf(URLS[i % URLS.length]), 200, NetworkTelemetry.ErrorClass.NONE,
+                40 + i % 300, 60 + i % 900, i % 2_000, 1_000 + i % 50_000, 0);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.link;
+
+import android.os.Debug;
+import android.os.SystemClock;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * JSON vs CBOR for the device activity list: payload size, decode time and
+ * allocations per decode, on this device. Run from {@link DebugPanel}.
+ *
+ * Both bodies carry the same synthetic rows and go through
+ * {@link ApiParsers#DEVICE_ACTIVITIES}, so the numbers include building the
+ * models. The CBOR body uses the columnar row layout. Allocation counts come
+ * from the runtime's per-thread counters and read 0 where those are not kept.
+ */
+final class WireFormatBenchmark {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int TIMED_RUNS  = 20;
+
+    private static final String[] COLUMNS = {
+        "id", "serial_number", "latitude", "longitude", "recorded_at", "customer_name",
+        "customer_contact", "battery_percent", "device_owner", "assigned_by",
+        "assigned_by_name", "assigned_at"
+    };
+
+    private WireFormatBenchmark() {
+    }
+
+    /** Blocks for a while; call off the main thread. */
+    static String run(int rows) throws Exception {
+        byte[] json = encodeJson(rows);
+        byte[] cbor = encodeCbor(rows);
+        return "Rows: " + rows + "\n"
+            + measure("JSON", json) + "\n"
+            + measure("CBOR", cbor);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String measure(String label, byte[] body) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            ApiParsers.DEVICE_ACTIVITIES.parse(body, "UTF-8");
+        }
+
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            ApiParsers.DEVICE_ACTIVITIES.parse(body, "UTF-8");
+        }
+        long elapsedNs = SystemClock.elapsedRealtimeNanos() - start;
+        Debug.stopAllocCounting();
+
+        return String.format(Locale.US, "%s: %,d bytes, %.2f ms, %,d allocs (%,d KB) per decode",
+            label, body.length,
+            elapsedNs / 1e6 / TIMED_RUNS,
+            Debug.getThreadAllocCount() / TIMED_RUNS,
+            Debug.getThreadAllocSize() / TIMED_RUNS / 1024);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Sample bodies
+    // ─────────────────────────────────────────────────────────
+
+    private static Object[] row(int i) {
+        return new Object[]{
+            i + 1,
+            String.format(Locale.US, "LNK-%06d", 100_000 + i),
+            14.5995 + i * 0.000137,
+            120.9842 - i * 0.000211,
+            String.format(Locale.US, "2024-03-%02d %02d:%02d:%02d", 1 + i % 28, i % 24, i % 60, (i * 7) % 60),
+            "Customer " + i,
+            String.format(Locale.US, "0917%07d", i),
+            i % 101,
+            "Owner " + (i % 13),
+            1 + i % 5,
+            "Staff " + (1 + i % 5),
+            String.format(Locale.US, "2024-02-%02d 08:00:00", 1 + i % 28)
+        };
+    }
+
+    private static byte[] encodeJson(int rows) throws JSONException {
+        JSONArray data = new JSONArray();
+        for (int i = 0; i < rows; i++) {
+            Object[] values = row(i);
+            JSONObject item = new JSONObject();
+            for (int c = 0; c < COLUMNS.length; c++) {
+                item.put(COLUMNS[c], values[c]);
+            }
+            data.put(item);
+        }
+        return new JSONObject()
+            .put("success", true)
+            .put("total_items", rows)
+            .put("data", data)
+            .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeCbor(int rows) {
+        CborWriter out = new CborWriter();
+        out.map(3);
+        out.text("success").bool(true);
+        out.text("columns").array(COLUMNS.length);
+        for (String column : COLUMNS) {
+            out.text(column);
+        }
+        out.text("data").array(rows);
+        for (int i = 0; i < rows; i++) {
+            Object[] values = row(i);
+            out.array(values.length);
+            for (Object value : values) {
+                if (value instanceof Integer) out.integer((Integer) value);
+                else if (value instanceof Double) out.real((Double) value);
+                else out.text((String) value);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** Just enough of an encoder for the sample body. */
+    private static final class CborWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CborWriter map(int pairs)   { head(5, pairs); return this; }
+        CborWriter array(int items) { head(4, items); return this; }
+
+        CborWriter bool(boolean value) {
+            out.write(value ? 0xF5 : 0xF4);
+            return this;
+        }
+
+        CborWriter integer(long value) {
+            if (value >= 0) head(0, value);
+            else head(1, -1 - value);
+            return this;
+        }
+
+        CborWriter real(double value) {
+            out.write(0xFB);
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+            return this;
+        }
+
+        CborWriter text(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            head(3, utf8.length);
+            out.write(utf8, 0, utf8.length);
+            return this;
+        }
+
+        private void head(int major, long argument) {
+            int type = major << 5;
+            if (argument < 24) {
+                out.write(type | (int) argument);
+            } else if (argument < 0x100) {
+                out.write(type | 24);
+                out.write((int) argument);
+            } else if (argument < 0x10000) {
+                out.write(type | 25);
+                out.write((int) (argument >>> 8));
+                out.write((int) argument);
+            } else {
+                out.write(type | 26);
+                for (int shift = 24; shift >= 0; shift -= 8) {
+                    out.write((int) (argument >>> shift));
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.android.volley;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code original} as sent on the wire, with its body encoded up front by
+ * com.example.link.CompressionStack. Everything but the body and headers is
+ * the original's: parsing and delivery go to it too.
+ *
+ * It lives in Volley's package because those two methods are protected in
+ * {@link Request}; from here they can be called directly.
+ */
+public final class EncodedRequest<T> extends Request<T> {
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private final Request<T> original;
+    private final byte[]     body;
+    private final String     encoding;
+
+    /** @param encoding Content-Encoding of {@code body}, or null when sent as is */
+    public EncodedRequest(Request<T> original, byte[] body, String encoding) {
+        super(original.getMethod(), original.getUrl(), original.getErrorListener());
+        this.original = original;
+        this.body     = body;
+        this.encoding = encoding;
+        setRetryPolicy(original.getRetryPolicy());
+        setTag(original.getTag());
+    }
+
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        if (encoding == null) return original.getHeaders();
+        Map<String, String> headers = new HashMap<>(original.getHeaders());
+        headers.put(CONTENT_ENCODING, encoding);
+        return headers;
+    }
+
+    @Override
+    public String getBodyContentType() {
+        return original.getBodyContentType();
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return original.isCanceled();
+    }
+
+    @Override
+    public Priority getPriority() {
+        return original.getPriority();
+    }
+
+    @Override
+    protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        return original.parseNetworkResponse(response);
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        original.deliverResponse(response);
+    }
+}
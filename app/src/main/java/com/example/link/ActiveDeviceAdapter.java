@@ -0,0 +1,100 @@
+package com.example.link;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatButton;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Objects;
+
+/** Current assignments in CustomerActivity, keyed by assignment ID; lists are diffed off the main thread. */
+public class ActiveDeviceAdapter extends ListAdapter<CustomerDevice, ActiveDeviceAdapter.ViewHolder> {
+
+    public interface OnEndClickListener {
+        void onEndClick(CustomerDevice device);
+    }
+
+    private OnEndClickListener listener;
+
+    public ActiveDeviceAdapter() {
+        super(DIFF);
+    }
+
+    public void setOnEndClickListener(OnEndClickListener listener) {
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.item_active_device, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        holder.btnEnd.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onEndClick(getItem(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView        tvUserName;
+        final TextView        tvSerial;
+        final TextView        tvContact;
+        final TextView        tvAssignedBy;
+        final TextView        tvStatus;
+        final AppCompatButton btnEnd;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvUserName   = itemView.findViewById(R.id.tvUserName);
+            tvSerial     = itemView.findViewById(R.id.tvDeviceSerial);
+            tvContact    = itemView.findViewById(R.id.tvContact);
+            tvAssignedBy = itemView.findViewById(R.id.tvAssignedBy);
+            tvStatus     = itemView.findViewById(R.id.tvStatus);
+            btnEnd       = itemView.findViewById(R.id.btnEndAssignment);
+        }
+
+        void bind(CustomerDevice device) {
+            tvUserName.setText(device.getCustomerName());
+            tvSerial.setText(device.getSerialNumber());
+            tvContact.setText(device.getCustomerContact());
+            tvAssignedBy.setText(device.getAssignedBy());
+
+            boolean registered = "registered".equals(device.getStatus());
+            tvStatus.setText(registered ? "Active" : "Offline");
+            tvStatus.setTextColor(ContextCompat.getColor(itemView.getContext(),
+                registered ? R.color.green_600 : R.color.gray_500));
+        }
+    }
+
+    static final DiffUtil.ItemCallback<CustomerDevice> DIFF = new DiffUtil.ItemCallback<CustomerDevice>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return oldItem.getAssignmentId() == newItem.getAssignmentId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return Objects.equals(oldItem.getCustomerName(), newItem.getCustomerName())
+                && Objects.equals(oldItem.getSerialNumber(), newItem.getSerialNumber())
+                && Objects.equals(oldItem.getCustomerContact(), newItem.getCustomerContact())
+                && Objects.equals(oldItem.getAssignedBy(), newItem.getAssignedBy())
+                && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+}
@@ -0,0 +1,179 @@
+package com.example.link;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Decides how long the dashboard waits before its next poll.
+ *
+ *   - SOS active or acknowledged      → SOS_INTERVAL_MS (a few seconds)
+ *   - payload changed since last poll → BASE_INTERVAL_MS
+ *   - payload unchanged N polls       → BASE × 2^N, capped at MAX_INTERVAL_MS, ± jitter
+ *   - screen / app in background      → stop (no poll scheduled)
+ *
+ * Outside SOS the interval is stretched on a slow link ({@link NetworkQuality.Mode#slowdown}).
+ * An FCM SOS cuts a long back-off short: the schedulers of resumed screens are
+ * asked for a new delay straight away ({@link RefreshScheduler#reschedule()}).
+ *
+ * {@link #nextDelayMs()} only reads state, so asking again gives the same answer
+ * (up to jitter); the unchanged streaks are counted in {@link #onPayload}.
+ *
+ * Every decision is logged under the "AdaptiveRefresh" tag with its reason so the
+ * constants can be tuned from logcat.
+ */
+public class AdaptiveRefreshPolicy implements RefreshScheduler.IntervalPolicy {
+
+    private static final String TAG = "AdaptiveRefresh";
+
+    public static final long   BASE_INTERVAL_MS     = 30_000;      // 30 s
+    public static final long   MAX_INTERVAL_MS      = 5 * 60_000;  // 5 min
+    public static final long   SOS_INTERVAL_MS      = 5_000;       // 5 s
+    public static final long   SOS_ALERT_WINDOW_MS  = 10 * 60_000; // an FCM SOS counts as active for 10 min
+    private static final double JITTER_FRACTION     = 0.2;         // ± 20 %
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    // Set by MyFirebaseMessagingService; read on the next decision.
+    private static volatile long lastSosAlertAt = 0;
+
+    // Policies of resumed screens (main thread only)
+    private static final Set<AdaptiveRefreshPolicy> foregroundPolicies = new HashSet<>();
+
+    private final Map<String, Integer> lastPayloadHashes = new HashMap<>();
+    private final Map<String, Integer> unchangedCounts   = new HashMap<>();   // polls in a row, per data set
+    private final Random random = new Random();
+    private NetworkQuality   networkQuality;
+    private RefreshScheduler scheduler;
+
+    private boolean sosInPayload = false;
+    private boolean foreground   = true;
+
+    private long   lastDelayMs = BASE_INTERVAL_MS;
+    private String lastReason  = "initial";
+
+    /** Called from the FCM service when an SOS alert arrives; any thread. */
+    public static void onSosAlertReceived() {
+        lastSosAlertAt = SystemClock.elapsedRealtime();
+        MAIN_HANDLER.post(() -> {
+            for (AdaptiveRefreshPolicy policy : new ArrayList<>(foregroundPolicies)) {
+                Log.d(TAG, "SOS alert – rescheduling");
+                policy.scheduler.reschedule();
+            }
+        });
+    }
+
+    /** Forget the last FCM alert; for tests. */
+    static void resetSosAlert() {
+        lastSosAlertAt = 0;
+    }
+
+    /**
+     * Record the result of one data set's fetch.
+     *
+     * @param dataSet     name of the data set (same key used with RefreshScheduler)
+     * @param payloadHash hash of the fields that matter for display
+     */
+    public void onPayload(String dataSet, int payloadHash) {
+        Integer previous  = lastPayloadHashes.put(dataSet, payloadHash);
+        Integer unchanged = unchangedCounts.get(dataSet);
+        boolean same      = previous != null && previous == payloadHash;
+        unchangedCounts.put(dataSet, same ? (unchanged == null ? 0 : unchanged) + 1 : 0);
+    }
+
+    /** Polls in a row in which no data set changed. */
+    private int unchangedStreak() {
+        int streak = Integer.MAX_VALUE;
+        for (int unchanged : unchangedCounts.values()) {
+            streak = Math.min(streak, unchanged);
+        }
+        return unchangedCounts.isEmpty() ? 0 : streak;
+    }
+
+    /** Stretch non-SOS intervals when the connection is poor. */
+    public void setNetworkQuality(NetworkQuality networkQuality) {
+        this.networkQuality = networkQuality;
+    }
+
+    /** Whether the last customers payload contained an active or acknowledged SOS. */
+    public void setSosActive(boolean active) {
+        sosInPayload = active;
+    }
+
+    public boolean isSosActive() {
+        return sosInPayload
+            || (lastSosAlertAt > 0
+                && SystemClock.elapsedRealtime() - lastSosAlertAt < SOS_ALERT_WINDOW_MS);
+    }
+
+    @Override
+    public void attach(RefreshScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void onForegroundChanged(boolean foreground) {
+        this.foreground = foreground;
+        if (foreground && scheduler != null) {
+            foregroundPolicies.add(this);
+        } else {
+            foregroundPolicies.remove(this);
+        }
+        if (!foreground) {
+            log(-1, "backgrounded – polling stopped");
+        }
+    }
+
+    @Override
+    public long nextDelayMs() {
+        int    unchangedStreak = unchangedStreak();
+        long   delay;
+        String reason;
+
+        if (!foreground) {
+            delay  = -1;
+            reason = "backgrounded – polling stopped";
+        } else if (isSosActive()) {
+            delay  = SOS_INTERVAL_MS;
+            reason = sosInPayload ? "SOS active in payload" : "recent SOS alert";
+        } else if (unchangedStreak == 0) {
+            delay  = BASE_INTERVAL_MS;
+            reason = "payload changed";
+        } else {
+            long backoff = BASE_INTERVAL_MS << Math.min(unchangedStreak, 10);
+            delay  = withJitter(Math.min(backoff, MAX_INTERVAL_MS));
+            reason = "payload unchanged x" + unchangedStreak;
+        }
+
+        NetworkQuality.Mode mode = networkQuality != null ? networkQuality.getMode() : NetworkQuality.Mode.FULL;
+        if (delay > 0 && !isSosActive() && mode != NetworkQuality.Mode.FULL) {
+            delay  *= mode.slowdown();
+            reason += ", " + mode + " network";
+        }
+
+        log(delay, reason);
+        return delay;
+    }
+
+    private long withJitter(long delay) {
+        double factor = 1.0 + (random.nextDouble() * 2 - 1) * JITTER_FRACTION;
+        return Math.round(delay * factor);
+    }
+
+    private void log(long delay, String reason) {
+        lastDelayMs = delay;
+        lastReason  = reason;
+        Log.d(TAG, "next=" + delay + "ms reason=" + reason);
+    }
+
+    public long getLastDelayMs()  { return lastDelayMs; }
+    public String getLastReason() { return lastReason; }
+}
@@ -0,0 +1,240 @@
+package com.example.link;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Request;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Future returned by {@link LinkApi}.
+ *
+ * Completes on the main thread. Cancelling it cancels the underlying Volley
+ * request, and cancelling a call built with {@link #combine}, {@link #allOf},
+ * {@link #thenCall} or {@link #orDefault} cancels every call it was built from. If one call in a
+ * combine/allOf fails, the others are cancelled. Plain CompletableFuture stages
+ * (thenApply, …) do not propagate cancellation upstream, so compose with these
+ * helpers when that matters.
+ */
+public class ApiCall<T> extends CompletableFuture<T> {
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final List<CompletableFuture<?>> upstream = new CopyOnWriteArrayList<>();
+    private volatile Request<?> request;
+    private volatile Consumer<T> interim;
+    private T latest;   // main thread
+
+    // ─────────────────────────────────────────────────────────
+    //  Wiring (LinkApi)
+    // ─────────────────────────────────────────────────────────
+
+    void bind(Request<?> request) {
+        this.request = request;
+    }
+
+    /** The Volley request behind this call, or null for a composed call. */
+    Request<?> getRequest() {
+        return request;
+    }
+
+    /** Listener for an ApiRequest; may be called twice with stale-while-revalidate. */
+    void onResult(T value) {
+        latest = value;
+        Request<?> source = request;
+        Consumer<T> consumer = interim;
+        if (consumer != null && !isDone()
+                && source instanceof ApiRequest && ((ApiRequest<?>) source).isAwaitingRefresh()) {
+            consumer.accept(value);
+        }
+    }
+
+    void onError(VolleyError error) {
+        completeExceptionally(error);
+    }
+
+    /** ApiRequest completion: settle with the last delivered value. */
+    void onFinished() {
+        if (isDone()) return;
+        if (latest != null) {
+            complete(latest);
+        } else {
+            // Finished without a response or error: the request was cancelled
+            super.cancel(false);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Options
+    // ─────────────────────────────────────────────────────────
+
+    /**
+     * Receive a cached value that is being revalidated, before the call
+     * completes with the fresh one. Set it right after the call is created.
+     */
+    public ApiCall<T> onInterim(Consumer<T> consumer) {
+        this.interim = consumer;
+        return this;
+    }
+
+    /** Fail with a {@link TimeoutError} and cancel the request if not done within {@code timeoutMs}. */
+    public ApiCall<T> withTimeout(long timeoutMs) {
+        Runnable timeout = () -> {
+            if (completeExceptionally(new TimeoutError())) {
+                cancelUpstream();
+            }
+        };
+        MAIN_HANDLER.postDelayed(timeout, timeoutMs);
+        whenComplete((value, error) -> MAIN_HANDLER.removeCallbacks(timeout));
+        return this;
+    }
+
+    /**
+     * {@link #withTimeout}, with the clock started when {@link ApiClient} sends
+     * the request rather than now, so a BACKGROUND request held behind CRITICAL
+     * traffic does not spend its time waiting. Call it right after the call is created.
+     */
+    public ApiCall<T> withTimeoutOnceSent(long timeoutMs) {
+        Request<?> source = request;
+        if (source instanceof ApiRequest) {
+            ((ApiRequest<?>) source).setOnDispatched(() -> withTimeout(timeoutMs));
+        } else {
+            withTimeout(timeoutMs);
+        }
+        return this;
+    }
+
+    /** A call that completes with {@code fallback} instead of failing (cancellation still propagates). */
+    public ApiCall<T> orDefault(T fallback) {
+        ApiCall<T> out = new ApiCall<>();
+        out.upstream.add(this);
+        whenComplete((value, error) -> {
+            if (error == null) {
+                out.complete(value);
+            } else if (unwrap(error) instanceof CancellationException) {
+                out.fail(error);
+            } else {
+                out.complete(fallback);
+            }
+        });
+        return out;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            cancelUpstream();
+        }
+        return cancelled;
+    }
+
+    private void fail(Throwable error) {
+        if (completeExceptionally(unwrap(error))) {
+            cancelUpstream();
+        }
+    }
+
+    private void cancelUpstream() {
+        Request<?> source = request;
+        if (source != null) {
+            source.cancel();
+        }
+        for (CompletableFuture<?> call : upstream) {
+            call.cancel(false);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Fan-out / fan-in
+    // ─────────────────────────────────────────────────────────
+
+    /** Run two calls in parallel and combine both results; the first failure cancels the other. */
+    public static <A, B, R> ApiCall<R> combine(ApiCall<A> a, ApiCall<B> b,
+                                               BiFunction<? super A, ? super B, ? extends R> combiner) {
+        ApiCall<R> out = new ApiCall<>();
+        out.upstream.add(a);
+        out.upstream.add(b);
+        a.whenComplete((value, error) -> { if (error != null) out.fail(error); });
+        b.whenComplete((value, error) -> { if (error != null) out.fail(error); });
+        a.thenCombine(b, combiner).whenComplete((value, error) -> {
+            if (error != null) {
+                out.fail(error);
+            } else {
+                out.complete(value);
+            }
+        });
+        return out;
+    }
+
+    /** Completes when every call has completed; the first failure cancels the rest. */
+    public static ApiCall<Void> allOf(ApiCall<?>... calls) {
+        ApiCall<Void> out = new ApiCall<>();
+        for (ApiCall<?> call : calls) {
+            out.upstream.add(call);
+            call.whenComplete((value, error) -> { if (error != null) out.fail(error); });
+        }
+        CompletableFuture.allOf(calls).whenComplete((value, error) -> {
+            if (error != null) {
+                out.fail(error);
+            } else {
+                out.complete(null);
+            }
+        });
+        return out;
+    }
+
+    /** Run {@code next} with this call's value; the result fails if either step does. */
+    public <R> ApiCall<R> thenCall(Function<? super T, ApiCall<R>> next) {
+        ApiCall<R> out = new ApiCall<>();
+        out.upstream.add(this);
+        whenComplete((value, error) -> {
+            if (error != null) {
+                out.fail(error);
+                return;
+            }
+            if (out.isDone()) return; // cancelled in between
+            ApiCall<R> second;
+            try {
+                second = next.apply(value);
+            } catch (RuntimeException e) {
+                out.fail(e);
+                return;
+            }
+            out.upstream.add(second);
+            second.whenComplete((result, secondError) -> {
+                if (secondError != null) {
+                    out.fail(secondError);
+                } else {
+                    out.complete(result);
+                }
+            });
+        });
+        return out;
+    }
+
+    /** A call that is already complete, e.g. for data served locally. */
+    public static <T> ApiCall<T> completed(T value) {
+        ApiCall<T> call = new ApiCall<>();
+        call.complete(value);
+        return call;
+    }
+
+    /** Strip the CompletionException wrappers added by dependent stages. */
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.link;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.android.volley.Cache;
+import com.android.volley.Network;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Process-wide network client.
+ *
+ * Every screen used to call Volley.newRequestQueue(), which started a fresh set of
+ * dispatcher threads and a cold connection to ApiConfig.BASE_URL per screen. This
+ * class owns the queues for the whole app: a bounded dispatcher pool, a single
+ * disk cache and the platform keep-alive connection pool behind HurlStack.
+ *
+ * Always go through here:
+ *     ApiClient.getInstance(context).add(request);
+ *     ApiClient.getInstance(context).add(request, RequestLane.CRITICAL);
+ *
+ * List endpoints use {@link ApiRequest}, which stores responses in the disk cache
+ * and revalidates them with conditional GETs; {@link #getCacheStats()} reports
+ * how often that pays off. Bodies are gzipped both ways by {@link CompressionStack};
+ * {@link #getWireStats()} has the bytes saved per endpoint, and {@link #getTelemetry()}
+ * latency, size and error figures per endpoint from {@link TelemetryStack}.
+ *
+ * Timeouts, retries and the per-endpoint circuit breaker come from
+ * {@link RequestPolicy}, which replaces each request's retry policy when it is
+ * queued. Callers' timeouts only serve until there is latency data. A GET that
+ * is to be retried is queued again here once its delay has passed.
+ *
+ * Lanes ({@link RequestLane}): CRITICAL requests get a separate, uncached queue
+ * with reserved dispatcher threads. BACKGROUND requests are held while any
+ * CRITICAL request is pending and released when the last one finishes;
+ * {@link ApiRequest#setOnDispatched} tells a request when it actually goes out.
+ */
+public class ApiClient {
+
+    private static final String CACHE_DIR          = "volley";
+    private static final int    CACHE_SIZE_BYTES   = 10 * 1024 * 1024; // 10 MB
+    private static final int    DISPATCHER_THREADS = 4;
+    private static final int    CRITICAL_THREADS   = 2;
+
+    // HttpURLConnection keeps idle sockets per host in a process-wide pool;
+    // these raise the per-host limit so parallel screens don't evict each other.
+    private static final String KEEP_ALIVE      = "true";
+    private static final String MAX_CONNECTIONS = "8";
+    // Idle sockets are closed after this; bounds how long a ConnectionWarmer socket lingers
+    private static final String KEEP_ALIVE_MS   = "120000";
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static ApiClient instance;
+    private final RequestQueue     requestQueue;
+    private final RequestQueue     criticalQueue;
+    private final CacheStats       cacheStats = new CacheStats();
+    private final RequestCoalescer coalescer  = new RequestCoalescer();
+    private final WireStats        wireStats  = new WireStats();
+    private final NetworkTelemetry telemetry  = new NetworkTelemetry();
+    private final RequestPolicy    policy     = new RequestPolicy(telemetry);
+    private volatile long          lastSentAt = 0;
+
+    // Lane state (guarded by laneLock)
+    private final Object laneLock = new Object();
+    private final List<Request<?>> heldBackground = new ArrayList<>();
+    private final List<ApiRequest<?>> waitingRetry = new ArrayList<>();
+    private int  criticalPending = 0;
+    private long criticalSent    = 0;
+    private long backgroundHeld  = 0;
+    private long retriesSent     = 0;
+
+    private ApiClient(Context context) {
+        Context appContext = context.getApplicationContext();
+
+        System.setProperty("http.keepAlive",      KEEP_ALIVE);
+        System.setProperty("http.maxConnections", MAX_CONNECTIONS);
+        System.setProperty("http.keepAliveDuration", KEEP_ALIVE_MS);
+
+        // DiskBasedCache evicts least-recently-used entries once CACHE_SIZE_BYTES is reached
+        Cache   cache = new DiskBasedCache(new File(appContext.getCacheDir(), CACHE_DIR), CACHE_SIZE_BYTES);
+        // Debug builds put a FaultInjector in front of the connection; release builds don't
+        BaseHttpStack stack = FaultInjector.install(new HurlStack());
+        Network http  = new BasicNetwork(
+            new CompressionStack(new TelemetryStack(stack, telemetry), wireStats));
+        Network network = request -> {
+            if (request instanceof ConnectionWarmer.WarmUp) {
+                // Only keeps the socket open: no breaker, cache stats or idle time
+                return http.performRequest(request);
+            }
+            policy.beforeSend(request);
+            lastSentAt = SystemClock.elapsedRealtime();
+            NetworkResponse response;
+            try {
+                response = http.performRequest(request);
+            } catch (VolleyError e) {
+                long delayMs = policy.retryDelayMs(request, e);
+                if (delayMs >= 0 && request instanceof ApiRequest) {
+                    ((ApiRequest<?>) request).setRetryDelay(delayMs);   // queued again once finished
+                } else {
+                    policy.onError(request, e);
+                }
+                throw e;
+            }
+            policy.onSuccess(request);
+            lastSentAt = SystemClock.elapsedRealtime();
+            cacheStats.onNetworkResponse(request, response);
+            return response;
+        };
+
+        requestQueue = new RequestQueue(cache, network, DISPATCHER_THREADS);
+        requestQueue.addRequestFinishedListener(request -> {
+            if (!retryLater(request)) onFinished(request);
+        });
+        requestQueue.start();
+
+        criticalQueue = new RequestQueue(new NoCache(), network, CRITICAL_THREADS);
+        criticalQueue.addRequestFinishedListener(request -> {
+            if (retryLater(request)) return;
+            onFinished(request);
+            onCriticalFinished();
+        });
+        criticalQueue.start();
+    }
+
+    public static synchronized ApiClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new ApiClient(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Time since a request last went out or was answered; the pooled socket may
+     * be closed after a while. ConnectionWarmer's HEADs don't count.
+     */
+    public long getIdleMs() {
+        return lastSentAt == 0 ? Long.MAX_VALUE : SystemClock.elapsedRealtime() - lastSentAt;
+    }
+
+    public RequestQueue getRequestQueue() {
+        return requestQueue;
+    }
+
+    /** Queue a request on the INTERACTIVE lane. */
+    public <T> Request<T> add(Request<T> request) {
+        return add(request, RequestLane.INTERACTIVE);
+    }
+
+    /**
+     * Queue a request. An {@link ApiRequest} identical to one already in flight,
+     * or to one answered within the coalescer's freshness window, is not sent
+     * again; it receives that result instead.
+     */
+    public <T> Request<T> add(Request<T> request, RequestLane lane) {
+        if (request instanceof ApiRequest) {
+            ApiRequest<T> apiRequest = (ApiRequest<T>) request;
+            apiRequest.setCacheStats(cacheStats);
+            apiRequest.setCoalescer(coalescer);
+            apiRequest.setLane(lane);
+            if (coalescer.offer(apiRequest)) {
+                apiRequest.onDispatched();
+                return request;
+            }
+        }
+        if (!(request instanceof ConnectionWarmer.WarmUp)) {
+            policy.apply(request);   // a warm-up keeps its single attempt
+        }
+
+        switch (lane) {
+            case CRITICAL:
+                synchronized (laneLock) {
+                    criticalPending++;
+                    criticalSent++;
+                }
+                dispatched(request);
+                return criticalQueue.add(request);
+
+            case BACKGROUND:
+                synchronized (laneLock) {
+                    if (criticalPending > 0) {
+                        heldBackground.add(request);
+                        backgroundHeld++;
+                        return request;
+                    }
+                }
+                dispatched(request);
+                return requestQueue.add(request);
+
+            default:
+                dispatched(request);
+                return requestQueue.add(request);
+        }
+    }
+
+    private void onCriticalFinished() {
+        List<Request<?>> release;
+        synchronized (laneLock) {
+            criticalPending = Math.max(0, criticalPending - 1);
+            if (criticalPending > 0 || heldBackground.isEmpty()) return;
+            release = new ArrayList<>(heldBackground);
+            heldBackground.clear();
+        }
+        for (Request<?> request : release) {
+            if (request.isCanceled()) {
+                onFinished(request);
+            } else {
+                dispatched(request);
+                requestQueue.add(request);
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Retries
+    // ─────────────────────────────────────────────────────────
+
+    /**
+     * On the main thread, once an attempt is finished: if RequestPolicy asked
+     * for a retry, queue the request again after the delay and return true.
+     * Until then it stays pending, and a CRITICAL one keeps BACKGROUND held.
+     */
+    private boolean retryLater(Request<?> request) {
+        if (!(request instanceof ApiRequest)) return false;
+        ApiRequest<?> apiRequest = (ApiRequest<?>) request;
+        long delayMs = apiRequest.takeRetryDelay();
+        if (delayMs < 0) return false;
+
+        synchronized (laneLock) {
+            waitingRetry.add(apiRequest);
+        }
+        MAIN_HANDLER.postDelayed(() -> resend(apiRequest), delayMs);
+        return true;
+    }
+
+    private void resend(ApiRequest<?> request) {
+        synchronized (laneLock) {
+            if (!waitingRetry.remove(request)) return;   // cancelAll() already finished it
+            if (!request.isCanceled()) retriesSent++;
+        }
+        if (request.isCanceled()) {
+            finished(request);
+        } else if (request.getLane() == RequestLane.CRITICAL) {
+            criticalQueue.add(request);
+        } else {
+            requestQueue.add(request);
+        }
+    }
+
+    private void finished(ApiRequest<?> request) {
+        onFinished(request);
+        if (request.getLane() == RequestLane.CRITICAL) {
+            onCriticalFinished();
+        }
+    }
+
+    private static void dispatched(Request<?> request) {
+        if (request instanceof ApiRequest) {
+            ((ApiRequest<?>) request).onDispatched();
+        }
+    }
+
+    // Also called for held requests: they never reached a queue, so no finished listener fires
+    private static void onFinished(Request<?> request) {
+        if (request instanceof ApiRequest) {
+            ((ApiRequest<?>) request).onFinished();   // notifies the scope itself
+        } else {
+            RequestScope.notifyFinished(request);
+        }
+    }
+
+    public void cancelAll(Object tag) {
+        List<Request<?>>    cancelled = new ArrayList<>();
+        List<ApiRequest<?>> retries   = new ArrayList<>();
+        synchronized (laneLock) {
+            Iterator<Request<?>> it = heldBackground.iterator();
+            while (it.hasNext()) {
+                Request<?> request = it.next();
+                if (request.getTag() == tag) {
+                    cancelled.add(request);
+                    it.remove();
+                }
+            }
+            Iterator<ApiRequest<?>> waiting = waitingRetry.iterator();
+            while (waiting.hasNext()) {
+                ApiRequest<?> request = waiting.next();
+                if (request.getTag() == tag) {
+                    retries.add(request);
+                    waiting.remove();
+                }
+            }
+        }
+        for (Request<?> request : cancelled) {
+            request.cancel();
+            onFinished(request);
+        }
+        for (ApiRequest<?> request : retries) {
+            request.cancel();
+            finished(request);
+        }
+        coalescer.cancelAll(tag);
+        requestQueue.cancelAll(tag);
+        criticalQueue.cancelAll(tag);
+    }
+
+    public CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    public WireStats getWireStats() {
+        return wireStats;
+    }
+
+    public NetworkTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    public RequestPolicy getPolicy() {
+        return policy;
+    }
+
+    public String getLaneStats() {
+        synchronized (laneLock) {
+            return "Critical sent: "      + criticalSent    + "\n" +
+                   "Critical pending: "   + criticalPending + "\n" +
+                   "Background held: "    + backgroundHeld  + "\n" +
+                   "Background waiting: " + heldBackground.size() + "\n" +
+                   "Retries sent: "       + retriesSent     + "\n" +
+                   "Retries waiting: "    + waitingRetry.size();
+        }
+    }
+}
@@ -26,6 +26,8 @@ public class ApiConfig {
     public static final String GET_RESOLVED_SOS_URL       = BASE_URL + "get_resolved_sos.php";
     public static final String GET_RESOLVED_SOS_COUNT_URL = BASE_URL + "get_resolved_sos_count.php";
     public static final String RESOLVE_SOS_BY_QR_URL      = BASE_URL + "resolve_sos_by_qr.php";
+    public static final String ACKNOWLEDGE_SOS_URL        = BASE_URL + "acknowledge_sos.php";
+    public static final String RESOLVE_SOS_URL            = BASE_URL + "resolve_sos.php";
 
     // Profile
     public static final String UPDATE_PROFILE_URL = BASE_URL + "update_profile.php";
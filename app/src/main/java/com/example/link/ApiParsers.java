@@ -0,0 +1,652 @@
+package com.example.link;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Response decoders for the list endpoints.
+ *
+ * Each parser turns the raw response bytes into finished, read-only model lists,
+ * display text included (see {@link Timestamps}). They run inside
+ * {@link ApiRequest#parseNetworkResponse} on Volley's dispatcher threads (network
+ * or cache), so the listener on the main thread only binds views.
+ *
+ * Decoding is streaming: a {@link JsonReader} pulls tokens straight off the bytes
+ * and fills the models field by field, so no intermediate JSONObject tree is built.
+ * Unknown fields are skipped, JSON null falls back to the field's default, and
+ * numbers are accepted either bare or quoted (PHP often sends "12").
+ *
+ * The device list endpoints (get_active_customers.php, get_device_activities.php)
+ * may also answer in CBOR when asked via {@link #acceptFor}. The CBOR body has the
+ * same envelope keys as the JSON one. Its rows are either maps with the JSON
+ * field names, or, more compactly, arrays of values in the order given by a
+ * "columns" array of names that precedes the rows. The parsers tell the two
+ * formats apart by the first byte, so cached bodies of either kind keep working
+ * and a server that only speaks JSON needs no change. Both formats fill the
+ * models through the same field setters.
+ */
+public final class ApiParsers {
+
+    static final String CBOR_ACCEPT = "application/cbor, application/json;q=0.9";
+
+    private ApiParsers() {}
+
+    /** Accept header for {@code parser}'s endpoint, or null to send the default. */
+    static String acceptFor(ApiRequest.Parser<?> parser) {
+        return parser == ACTIVE_CUSTOMERS || parser == DEVICE_ACTIVITIES ? CBOR_ACCEPT : null;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Results
+    // ─────────────────────────────────────────────────────────
+
+    /** success / message envelope shared by every endpoint. */
+    public static class Result {
+        public final boolean success;
+        public final String  message;
+
+        Result(Envelope envelope) {
+            this.success = envelope.getBoolean("success");
+            this.message = envelope.getString("message", "");
+        }
+    }
+
+    /**
+     * A list of models plus the server's total for that list.
+     *
+     * The delta fields are only set by servers that support {@code since}
+     * (see {@link SyncEngine}); {@code cursor} is null otherwise.
+     */
+    public static class ListResult<T> extends Result {
+        public final List<T>       items;
+        public final int           total;
+        public final String        filterStatus;
+        public final String        cursor;       // high-water mark to send as since= next time
+        public final boolean       full;         // items are a complete snapshot, not changes
+        public final boolean       hasMore;      // more changes past cursor; ask again
+        public final List<Integer> deletedIds;
+
+        ListResult(Envelope envelope, List<T> items, int total) {
+            this(envelope, items, total, Collections.emptyList());
+        }
+
+        ListResult(Envelope envelope, List<T> items, int total, List<Integer> deletedIds) {
+            super(envelope);
+            this.items        = Collections.unmodifiableList(items);
+            this.total        = total;
+            this.filterStatus = envelope.getString("filter_status", null);
+            this.cursor       = envelope.getString("cursor", null);
+            this.full         = envelope.getBoolean("full");
+            this.hasMore      = envelope.getBoolean("has_more");
+            this.deletedIds   = Collections.unmodifiableList(deletedIds);
+        }
+    }
+
+    /** Dashboard customers, with the values the refresh policy and the cards need precomputed. */
+    public static class CustomersResult extends ListResult<CustomerDevice> {
+        /** Hash of the display fields; minutes_ago ticks every minute, so it is left out. */
+        public final int     payloadHash;
+        public final boolean sosActive;
+
+        CustomersResult(Envelope envelope, List<CustomerDevice> items) {
+            super(envelope, items, items.size());
+            int     hash = 1;
+            boolean sos  = false;
+            for (CustomerDevice device : items) {
+                hash = 31 * hash + Objects.hash(
+                    device.getAssignmentId(), device.getStatus(), device.getBatteryPercent(),
+                    device.getLatitude(), device.getLongitude(), device.getLastUpdate());
+                sos |= device.isSos();
+                device.prepareDisplay();
+            }
+            this.payloadHash = hash;
+            this.sosActive   = sos;
+        }
+    }
+
+    public static class CountResult extends Result {
+        public final int count;
+
+        CountResult(Envelope envelope, int count) {
+            super(envelope);
+            this.count = count;
+        }
+    }
+
+    /** Staff device inventory: unassigned devices and active assignments. */
+    public static class InventoryResult extends Result {
+        public final List<CustomerDevice> available;
+        public final List<CustomerDevice> active;
+        public final int availableCount;
+        public final int activeCount;
+
+        InventoryResult(Envelope envelope, List<CustomerDevice> available, List<CustomerDevice> active) {
+            super(envelope);
+            this.available      = Collections.unmodifiableList(available);
+            this.active         = Collections.unmodifiableList(active);
+            this.availableCount = envelope.getInt("available_count", available.size());
+            this.activeCount    = envelope.getInt("active_count", active.size());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Parsers
+    // ─────────────────────────────────────────────────────────
+
+    /** get_active_customers.php */
+    public static final ApiRequest.Parser<CustomersResult> ACTIVE_CUSTOMERS = (data, charset) -> {
+        List<CustomerDevice> devices = new ArrayList<>();
+        Envelope envelope;
+        if (CborReader.isCbor(data)) {
+            List<String> columns = new ArrayList<>();
+            envelope = readCborEnvelope(data, (name, reader) -> {
+                switch (name) {
+                    case "columns":
+                        readColumns(reader, columns);
+                        return true;
+                    case "devices":
+                        readRows(reader, devices, columns, ApiParsers::newCustomer, ApiParsers::setCustomerField);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+        } else {
+            envelope = readEnvelope(data, charset, (name, reader) -> {
+                if (!"devices".equals(name)) return false;
+                Values values = new JsonValues(reader);
+                readArray(reader, devices,
+                    r -> readObject(r, values, newCustomer(), ApiParsers::setCustomerField));
+                return true;
+            });
+        }
+        return new CustomersResult(envelope, devices);
+    };
+
+    /** get_resolved_sos_count.php */
+    public static final ApiRequest.Parser<CountResult> RESOLVED_SOS_COUNT = (data, charset) -> {
+        Envelope envelope = readEnvelope(data, charset, null);
+        return new CountResult(envelope, envelope.getInt("resolved_count", 0));
+    };
+
+    /** get_resolved_sos.php */
+    public static final ApiRequest.Parser<ListResult<SOSAlert>> RESOLVED_SOS = (data, charset) -> {
+        List<SOSAlert> alerts  = new ArrayList<>();
+        List<Integer>  deleted = new ArrayList<>();
+        Envelope envelope = readEnvelope(data, charset, (name, reader) -> {
+            switch (name) {
+                case "alerts":
+                    readArray(reader, alerts, ApiParsers::readAlert);
+                    return true;
+                case "deleted_ids":
+                    readIds(reader, deleted);
+                    return true;
+                default:
+                    return false;
+            }
+        });
+        return new ListResult<>(envelope, alerts, envelope.getInt("count", alerts.size()), deleted);
+    };
+
+    /** get_device_activities.php */
+    public static final ApiRequest.Parser<ListResult<DeviceLocation>> DEVICE_ACTIVITIES = (data, charset) -> {
+        List<DeviceLocation> locations = new ArrayList<>();
+        List<Integer>        deleted   = new ArrayList<>();
+        Envelope envelope;
+        if (CborReader.isCbor(data)) {
+            List<String> columns = new ArrayList<>();
+            envelope = readCborEnvelope(data, (name, reader) -> {
+                switch (name) {
+                    case "columns":
+                        readColumns(reader, columns);
+                        return true;
+                    case "data":
+                        readRows(reader, locations, columns, DeviceLocation::new, ApiParsers::setLocationField);
+                        return true;
+                    case "deleted_ids":
+                        readIds(reader, deleted);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+        } else {
+            envelope = readEnvelope(data, charset, (name, reader) -> {
+                switch (name) {
+                    case "data":
+                        Values values = new JsonValues(reader);
+                        readArray(reader, locations,
+                            r -> readObject(r, values, new DeviceLocation(), ApiParsers::setLocationField));
+                        return true;
+                    case "deleted_ids":
+                        readIds(reader, deleted);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+        }
+        for (DeviceLocation location : locations) {
+            location.prepareDisplay();
+        }
+        return new ListResult<>(envelope, locations, envelope.getInt("total_items", 0), deleted);
+    };
+
+    /** get_devices.php */
+    public static final ApiRequest.Parser<InventoryResult> DEVICES = (data, charset) -> {
+        List<CustomerDevice> available = new ArrayList<>();
+        List<CustomerDevice> active    = new ArrayList<>();
+        Envelope envelope = readEnvelope(data, charset, (name, reader) -> {
+            switch (name) {
+                case "available_devices":
+                    readArray(reader, available, ApiParsers::readAvailableDevice);
+                    return true;
+                case "active_devices":
+                    readArray(reader, active, ApiParsers::readActiveDevice);
+                    return true;
+                default:
+                    return false;
+            }
+        });
+        return new InventoryResult(envelope, available, active);
+    };
+
+    // ─────────────────────────────────────────────────────────
+    //  Model readers
+    // ─────────────────────────────────────────────────────────
+
+    private static CustomerDevice newCustomer() {
+        CustomerDevice device = new CustomerDevice();
+        device.setCustomerContact("");
+        return device;
+    }
+
+    private static void setCustomerField(CustomerDevice device, String name, Values v) throws IOException {
+        switch (name) {
+            case "serial_number":    device.setSerialNumber(v.nextString(null));     break;
+            case "device_name":      device.setDeviceName(v.nextString(null));       break;
+            case "status":           device.setStatus(v.nextString(null));           break;
+            case "battery_percent":  device.setBatteryPercent(v.nextInt(0));         break;
+            case "customer_name":    device.setCustomerName(v.nextString(null));     break;
+            case "customer_contact": device.setCustomerContact(v.nextString(""));    break;
+            case "assignment_id":    device.setAssignmentId(v.nextInt(0));           break;
+            case "latitude":         device.setLatitude(v.nextDouble(0));            break;
+            case "longitude":        device.setLongitude(v.nextDouble(0));           break;
+            case "last_update":      device.setLastUpdate(v.nextString(null));       break;
+            case "minutes_ago":      device.setMinutesAgo(v.nextInt(0));             break;
+            default:                 v.skipValue();                                  break;
+        }
+    }
+
+    private static SOSAlert readAlert(JsonReader reader) throws IOException {
+        int    id = 0, assignmentId = 0, battery = 0, rssi = 0;
+        double latitude = 0, longitude = 0;
+        String serial = null, customerName = null, contact = "", alertTime = null;
+        String acknowledgedAt = null, acknowledgedBy = "Unknown";
+        String resolvedAt = null, resolvedBy = "Unknown", notes = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":                   id             = nextInt(reader, 0);                break;
+                case "transmitter_serial":   serial         = nextString(reader, null);          break;
+                case "assignment_id":        assignmentId   = nextInt(reader, 0);                break;
+                case "customer_name":        customerName   = nextString(reader, null);          break;
+                case "customer_contact":     contact        = nextString(reader, "");            break;
+                case "latitude":             latitude       = nextDouble(reader, 0);             break;
+                case "longitude":            longitude      = nextDouble(reader, 0);             break;
+                case "battery_percent":      battery        = nextInt(reader, 0);                break;
+                case "rssi":                 rssi           = nextInt(reader, 0);                break;
+                case "alert_time":           alertTime      = nextString(reader, null);          break;
+                case "acknowledged_at":      acknowledgedAt = nextString(reader, null);          break;
+                case "acknowledged_by_name": acknowledgedBy = nextString(reader, "Unknown");     break;
+                case "resolved_at":          resolvedAt     = nextString(reader, null);          break;
+                case "resolved_by_name":     resolvedBy     = nextString(reader, "Unknown");     break;
+                case "resolution_notes":     notes          = nextString(reader, "");            break;
+                default:                     reader.skipValue();                                 break;
+            }
+        }
+        reader.endObject();
+
+        return new SOSAlert(id, serial, assignmentId, customerName, contact, latitude, longitude,
+            battery, rssi, alertTime, acknowledgedAt, acknowledgedBy, resolvedAt, resolvedBy, notes);
+    }
+
+    private static void setLocationField(DeviceLocation location, String name, Values v) throws IOException {
+        switch (name) {
+            case "id":               location.setId(v.nextInt(0));                       break;
+            case "serial_number":    location.setSerialNumber(v.nextString(null));       break;
+            case "latitude":         location.setLatitude(v.nextString(null));           break;
+            case "longitude":        location.setLongitude(v.nextString(null));          break;
+            case "altitude":         location.setAltitude(v.nextDouble(0));              break;
+            case "speed":            location.setSpeed(v.nextDouble(0));                 break;
+            case "recorded_at":      location.setDateTime(v.nextString(null));           break;
+            case "customer_name":    location.setCustomerName(v.nextString(null));       break;
+            case "customer_contact": location.setCustomerContact(v.nextString(null));    break;
+            case "battery_percent":  location.setBatteryPercent(v.nextInt(0));           break;
+            case "device_owner":     location.setDeviceOwner(v.nextString(null));        break;
+            case "assigned_by":      location.setAssignedBy(v.nextInt(0));               break;
+            case "assigned_by_name": location.setAssignedByName(v.nextString(null));     break;
+            case "assigned_at":      location.setAssignedAt(v.nextString(null));         break;
+            default:                 v.skipValue();                                      break;
+        }
+    }
+
+    private static CustomerDevice readAvailableDevice(JsonReader reader) throws IOException {
+        CustomerDevice device = new CustomerDevice();
+        device.setSerialNumber("—");
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "serial_number":   device.setSerialNumber(nextString(reader, "—"));   break;
+                case "device_name":     device.setDeviceName(nextString(reader, null));    break;
+                case "battery_percent": device.setBatteryPercent(nextInt(reader, 0));      break;
+                default:                reader.skipValue();                                break;
+            }
+        }
+        reader.endObject();
+        if (device.getDeviceName() == null) {
+            device.setDeviceName(device.getSerialNumber());
+        }
+        return device;
+    }
+
+    private static CustomerDevice readActiveDevice(JsonReader reader) throws IOException {
+        CustomerDevice device = new CustomerDevice();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "serial_number":    device.setSerialNumber(nextString(reader, ""));     break;
+                case "assigned_name":    device.setCustomerName(nextString(reader, ""));     break;
+                case "assigned_contact": device.setCustomerContact(nextString(reader, ""));  break;
+                case "assigned_by":      device.setAssignedBy(nextString(reader, ""));       break;
+                case "device_status":    device.setStatus(nextString(reader, ""));           break;
+                case "assignment_id":    device.setAssignmentId(nextInt(reader, 0));         break;
+                default:                 reader.skipValue();                                 break;
+            }
+        }
+        reader.endObject();
+        return device;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Token helpers
+    // ─────────────────────────────────────────────────────────
+
+    private interface FieldReader {
+        /** Consume the value of {@code name} and return true, or return false to have it handled generically. */
+        boolean read(String name, JsonReader reader) throws IOException;
+    }
+
+    private interface ElementReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /** One value at a time from either a JSON or a CBOR body, for the shared field setters. */
+    interface Values {
+        String nextString(String fallback) throws IOException;
+        int    nextInt(int fallback) throws IOException;
+        double nextDouble(double fallback) throws IOException;
+        void   skipValue() throws IOException;
+    }
+
+    private interface FieldSetter<T> {
+        /** Consume the value of {@code name} into {@code model}, or skip it. */
+        void set(T model, String name, Values values) throws IOException;
+    }
+
+    private interface CborFieldReader {
+        boolean read(String name, CborReader reader) throws IOException;
+    }
+
+    private static final class JsonValues implements Values {
+        private final JsonReader reader;
+
+        JsonValues(JsonReader reader) {
+            this.reader = reader;
+        }
+
+        @Override public String nextString(String fallback) throws IOException { return ApiParsers.nextString(reader, fallback); }
+        @Override public int    nextInt(int fallback) throws IOException       { return ApiParsers.nextInt(reader, fallback); }
+        @Override public double nextDouble(double fallback) throws IOException { return ApiParsers.nextDouble(reader, fallback); }
+        @Override public void   skipValue() throws IOException                 { reader.skipValue(); }
+    }
+
+    /** Top-level scalars (success, message, counts…) keyed by name, as strings. */
+    static final class Envelope {
+        private final Map<String, String> scalars = new HashMap<>();
+
+        boolean getBoolean(String name) {
+            String value = scalars.get(name);
+            return "true".equalsIgnoreCase(value) || "1".equals(value);
+        }
+
+        String getString(String name, String fallback) {
+            String value = scalars.get(name);
+            return value != null ? value : fallback;
+        }
+
+        int getInt(String name, int fallback) {
+            return parseInt(scalars.get(name), fallback);
+        }
+    }
+
+    /** Envelope for results rebuilt from {@link LinkDatabase}: success plus the given name/value scalars. */
+    static Envelope localEnvelope(String... namesAndValues) {
+        Envelope envelope = new Envelope();
+        envelope.scalars.put("success", "true");
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                envelope.scalars.put(namesAndValues[i], namesAndValues[i + 1]);
+            }
+        }
+        return envelope;
+    }
+
+    private static Envelope readEnvelope(byte[] data, String charset, FieldReader fields) throws IOException {
+        Envelope envelope = new Envelope();
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(data), charset))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (fields != null && fields.read(name, reader)) continue;
+
+                JsonToken token = reader.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                    envelope.scalars.put(name, nextString(reader, null));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return envelope;
+    }
+
+    private static <T> void readArray(JsonReader reader, List<T> out, ElementReader<T> element) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue(); // null or unexpected shape → empty list
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                out.add(element.read(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+    }
+
+    private static <T> T readObject(JsonReader reader, Values values, T model, FieldSetter<T> setter) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            setter.set(model, reader.nextName(), values);
+        }
+        reader.endObject();
+        return model;
+    }
+
+    private static void readIds(JsonReader reader, List<Integer> out) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int id = nextInt(reader, 0);
+            if (id > 0) out.add(id);
+        }
+        reader.endArray();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  CBOR
+    // ─────────────────────────────────────────────────────────
+
+    private static Envelope readCborEnvelope(byte[] data, CborFieldReader fields) throws IOException {
+        Envelope envelope = new Envelope();
+        CborReader reader = new CborReader(data);
+        reader.beginMap();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (fields.read(name, reader)) continue;
+
+            switch (reader.peek()) {
+                case STRING:
+                case INT:
+                case FLOAT:
+                case BOOLEAN:
+                    envelope.scalars.put(name, reader.nextString(null));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.end();
+        return envelope;
+    }
+
+    private static void readColumns(CborReader reader, List<String> out) throws IOException {
+        if (reader.peek() != CborReader.Kind.ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            out.add(reader.nextString(""));
+        }
+        reader.end();
+    }
+
+    /** Rows as maps, or as arrays laid out by {@code columns}; values past the known columns are skipped. */
+    private static <T> void readRows(CborReader reader, List<T> out, List<String> columns,
+                                     Supplier<T> factory, FieldSetter<T> setter) throws IOException {
+        if (reader.peek() != CborReader.Kind.ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        String[] names = columns.toArray(new String[0]);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            switch (reader.peek()) {
+                case MAP: {
+                    T model = factory.get();
+                    reader.beginMap();
+                    while (reader.hasNext()) {
+                        setter.set(model, reader.nextName(), reader);
+                    }
+                    reader.end();
+                    out.add(model);
+                    break;
+                }
+                case ARRAY: {
+                    T model = factory.get();
+                    reader.beginArray();
+                    for (int i = 0; reader.hasNext(); i++) {
+                        if (i < names.length) setter.set(model, names[i], reader);
+                        else reader.skipValue();
+                    }
+                    reader.end();
+                    out.add(model);
+                    break;
+                }
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.end();
+    }
+
+    private static void readIds(CborReader reader, List<Integer> out) throws IOException {
+        if (reader.peek() != CborReader.Kind.ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int id = reader.nextInt(0);
+            if (id > 0) out.add(id);
+        }
+        reader.end();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  JSON scalars
+    // ─────────────────────────────────────────────────────────
+
+    private static String nextString(JsonReader reader, String fallback) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return fallback;
+        }
+    }
+
+    private static int nextInt(JsonReader reader, int fallback) throws IOException {
+        return parseInt(nextString(reader, null), fallback);
+    }
+
+    private static double nextDouble(JsonReader reader, double fallback) throws IOException {
+        String value = nextString(reader, null);
+        if (value == null || value.isEmpty()) return fallback;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null || value.isEmpty()) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return fallback;
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.link;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Cache;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET request for the list endpoints, backed by the shared disk cache.
+ *
+ * - Conditional GET: the cache entry keeps the server's ETag / Last-Modified, so
+ *   Volley revalidates with If-None-Match / If-Modified-Since and reuses the
+ *   cached body on a 304.
+ * - Stale-while-revalidate: with {@link #setCachePolicy(long, long)} a cached
+ *   body is delivered straight away and the listener is called a second time
+ *   when the network answer arrives. If the network then fails, the cached data
+ *   stays on screen and the error is only logged.
+ * - Cache entries are keyed by URL plus tenant (user_id / staff_id).
+ * - {@link #setAccept} advertises the formats the parser reads (JSON or CBOR).
+ * - De-duplication: {@link RequestCoalescer} may attach an identical request to
+ *   this one as a follower instead of sending it; followers get the same results.
+ * - Retries: {@link ApiClient} queues a failed attempt again after a delay
+ *   ({@link RequestPolicy}); the listeners only hear about the last one.
+ *
+ * The body is decoded by a {@link Parser} on Volley's dispatcher thread.
+ */
+public class ApiRequest<T> extends Request<T> {
+
+    private static final String TAG = "ApiRequest";
+
+    /** Stale-while-revalidate policy for the list endpoints. */
+    public static final long LIST_FRESH_MS     = 0;                        // always revalidate
+    public static final long LIST_MAX_STALE_MS = 24 * 60 * 60 * 1000L;     // paint data up to a day old
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public interface Parser<T> {
+        T parse(byte[] data, String charset) throws Exception;
+    }
+
+    public static final Parser<JSONObject> JSON_OBJECT =
+        (data, charset) -> new JSONObject(new String(data, charset));
+
+    private final Object lock = new Object();
+    private final Parser<T> parser;
+    private Response.Listener<T>   listener;
+    private Response.ErrorListener errorListener;
+    private Runnable onComplete;
+    private Runnable onDispatched;
+    private boolean  dispatched = false;
+
+    private String tenant     = "";
+    private long   freshMs    = 0;
+    private long   maxStaleMs = 0;
+    private CacheStats       cacheStats;
+    private RequestCoalescer coalescer;
+    private RequestLane      lane = RequestLane.INTERACTIVE;
+    private String           accept;
+
+    // Coalescing state (guarded by lock)
+    private final List<ApiRequest<T>> followers = new ArrayList<>();
+    private ApiRequest<T> leader;
+    private boolean detached = false;   // caller cancelled, still running for followers
+    private T lastResult;
+
+    // True between a stale cache delivery and the network answer that replaces it
+    private volatile boolean awaitingRefresh = false;
+
+    // Set by ApiClient when a failed attempt is to be sent again, -1 otherwise
+    private volatile long    retryDelayMs = -1;
+    private volatile boolean resent       = false;
+
+    public ApiRequest(String url, Parser<T> parser,
+                      Response.Listener<T> listener,
+                      Response.ErrorListener errorListener) {
+        super(Method.GET, url, null);
+        this.parser        = parser;
+        this.listener      = listener;
+        this.errorListener = errorListener;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Configuration
+    // ─────────────────────────────────────────────────────────
+
+    /** Scope the cache entry to one account so tenants never see each other's data. */
+    public ApiRequest<T> setTenant(int userId, int staffId) {
+        this.tenant = "u" + userId + ":s" + staffId;
+        return this;
+    }
+
+    /**
+     * @param freshMs    how long a cached body is served without revalidating
+     * @param maxStaleMs how long a cached body may be shown while revalidating
+     */
+    public ApiRequest<T> setCachePolicy(long freshMs, long maxStaleMs) {
+        this.freshMs    = freshMs;
+        this.maxStaleMs = maxStaleMs;
+        return this;
+    }
+
+    /** Runs once on the main thread when the request is finished, delivered or cancelled. */
+    public ApiRequest<T> setOnComplete(Runnable onComplete) {
+        synchronized (lock) {
+            this.onComplete = onComplete;
+        }
+        return this;
+    }
+
+    /**
+     * Runs once when {@link ApiClient} hands the request to a queue: straight
+     * away, or for a held BACKGROUND request when it is released. Runs at once
+     * if that has already happened.
+     */
+    public ApiRequest<T> setOnDispatched(Runnable onDispatched) {
+        synchronized (lock) {
+            if (!dispatched) {
+                this.onDispatched = onDispatched;
+                return this;
+            }
+        }
+        onDispatched.run();
+        return this;
+    }
+
+    /** Formats the parser can read, most preferred first; null leaves Volley's default. */
+    public ApiRequest<T> setAccept(String accept) {
+        this.accept = accept;
+        return this;
+    }
+
+    void setCacheStats(CacheStats cacheStats) {
+        this.cacheStats = cacheStats;
+    }
+
+    void setCoalescer(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    void setLane(RequestLane lane) {
+        this.lane = lane;
+    }
+
+    Parser<T> getParser() {
+        return parser;
+    }
+
+    RequestLane getLane() {
+        return lane;
+    }
+
+    // Called by ApiClient on the dispatcher thread, before the failed attempt is delivered
+    void setRetryDelay(long delayMs) {
+        retryDelayMs = delayMs;
+    }
+
+    /** The pending retry's delay, or -1 if the request is done; clears it. */
+    long takeRetryDelay() {
+        long delayMs = retryDelayMs;
+        retryDelayMs = -1;
+        if (delayMs >= 0) {
+            resent = true;
+        }
+        return delayMs;
+    }
+
+    // Called by ApiClient, on the thread that queues the request
+    void onDispatched() {
+        final Runnable callback;
+        synchronized (lock) {
+            dispatched   = true;
+            callback     = onDispatched;
+            onDispatched = null;
+        }
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    /** True while the body delivered last came from cache and a network refresh is pending. */
+    boolean isAwaitingRefresh() {
+        return awaitingRefresh;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Coalescing
+    // ─────────────────────────────────────────────────────────
+
+    /** Attach an identical request that will share this one's results. */
+    boolean attach(ApiRequest<T> follower) {
+        synchronized (lock) {
+            if (isCanceled()) return false;
+            followers.add(follower);
+            follower.leader = this;
+            return true;
+        }
+    }
+
+    List<ApiRequest<T>> getFollowers() {
+        synchronized (lock) {
+            return new ArrayList<>(followers);
+        }
+    }
+
+    /** Answer from the coalescer's memory window without touching the queue. */
+    void deliverFromMemory(T result) {
+        markDelivered();
+        MAIN_HANDLER.post(() -> {
+            if (!isCanceled()) {
+                deliverResponse(result);
+            }
+            runCompletion();
+        });
+    }
+
+    private boolean hasLiveFollowers() {
+        for (ApiRequest<T> follower : followers) {
+            if (!follower.isCanceled()) return true;
+        }
+        return false;
+    }
+
+    private void onFollowerCancelled() {
+        boolean cancelNow;
+        synchronized (lock) {
+            cancelNow = detached && !hasLiveFollowers();
+        }
+        if (cancelNow) {
+            super.cancel();
+        }
+    }
+
+    // Called by ApiClient's RequestFinishedListener, on any thread
+    void onFinished() {
+        T result;
+        synchronized (lock) {
+            result = lastResult;
+        }
+        if (coalescer != null) {
+            // A stale body that was never confirmed by the network is not worth remembering
+            coalescer.onFinished(this, isCanceled() || awaitingRefresh ? null : result);
+        }
+        runCompletion();
+    }
+
+    private void runCompletion() {
+        RequestScope.notifyFinished(this);
+        final Runnable callback;
+        final List<ApiRequest<T>> targets;
+        synchronized (lock) {
+            callback   = onComplete;
+            onComplete = null;
+            targets    = new ArrayList<>(followers);
+            followers.clear();
+        }
+        if (callback != null) {
+            MAIN_HANDLER.post(callback);
+        }
+        for (ApiRequest<T> follower : targets) {
+            follower.runCompletion();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Request
+    // ─────────────────────────────────────────────────────────
+
+    @Override
+    public Priority getPriority() {
+        return lane.priority;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        if (accept == null) return super.getHeaders();
+        Map<String, String> headers = new HashMap<>(super.getHeaders());
+        headers.put("Accept", accept);
+        return headers;
+    }
+
+    @Override
+    public String getCacheKey() {
+        String key = super.getCacheKey();
+        return tenant.isEmpty() ? key : key + "#" + tenant;
+    }
+
+    @Override
+    public void addMarker(String tag) {
+        super.addMarker(tag);
+        if ("cache-hit-refresh-needed".equals(tag)) {
+            awaitingRefresh = true;
+        } else if ("network-http-complete".equals(tag)) {
+            awaitingRefresh = false;
+        }
+        if (cacheStats != null) {
+            cacheStats.onMarker(tag);
+        }
+    }
+
+    @Override
+    protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        if (isCanceled()) {
+            // The screen went away while the body was downloading; don't decode it
+            return Response.error(new VolleyError("Cancelled before parse"));
+        }
+        try {
+            String charset = HttpHeaderParser.parseCharset(response.headers, "utf-8");
+            T result = parser.parse(response.data, charset);
+            return Response.success(result, buildCacheEntry(response));
+        } catch (Exception e) {
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    private Cache.Entry buildCacheEntry(NetworkResponse response) {
+        Cache.Entry entry = HttpHeaderParser.parseCacheHeaders(response);
+        if (maxStaleMs <= 0) {
+            return entry; // server headers only
+        }
+
+        if (entry == null) {
+            // Server sent no-cache / no-store; keep a private copy anyway so the
+            // screen can paint before the revalidation returns.
+            entry = new Cache.Entry();
+            entry.data               = response.data;
+            entry.responseHeaders    = response.headers;
+            entry.allResponseHeaders = response.allHeaders;
+            if (response.headers != null) {
+                entry.etag = response.headers.get("ETag");
+                String lastModified = response.headers.get("Last-Modified");
+                if (lastModified != null) {
+                    entry.lastModified = HttpHeaderParser.parseDateAsEpoch(lastModified);
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        entry.softTtl = Math.max(entry.softTtl, now + freshMs);
+        entry.ttl     = Math.max(entry.ttl,     now + maxStaleMs);
+        return entry;
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        if (resent && awaitingRefresh) {
+            return;   // a retry's cache pass: that body went out before the first attempt
+        }
+        final Response.Listener<T> target;
+        final List<ApiRequest<T>> targets;
+        synchronized (lock) {
+            target     = listener;
+            targets    = new ArrayList<>(followers);
+            lastResult = response;
+        }
+        if (target != null) {
+            target.onResponse(response);
+        }
+        for (ApiRequest<T> follower : targets) {
+            if (!follower.isCanceled()) {
+                follower.markDelivered();
+                follower.deliverResponse(response);
+            }
+        }
+    }
+
+    @Override
+    public void deliverError(VolleyError error) {
+        if (retryDelayMs >= 0) {
+            Log.d(TAG, "Retrying " + getUrl() + " in " + retryDelayMs + " ms after " + error);
+            return;
+        }
+        final Response.ErrorListener target;
+        final List<ApiRequest<T>> targets;
+        synchronized (lock) {
+            target  = errorListener;
+            targets = new ArrayList<>(followers);
+        }
+        if (hasHadResponseDelivered()) {
+            // Stale data is already on screen; keep it rather than showing an error
+            Log.w(TAG, "Revalidation failed, keeping cached data for " + getUrl() + ": " + error);
+        } else if (target != null) {
+            target.onErrorResponse(error);
+        }
+        for (ApiRequest<T> follower : targets) {
+            if (!follower.isCanceled()) {
+                follower.deliverError(error);
+            }
+        }
+    }
+
+    @Override
+    public void cancel() {
+        final ApiRequest<T> owner;
+        synchronized (lock) {
+            listener      = null;
+            errorListener = null;
+            if (hasLiveFollowers()) {
+                // Other callers joined this request; keep it running for them
+                detached = true;
+                return;
+            }
+            owner = leader;
+        }
+        super.cancel();
+        if (owner != null) {
+            owner.onFollowerCancelled();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.link;
+
+import android.graphics.Color;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatButton;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Objects;
+
+/** Unassigned transmitters in CustomerActivity, keyed by serial number; lists are diffed off the main thread. */
+public class AvailableDeviceAdapter extends ListAdapter<CustomerDevice, AvailableDeviceAdapter.ViewHolder> {
+
+    private static final int LOW_BATTERY_COLOR = Color.parseColor("#EF4444");   // red-500
+    private static final int BATTERY_COLOR     = Color.parseColor("#64748B");   // slate-500 (default)
+
+    public interface OnAssignClickListener {
+        void onAssignClick(CustomerDevice device);
+    }
+
+    private OnAssignClickListener listener;
+
+    public AvailableDeviceAdapter() {
+        super(DIFF);
+    }
+
+    public void setOnAssignClickListener(OnAssignClickListener listener) {
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.item_available_device, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        holder.btnAssign.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onAssignClick(getItem(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView        tvSerial;
+        final TextView        tvDeviceName;
+        final TextView        tvBattery;
+        final ImageView       batteryIcon;
+        final AppCompatButton btnAssign;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvSerial     = itemView.findViewById(R.id.tvDeviceSerial);
+            tvDeviceName = itemView.findViewById(R.id.tvDeviceName);
+            tvBattery    = itemView.findViewById(R.id.tvBatteryPercent);
+            batteryIcon  = itemView.findViewById(R.id.batteryIcon);
+            btnAssign    = itemView.findViewById(R.id.btnAssign);
+        }
+
+        void bind(CustomerDevice device) {
+            int battery = device.getBatteryPercent();
+            int color   = battery <= 20 ? LOW_BATTERY_COLOR : BATTERY_COLOR;
+
+            tvSerial.setText(device.getSerialNumber());
+            tvDeviceName.setText(device.getDeviceName());
+            tvBattery.setText(battery + "%");
+            tvBattery.setTextColor(color);
+            batteryIcon.setColorFilter(color);
+        }
+    }
+
+    static final DiffUtil.ItemCallback<CustomerDevice> DIFF = new DiffUtil.ItemCallback<CustomerDevice>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return Objects.equals(oldItem.getSerialNumber(), newItem.getSerialNumber());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return Objects.equals(oldItem.getDeviceName(), newItem.getDeviceName())
+                && oldItem.getBatteryPercent() == newItem.getBatteryPercent();
+        }
+    };
+}
@@ -0,0 +1,86 @@
+package com.example.link;
+
+import com.android.volley.Cache;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit / miss / revalidation counters for the shared response cache.
+ *
+ * Hits and misses come from the markers Volley's CacheDispatcher puts on each
+ * {@link ApiRequest}; revalidations and 304s are counted by ApiClient's network
+ * wrapper. Read them with {@link ApiClient#getCacheStats()}.
+ */
+public class CacheStats {
+
+    private final AtomicLong hits          = new AtomicLong();
+    private final AtomicLong staleHits     = new AtomicLong();
+    private final AtomicLong misses        = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong notModified   = new AtomicLong();
+
+    void onMarker(String marker) {
+        switch (marker) {
+            case "cache-hit":
+                hits.incrementAndGet();
+                break;
+            case "cache-hit-refresh-needed":
+                staleHits.incrementAndGet();
+                break;
+            case "cache-miss":
+            case "cache-hit-expired":
+                misses.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    void onNetworkResponse(Request<?> request, NetworkResponse response) {
+        Cache.Entry entry = request.getCacheEntry();
+        if (entry != null && (entry.etag != null || entry.lastModified > 0)) {
+            revalidations.incrementAndGet();
+        }
+        if (response != null && response.notModified) {
+            notModified.incrementAndGet();
+        }
+    }
+
+    /** Entries served from cache (fresh + stale-while-revalidate). */
+    public long getHits()          { return hits.get(); }
+    /** Subset of hits that were stale and refreshed in the background. */
+    public long getStaleHits()     { return staleHits.get(); }
+    public long getMisses()        { return misses.get(); }
+    /** Conditional GETs sent with If-None-Match / If-Modified-Since. */
+    public long getRevalidations() { return revalidations.get(); }
+    /** Revalidations the server answered with 304. */
+    public long getNotModified()   { return notModified.get(); }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public double getRevalidationRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) revalidations.get() / total;
+    }
+
+    public void reset() {
+        hits.set(0);
+        staleHits.set(0);
+        misses.set(0);
+        revalidations.set(0);
+        notModified.set(0);
+    }
+
+    public String getStats() {
+        return "Hits: "          + hits.get()          + "\n" +
+               "Stale hits: "    + staleHits.get()     + "\n" +
+               "Misses: "        + misses.get()        + "\n" +
+               "Revalidations: " + revalidations.get() + "\n" +
+               "304s: "          + notModified.get();
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.link;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull reader for CBOR (RFC 8949), shaped like {@link android.util.JsonReader}
+ * so {@link ApiParsers} can walk either format the same way.
+ *
+ * Reads straight from the response bytes: numbers come out as primitives with
+ * no intermediate String, and only text values allocate. Definite and
+ * indefinite lengths are supported; tags are skipped. The scalar readers are
+ * lenient like the JSON path (a number may arrive as text and vice versa, and
+ * null yields the fallback).
+ */
+final class CborReader implements ApiParsers.Values {
+
+    enum Kind { INT, BYTES, STRING, ARRAY, MAP, BOOLEAN, NULL, FLOAT }
+
+    private static final int BREAK = 0xFF;
+
+    private final byte[] data;
+    private int pos;
+
+    // Items left in each open container; -1 for indefinite length
+    private long[] remaining = new long[8];
+    private int    depth     = 0;
+
+    CborReader(byte[] data) {
+        this.data = data;
+    }
+
+    /** A CBOR map header in the first byte; JSON text can never start with one. */
+    static boolean isCbor(byte[] data) {
+        return data.length > 0 && (data[0] & 0xE0) == 0xA0;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Structure
+    // ─────────────────────────────────────────────────────────
+
+    Kind peek() throws IOException {
+        skipTags();
+        int initial = at(pos);
+        switch (initial >>> 5) {
+            case 0:
+            case 1: return Kind.INT;
+            case 2: return Kind.BYTES;
+            case 3: return Kind.STRING;
+            case 4: return Kind.ARRAY;
+            case 5: return Kind.MAP;
+            default:
+                switch (initial & 0x1F) {
+                    case 20:
+                    case 21: return Kind.BOOLEAN;
+                    case 25:
+                    case 26:
+                    case 27: return Kind.FLOAT;
+                    default: return Kind.NULL;   // null, undefined, other simple values
+                }
+        }
+    }
+
+    void beginMap() throws IOException {
+        long count = begin(5);
+        push(count < 0 ? -1 : count * 2);
+    }
+
+    void beginArray() throws IOException {
+        push(begin(4));
+    }
+
+    boolean hasNext() throws IOException {
+        long left = remaining[depth - 1];
+        return left < 0 ? at(pos) != BREAK : left > 0;
+    }
+
+    /** Close the current map or array; any unread items are skipped. */
+    void end() throws IOException {
+        while (hasNext()) {
+            skipValue();
+        }
+        if (remaining[depth - 1] < 0) {
+            pos++; // break
+        }
+        depth--;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case MAP:
+                beginMap();
+                end();
+                break;
+            case ARRAY:
+                beginArray();
+                end();
+                break;
+            case BYTES:
+            case STRING:
+                readText();
+                consumed();
+                break;
+            case FLOAT:
+                readFloat();
+                consumed();
+                break;
+            default:
+                readArgument(at(pos++));
+                consumed();
+                break;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Scalars
+    // ─────────────────────────────────────────────────────────
+
+    /** The next map key; "" if it is not text. */
+    String nextName() throws IOException {
+        return nextString("");
+    }
+
+    @Override
+    public String nextString(String fallback) throws IOException {
+        String value;
+        switch (peek()) {
+            case STRING:
+            case BYTES:
+                value = readText();
+                break;
+            case INT:
+                value = String.valueOf(readInt());
+                break;
+            case FLOAT:
+                value = String.valueOf(readFloat());
+                break;
+            case BOOLEAN:
+                value = String.valueOf(at(pos++) == 0xF5);
+                break;
+            case NULL:
+                pos++;
+                value = fallback;
+                break;
+            default:
+                skipValue();
+                return fallback;
+        }
+        consumed();
+        return value;
+    }
+
+    long nextLong(long fallback) throws IOException {
+        long value;
+        switch (peek()) {
+            case INT:
+                value = readInt();
+                break;
+            case FLOAT:
+                value = (long) readFloat();
+                break;
+            case BOOLEAN:
+                value = at(pos++) == 0xF5 ? 1 : 0;
+                break;
+            case STRING:
+                value = parseLong(readText(), fallback);
+                break;
+            default:
+                skipValue();
+                return fallback;
+        }
+        consumed();
+        return value;
+    }
+
+    @Override
+    public int nextInt(int fallback) throws IOException {
+        return (int) nextLong(fallback);
+    }
+
+    @Override
+    public double nextDouble(double fallback) throws IOException {
+        double value;
+        switch (peek()) {
+            case FLOAT:
+                value = readFloat();
+                break;
+            case INT:
+                value = readInt();
+                break;
+            case STRING:
+                value = parseDouble(readText(), fallback);
+                break;
+            default:
+                skipValue();
+                return fallback;
+        }
+        consumed();
+        return value;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Decoding
+    // ─────────────────────────────────────────────────────────
+
+    private long begin(int major) throws IOException {
+        skipTags();
+        int initial = at(pos++);
+        if (initial >>> 5 != major) {
+            throw new IOException("Expected CBOR major type " + major + " at " + (pos - 1));
+        }
+        consumed();
+        return readArgument(initial);
+    }
+
+    private void push(long count) {
+        if (depth == remaining.length) {
+            long[] grown = new long[depth * 2];
+            System.arraycopy(remaining, 0, grown, 0, depth);
+            remaining = grown;
+        }
+        remaining[depth++] = count;
+    }
+
+    /** One item of the enclosing container has been read. */
+    private void consumed() {
+        if (depth > 0 && remaining[depth - 1] > 0) {
+            remaining[depth - 1]--;
+        }
+    }
+
+    private void skipTags() throws IOException {
+        while ((at(pos) >>> 5) == 6) {
+            readArgument(at(pos++));
+        }
+    }
+
+    /** The length / value that follows an initial byte; -1 for indefinite length. */
+    private long readArgument(int initial) throws IOException {
+        int info = initial & 0x1F;
+        if (info < 24) return info;
+        switch (info) {
+            case 24: return readUnsigned(1);
+            case 25: return readUnsigned(2);
+            case 26: return readUnsigned(4);
+            case 27: return readUnsigned(8);
+            case 31: return -1;
+            default: throw new IOException("Bad CBOR additional info " + info + " at " + (pos - 1));
+        }
+    }
+
+    private long readUnsigned(int bytes) throws IOException {
+        if (pos + bytes > data.length) throw new IOException("Truncated CBOR");
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (data[pos++] & 0xFF);
+        }
+        return value;
+    }
+
+    private long readInt() throws IOException {
+        int initial = at(pos++);
+        long value = readArgument(initial);
+        return (initial >>> 5) == 1 ? -1 - value : value;
+    }
+
+    private double readFloat() throws IOException {
+        int initial = at(pos++);
+        switch (initial & 0x1F) {
+            case 25: return halfToDouble((int) readUnsigned(2));
+            case 26: return Float.intBitsToFloat((int) readUnsigned(4));
+            case 27: return Double.longBitsToDouble(readUnsigned(8));
+            default: throw new IOException("Not a CBOR float at " + (pos - 1));
+        }
+    }
+
+    private String readText() throws IOException {
+        int initial = at(pos++);
+        long length = readArgument(initial);
+        if (length >= 0) {
+            if (pos + length > data.length) throw new IOException("Truncated CBOR");
+            String text = new String(data, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return text;
+        }
+        // Indefinite: definite-length chunks until break
+        StringBuilder text = new StringBuilder();
+        while (at(pos) != BREAK) {
+            text.append(readText());
+        }
+        pos++;
+        return text.toString();
+    }
+
+    private int at(int index) throws IOException {
+        if (index >= data.length) throw new IOException("Truncated CBOR");
+        return data[index] & 0xFF;
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null || value.isEmpty()) return fallback;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return (long) parseDouble(value, fallback);
+        }
+    }
+
+    private static double parseDouble(String value, double fallback) {
+        if (value == null || value.isEmpty()) return fallback;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -13,9 +13,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 
 import org.json.JSONObject;
 
@@ -34,7 +32,7 @@ public class ChangePasswordActivity extends AppCompatActivity {
     private boolean isConfirmPasswordVisible = false;
 
     private SharedPrefManager sharedPrefManager;
-    private RequestQueue requestQueue;
+    private RequestScope requestScope;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,7 +40,7 @@ public class ChangePasswordActivity extends AppCompatActivity {
         setContentView(R.layout.activity_settings);
 
         sharedPrefManager = SharedPrefManager.getInstance(this);
-        requestQueue = Volley.newRequestQueue(this);
+        requestScope = RequestScope.of(this);
 
         initViews();
         setupClickListeners();
@@ -363,7 +361,7 @@ public class ChangePasswordActivity extends AppCompatActivity {
                 }
             );
 
-            requestQueue.add(request);
+            requestScope.add(request);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -376,12 +374,4 @@ public class ChangePasswordActivity extends AppCompatActivity {
     private void showError(String message) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(this);
-        }
-    }
 }
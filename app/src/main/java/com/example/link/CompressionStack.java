@@ -0,0 +1,218 @@
+package com.example.link;
+
+import android.net.Uri;
+import android.util.Log;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.EncodedRequest;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP stack that compresses bodies in both directions and counts the bytes.
+ *
+ * Responses: every request asks for gzip. The platform connection would
+ * otherwise gunzip silently and hide the compressed size, so the body is
+ * inflated here instead. Content-Encoding and Content-Length are dropped from
+ * the headers, so Volley and the disk cache only ever see the plain body.
+ *
+ * Requests: bodies of at least COMPRESS_MIN_BYTES (the base64 profile picture,
+ * mostly) are gzipped with Content-Encoding: gzip. This only happens for hosts
+ * that have advertised support with an Accept-Encoding response header
+ * (RFC 7694). A 415 answer to a compressed body takes the host off that list,
+ * and the body is sent again as is.
+ *
+ * Sizes go to {@link WireStats} as each body finishes.
+ */
+class CompressionStack extends BaseHttpStack {
+
+    private static final String TAG = "CompressionStack";
+
+    private static final String ACCEPT_ENCODING    = "Accept-Encoding";
+    private static final String CONTENT_ENCODING   = "Content-Encoding";
+    private static final String CONTENT_LENGTH     = "Content-Length";
+    private static final String GZIP               = "gzip";
+    private static final int    COMPRESS_MIN_BYTES = 4 * 1024;
+    private static final int    UNSUPPORTED_MEDIA  = 415;
+
+    private final BaseHttpStack delegate;
+    private final WireStats     stats;
+
+    // Hosts that accept gzip request bodies
+    private final Set<String> gzipHosts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    CompressionStack(BaseHttpStack delegate, WireStats stats) {
+        this.delegate = delegate;
+        this.stats    = stats;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        Map<String, String> headers = new HashMap<>(additionalHeaders);
+        headers.put(ACCEPT_ENCODING, GZIP);
+
+        String  host = Uri.parse(request.getUrl()).getHost();
+        byte[]  body = request.getBody();
+        boolean compress = body != null && body.length >= COMPRESS_MIN_BYTES && gzipHosts.contains(host);
+
+        HttpResponse response;
+        if (compress) {
+            byte[] packed = gzip(body);
+            response = delegate.executeRequest(new EncodedRequest<>(request, packed, GZIP), headers);
+            if (response.getStatusCode() == UNSUPPORTED_MEDIA) {
+                Log.w(TAG, host + " rejected a gzip body; sending uncompressed");
+                gzipHosts.remove(host);
+                close(response);
+                compress = false;
+                response = delegate.executeRequest(new EncodedRequest<>(request, body, null), headers);
+            } else {
+                stats.onRequestBody(request.getUrl(), packed.length, body.length, true);
+            }
+        } else {
+            // The body is already encoded; spare the stack below doing it again
+            response = delegate.executeRequest(
+                body != null ? new EncodedRequest<>(request, body, null) : request, headers);
+        }
+        if (!compress && body != null) {
+            stats.onRequestBody(request.getUrl(), body.length, body.length, false);
+        }
+
+        noteRequestEncodings(host, response.getHeaders());
+        return decode(request.getUrl(), response);
+    }
+
+    private void noteRequestEncodings(String host, List<Header> headers) {
+        for (Header header : headers) {
+            if (ACCEPT_ENCODING.equalsIgnoreCase(header.getName())
+                    && header.getValue().toLowerCase(Locale.ROOT).contains(GZIP)) {
+                gzipHosts.add(host);
+                return;
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Responses
+    // ─────────────────────────────────────────────────────────
+
+    private HttpResponse decode(String url, HttpResponse response) throws IOException {
+        InputStream content = response.getContent();
+        if (content == null) {
+            return response;
+        }
+
+        boolean gzipped = false;
+        List<Header> headers = new ArrayList<>(response.getHeaders().size());
+        for (Header header : response.getHeaders()) {
+            if (CONTENT_ENCODING.equalsIgnoreCase(header.getName())) {
+                gzipped |= GZIP.equalsIgnoreCase(header.getValue().trim());
+                continue;
+            }
+            if (CONTENT_LENGTH.equalsIgnoreCase(header.getName())) continue;
+            headers.add(header);
+        }
+
+        CountingStream wire = new CountingStream(content, null);
+        InputStream decoded;
+        if (gzipped) {
+            try {
+                decoded = new GZIPInputStream(wire);
+            } catch (EOFException empty) {
+                decoded = wire;   // gzip header promised, no body sent
+            }
+        } else {
+            decoded = wire;
+        }
+        boolean compressed = decoded != wire;
+        CountingStream counted = new CountingStream(decoded,
+            bytes -> stats.onResponse(url, wire.count, bytes, compressed));
+
+        return new HttpResponse(response.getStatusCode(), headers, -1, counted);
+    }
+
+    private interface OnClose {
+        void closed(long bytes);
+    }
+
+    /** Counts what is read through it and reports once when closed. */
+    private static final class CountingStream extends FilterInputStream {
+        private final OnClose onClose;
+        long count;
+        private boolean closed;
+
+        CountingStream(InputStream in, OnClose onClose) {
+            super(in);
+            this.onClose = onClose;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (!closed && onClose != null) {
+                closed = true;
+                onClose.closed(count);
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Requests
+    // ─────────────────────────────────────────────────────────
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static void close(HttpResponse response) {
+        InputStream content = response.getContent();
+        if (content == null) return;
+        try {
+            content.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.link;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.Response;
+
+import java.util.Map;
+
+/**
+ * Opens the connection to the API host ahead of the requests that need it, so
+ * the SOS alert → map → resolve flow starts on a socket that has already done
+ * DNS, TCP and TLS.
+ *
+ * {@link #warm} is called when login succeeds, when MainActivity starts and
+ * when an FCM alert arrives. It sends a HEAD to ApiConfig.BASE_URL, which lands
+ * the socket in the platform's keep-alive pool (see ApiClient). For WINDOW_MS
+ * after the last call, the socket is kept open with another HEAD whenever the
+ * link has been idle for nearly the server's keep-alive timeout. That timeout
+ * is read from the Keep-Alive response header. Nothing is sent on a 2G-class
+ * link ({@link NetworkQuality}), or while other traffic is keeping the socket
+ * busy anyway.
+ *
+ * The first HEAD of a window pays the connection setup and later ones don't,
+ * so the difference between the two averages is the setup time the next real
+ * request saves.
+ *
+ * The HEADs are {@link WarmUp} requests: sent once, without retries, and left
+ * out of the circuit breaker, telemetry and {@link ApiClient#getIdleMs()}, so a
+ * failing or slow warm-up never counts against the API. This class keeps its
+ * own time of the last HEAD for the keep-alive schedule.
+ */
+public class ConnectionWarmer {
+
+    public enum Reason { LOGIN, APP_START, ALERT }
+
+    private static final String TAG = "ConnectionWarmer";
+
+    private static final long WINDOW_MS        = 90_000;
+    private static final long DEFAULT_IDLE_MS  = 4_000;    // Apache's default keep-alive is 5 s
+    private static final long MIN_IDLE_MS      = 2_000;
+    private static final long MAX_IDLE_MS      = 50_000;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static ConnectionWarmer instance;
+    private final ApiClient      client;
+    private final NetworkQuality networkQuality;
+    private final String         url;
+
+    // Main thread
+    private final Runnable tick = this::tick;
+    private long    windowEndsAt = 0;
+    private long    idleMs       = DEFAULT_IDLE_MS;
+    private long    lastPingAt   = 0;
+    private boolean inFlight     = false;
+    private boolean coldNext     = true;
+    private long    coldPings    = 0;
+    private long    coldTotalMs  = 0;
+    private long    warmPings    = 0;
+    private long    warmTotalMs  = 0;
+    private final int[] triggers = new int[Reason.values().length];
+
+    private ConnectionWarmer(Context context) {
+        this(context, ApiConfig.BASE_URL);
+    }
+
+    /** Warms the connection to {@code url}'s host instead of the API's. */
+    ConnectionWarmer(Context context, String url) {
+        Context appContext = context.getApplicationContext();
+        this.client         = ApiClient.getInstance(appContext);
+        this.networkQuality = NetworkQuality.getInstance(appContext);
+        this.url            = url;
+    }
+
+    public static synchronized ConnectionWarmer getInstance(Context context) {
+        if (instance == null) {
+            instance = new ConnectionWarmer(context);
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Warming
+    // ─────────────────────────────────────────────────────────
+
+    /** Safe from any thread. */
+    public void warm(Reason reason) {
+        MAIN_HANDLER.post(() -> {
+            triggers[reason.ordinal()]++;
+            boolean idleWindow = SystemClock.elapsedRealtime() > windowEndsAt;
+            windowEndsAt = SystemClock.elapsedRealtime() + WINDOW_MS;
+            if (idleWindow) {
+                coldNext = idleMs() >= idleMs;
+            }
+            Log.d(TAG, "Warming for " + reason);
+            MAIN_HANDLER.removeCallbacks(tick);
+            tick();
+        });
+    }
+
+    private void tick() {
+        if (SystemClock.elapsedRealtime() > windowEndsAt) return;
+        if (networkQuality.getMode() == NetworkQuality.Mode.MINIMAL) return;
+
+        long idle = idleMs();
+        if (idle >= idleMs - 500 && !inFlight) {
+            ping();
+            MAIN_HANDLER.postDelayed(tick, idleMs);
+        } else {
+            MAIN_HANDLER.postDelayed(tick, Math.max(500, idleMs - idle));
+        }
+    }
+
+    private void ping() {
+        inFlight = true;
+        boolean cold  = coldNext;
+        long    start = SystemClock.elapsedRealtime();
+        coldNext   = false;
+        lastPingAt = start;
+
+        client.add(new WarmUp(url, headers -> {
+            inFlight = false;
+            long elapsed = SystemClock.elapsedRealtime() - start;
+            if (cold) {
+                coldPings++;
+                coldTotalMs += elapsed;
+            } else {
+                warmPings++;
+                warmTotalMs += elapsed;
+            }
+            idleMs = keepAliveIdleMs(headers);
+        }, error -> {
+            inFlight = false;
+            coldNext = true;
+            Log.d(TAG, "Warm-up failed: " + error);
+        }), RequestLane.INTERACTIVE);
+    }
+
+    /** Time since anything, app request or HEAD, last used the socket. */
+    private long idleMs() {
+        long sincePing = lastPingAt == 0 ? Long.MAX_VALUE : SystemClock.elapsedRealtime() - lastPingAt;
+        return Math.min(client.getIdleMs(), sincePing);
+    }
+
+    /** Just under the server's "Keep-Alive: timeout=N", or the default when it doesn't say. */
+    private static long keepAliveIdleMs(Map<String, String> headers) {
+        String keepAlive = headers == null ? null : headers.get("Keep-Alive");
+        if (keepAlive == null) return DEFAULT_IDLE_MS;
+        for (String part : keepAlive.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length == 2 && "timeout".equalsIgnoreCase(pair[0].trim())) {
+                try {
+                    long seconds = Long.parseLong(pair[1].trim());
+                    return Math.max(MIN_IDLE_MS, Math.min(MAX_IDLE_MS, seconds * 1000 - 1000));
+                } catch (NumberFormatException ignored) {
+                    return DEFAULT_IDLE_MS;
+                }
+            }
+        }
+        return DEFAULT_IDLE_MS;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Request
+    // ─────────────────────────────────────────────────────────
+
+    /**
+     * A warm-up HEAD. One attempt, uncached; {@link ApiClient} does not apply
+     * {@link RequestPolicy} to it and {@link TelemetryStack} does not record it.
+     */
+    static final class WarmUp extends Request<Map<String, String>> {
+
+        private final Response.Listener<Map<String, String>> listener;
+
+        WarmUp(String url, Response.Listener<Map<String, String>> listener,
+               Response.ErrorListener errorListener) {
+            super(Method.HEAD, url, errorListener);
+            this.listener = listener;
+            setShouldCache(false);
+            setRetryPolicy(new DefaultRetryPolicy(DefaultRetryPolicy.DEFAULT_TIMEOUT_MS, 0,
+                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+            setShouldRetryServerErrors(false);
+            setShouldRetryConnectionErrors(false);
+        }
+
+        @Override
+        protected Response<Map<String, String>> parseNetworkResponse(NetworkResponse response) {
+            return Response.success(response.headers, null);
+        }
+
+        @Override
+        protected void deliverResponse(Map<String, String> headers) {
+            listener.onResponse(headers);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    /** Average cold minus average warm HEAD time, ms; -1 until both have been seen. */
+    public long getSetupSavingMs() {
+        if (coldPings == 0 || warmPings == 0) return -1;
+        return coldTotalMs / coldPings - warmTotalMs / warmPings;
+    }
+
+    public String getStats() {
+        return "Triggers (login / start / alert): " + triggers[0] + " / " + triggers[1] + " / " + triggers[2] + "\n" +
+               "Cold HEADs: "  + coldPings + (coldPings > 0 ? ", avg " + coldTotalMs / coldPings + " ms" : "") + "\n" +
+               "Warm HEADs: "  + warmPings + (warmPings > 0 ? ", avg " + warmTotalMs / warmPings + " ms" : "") + "\n" +
+               "Setup saved: " + (getSetupSavingMs() < 0 ? "–" : getSetupSavingMs() + " ms") + "\n" +
+               "Keep-alive ping every " + idleMs / 1000.0 + " s";
+    }
+}
@@ -1,44 +1,53 @@
 package com.example.link;
 
 import android.app.AlertDialog;
-import android.graphics.Color;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.FrameLayout;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.appcompat.widget.AppCompatButton;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.android.volley.ParseError;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 public class CustomerActivity extends AppCompatActivity {
 
     private FrameLayout btnBack;
     private TextView tvAvailableCount, tvActiveCount;
-    private LinearLayout availableDevicesContainer, activeDevicesContainer;
+    private View availableEmpty, activeEmpty;
+    private AvailableDeviceAdapter availableAdapter;
+    private ActiveDeviceAdapter activeAdapter;
 
-    private RequestQueue requestQueue;
+    private RequestScope requestScope;
+    private SyncEngine syncEngine;
     private SharedPrefManager sharedPrefManager;
 
     private int currentStaffId;
+    private boolean loadedFromNetwork = false;
+
+    // What the lists show; assign and end move one device between them
+    private List<CustomerDevice> available = new ArrayList<>();
+    private List<CustomerDevice> active    = new ArrayList<>();
+    private int availableCount, activeCount;
+    private final Map<String, CustomerDevice> availableBySerial = new HashMap<>(); // every available device seen
 
     /* =====================================================
        ACTIVITY LIFECYCLE
@@ -49,7 +58,8 @@ public class CustomerActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_customer);
 
-        requestQueue   = Volley.newRequestQueue(this);
+        requestScope = RequestScope.of(this);
+        syncEngine = SyncEngine.getInstance(this);
         sharedPrefManager = SharedPrefManager.getInstance(this);
         currentStaffId = sharedPrefManager.getStaffId();
 
@@ -71,7 +81,7 @@ public class CustomerActivity extends AppCompatActivity {
 
         initViews();
         setupListeners();
-        loadDevices();
+        loadStoredDevices(); // onResume follows and loads from the network
     }
 
     @Override
@@ -85,11 +95,30 @@ public class CustomerActivity extends AppCompatActivity {
        ===================================================== */
 
     private void initViews() {
-        btnBack                  = findViewById(R.id.btnBack);
-        tvAvailableCount         = findViewById(R.id.tvAvailableCount);
-        tvActiveCount            = findViewById(R.id.tvActiveCount);
-        availableDevicesContainer = findViewById(R.id.availableDevicesContainer);
-        activeDevicesContainer   = findViewById(R.id.activeDevicesContainer);
+        RecyclerView deviceList = findViewById(R.id.deviceList);
+        LayoutInflater inflater = LayoutInflater.from(this);
+
+        // One recycled list: the section headers scroll with the rows between them
+        View availableHeader = inflater.inflate(R.layout.customer_available_header, deviceList, false);
+        View activeHeader    = inflater.inflate(R.layout.customer_active_header, deviceList, false);
+        availableAdapter = new AvailableDeviceAdapter();
+        activeAdapter    = new ActiveDeviceAdapter();
+        availableAdapter.setOnAssignClickListener(device -> showUserInputModal(device.getSerialNumber()));
+        activeAdapter.setOnEndClickListener(device ->
+            showEndAssignmentConfirmation(device.getAssignmentId(), device.getSerialNumber()));
+
+        deviceList.setLayoutManager(new LinearLayoutManager(this));
+        deviceList.setAdapter(new ConcatAdapter(
+            new HeaderAdapter(availableHeader), availableAdapter,
+            new HeaderAdapter(activeHeader),    activeAdapter));
+        deviceList.addItemDecoration(new SectionBackground(availableAdapter,
+            ContextCompat.getColor(this, R.color.white), 16 * getResources().getDisplayMetrics().density));
+
+        btnBack          = availableHeader.findViewById(R.id.btnBack);
+        tvAvailableCount = availableHeader.findViewById(R.id.tvAvailableCount);
+        availableEmpty   = availableHeader.findViewById(R.id.availableEmpty);
+        tvActiveCount    = activeHeader.findViewById(R.id.tvActiveCount);
+        activeEmpty      = activeHeader.findViewById(R.id.activeEmpty);
     }
 
     private void setupListeners() {
@@ -100,150 +129,103 @@ public class CustomerActivity extends AppCompatActivity {
        LOAD DEVICES
        ===================================================== */
 
+    /** Paint the stored inventory; the network load that follows replaces it. */
+    private void loadStoredDevices() {
+        syncEngine.loadInventory(sharedPrefManager.getUserId(), currentStaffId, local -> {
+            if (local != null && !loadedFromNetwork && !isDestroyed()) {
+                renderDevices(local);
+            }
+        });
+    }
+
     private void loadDevices() {
-        String url = ApiConfig.GET_DEVICES_URL + "?staff_id=" + currentStaffId;
-        Log.d("DeviceRequest", url);
-
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    if (!response.getBoolean("success")) {
+        Log.d("DeviceRequest", "Loading devices for staff " + currentStaffId);
+
+        requestScope.track(syncEngine.syncInventory(sharedPrefManager.getUserId(), currentStaffId))
+            .whenComplete((result, error) -> {
+                if (error == null) {
+                    if (!result.success) {
                         Toast.makeText(this, "Failed to load devices", Toast.LENGTH_SHORT).show();
                         return;
                     }
-
-                    tvAvailableCount.setText(String.valueOf(response.optInt("available_count")));
-                    tvActiveCount.setText(String.valueOf(response.optInt("active_count")));
-
-                    loadAvailableDevices(response.optJSONArray("available_devices"));
-                    loadActiveDevices(response.optJSONArray("active_devices"));
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    Toast.makeText(this, "Parse error", Toast.LENGTH_SHORT).show();
+                    loadedFromNetwork = true;
+                    renderDevices(result);
+                    return;
                 }
-            },
-            error -> {
-                Log.e("DeviceRequest", error.toString());
-                Toast.makeText(this, "Network error", Toast.LENGTH_SHORT).show();
-            }
-        );
 
-        requestQueue.add(request);
+                Throwable cause = ApiCall.unwrap(error);
+                if (cause instanceof CancellationException) return;
+                Log.e("DeviceRequest", cause.toString());
+                String message = cause instanceof ParseError ? "Parse error" : "Network error";
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            });
     }
 
-    /* =====================================================
-       AVAILABLE DEVICES  ← THE UPDATED METHOD
-       ===================================================== */
-
-    private void loadAvailableDevices(JSONArray devices) {
-        availableDevicesContainer.removeAllViews();
-
-        if (devices == null || devices.length() == 0) {
-            showEmpty(availableDevicesContainer, "No available devices");
-            return;
+    private void renderDevices(ApiParsers.InventoryResult result) {
+        availableCount = result.availableCount;
+        activeCount    = result.activeCount;
+        for (CustomerDevice device : result.available) {
+            availableBySerial.put(device.getSerialNumber(), device);
         }
+        showDevices(result.available, result.active);
+    }
 
-        for (int i = 0; i < devices.length(); i++) {
-            JSONObject device = devices.optJSONObject(i);
-            if (device == null) continue;
-
-            String serial     = device.optString("serial_number", "—");
-            String deviceName = device.optString("device_name",   serial);   // ← was device_status
-            int    battery    = device.optInt   ("battery_percent", 0);       // ← new
-
-            View item = LayoutInflater.from(this)
-                .inflate(R.layout.item_available_device, null);
-
-            // Serial number  (bold top line)
-            TextView tvSerial = item.findViewById(R.id.tvDeviceSerial);
-            tvSerial.setText(serial);
-
-            // Device name  (subtitle line — was showing status before)
-            TextView tvDeviceName = item.findViewById(R.id.tvDeviceName);
-            if (tvDeviceName != null) {
-                tvDeviceName.setText(deviceName);
-            }
-
-            // Battery percentage
-            TextView tvBattery = item.findViewById(R.id.tvBatteryPercent);
-            if (tvBattery != null) {
-                tvBattery.setText(battery + "%");
-
-                // Tint the battery label red when low, green otherwise
-                int color = battery <= 20
-                    ? Color.parseColor("#EF4444")   // red-500
-                    : Color.parseColor("#64748B");  // slate-500 (default)
-                tvBattery.setTextColor(color);
-            }
+    /** Both lists are diffed off the main thread, so only rows that changed are rebound. */
+    private void showDevices(List<CustomerDevice> available, List<CustomerDevice> active) {
+        this.available = available;
+        this.active    = active;
 
-            // Battery icon tint (matches the label colour)
-            ImageView batteryIcon = item.findViewById(R.id.batteryIcon);
-            if (batteryIcon != null) {
-                int iconTint = battery <= 20
-                    ? Color.parseColor("#EF4444")
-                    : Color.parseColor("#64748B");
-                batteryIcon.setColorFilter(iconTint);
-            }
+        tvAvailableCount.setText(String.valueOf(availableCount));
+        tvActiveCount.setText(String.valueOf(activeCount));
+        availableEmpty.setVisibility(available.isEmpty() ? View.VISIBLE : View.GONE);
+        activeEmpty.setVisibility(active.isEmpty() ? View.VISIBLE : View.GONE);
 
-            // Assign button
-            AppCompatButton btnAssign = item.findViewById(R.id.btnAssign);
-            btnAssign.setOnClickListener(v -> showUserInputModal(serial));
-
-            availableDevicesContainer.addView(item);
-        }
+        availableAdapter.submitList(available);
+        activeAdapter.submitList(active);
     }
 
-    /* =====================================================
-       ACTIVE DEVICES
-       ===================================================== */
+    /** After an assign: the device leaves the available rows and a card for it is added. */
+    private void moveToActive(CustomerDevice device, int assignmentId, String name, String contact) {
+        CustomerDevice assignment = new CustomerDevice();
+        assignment.setAssignmentId(assignmentId);
+        assignment.setSerialNumber(device.getSerialNumber());
+        assignment.setCustomerName(name);
+        assignment.setCustomerContact(contact);
+        assignment.setAssignedBy(sharedPrefManager.getStaffName());
+        assignment.setStatus("registered");
+
+        List<CustomerDevice> newAvailable = new ArrayList<>(available);
+        List<CustomerDevice> newActive    = new ArrayList<>(active);
+        newAvailable.remove(device);
+        newActive.add(0, assignment);
+        availableCount = Math.max(0, availableCount - 1);
+        activeCount++;
+        showDevices(newAvailable, newActive);
+    }
 
-    private void loadActiveDevices(JSONArray devices) {
-        activeDevicesContainer.removeAllViews();
+    /** After an end: the card goes and the device is available again. */
+    private void moveToAvailable(CustomerDevice assignment, CustomerDevice device) {
+        List<CustomerDevice> newAvailable = new ArrayList<>(available);
+        List<CustomerDevice> newActive    = new ArrayList<>(active);
+        newActive.remove(assignment);
+        newAvailable.add(device);
+        activeCount = Math.max(0, activeCount - 1);
+        availableCount++;
+        showDevices(newAvailable, newActive);
+    }
 
-        if (devices == null || devices.length() == 0) {
-            showEmpty(activeDevicesContainer, "No active devices");
-            return;
+    private static CustomerDevice findBySerial(List<CustomerDevice> devices, String serial) {
+        for (CustomerDevice device : devices) {
+            if (device.getSerialNumber().equals(serial)) return device;
         }
+        return null;
+    }
 
-        for (int i = 0; i < devices.length(); i++) {
-            JSONObject device = devices.optJSONObject(i);
-            if (device == null) continue;
-
-            View card = LayoutInflater.from(this)
-                .inflate(R.layout.item_active_device, null);
-
-            ((TextView) card.findViewById(R.id.tvUserName))
-                .setText(device.optString("assigned_name"));
-            ((TextView) card.findViewById(R.id.tvDeviceSerial))
-                .setText(device.optString("serial_number"));
-            ((TextView) card.findViewById(R.id.tvContact))
-                .setText(device.optString("assigned_contact"));
-            ((TextView) card.findViewById(R.id.tvAssignedBy))
-                .setText(device.optString("assigned_by"));
-
-            String   status      = device.optString("device_status");
-            TextView tvStatus    = card.findViewById(R.id.tvStatus);
-            if ("registered".equals(status)) {
-                tvStatus.setText("Active");
-                tvStatus.setTextColor(getResources().getColor(R.color.green_600));
-            } else {
-                tvStatus.setText("Offline");
-                tvStatus.setTextColor(getResources().getColor(R.color.gray_500));
-            }
-
-            int    assignmentId = device.optInt("assignment_id");
-            String serialNumber = device.optString("serial_number");
-
-            AppCompatButton btnEnd = card.findViewById(R.id.btnEndAssignment);
-            if (btnEnd != null) {
-                btnEnd.setOnClickListener(v ->
-                    showEndAssignmentConfirmation(assignmentId, serialNumber));
-            }
-
-            activeDevicesContainer.addView(card);
+    private static CustomerDevice findByAssignment(List<CustomerDevice> devices, int assignmentId) {
+        for (CustomerDevice device : devices) {
+            if (device.getAssignmentId() == assignmentId) return device;
         }
+        return null;
     }
 
     /* =====================================================
@@ -264,66 +246,31 @@ public class CustomerActivity extends AppCompatActivity {
     }
 
     private void endAssignment(int assignmentId, String serialNumber) {
-        try {
-            JSONObject body = new JSONObject();
-            body.put("assignment_id", assignmentId);
-            body.put("staff_id",      currentStaffId);
-
-            Log.d("EndAssignment", "URL: "  + ApiConfig.END_ASSIGNMENT_URL);
-            Log.d("EndAssignment", "Body: " + body);
-
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, ApiConfig.END_ASSIGNMENT_URL, body,
-                response -> {
-                    try {
-                        Log.d("EndAssignment", "Response: " + response);
-                        if (response.optBoolean("success")) {
-                            Toast.makeText(this, "Assignment ended successfully", Toast.LENGTH_SHORT).show();
-                            loadDevices();
+        Log.d("EndAssignment", "Ending assignment " + assignmentId + " (" + serialNumber + ")");
+
+        requestScope.track(LinkApi.getInstance(this).endAssignment(assignmentId, currentStaffId))
+            .whenComplete((response, error) -> {
+                if (error == null) {
+                    Log.d("EndAssignment", "Response: " + response);
+                    if (response.optBoolean("success")) {
+                        Toast.makeText(this, "Assignment ended successfully", Toast.LENGTH_SHORT).show();
+                        CustomerDevice assignment = findByAssignment(active, assignmentId);
+                        CustomerDevice device     = availableBySerial.get(serialNumber);
+                        if (assignment != null && device != null) {
+                            moveToAvailable(assignment, device);
                         } else {
-                            String err = response.optString("error",
-                                response.optString("message", "Failed to end assignment"));
-                            Toast.makeText(this, err, Toast.LENGTH_SHORT).show();
+                            loadDevices(); // never seen as available; the diff still touches only this row
                         }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        Toast.makeText(this, "Parse error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    }
-                },
-                error -> {
-                    Log.e("EndAssignment", "Volley Error: ", error);
-                    if (error.networkResponse != null) {
-                        Log.e("EndAssignment", "Status: " + error.networkResponse.statusCode);
-                        try {
-                            Log.e("EndAssignment", "Body: " +
-                                new String(error.networkResponse.data, "utf-8"));
-                        } catch (Exception ignored) {}
+                    } else {
+                        String err = response.optString("error",
+                            response.optString("message", "Failed to end assignment"));
+                        Toast.makeText(this, err, Toast.LENGTH_SHORT).show();
                     }
-                    Toast.makeText(this, "Network error. Please check connection.", Toast.LENGTH_SHORT).show();
-                }
-            ) {
-                @Override public Map<String, String> getHeaders() {
-                    Map<String, String> h = new HashMap<>();
-                    h.put("Content-Type", "application/json");
-                    h.put("Accept",       "application/json");
-                    return h;
+                    return;
                 }
-                @Override public String getBodyContentType() {
-                    return "application/json; charset=utf-8";
-                }
-            };
-
-            request.setRetryPolicy(new DefaultRetryPolicy(
-                10000,
-                DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
-
-            requestQueue.add(request);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            Toast.makeText(this, "Error creating request: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        }
+                showWriteError("EndAssignment", ApiCall.unwrap(error),
+                    "No connection. The assignment will end once you are back online.");
+            });
     }
 
     /* =====================================================
@@ -366,49 +313,79 @@ public class CustomerActivity extends AppCompatActivity {
     }
 
     private void assignDevice(String serial, String name, String contact) {
-        try {
-            JSONObject body = new JSONObject();
-            body.put("serial_number",    serial);
-            body.put("assigned_name",    name);
-            body.put("assigned_contact", contact);
-            body.put("staff_id",         currentStaffId);
-
-            Log.d("AssignRequest", body.toString());
-
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, ApiConfig.ASSIGN_DEVICE_URL, body,
-                response -> {
+        Log.d("AssignRequest", "Assigning " + serial + " to " + name);
+
+        requestScope.track(LinkApi.getInstance(this).assignDevice(serial, name, contact, currentStaffId))
+            .whenComplete((response, error) -> {
+                if (error == null) {
                     if (response.optBoolean("success")) {
                         Toast.makeText(this, "Assigned successfully", Toast.LENGTH_SHORT).show();
-                        loadDevices();
+                        CustomerDevice device       = findBySerial(available, serial);
+                        int            assignmentId = response.optInt("assignment_id", 0);
+                        if (device != null && assignmentId > 0) {
+                            moveToActive(device, assignmentId, name, contact);
+                        } else {
+                            loadDevices(); // the new assignment ID is needed to end it later
+                        }
                     } else {
                         Toast.makeText(this, response.optString("message"), Toast.LENGTH_SHORT).show();
                     }
-                },
-                error -> Toast.makeText(this, "Network error", Toast.LENGTH_SHORT).show()
-            ) {
-                @Override public Map<String, String> getHeaders() {
-                    Map<String, String> h = new HashMap<>();
-                    h.put("Content-Type", "application/json");
-                    return h;
+                    return;
                 }
-            };
-
-            requestQueue.add(request);
+                showWriteError("AssignRequest", ApiCall.unwrap(error),
+                    "No connection. The assignment is saved and will be sent once you are back online.");
+            });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    /** Writes go through the {@link Outbox}: a queued one is not lost, only late. */
+    private void showWriteError(String tag, Throwable cause, String queuedMessage) {
+        if (cause instanceof CancellationException) return;
+        if (cause instanceof Outbox.QueuedException) {
+            Toast.makeText(this, queuedMessage, Toast.LENGTH_LONG).show();
+            return;
         }
+        Log.e(tag, "Write failed", cause);
+        Toast.makeText(this, "Network error. Please check connection.", Toast.LENGTH_SHORT).show();
     }
 
     /* =====================================================
        UTIL
        ===================================================== */
 
-    private void showEmpty(LinearLayout container, String text) {
-        TextView tv = new TextView(this);
-        tv.setText(text);
-        tv.setPadding(30, 40, 30, 40);
-        container.addView(tv);
+    /** The rounded white card behind the available device rows. */
+    private static final class SectionBackground extends RecyclerView.ItemDecoration {
+        private final RecyclerView.Adapter<?> section;
+        private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        private final float radius;
+        private final RectF bounds = new RectF();
+
+        SectionBackground(RecyclerView.Adapter<?> section, int color, float radius) {
+            this.section = section;
+            this.radius  = radius;
+            paint.setColor(color);
+        }
+
+        @Override
+        public void onDraw(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            float   top   = Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+            boolean first = false, last = false;
+            for (int i = 0; i < parent.getChildCount(); i++) {
+                View child = parent.getChildAt(i);
+                RecyclerView.ViewHolder holder = parent.getChildViewHolder(child);
+                if (holder.getBindingAdapter() != section) continue;
+
+                int position = holder.getBindingAdapterPosition();
+                top    = Math.min(top, child.getTop() + child.getTranslationY());
+                bottom = Math.max(bottom, child.getBottom() + child.getTranslationY());
+                first |= position == 0;
+                last  |= position == section.getItemCount() - 1;
+            }
+            if (top >= bottom) return;
+            // With the first or last row scrolled away, keep that end's corners off-screen
+            if (!first) top = -radius;
+            if (!last)  bottom = parent.getHeight() + radius;
+            bounds.set(parent.getPaddingLeft(), top, parent.getWidth() - parent.getPaddingRight(), bottom);
+            canvas.drawRoundRect(bounds, radius, radius, paint);
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.example.link;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Objects;
+
+/**
+ * Customer cards on the dashboard (TestFragment). Lists are diffed on a
+ * background thread by {@link ListAdapter}, so a poll that changes nothing
+ * touches no views, and only cards whose text changed are rebound. Item IDs
+ * are the assignment IDs.
+ */
+public class CustomerCardAdapter extends ListAdapter<CustomerDevice, CustomerCardAdapter.ViewHolder> {
+
+    public interface OnCardClickListener {
+        void onCardClick(CustomerDevice device);
+    }
+
+    private OnCardClickListener listener;
+
+    public CustomerCardAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
+    public void setOnCardClickListener(OnCardClickListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getAssignmentId();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.item_customer_card, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onCardClick(getItem(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView deviceName;
+        final TextView lastUpdate;
+        final TextView location;
+        final TextView customerName;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            deviceName   = itemView.findViewById(R.id.deviceName);
+            lastUpdate   = itemView.findViewById(R.id.lastUpdate);
+            location     = itemView.findViewById(R.id.location);
+            customerName = itemView.findViewById(R.id.customerName);
+        }
+
+        void bind(CustomerDevice device) {
+            deviceName.setText(device.getDeviceName());
+            lastUpdate.setText("Last Update: " + device.getFormattedLastUpdate());
+            location.setText(device.getFormattedLocation());
+            customerName.setText(device.getCustomerName());
+        }
+    }
+
+    /** Same card when the assignment matches; unchanged when everything the card shows matches. */
+    private static final DiffUtil.ItemCallback<CustomerDevice> DIFF = new DiffUtil.ItemCallback<CustomerDevice>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return oldItem.getAssignmentId() == newItem.getAssignmentId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CustomerDevice oldItem, @NonNull CustomerDevice newItem) {
+            return Objects.equals(oldItem.getDeviceName(), newItem.getDeviceName())
+                && Objects.equals(oldItem.getCustomerName(), newItem.getCustomerName())
+                && oldItem.getFormattedLastUpdate().equals(newItem.getFormattedLastUpdate())
+                && oldItem.getLatitude() == newItem.getLatitude()
+                && oldItem.getLongitude() == newItem.getLongitude();
+        }
+    };
+}
@@ -1,5 +1,14 @@
 package com.example.link;
 
+import java.util.Locale;
+
+/**
+ * A device, with its customer when assigned. Filled field by field by
+ * ApiParsers and LinkDatabase, which then call {@link #prepareDisplay()} so
+ * the card text is worked out there, off the main thread, rather than on
+ * every bind. A setter that changes what a card shows drops the prepared
+ * text; it is then rebuilt on next use.
+ */
 public class CustomerDevice {
     private String serialNumber;
     private String deviceName;
@@ -12,6 +21,12 @@ public class CustomerDevice {
     private double longitude;
     private String lastUpdate;
     private int minutesAgo;
+    private String assignedBy;
+
+    // Display values, from prepareDisplay()
+    private String formattedLocation;
+    private String formattedLastUpdate;
+    private long   lastUpdateMillis = Timestamps.INVALID;
 
     // Constructor
     public CustomerDevice() {
@@ -80,6 +95,7 @@ public class CustomerDevice {
 
     public void setLatitude(double latitude) {
         this.latitude = latitude;
+        this.formattedLocation = null;
     }
 
     public double getLongitude() {
@@ -88,6 +104,7 @@ public class CustomerDevice {
 
     public void setLongitude(double longitude) {
         this.longitude = longitude;
+        this.formattedLocation = null;
     }
 
     public String getLastUpdate() {
@@ -96,6 +113,7 @@ public class CustomerDevice {
 
     public void setLastUpdate(String lastUpdate) {
         this.lastUpdate = lastUpdate;
+        this.lastUpdateMillis = Timestamps.INVALID;
     }
 
     public int getMinutesAgo() {
@@ -104,13 +122,46 @@ public class CustomerDevice {
 
     public void setMinutesAgo(int minutesAgo) {
         this.minutesAgo = minutesAgo;
+        this.formattedLastUpdate = null;
+    }
+
+    public String getAssignedBy() {
+        return assignedBy;
+    }
+
+    public void setAssignedBy(String assignedBy) {
+        this.assignedBy = assignedBy;
+    }
+
+    /** True while the device has an open SOS (raised or acknowledged, not yet resolved). */
+    public boolean isSos() {
+        return "sos".equalsIgnoreCase(status) || "acknowledged".equalsIgnoreCase(status);
+    }
+
+    /** Works out the display values; called where the device is built, off the main thread. */
+    void prepareDisplay() {
+        formattedLocation   = String.format(Locale.US, "%.5f, %.5f", latitude, longitude);
+        formattedLastUpdate = minutesAgoText(minutesAgo);
+        lastUpdateMillis    = Timestamps.parse(lastUpdate);
     }
 
     public String getFormattedLocation() {
-        return String.format("%.5f, %.5f", latitude, longitude);
+        if (formattedLocation == null) prepareDisplay();
+        return formattedLocation;
     }
 
     public String getFormattedLastUpdate() {
+        if (formattedLastUpdate == null) prepareDisplay();
+        return formattedLastUpdate;
+    }
+
+    /** last_update as epoch millis, or Timestamps.INVALID. */
+    public long getLastUpdateMillis() {
+        if (lastUpdateMillis == Timestamps.INVALID && lastUpdate != null) prepareDisplay();
+        return lastUpdateMillis;
+    }
+
+    private static String minutesAgoText(int minutesAgo) {
         if (minutesAgo == 0) {
             return "Just now";
         } else if (minutesAgo == 1) {
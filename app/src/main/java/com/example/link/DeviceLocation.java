@@ -1,21 +1,36 @@
 package com.example.link;
 
+/**
+ * One row of the device activity list. Filled field by field by ApiParsers and
+ * LinkDatabase, which then call {@link #prepareDisplay()} so the row text is
+ * worked out there, off the main thread, rather than on every bind. Setting a
+ * field the row shows drops the prepared text; it is rebuilt on next use.
+ */
 public class DeviceLocation {
     private int id;
     private String serialNumber;
     private String customerName;
     private String customerContact;
-    private String latitude;
-    private String longitude;
+    private double latitude  = Double.NaN;   // NaN when the row has no fix; 0.0 is a real position
+    private double longitude = Double.NaN;
+    private String latitudeText;             // as the server sent it, which is what the list shows
+    private String longitudeText;
     private String dateTime;
     private int batteryPercent;
     private String deviceOwner;
-    private String altitude;
-    private String speed;
+    private double altitude;
+    private double speed;
     private int assignedBy;
     private String assignedByName;
     private String assignedAt;
 
+    // Display values, from prepareDisplay()
+    private String displayCustomerName;
+    private String formattedLatitude;
+    private String formattedLongitude;
+    private String formattedDateTime;
+    private long   dateTimeMillis = Timestamps.INVALID;
+
     public DeviceLocation() {}
 
     // Getters and Setters
@@ -26,19 +41,26 @@ public class DeviceLocation {
     public void setSerialNumber(String serialNumber) { this.serialNumber = serialNumber; }
 
     public String getCustomerName() { return customerName; }
-    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; displayCustomerName = null; }
 
     public String getCustomerContact() { return customerContact; }
     public void setCustomerContact(String customerContact) { this.customerContact = customerContact; }
 
-    public String getLatitude() { return latitude; }
-    public void setLatitude(String latitude) { this.latitude = latitude; }
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; latitudeText = null; formattedLatitude = null; }
+
+    /** The coordinate as sent ("14.59950000"), or null; the number is read from it. */
+    public String getLatitudeText() { return latitudeText; }
+    public void setLatitude(String text) { setLatitude(coordinate(text)); latitudeText = text; }
 
-    public String getLongitude() { return longitude; }
-    public void setLongitude(String longitude) { this.longitude = longitude; }
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; longitudeText = null; formattedLongitude = null; }
+
+    public String getLongitudeText() { return longitudeText; }
+    public void setLongitude(String text) { setLongitude(coordinate(text)); longitudeText = text; }
 
     public String getDateTime() { return dateTime; }
-    public void setDateTime(String dateTime) { this.dateTime = dateTime; }
+    public void setDateTime(String dateTime) { this.dateTime = dateTime; formattedDateTime = null; }
 
     public int getBatteryPercent() { return batteryPercent; }
     public void setBatteryPercent(int batteryPercent) { this.batteryPercent = batteryPercent; }
@@ -46,11 +68,11 @@ public class DeviceLocation {
     public String getDeviceOwner() { return deviceOwner; }
     public void setDeviceOwner(String deviceOwner) { this.deviceOwner = deviceOwner; }
 
-    public String getAltitude() { return altitude; }
-    public void setAltitude(String altitude) { this.altitude = altitude; }
+    public double getAltitude() { return altitude; }
+    public void setAltitude(double altitude) { this.altitude = altitude; }
 
-    public String getSpeed() { return speed; }
-    public void setSpeed(String speed) { this.speed = speed; }
+    public double getSpeed() { return speed; }
+    public void setSpeed(double speed) { this.speed = speed; }
 
     public int getAssignedBy() { return assignedBy; }
     public void setAssignedBy(int assignedBy) { this.assignedBy = assignedBy; }
@@ -60,4 +82,60 @@ public class DeviceLocation {
 
     public String getAssignedAt() { return assignedAt; }
     public void setAssignedAt(String assignedAt) { this.assignedAt = assignedAt; }
+
+    // Display values
+    /** Works out the display values; called where the row is built, off the main thread. */
+    void prepareDisplay() {
+        displayCustomerName = customerName != null && !customerName.isEmpty() ? customerName : "Not Assigned";
+        formattedLatitude   = display(latitudeText, latitude);
+        formattedLongitude  = display(longitudeText, longitude);
+        dateTimeMillis      = Timestamps.parse(dateTime);
+        if (dateTime == null || dateTime.isEmpty()) {
+            formattedDateTime = "Never";
+        } else {
+            // Unreadable timestamps are shown as sent
+            formattedDateTime = dateTimeMillis != Timestamps.INVALID ? Timestamps.formatDateTime(dateTimeMillis) : dateTime;
+        }
+    }
+
+    /** The server's text as is, as the list has always shown it; "N/A" without a fix. */
+    private static String display(String text, double value) {
+        if (text != null && !text.isEmpty()) return text;
+        return Double.isNaN(value) ? "N/A" : String.valueOf(value);
+    }
+
+    private static double coordinate(String text) {
+        if (text == null || text.isEmpty()) return Double.NaN;
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public String getDisplayCustomerName() {
+        if (displayCustomerName == null) prepareDisplay();
+        return displayCustomerName;
+    }
+
+    public String getFormattedLatitude() {
+        if (formattedLatitude == null) prepareDisplay();
+        return formattedLatitude;
+    }
+
+    public String getFormattedLongitude() {
+        if (formattedLongitude == null) prepareDisplay();
+        return formattedLongitude;
+    }
+
+    public String getFormattedDateTime() {
+        if (formattedDateTime == null) prepareDisplay();
+        return formattedDateTime;
+    }
+
+    /** recorded_at as epoch millis, or Timestamps.INVALID. */
+    public long getDateTimeMillis() {
+        if (formattedDateTime == null) prepareDisplay();
+        return dateTimeMillis;
+    }
 }
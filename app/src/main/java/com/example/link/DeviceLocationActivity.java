@@ -1,5 +1,7 @@
 package com.example.link;
 
+import android.content.Context;
+import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -8,55 +10,82 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.android.volley.ParseError;
+import java.util.concurrent.CancellationException;
 
 public class DeviceLocationActivity extends AppCompatActivity {
 
     private RecyclerView recyclerView;
     private DeviceLocationAdapter adapter;
-    private List<DeviceLocation> deviceLocationList;
-    private RequestQueue requestQueue;
+    private Pager<DeviceLocation> pager;
+    private RequestScope requestScope;
+    private SyncEngine syncEngine;
     private SharedPrefManager sharedPrefManager;
     private View noDataLayout;
     private ImageView btnFilter;
 
-    private int currentPage = 1;
-    private boolean isLoading = false;
-    private boolean hasMoreData = true;
     private boolean filterByMe = false;
+    private int loadGeneration = 0;
+    private boolean benchmarkPending = false;
 
     private static final String TAG = "DeviceLocationActivity";
+    static final String EXTRA_SCROLL_BENCHMARK = "scroll_benchmark";
+
+    // Paging (see Pager). The first load fetches two pages at once and
+    // {@link Prefetcher} warms the same window; on a slow link it shrinks to
+    // one page (NetworkQuality). The next page is asked for while the user is
+    // still PREFETCH_DISTANCE rows from the end; MAX_PAGES bounds memory.
+    private static final int PAGE_SIZE         = 25;
+    private static final int PREFETCH_DISTANCE = 15;
+    private static final int MAX_PAGES         = 12;
+    static final int FIRST_LOAD_PAGES = 2;
+    static final int FIRST_LOAD_SIZE  = FIRST_LOAD_PAGES * PAGE_SIZE;
+
+    /** Opens the screen and scrolls 1,000 rows through it (debug builds only). */
+    static void startScrollBenchmark(Context context) {
+        context.startActivity(new Intent(context, DeviceLocationActivity.class)
+            .putExtra(EXTRA_SCROLL_BENCHMARK, true));
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_activities);
 
-        // Initialize SharedPrefManager and RequestQueue
+        // Initialize SharedPrefManager, request scope and local store
         sharedPrefManager = SharedPrefManager.getInstance(this);
-        requestQueue = Volley.newRequestQueue(this);
-        deviceLocationList = new ArrayList<>();
+        requestScope = RequestScope.of(this);
+        syncEngine = SyncEngine.getInstance(this);
 
         // Initialize views
         recyclerView = findViewById(R.id.recyclerView);
         noDataLayout = findViewById(R.id.noDataLayout);
         btnFilter = findViewById(R.id.btnFilter);
 
-        // Setup RecyclerView
-        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
-        recyclerView.setLayoutManager(layoutManager);
-        adapter = new DeviceLocationAdapter(deviceLocationList);
+        // Setup RecyclerView; the pager owns the rows and loads pages as it scrolls
+        pager = new Pager<>(PAGE_SIZE,
+            (page, limit) -> requestScope.track(
+                syncEngine.syncDeviceActivities(sharedPrefManager.getUserId(), sharedPrefManager.getStaffId(),
+                    filterByMe, page, limit)),
+            DeviceLocationAdapter.DIFF,
+            new Pager.Callback<DeviceLocation>() {
+                @Override
+                public void onRefreshed(ApiParsers.ListResult<DeviceLocation> result) {
+                    onFirstPageLoaded(result);
+                }
+
+                @Override
+                public void onError(Throwable error, boolean refresh) {
+                    onPageError(refresh, error);
+                }
+            })
+            .setPrefetchDistance(PREFETCH_DISTANCE)
+            .setMaxPages(MAX_PAGES);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new DeviceLocationAdapter(pager.getItems());
         recyclerView.setAdapter(adapter);
+        pager.attach(recyclerView);
+        benchmarkPending = getIntent().getBooleanExtra(EXTRA_SCROLL_BENCHMARK, false) && DebugPanel.isEnabled(this);
 
         // Setup back button
         findViewById(R.id.btnBack).setOnClickListener(v -> finish());
@@ -78,30 +107,9 @@ public class DeviceLocationActivity extends AppCompatActivity {
         String userType = sharedPrefManager.getUserType();
         Log.d(TAG, "User ID: " + userId + ", User Type: " + userType + ", Initial Filter: " + (filterByMe ? "ON" : "OFF"));
 
-        // Setup pagination scroll listener
-        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-
-                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
-                if (layoutManager != null) {
-                    int visibleItemCount = layoutManager.getChildCount();
-                    int totalItemCount = layoutManager.getItemCount();
-                    int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
-
-                    if (!isLoading && hasMoreData) {
-                        if ((visibleItemCount + firstVisibleItemPosition) >= totalItemCount
-                            && firstVisibleItemPosition >= 0) {
-                            loadNextPage();
-                        }
-                    }
-                }
-            }
-        });
-
         // Load first page
-        loadDeviceLocations(currentPage);
+        Prefetcher.getInstance(this).recordOpen(Prefetcher.Target.ACTIVITIES);
+        refreshData();
     }
 
     private void updateFilterIcon() {
@@ -114,178 +122,84 @@ public class DeviceLocationActivity extends AppCompatActivity {
         }
     }
 
-    private void loadDeviceLocations(int page) {
-        if (isLoading) return;
-
-        isLoading = true;
-
-        // Get user ID
+    public void refreshData() {
+        loadGeneration++;
+        int generation = loadGeneration;
         int userId = sharedPrefManager.getUserId();
+        int staffId = sharedPrefManager.getStaffId();
+        boolean filter = filterByMe;
+        int firstLoadPages = NetworkQuality.getInstance(this).getMode().scale(FIRST_LOAD_PAGES);
+
+        Log.d(TAG, "Loading page 1 (user " + userId + ", filter_by_me " + filter + ")");
+
+        // Paint the rows stored for this filter while page 1 is fetched;
+        // whatever is on screen stays until then, so the list does not flash
+        syncEngine.loadDeviceActivities(userId, staffId, filter, firstLoadPages * PAGE_SIZE, local -> {
+            if (local == null || generation != loadGeneration || isDestroyed()) return;
+            pager.showInterim(local.items);
+            noDataLayout.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
+        });
 
-        // Build URL with parameters
-        String url = ApiConfig.GET_DEVICE_ACTIVITIES +
-            "?user_id=" + userId +
-            "&filter_by_me=" + (filterByMe ? "1" : "0") +
-            "&page=" + page +
-            "&limit=5";
-
-        Log.d(TAG, "Loading page " + page + " from URL: " + url);
-
-        JsonObjectRequest jsonObjectRequest = new JsonObjectRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                isLoading = false;
-
-                try {
-                    Log.d(TAG, "Response received successfully");
-
-                    boolean success = response.getBoolean("success");
-
-                    if (success) {
-                        JSONArray dataArray = response.getJSONArray("data");
-
-                        // Clear list if loading first page
-                        if (page == 1) {
-                            deviceLocationList.clear();
-                        }
-
-                        if (dataArray.length() > 0) {
-                            // Hide no data layout, show recyclerview
-                            runOnUiThread(() -> {
-                                noDataLayout.setVisibility(View.GONE);
-                                recyclerView.setVisibility(View.VISIBLE);
-                            });
-
-                            // Parse and add data
-                            for (int i = 0; i < dataArray.length(); i++) {
-                                JSONObject obj = dataArray.getJSONObject(i);
-
-                                DeviceLocation deviceLocation = new DeviceLocation();
-
-                                // Set all fields from JSON response
-                                if (obj.has("id")) deviceLocation.setId(obj.getInt("id"));
-                                if (obj.has("serial_number")) deviceLocation.setSerialNumber(obj.getString("serial_number"));
-                                if (obj.has("latitude")) deviceLocation.setLatitude(obj.getString("latitude"));
-                                if (obj.has("longitude")) deviceLocation.setLongitude(obj.getString("longitude"));
-                                if (obj.has("recorded_at")) deviceLocation.setDateTime(obj.getString("recorded_at"));
-                                if (obj.has("customer_name")) deviceLocation.setCustomerName(obj.getString("customer_name"));
-                                if (obj.has("customer_contact")) deviceLocation.setCustomerContact(obj.getString("customer_contact"));
-                                if (obj.has("battery_percent") && !obj.isNull("battery_percent")) {
-                                    deviceLocation.setBatteryPercent(obj.getInt("battery_percent"));
-                                }
-                                if (obj.has("device_owner")) deviceLocation.setDeviceOwner(obj.getString("device_owner"));
-                                if (obj.has("assigned_by")) deviceLocation.setAssignedBy(obj.getInt("assigned_by"));
-                                if (obj.has("assigned_by_name")) deviceLocation.setAssignedByName(obj.getString("assigned_by_name"));
-                                if (obj.has("assigned_at")) deviceLocation.setAssignedAt(obj.getString("assigned_at"));
-
-                                deviceLocationList.add(deviceLocation);
-                            }
-
-                            // Update adapter
-                            runOnUiThread(() -> {
-                                if (page == 1) {
-                                    adapter.notifyDataSetChanged();
-                                } else {
-                                    adapter.notifyItemRangeInserted(deviceLocationList.size() - dataArray.length(), dataArray.length());
-                                }
-                                Log.d(TAG, "Total items in list: " + deviceLocationList.size());
-                            });
-
-                            // Update pagination info
-                            int totalItems = response.getInt("total_items");
-                            int currentItems = deviceLocationList.size();
-                            hasMoreData = currentItems < totalItems;
-
-                            Log.d(TAG, "Total items in DB: " + totalItems + ", Loaded: " + currentItems + ", Has more: " + hasMoreData);
+        pager.setInitialPages(firstLoadPages).refresh();
+    }
 
-                        } else {
-                            // No data returned
-                            runOnUiThread(() -> {
-                                if (page == 1) {
-                                    // Show no data layout only on first page
-                                    noDataLayout.setVisibility(View.VISIBLE);
-                                    recyclerView.setVisibility(View.GONE);
-                                    Log.d(TAG, "No data available, showing empty state");
+    private void onFirstPageLoaded(ApiParsers.ListResult<DeviceLocation> result) {
+        Log.d(TAG, "Response received successfully");
 
-                                    // Show helpful message
-                                    if (response.has("filter_status")) {
-                                        String filterStatus = null;
-                                        try {
-                                            filterStatus = response.getString("filter_status");
-                                        } catch (JSONException e) {
-                                            throw new RuntimeException(e);
-                                        }
-                                        Toast.makeText(DeviceLocationActivity.this,
-                                            "No devices found (" + filterStatus + ")",
-                                            Toast.LENGTH_LONG).show();
-                                    } else {
-                                        Toast.makeText(DeviceLocationActivity.this,
-                                            "No device activities found",
-                                            Toast.LENGTH_SHORT).show();
-                                    }
-                                }
-                            });
-                            hasMoreData = false;
-                        }
-                    } else {
-                        // API returned error
-                        String errorMsg = response.getString("message");
-                        runOnUiThread(() -> {
-                            Toast.makeText(DeviceLocationActivity.this, "Error: " + errorMsg, Toast.LENGTH_SHORT).show();
+        if (!result.success) {
+            // API returned error
+            Toast.makeText(DeviceLocationActivity.this, "Error: " + result.message, Toast.LENGTH_SHORT).show();
+            if (pager.getItems().isEmpty()) {
+                noDataLayout.setVisibility(View.VISIBLE);
+                recyclerView.setVisibility(View.GONE);
+            }
+            Log.e(TAG, "API Error: " + result.message);
+            return;
+        }
 
-                            if (page == 1) {
-                                noDataLayout.setVisibility(View.VISIBLE);
-                                recyclerView.setVisibility(View.GONE);
-                            }
-                        });
-                        Log.e(TAG, "API Error: " + errorMsg);
-                    }
-                } catch (JSONException e) {
-                    isLoading = false;
-                    e.printStackTrace();
-                    runOnUiThread(() -> {
-                        Toast.makeText(DeviceLocationActivity.this, "Error parsing response", Toast.LENGTH_SHORT).show();
-                    });
-                    Log.e(TAG, "JSON Parsing Error: " + e.getMessage());
-                }
-            },
-            error -> {
-                isLoading = false;
-                runOnUiThread(() -> {
-                    Toast.makeText(DeviceLocationActivity.this,
-                        "Network error: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+        Log.d(TAG, "Total items in DB: " + result.total + ", Loaded: " + result.items.size());
+        if (!result.items.isEmpty()) {
+            // Hide no data layout, show recyclerview
+            noDataLayout.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
 
-                    if (page == 1) {
-                        noDataLayout.setVisibility(View.VISIBLE);
-                        recyclerView.setVisibility(View.GONE);
-                    }
-                });
-                Log.e(TAG, "Volley Network Error: " + error.getMessage());
+            if (benchmarkPending) {
+                benchmarkPending = false;
+                ScrollBenchmark.start(this, recyclerView, pager);
             }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
-            }
-        };
+            return;
+        }
 
-        // Add request to queue
-        requestQueue.add(jsonObjectRequest);
-    }
+        // Show no data layout
+        noDataLayout.setVisibility(View.VISIBLE);
+        recyclerView.setVisibility(View.GONE);
+        Log.d(TAG, "No data available, showing empty state");
 
-    private void loadNextPage() {
-        if (hasMoreData && !isLoading) {
-            currentPage++;
-            loadDeviceLocations(currentPage);
+        // Show helpful message
+        if (result.filterStatus != null) {
+            Toast.makeText(DeviceLocationActivity.this,
+                "No devices found (" + result.filterStatus + ")",
+                Toast.LENGTH_LONG).show();
+        } else {
+            Toast.makeText(DeviceLocationActivity.this,
+                "No device activities found",
+                Toast.LENGTH_SHORT).show();
         }
     }
 
-    public void refreshData() {
-        currentPage = 1;
-        deviceLocationList.clear();
-        adapter.notifyDataSetChanged();
-        loadDeviceLocations(currentPage);
+    private void onPageError(boolean firstPage, Throwable error) {
+        if (error instanceof CancellationException) return;
+        String message = error instanceof ParseError
+            ? "Error parsing response"
+            : "Network error: " + error.getMessage();
+        Toast.makeText(DeviceLocationActivity.this, message, Toast.LENGTH_SHORT).show();
+
+        // Keep stored rows on screen when offline
+        if (firstPage && pager.getItems().isEmpty()) {
+            noDataLayout.setVisibility(View.VISIBLE);
+            recyclerView.setVisibility(View.GONE);
+        }
+        Log.e(TAG, "Network Error: " + error.getMessage());
     }
 }
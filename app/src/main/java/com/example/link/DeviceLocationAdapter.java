@@ -5,17 +5,32 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 public class DeviceLocationAdapter extends RecyclerView.Adapter<DeviceLocationAdapter.ViewHolder> {
 
     private List<DeviceLocation> deviceLocationList;
 
+    /** Rows are the same activity record when the IDs match (for {@link Pager}). */
+    static final DiffUtil.ItemCallback<DeviceLocation> DIFF = new DiffUtil.ItemCallback<DeviceLocation>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull DeviceLocation oldItem, @NonNull DeviceLocation newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DeviceLocation oldItem, @NonNull DeviceLocation newItem) {
+            return Objects.equals(oldItem.getSerialNumber(), newItem.getSerialNumber())
+                && Objects.equals(oldItem.getCustomerName(), newItem.getCustomerName())
+                && Objects.equals(oldItem.getDateTime(), newItem.getDateTime())
+                && Objects.equals(oldItem.getFormattedLatitude(), newItem.getFormattedLatitude())
+                && Objects.equals(oldItem.getFormattedLongitude(), newItem.getFormattedLongitude());
+        }
+    };
+
     public DeviceLocationAdapter(List<DeviceLocation> deviceLocationList) {
         this.deviceLocationList = deviceLocationList;
     }
@@ -32,36 +47,12 @@ public class DeviceLocationAdapter extends RecyclerView.Adapter<DeviceLocationAd
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         DeviceLocation deviceLocation = deviceLocationList.get(position);
 
-        // Set serial number
+        // Display strings are precomputed when the row is built
         holder.tvSerialNumber.setText(deviceLocation.getSerialNumber());
-
-        // Set customer name
-        if (deviceLocation.getCustomerName() != null && !deviceLocation.getCustomerName().isEmpty()) {
-            holder.tvCustomerName.setText(deviceLocation.getCustomerName());
-        } else {
-            holder.tvCustomerName.setText("Not Assigned");
-        }
-
-        // Set latitude and longitude
-        if (deviceLocation.getLongitude() != null && !deviceLocation.getLongitude().isEmpty()) {
-            holder.tvLocation.setText(deviceLocation.getLongitude());
-        } else {
-            holder.tvLocation.setText("N/A");
-        }
-
-        if (deviceLocation.getLatitude() != null && !deviceLocation.getLatitude().isEmpty()) {
-            holder.tvResolvedBy.setText(deviceLocation.getLatitude());
-        } else {
-            holder.tvResolvedBy.setText("N/A");
-        }
-
-        // Format date and time
-        if (deviceLocation.getDateTime() != null && !deviceLocation.getDateTime().isEmpty()) {
-            String formattedDateTime = formatDateTime(deviceLocation.getDateTime());
-            holder.tvDateTime.setText(formattedDateTime);
-        } else {
-            holder.tvDateTime.setText("Never");
-        }
+        holder.tvCustomerName.setText(deviceLocation.getDisplayCustomerName());
+        holder.tvLocation.setText(deviceLocation.getFormattedLongitude());
+        holder.tvResolvedBy.setText(deviceLocation.getFormattedLatitude());
+        holder.tvDateTime.setText(deviceLocation.getFormattedDateTime());
 
         // Optional: Show battery percentage if you want to add it to the layout
         // You would need to add a TextView for battery in your item layout
@@ -77,39 +68,6 @@ public class DeviceLocationAdapter extends RecyclerView.Adapter<DeviceLocationAd
         return deviceLocationList.size();
     }
 
-    // Helper method to format date and time
-    private String formatDateTime(String dateTimeStr) {
-        try {
-            // Try parsing with different formats
-            SimpleDateFormat[] possibleFormats = {
-                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()),
-                new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault()),
-                new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault())
-            };
-
-            Date date = null;
-            for (SimpleDateFormat format : possibleFormats) {
-                try {
-                    date = format.parse(dateTimeStr);
-                    if (date != null) break;
-                } catch (ParseException e) {
-                    // Try next format
-                }
-            }
-
-            if (date != null) {
-                // Format to desired output
-                SimpleDateFormat outputFormat = new SimpleDateFormat("MM/dd/yyyy hh:mm a", Locale.getDefault());
-                return outputFormat.format(date);
-            }
-
-            return dateTimeStr; // Return original if parsing fails
-        } catch (Exception e) {
-            e.printStackTrace();
-            return dateTimeStr;
-        }
-    }
-
     public static class ViewHolder extends RecyclerView.ViewHolder {
         TextView tvSerialNumber;
         TextView tvCustomerName;
@@ -131,11 +89,4 @@ public class DeviceLocationAdapter extends RecyclerView.Adapter<DeviceLocationAd
             // tvBattery = itemView.findViewById(R.id.tvBattery);
         }
     }
-
-    // Method to update data
-    public void updateData(List<DeviceLocation> newList) {
-        deviceLocationList.clear();
-        deviceLocationList.addAll(newList);
-        notifyDataSetChanged();
-    }
 }
@@ -0,0 +1,42 @@
+package com.example.link;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * One fixed view as an item of a ConcatAdapter list: the screen content that
+ * sits above or between the recycled rows and scrolls with them. It is never
+ * rebound; the owner keeps references to its views and updates them directly.
+ */
+public class HeaderAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private final View header;
+
+    public HeaderAdapter(View header) {
+        this.header = header;
+        setHasStableIds(true);
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new RecyclerView.ViewHolder(header) { };
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return 0;
+    }
+
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+}
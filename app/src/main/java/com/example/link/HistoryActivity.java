@@ -1,7 +1,11 @@
 package com.example.link;
 
+import android.app.AlertDialog;
+import android.app.DatePickerDialog;
 import android.os.Bundle;
+import android.text.InputType;
 import android.view.View;
+import android.widget.EditText;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -9,27 +13,39 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.VolleyError;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 public class HistoryActivity extends AppCompatActivity {
 
     private TextView tvCountBadge;
+    private TextView tvFilterLabel;
     private RecyclerView recyclerView;
     private LinearLayout noDataLayout;
     private View btnBack;
+    private View btnFilter;
 
     private SOSAlertAdapter adapter;
-    private RequestQueue requestQueue;
+    private Pager<SOSAlert> pager;
+    private RequestScope requestScope;
+    private SyncEngine syncEngine;
     private SharedPrefManager sharedPrefManager;
+    private HistoryFilter filter = HistoryFilter.NONE;
+    private boolean synced = false;
+
+    // The history is synced into LinkDatabase and read back a page at a time
+    // (Pager), so memory stays at MAX_PAGES pages however long it grows.
+    private static final int PAGE_SIZE         = 30;
+    private static final int FIRST_LOAD_PAGES  = 2;
+    private static final int PREFETCH_DISTANCE = 15;
+    private static final int MAX_PAGES         = 8;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -37,7 +53,8 @@ public class HistoryActivity extends AppCompatActivity {
         setContentView(R.layout.activity_history);
 
         sharedPrefManager = SharedPrefManager.getInstance(this);
-        requestQueue = Volley.newRequestQueue(this);
+        requestScope = RequestScope.of(this);
+        syncEngine = SyncEngine.getInstance(this);
 
         initializeViews();
         setupRecyclerView();
@@ -47,15 +64,38 @@ public class HistoryActivity extends AppCompatActivity {
 
     private void initializeViews() {
         btnBack = findViewById(R.id.btnBack);
+        btnFilter = findViewById(R.id.btnFilter);
         tvCountBadge = findViewById(R.id.tvCountBadge);
+        tvFilterLabel = findViewById(R.id.tvFilterLabel);
         recyclerView = findViewById(R.id.recyclerView);
         noDataLayout = findViewById(R.id.noDataLayout);
     }
 
     private void setupRecyclerView() {
-        adapter = new SOSAlertAdapter();
+        int userId = sharedPrefManager.getUserId();
+        int staffId = sharedPrefManager.getStaffId();
+        pager = new Pager<>(PAGE_SIZE,
+            (page, limit) -> syncEngine.loadResolvedSosPage(userId, staffId, filter, page, limit),
+            SOSAlertAdapter.DIFF,
+            new Pager.Callback<SOSAlert>() {
+                @Override
+                public void onRefreshed(ApiParsers.ListResult<SOSAlert> result) {
+                    updateUI(result.items, result.total);
+                }
+
+                @Override
+                public void onError(Throwable error, boolean refresh) {
+                    android.util.Log.e("HistoryActivity", "Local read failed", error);
+                }
+            })
+            .setInitialPages(FIRST_LOAD_PAGES)
+            .setPrefetchDistance(PREFETCH_DISTANCE)
+            .setMaxPages(MAX_PAGES);
+
+        adapter = new SOSAlertAdapter(pager.getItems());
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
+        pager.attach(recyclerView);
 
         adapter.setOnItemClickListener(alert -> {
             // Handle item click
@@ -70,6 +110,7 @@ public class HistoryActivity extends AppCompatActivity {
 
     private void setupClickListeners() {
         btnBack.setOnClickListener(v -> onBackPressed());
+        btnFilter.setOnClickListener(v -> showFilterMenu());
     }
 
     private void loadResolvedSOS() {
@@ -81,97 +122,56 @@ public class HistoryActivity extends AppCompatActivity {
             return;
         }
 
-        // Build URL with user_id and staff_id
-        String url = ApiConfig.GET_RESOLVED_SOS_URL + "?user_id=" + userId;
-        if (staffId > 0) {
-            url += "&staff_id=" + staffId;
-        }
+        android.util.Log.d("HistoryActivity", "Loading resolved SOS for user " + userId + ", staff " + staffId);
+
+        // Page through the stored copy first (warmed by Prefetcher); once the
+        // changes are merged in, page 1 is read again and diffed in
+        Prefetcher.getInstance(this).recordOpen(Prefetcher.Target.HISTORY);
+        pager.refresh();
+
+        requestScope.track(syncEngine.syncResolvedSos(userId, staffId)).whenComplete((result, error) -> {
+            if (error == null) {
+                if (result.success) {
+                    synced = true;
+                    pager.refresh();
+                } else {
+                    showError(result.message.isEmpty() ? "Failed to load data" : result.message);
+                }
+                return;
+            }
+
+            Throwable cause = ApiCall.unwrap(error);
+            if (cause instanceof CancellationException) return;
+            android.util.Log.e("HistoryActivity", "Network error: " + cause);
+
+            if (cause instanceof com.android.volley.ParseError) {
+                showError("Error parsing response");
+                return;
+            }
 
-        android.util.Log.d("HistoryActivity", "Loading resolved SOS from: " + url);
+            String errorMessage = "Network error. Please check your connection.";
 
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET,
-            url,
-            null,
-            response -> {
+            VolleyError volleyError = cause instanceof VolleyError ? (VolleyError) cause : null;
+            if (volleyError != null && volleyError.networkResponse != null) {
                 try {
-                    android.util.Log.d("HistoryActivity", "Response: " + response.toString());
-
-                    boolean success = response.getBoolean("success");
-                    if (success) {
-                        int count = response.getInt("count");
-                        JSONArray alertsArray = response.getJSONArray("alerts");
-
-                        List<SOSAlert> alerts = new ArrayList<>();
-                        for (int i = 0; i < alertsArray.length(); i++) {
-                            JSONObject alertObj = alertsArray.getJSONObject(i);
-
-                            SOSAlert alert = new SOSAlert(
-                                alertObj.getInt("id"),
-                                alertObj.getString("transmitter_serial"),
-                                alertObj.getInt("assignment_id"),
-                                alertObj.getString("customer_name"),
-                                alertObj.optString("customer_contact", ""),
-                                alertObj.getDouble("latitude"),
-                                alertObj.getDouble("longitude"),
-                                alertObj.getInt("battery_percent"),
-                                alertObj.getInt("rssi"),
-                                alertObj.getString("alert_time"),
-                                alertObj.optString("acknowledged_at", null),
-                                alertObj.optString("acknowledged_by_name", "Unknown"),
-                                alertObj.optString("resolved_at", null),
-                                alertObj.optString("resolved_by_name", "Unknown"),
-                                alertObj.optString("resolution_notes", "")
-                            );
-
-                            alerts.add(alert);
-                        }
-
-                        updateUI(alerts, count);
-                    } else {
-                        String message = response.optString("message", "Failed to load data");
-                        showError(message);
+                    String responseBody = new String(volleyError.networkResponse.data, "utf-8");
+                    android.util.Log.e("HistoryActivity", "Error response: " + responseBody);
+
+                    JSONObject errorJson = new JSONObject(responseBody);
+                    if (errorJson.has("message")) {
+                        errorMessage = errorJson.getString("message");
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
-                    android.util.Log.e("HistoryActivity", "Parse error: " + e.getMessage());
-                    showError("Error parsing response");
-                }
-            },
-            error -> {
-                android.util.Log.e("HistoryActivity", "Network error: " + error.toString());
-
-                String errorMessage = "Network error. Please check your connection.";
-
-                if (error.networkResponse != null) {
-                    try {
-                        String responseBody = new String(error.networkResponse.data, "utf-8");
-                        android.util.Log.e("HistoryActivity", "Error response: " + responseBody);
-
-                        JSONObject errorJson = new JSONObject(responseBody);
-                        if (errorJson.has("message")) {
-                            errorMessage = errorJson.getString("message");
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
                 }
-
-                showError(errorMessage);
             }
-        );
-
-        // Set timeout to 15 seconds
-        request.setRetryPolicy(new com.android.volley.DefaultRetryPolicy(
-            15000,
-            0,
-            com.android.volley.DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-        ));
 
-        requestQueue.add(request);
+            showError(errorMessage);
+        });
     }
 
     private void updateUI(List<SOSAlert> alerts, int count) {
+        if (alerts.isEmpty() && !synced && filter.isEmpty()) return; // nothing stored yet; wait for the sync
         tvCountBadge.setText(String.valueOf(count));
 
         if (alerts.isEmpty()) {
@@ -180,22 +180,92 @@ public class HistoryActivity extends AppCompatActivity {
         } else {
             noDataLayout.setVisibility(View.GONE);
             recyclerView.setVisibility(View.VISIBLE);
-            adapter.setAlerts(alerts);
         }
     }
 
+    // ─────────────────────────────────────────────────────────
+    //  Filters
+    // ─────────────────────────────────────────────────────────
+
+    private void showFilterMenu() {
+        String[] choices = {"Date range", "Resolved by", "Transmitter serial", "Clear filters"};
+        new AlertDialog.Builder(this)
+            .setTitle("Filter history")
+            .setItems(choices, (dialog, which) -> {
+                switch (which) {
+                    case 0:
+                        pickDate("From", from -> pickDate("To", to -> applyFilter(filter.withDates(from, to))));
+                        break;
+                    case 1:
+                        pickResolver();
+                        break;
+                    case 2:
+                        pickSerial();
+                        break;
+                    default:
+                        applyFilter(HistoryFilter.NONE);
+                        break;
+                }
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    /** Calls back with "yyyy-MM-dd". */
+    private void pickDate(String title, Consumer<String> onPicked) {
+        Calendar today = Calendar.getInstance();
+        DatePickerDialog picker = new DatePickerDialog(this, (view, year, month, day) ->
+            onPicked.accept(String.format(Locale.US, "%04d-%02d-%02d", year, month + 1, day)),
+            today.get(Calendar.YEAR), today.get(Calendar.MONTH), today.get(Calendar.DAY_OF_MONTH));
+        picker.setTitle(title);
+        picker.show();
+    }
+
+    private void pickResolver() {
+        syncEngine.loadResolvers(sharedPrefManager.getUserId(), sharedPrefManager.getStaffId(), names -> {
+            if (isDestroyed()) return;
+            String[] choices = new String[names.size() + 1];
+            choices[0] = "Anyone";
+            for (int i = 0; i < names.size(); i++) {
+                choices[i + 1] = names.get(i);
+            }
+            new AlertDialog.Builder(this)
+                .setTitle("Resolved by")
+                .setItems(choices, (dialog, which) ->
+                    applyFilter(filter.withResolver(which == 0 ? null : names.get(which - 1))))
+                .setNegativeButton("Cancel", null)
+                .show();
+        });
+    }
+
+    private void pickSerial() {
+        EditText input = new EditText(this);
+        input.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_CAP_CHARACTERS);
+        input.setHint("e.g. TX-2026");
+        if (filter.serialPrefix != null) input.setText(filter.serialPrefix);
+
+        new AlertDialog.Builder(this)
+            .setTitle("Transmitter serial starts with")
+            .setView(input)
+            .setPositiveButton("Apply", (dialog, which) ->
+                applyFilter(filter.withSerialPrefix(input.getText().toString())))
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private void applyFilter(HistoryFilter newFilter) {
+        filter = newFilter;
+        tvFilterLabel.setText(filter.isEmpty() ? "Resolved SOS" : "Resolved SOS · " + filter.describe());
+        btnFilter.setAlpha(filter.isEmpty() ? 0.6f : 1f);
+        pager.refresh(); // rows stay on screen until the filtered page 1 is diffed in
+    }
+
     private void showError(String message) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        if (adapter != null && adapter.getItemCount() > 0) return; // keep the stored copy on screen
+
         noDataLayout.setVisibility(View.VISIBLE);
         recyclerView.setVisibility(View.GONE);
         tvCountBadge.setText("0");
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(this);
-        }
-    }
 }
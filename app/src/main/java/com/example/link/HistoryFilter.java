@@ -0,0 +1,89 @@
+package com.example.link;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Which part of the stored resolved-SOS history HistoryActivity shows: a range
+ * of resolution dates, one resolver and a transmitter serial prefix, each
+ * optional. Immutable; {@link LinkDatabase} turns it into a WHERE clause.
+ *
+ * Dates are "yyyy-MM-dd" and compared with resolved_at as text, which the
+ * server sends as "yyyy-MM-dd HH:mm:ss", so a range is an idx_resolved_time
+ * range scan.
+ */
+public final class HistoryFilter {
+
+    public static final HistoryFilter NONE = new HistoryFilter(null, null, null, null);
+
+    public final String fromDate;       // inclusive, or null
+    public final String toDate;         // inclusive, or null
+    public final String resolvedBy;     // exact resolved_by_name, or null
+    public final String serialPrefix;   // upper case, or null
+
+    private HistoryFilter(String fromDate, String toDate, String resolvedBy, String serialPrefix) {
+        this.fromDate     = fromDate;
+        this.toDate       = toDate;
+        this.resolvedBy   = resolvedBy;
+        this.serialPrefix = serialPrefix;
+    }
+
+    /** Picked the wrong way round, the two dates are swapped. */
+    public HistoryFilter withDates(String fromDate, String toDate) {
+        if (fromDate != null && toDate != null && fromDate.compareTo(toDate) > 0) {
+            return new HistoryFilter(toDate, fromDate, resolvedBy, serialPrefix);
+        }
+        return new HistoryFilter(fromDate, toDate, resolvedBy, serialPrefix);
+    }
+
+    public HistoryFilter withResolver(String resolvedBy) {
+        return new HistoryFilter(fromDate, toDate, resolvedBy, serialPrefix);
+    }
+
+    public HistoryFilter withSerialPrefix(String prefix) {
+        String serial = prefix == null || prefix.trim().isEmpty() ? null : prefix.trim().toUpperCase(Locale.US);
+        return new HistoryFilter(fromDate, toDate, resolvedBy, serial);
+    }
+
+    public boolean isEmpty() {
+        return fromDate == null && toDate == null && resolvedBy == null && serialPrefix == null;
+    }
+
+    /** e.g. "2025-03-01 – 2025-03-07 · Ana Cruz · TX-2026", or "" with no filter. */
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (fromDate != null || toDate != null) {
+            parts.add((fromDate != null ? fromDate : "…") + " – " + (toDate != null ? toDate : "…"));
+        }
+        if (resolvedBy != null)   parts.add(resolvedBy);
+        if (serialPrefix != null) parts.add(serialPrefix + "…");
+        return String.join(" · ", parts);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  SQL
+    // ─────────────────────────────────────────────────────────
+
+    String selection() {
+        StringBuilder where = new StringBuilder("tenant = ?");
+        if (fromDate != null)     where.append(" AND resolved_at >= ?");
+        if (toDate != null)       where.append(" AND resolved_at <= ?");
+        if (resolvedBy != null)   where.append(" AND resolved_by_name = ?");
+        if (serialPrefix != null) where.append(" AND transmitter_serial >= ? AND transmitter_serial < ?");
+        return where.toString();
+    }
+
+    String[] selectionArgs(String tenant) {
+        List<String> args = new ArrayList<>();
+        args.add(tenant);
+        if (fromDate != null)     args.add(fromDate + " 00:00:00");
+        if (toDate != null)       args.add(toDate + " 23:59:59");
+        if (resolvedBy != null)   args.add(resolvedBy);
+        if (serialPrefix != null) {
+            args.add(serialPrefix);
+            args.add(serialPrefix + '\uffff');   // every serial starting with the prefix sorts below this
+        }
+        return args.toArray(new String[0]);
+    }
+}
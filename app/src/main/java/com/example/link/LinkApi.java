@@ -0,0 +1,357 @@
+package com.example.link;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.toolbox.JsonObjectRequest;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typed client for the LinkApi endpoints in {@link ApiConfig}.
+ *
+ * One method per endpoint. Query strings are built with Uri.Builder, and every
+ * method returns an {@link ApiCall} that can be composed, timed out and cancelled:
+ *
+ *     ApiCall.combine(api.getActiveCustomers(userId, staffId),
+ *                     api.getResolvedSosCount(userId),
+ *                     (customers, count) -> ...)
+ *
+ * List reads go through {@link ApiRequest}, so they share the disk cache,
+ * stale-while-revalidate and request coalescing. Writes are plain JSON POSTs;
+ * SOS and device assignment writes go through the {@link Outbox}, so they are
+ * kept and retried when the network is down. SOS writes run on the CRITICAL
+ * {@link RequestLane}, history pages on BACKGROUND.
+ */
+public class LinkApi {
+
+    private static final int WRITE_TIMEOUT_MS   = 10_000;
+    private static final int HISTORY_TIMEOUT_MS = 15_000;
+    private static final int RESOLVE_TIMEOUT_MS = 30_000;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static LinkApi instance;
+    private final Context   context;
+    private final ApiClient client;
+    private final String    baseUrl;
+
+    private LinkApi(Context context) {
+        this(context, ApiConfig.BASE_URL);
+    }
+
+    /** Sends every request to {@code baseUrl} in place of {@link ApiConfig#BASE_URL} (a test server). */
+    LinkApi(Context context, String baseUrl) {
+        this.context = context.getApplicationContext();
+        this.client  = ApiClient.getInstance(context);
+        this.baseUrl = baseUrl;
+    }
+
+    public static synchronized LinkApi getInstance(Context context) {
+        if (instance == null) {
+            instance = new LinkApi(context);
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Authentication
+    // ─────────────────────────────────────────────────────────
+
+    public ApiCall<JSONObject> login(String email, String password) {
+        return post(ApiConfig.LOGIN_URL, body()
+            .put("email", email)
+            .put("password", password), RequestLane.INTERACTIVE);
+    }
+
+    public ApiCall<JSONObject> changePassword(int userId, String oldPassword,
+                                              String newPassword, String confirmPassword) {
+        return post(ApiConfig.CHANGE_PASSWORD_URL, body()
+            .put("user_id", userId)
+            .put("old_password", oldPassword)
+            .put("new_password", newPassword)
+            .put("confirm_password", confirmPassword), RequestLane.INTERACTIVE);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Map & Location
+    // ─────────────────────────────────────────────────────────
+
+    /** Raw JSON; the map page consumes it as-is. */
+    public ApiCall<JSONObject> getBaseStations(int adminUserId, int staffId, long freshMs) {
+        Uri.Builder url = endpoint(ApiConfig.GET_BASE_STATIONS_URL)
+            .appendQueryParameter("user_id", String.valueOf(adminUserId));
+        return get(url, ApiRequest.JSON_OBJECT, adminUserId, staffId, freshMs, RequestLane.INTERACTIVE);
+    }
+
+    public ApiCall<JSONObject> getAdminAssignments(int adminUserId) {
+        Uri.Builder url = endpoint(ApiConfig.GET_ADMIN_ASSIGNMENTS_URL)
+            .appendQueryParameter("user_id", String.valueOf(adminUserId));
+        return get(url, ApiRequest.JSON_OBJECT, adminUserId, 0, ApiRequest.LIST_FRESH_MS, RequestLane.INTERACTIVE);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Device Management
+    // ─────────────────────────────────────────────────────────
+
+    public ApiCall<ApiParsers.InventoryResult> getDevices(int userId, int staffId) {
+        Uri.Builder url = endpoint(ApiConfig.GET_DEVICES_URL)
+            .appendQueryParameter("staff_id", String.valueOf(staffId));
+        return get(url, ApiParsers.DEVICES, userId, staffId, ApiRequest.LIST_FRESH_MS, RequestLane.INTERACTIVE);
+    }
+
+    public ApiCall<JSONObject> assignDevice(String serialNumber, String assignedName,
+                                            String assignedContact, int staffId) {
+        return outbox().submit("assign_device", serialNumber, ApiConfig.ASSIGN_DEVICE_URL, body()
+            .put("serial_number", serialNumber)
+            .put("assigned_name", assignedName)
+            .put("assigned_contact", assignedContact)
+            .put("staff_id", staffId).json, RequestLane.INTERACTIVE, WRITE_TIMEOUT_MS);
+    }
+
+    public ApiCall<JSONObject> endAssignment(int assignmentId, int staffId) {
+        return outbox().submit("end_assignment", null, ApiConfig.END_ASSIGNMENT_URL, body()
+            .put("assignment_id", assignmentId)
+            .put("staff_id", staffId).json, RequestLane.INTERACTIVE, WRITE_TIMEOUT_MS);
+    }
+
+    /**
+     * One page of device activity, or, with {@code since}, the rows changed after
+     * that cursor (up to {@code deltaLimit}; see {@link SyncEngine}). Not cached.
+     *
+     * @param since cursor from the last delta, "" for a first delta sync, null for plain paging
+     */
+    public ApiCall<ApiParsers.ListResult<DeviceLocation>> getDeviceActivities(int userId, boolean filterByMe,
+                                                                              int page, int limit,
+                                                                              String since, int deltaLimit) {
+        Uri.Builder url = endpoint(ApiConfig.GET_DEVICE_ACTIVITIES)
+            .appendQueryParameter("user_id", String.valueOf(userId))
+            .appendQueryParameter("filter_by_me", filterByMe ? "1" : "0")
+            .appendQueryParameter("page", String.valueOf(page))
+            .appendQueryParameter("limit", String.valueOf(limit));
+        if (since != null) {
+            url.appendQueryParameter("since", since)
+                .appendQueryParameter("delta_limit", String.valueOf(deltaLimit));
+        }
+        return getUncached(url, ApiParsers.DEVICE_ACTIVITIES, userId, 0,
+            RequestLane.BACKGROUND, DefaultRetryPolicy.DEFAULT_TIMEOUT_MS);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Customer Status & SOS
+    // ─────────────────────────────────────────────────────────
+
+    public ApiCall<ApiParsers.CustomersResult> getActiveCustomers(int userId, int staffId) {
+        Uri.Builder url = endpoint(ApiConfig.GET_ACTIVE_CUSTOMERS_URL)
+            .appendQueryParameter("user_id", String.valueOf(userId));
+        if (staffId > 0) {
+            url.appendQueryParameter("staff_id", String.valueOf(staffId));
+        }
+        return get(url, ApiParsers.ACTIVE_CUSTOMERS, userId, staffId, ApiRequest.LIST_FRESH_MS,
+            RequestLane.INTERACTIVE);
+    }
+
+    /**
+     * The resolved history, or, with {@code since}, only what changed after that
+     * cursor (see {@link SyncEngine}). Delta answers bypass the HTTP cache.
+     *
+     * @param since cursor from the last delta, "" for a first delta sync, null for the whole list
+     */
+    public ApiCall<ApiParsers.ListResult<SOSAlert>> getResolvedSos(int userId, int staffId, String since) {
+        Uri.Builder url = endpoint(ApiConfig.GET_RESOLVED_SOS_URL)
+            .appendQueryParameter("user_id", String.valueOf(userId));
+        if (staffId > 0) {
+            url.appendQueryParameter("staff_id", String.valueOf(staffId));
+        }
+        ApiCall<ApiParsers.ListResult<SOSAlert>> call;
+        if (since != null) {
+            url.appendQueryParameter("since", since);
+            call = getUncached(url, ApiParsers.RESOLVED_SOS, userId, staffId,
+                RequestLane.BACKGROUND, HISTORY_TIMEOUT_MS);
+        } else {
+            call = get(url, ApiParsers.RESOLVED_SOS, userId, staffId,
+                ApiRequest.LIST_FRESH_MS, RequestLane.BACKGROUND, HISTORY_TIMEOUT_MS);
+        }
+        // BACKGROUND waits while CRITICAL requests are out; that wait is not the server's time
+        call.withTimeoutOnceSent(HISTORY_TIMEOUT_MS);
+        return call;
+    }
+
+    public ApiCall<ApiParsers.CountResult> getResolvedSosCount(int userId) {
+        Uri.Builder url = endpoint(ApiConfig.GET_RESOLVED_SOS_COUNT_URL)
+            .appendQueryParameter("user_id", String.valueOf(userId));
+        return get(url, ApiParsers.RESOLVED_SOS_COUNT, userId, 0, ApiRequest.LIST_FRESH_MS,
+            RequestLane.INTERACTIVE);
+    }
+
+    public ApiCall<JSONObject> resolveSosByQr(String transmitterSerial, int staffId, String resolutionNotes) {
+        return outbox().submit("resolve_sos_by_qr", transmitterSerial, ApiConfig.RESOLVE_SOS_BY_QR_URL, body()
+            .put("transmitter_serial", transmitterSerial)
+            .put("staff_id", staffId)
+            .put("resolution_notes", resolutionNotes).json, RequestLane.CRITICAL, RESOLVE_TIMEOUT_MS);
+    }
+
+    /** @param body payload built by the map page (sos_id, transmitter_serial, acknowledged_by, …) */
+    public ApiCall<JSONObject> acknowledgeSos(JSONObject body) {
+        return outbox().submit("acknowledge_sos", transmitterOf(body), ApiConfig.ACKNOWLEDGE_SOS_URL, body,
+            RequestLane.CRITICAL, WRITE_TIMEOUT_MS);
+    }
+
+    /** @param body payload built by the map page (transmitter_serial, assignment_id, resolved_by, …) */
+    public ApiCall<JSONObject> resolveSos(JSONObject body) {
+        return outbox().submit("resolve_sos", transmitterOf(body), ApiConfig.RESOLVE_SOS_URL, body,
+            RequestLane.CRITICAL, WRITE_TIMEOUT_MS);
+    }
+
+    /** One {@link Outbox} attempt: the stored write, sent with its idempotency key. */
+    ApiCall<JSONObject> deliver(String url, JSONObject body, String idempotencyKey,
+                                RequestLane lane, int timeoutMs) {
+        return post(url, body, lane, idempotencyKey, timeoutMs);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Profile
+    // ─────────────────────────────────────────────────────────
+
+    /** @param base64Image new picture, or null to keep the current one */
+    public ApiCall<JSONObject> updateProfile(int userId, String fullName, String contact, String base64Image) {
+        Body body = body()
+            .put("user_id", userId)
+            .put("full_name", fullName)
+            .put("contact", contact);
+        if (base64Image != null) {
+            body.put("profile_picture", base64Image);
+        }
+        return post(ApiConfig.UPDATE_PROFILE_URL, body, RequestLane.INTERACTIVE);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private Outbox outbox() {
+        return Outbox.getInstance(context);
+    }
+
+    /** Outbox order key for an SOS write: acknowledge and resolve of one transmitter go out in order. */
+    private static String transmitterOf(JSONObject body) {
+        String serial = body.optString("transmitter_serial", "");
+        return serial.isEmpty() ? null : serial;
+    }
+
+    private Uri.Builder endpoint(String url) {
+        return Uri.parse(rebase(url)).buildUpon();
+    }
+
+    private String rebase(String url) {
+        return url.startsWith(ApiConfig.BASE_URL) ? baseUrl + url.substring(ApiConfig.BASE_URL.length()) : url;
+    }
+
+    private <T> ApiCall<T> get(Uri.Builder url, ApiRequest.Parser<T> parser,
+                               int userId, int staffId, long freshMs, RequestLane lane) {
+        return get(url, parser, userId, staffId, freshMs, lane, DefaultRetryPolicy.DEFAULT_TIMEOUT_MS);
+    }
+
+    /** @param socketTimeoutMs per-attempt timeout, for endpoints that are slow to answer */
+    private <T> ApiCall<T> get(Uri.Builder url, ApiRequest.Parser<T> parser,
+                               int userId, int staffId, long freshMs, RequestLane lane, int socketTimeoutMs) {
+        ApiCall<T> call = new ApiCall<>();
+        ApiRequest<T> request = new ApiRequest<>(url.build().toString(), parser, call::onResult, call::onError);
+        if (socketTimeoutMs != DefaultRetryPolicy.DEFAULT_TIMEOUT_MS) {
+            request.setRetryPolicy(new DefaultRetryPolicy(
+                socketTimeoutMs, 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        }
+        request.setTenant(userId, staffId)
+            .setAccept(ApiParsers.acceptFor(parser))
+            .setCachePolicy(freshMs, ApiRequest.LIST_MAX_STALE_MS)
+            .setOnComplete(call::onFinished);
+        return send(call, request, lane);
+    }
+
+    private <T> ApiCall<T> getUncached(Uri.Builder url, ApiRequest.Parser<T> parser,
+                                       int userId, int staffId, RequestLane lane, int socketTimeoutMs) {
+        ApiCall<T> call = new ApiCall<>();
+        ApiRequest<T> request = new ApiRequest<>(url.build().toString(), parser, call::onResult, call::onError);
+        if (socketTimeoutMs != DefaultRetryPolicy.DEFAULT_TIMEOUT_MS) {
+            request.setRetryPolicy(new DefaultRetryPolicy(
+                socketTimeoutMs, 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        }
+        request.setShouldCache(false);
+        request.setTenant(userId, staffId)
+            .setAccept(ApiParsers.acceptFor(parser))
+            .setOnComplete(call::onFinished);
+        return send(call, request, lane);
+    }
+
+    private ApiCall<JSONObject> post(String url, Body body, RequestLane lane) {
+        return post(url, body.json, lane);
+    }
+
+    private ApiCall<JSONObject> post(String url, JSONObject body, RequestLane lane) {
+        return post(url, body, lane, null, WRITE_TIMEOUT_MS);
+    }
+
+    private ApiCall<JSONObject> post(String url, JSONObject body, RequestLane lane,
+                                     String idempotencyKey, int timeoutMs) {
+        ApiCall<JSONObject> call = new ApiCall<>();
+        JsonObjectRequest request = new JsonObjectRequest(
+                Request.Method.POST, rebase(url), body, call::complete, call::onError) {
+            @Override
+            public Priority getPriority() {
+                return lane.priority;
+            }
+
+            @Override
+            public Map<String, String> getHeaders() throws AuthFailureError {
+                if (idempotencyKey == null) return super.getHeaders();
+                Map<String, String> headers = new HashMap<>(super.getHeaders());
+                headers.put("Idempotency-Key", idempotencyKey);
+                return headers;
+            }
+
+            // Volley drops a cancelled request's listeners, so settle the call here,
+            // as ApiRequest's completion hook does (CancellationException unless answered)
+            @Override
+            public void cancel() {
+                super.cancel();
+                MAIN_HANDLER.post(call::onFinished);
+            }
+        };
+        request.setRetryPolicy(new DefaultRetryPolicy(
+            timeoutMs, 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        return send(call, request, lane);
+    }
+
+    private <T> ApiCall<T> send(ApiCall<T> call, Request<?> request, RequestLane lane) {
+        call.bind(request);
+        client.add(request, lane);
+        return call;
+    }
+
+    private static Body body() {
+        return new Body();
+    }
+
+    /** JSONObject builder without the checked exception (keys are never null here). */
+    private static final class Body {
+        final JSONObject json = new JSONObject();
+
+        Body put(String key, Object value) {
+            try {
+                json.put(key, value);
+            } catch (JSONException e) {
+                throw new IllegalArgumentException(e);
+            }
+            return this;
+        }
+    }
+}
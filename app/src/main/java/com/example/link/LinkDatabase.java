@@ -0,0 +1,705 @@
+package com.example.link;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * On-device copy of the list screens' data, so they can paint without the network.
+ *
+ *   customers         – dashboard customers (get_active_customers.php)
+ *   devices           – unassigned inventory (get_devices.php, available_devices)
+ *   assignments       – active assignments   (get_devices.php, active_devices)
+ *   resolved_sos      – SOS history by id, newest resolution first, read a page at a
+ *                       time through {@link HistoryFilter} (get_resolved_sos.php)
+ *   device_activities – activity rows by id, per filter, newest first (get_device_activities.php)
+ *   sync_state        – counts, totals and delta cursors that go with the lists
+ *   outbox            – writes not yet accepted by the server ({@link Outbox}); unlike
+ *                       the rest this is not a cache, so upgrades, downgrades and clearAll keep it
+ *
+ * Every row is keyed by tenant ("u<user_id>:s<staff_id>"), like the HTTP cache.
+ * {@link SyncEngine} writes here; screens read through {@link #read}, which runs
+ * one query off the main thread and hands the result back on it.
+ */
+public class LinkDatabase extends SQLiteOpenHelper {
+
+    private static final String TAG = "LinkDatabase";
+
+    private static final String DB_NAME    = "link.db";
+    private static final int    DB_VERSION = 1;
+
+    static final String T_CUSTOMERS   = "customers";
+    static final String T_DEVICES     = "devices";
+    static final String T_ASSIGNMENTS = "assignments";
+    static final String T_RESOLVED    = "resolved_sos";
+    static final String T_ACTIVITIES  = "device_activities";
+    static final String T_SYNC_STATE  = "sync_state";
+    static final String T_OUTBOX      = "outbox";
+
+    // Cached tables: safe to drop, everything in them can be fetched again
+    private static final String[] CACHE_TABLES = {T_CUSTOMERS, T_DEVICES, T_ASSIGNMENTS,
+                                                  T_RESOLVED, T_ACTIVITIES, T_SYNC_STATE};
+
+    // sync_state names
+    static final String STATE_RESOLVED_COUNT    = "resolved_sos_count";
+    static final String STATE_RESOLVED_TOTAL    = "resolved_sos_total";
+    static final String STATE_AVAILABLE_COUNT   = "available_count";
+    static final String STATE_ACTIVE_COUNT      = "active_count";
+    static final String STATE_ACTIVITIES_TOTAL  = "device_activities_total:";    // + filter_by_me
+    static final String STATE_RESOLVED_CURSOR   = "resolved_sos_cursor";
+    static final String STATE_ACTIVITIES_CURSOR = "device_activities_cursor:";   // + filter_by_me
+
+    private static final String RESOLVED_ORDER   = "resolved_at DESC, id DESC";
+    private static final String ACTIVITIES_ORDER = "recorded_at DESC, id DESC";
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static LinkDatabase instance;
+
+    // One writer; reads run on their own thread so a sync never delays a screen (WAL)
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final ExecutorService reader = Executors.newSingleThreadExecutor();
+
+    public interface Query<T> {
+        T run(LinkDatabase db);
+    }
+
+    // Package-private for tests, which need a fresh instance each
+    LinkDatabase(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    public static synchronized LinkDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new LinkDatabase(context);
+        }
+        return instance;
+    }
+
+    public static String tenant(int userId, int staffId) {
+        return "u" + userId + ":s" + staffId;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Schema
+    // ─────────────────────────────────────────────────────────
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_CUSTOMERS + " ("
+            + "tenant TEXT NOT NULL, position INTEGER NOT NULL, "
+            + "serial_number TEXT, device_name TEXT, status TEXT, battery_percent INTEGER, "
+            + "customer_name TEXT, customer_contact TEXT, assignment_id INTEGER, "
+            + "latitude REAL, longitude REAL, last_update TEXT, minutes_ago INTEGER, "
+            + "PRIMARY KEY (tenant, position))");
+
+        db.execSQL("CREATE TABLE " + T_DEVICES + " ("
+            + "tenant TEXT NOT NULL, position INTEGER NOT NULL, "
+            + "serial_number TEXT, device_name TEXT, battery_percent INTEGER, "
+            + "PRIMARY KEY (tenant, position))");
+
+        db.execSQL("CREATE TABLE " + T_ASSIGNMENTS + " ("
+            + "tenant TEXT NOT NULL, position INTEGER NOT NULL, "
+            + "assignment_id INTEGER, serial_number TEXT, assigned_name TEXT, "
+            + "assigned_contact TEXT, assigned_by TEXT, device_status TEXT, "
+            + "PRIMARY KEY (tenant, position))");
+
+        db.execSQL("CREATE TABLE " + T_RESOLVED + " ("
+            + "tenant TEXT NOT NULL, id INTEGER NOT NULL, transmitter_serial TEXT, assignment_id INTEGER, "
+            + "customer_name TEXT, customer_contact TEXT, latitude REAL, longitude REAL, "
+            + "battery_percent INTEGER, rssi INTEGER, alert_time TEXT, "
+            + "acknowledged_at TEXT, acknowledged_by_name TEXT, "
+            + "resolved_at TEXT, resolved_by_name TEXT, resolution_notes TEXT, "
+            + "PRIMARY KEY (tenant, id))");
+        db.execSQL("CREATE INDEX idx_resolved_time ON " + T_RESOLVED + " (tenant, resolved_at DESC, id DESC)");
+        db.execSQL("CREATE INDEX idx_resolved_by ON " + T_RESOLVED
+            + " (tenant, resolved_by_name, resolved_at DESC, id DESC)");
+        db.execSQL("CREATE INDEX idx_resolved_serial ON " + T_RESOLVED + " (tenant, transmitter_serial)");
+
+        db.execSQL("CREATE TABLE " + T_ACTIVITIES + " ("
+            + "tenant TEXT NOT NULL, filter_by_me INTEGER NOT NULL, id INTEGER NOT NULL, "
+            + "serial_number TEXT, customer_name TEXT, customer_contact TEXT, "
+            + "latitude REAL, longitude REAL, latitude_text TEXT, longitude_text TEXT, "
+            + "altitude REAL, speed REAL, recorded_at TEXT, "
+            + "battery_percent INTEGER, device_owner TEXT, assigned_by INTEGER, assigned_by_name TEXT, "
+            + "assigned_at TEXT, PRIMARY KEY (tenant, filter_by_me, id))");
+        db.execSQL("CREATE INDEX idx_activities_time ON " + T_ACTIVITIES
+            + " (tenant, filter_by_me, recorded_at DESC, id DESC)");
+
+        db.execSQL("CREATE TABLE " + T_SYNC_STATE + " ("
+            + "tenant TEXT NOT NULL, name TEXT NOT NULL, value TEXT, synced_at INTEGER, "
+            + "PRIMARY KEY (tenant, name))");
+
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + T_OUTBOX + " ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, idempotency_key TEXT NOT NULL UNIQUE, "
+            + "kind TEXT NOT NULL, url TEXT NOT NULL, body TEXT NOT NULL, lane TEXT NOT NULL, "
+            + "timeout_ms INTEGER NOT NULL, created_at INTEGER NOT NULL, "
+            + "attempts INTEGER NOT NULL DEFAULT 0, last_error TEXT, "
+            + "order_key TEXT, next_attempt_at INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_outbox_lane ON " + T_OUTBOX + " (lane, id)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The caches are rebuilt rather than migrated; the outbox is kept
+        for (String table : CACHE_TABLES) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        onCreate(db);
+    }
+
+    /**
+     * This build was installed over a newer one (a rollback). Without this
+     * SQLiteOpenHelper refuses to open the file. The caches are rebuilt in this
+     * version's schema; the outbox is kept, as versions only ever add columns to it.
+     */
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        Log.w(TAG, "Downgrade from " + oldVersion + " to " + newVersion + ", rebuilding the caches");
+        for (String table : CACHE_TABLES) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        onCreate(db);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Threading
+    // ─────────────────────────────────────────────────────────
+
+    /** Run {@code query} off the main thread and deliver the result on it. */
+    public <T> void read(Query<T> query, Consumer<T> onResult) {
+        reader.execute(() -> {
+            T result;
+            try {
+                result = query.run(this);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Local read failed", e);
+                return;
+            }
+            MAIN_HANDLER.post(() -> onResult.accept(result));
+        });
+    }
+
+    /** Run {@code work} on the writer thread and deliver its result on the main thread. */
+    <T> void update(Query<T> work, Consumer<T> onResult, Consumer<RuntimeException> onError) {
+        writer.execute(() -> {
+            T result;
+            try {
+                result = work.run(this);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Local write failed", e);
+                MAIN_HANDLER.post(() -> onError.accept(e));
+                return;
+            }
+            MAIN_HANDLER.post(() -> onResult.accept(result));
+        });
+    }
+
+    void write(Runnable work) {
+        writer.execute(() -> {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Local write failed", e);
+            }
+        });
+    }
+
+    /** Drop every cached list, e.g. on logout. Pending outbox writes still go out. */
+    public void clearAll() {
+        write(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (String table : CACHE_TABLES) {
+                    db.delete(table, null, null);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Customers
+    // ─────────────────────────────────────────────────────────
+
+    void replaceCustomers(String tenant, List<CustomerDevice> devices) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(T_CUSTOMERS, "tenant = ?", new String[]{tenant});
+            ContentValues values = new ContentValues();
+            for (int i = 0; i < devices.size(); i++) {
+                CustomerDevice device = devices.get(i);
+                values.clear();
+                values.put("tenant",           tenant);
+                values.put("position",         i);
+                values.put("serial_number",    device.getSerialNumber());
+                values.put("device_name",      device.getDeviceName());
+                values.put("status",           device.getStatus());
+                values.put("battery_percent",  device.getBatteryPercent());
+                values.put("customer_name",    device.getCustomerName());
+                values.put("customer_contact", device.getCustomerContact());
+                values.put("assignment_id",    device.getAssignmentId());
+                values.put("latitude",         device.getLatitude());
+                values.put("longitude",        device.getLongitude());
+                values.put("last_update",      device.getLastUpdate());
+                values.put("minutes_ago",      device.getMinutesAgo());
+                db.insert(T_CUSTOMERS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<CustomerDevice> getCustomers(String tenant) {
+        List<CustomerDevice> devices = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(T_CUSTOMERS, null, "tenant = ?",
+                new String[]{tenant}, null, null, "position")) {
+            while (c.moveToNext()) {
+                CustomerDevice device = new CustomerDevice();
+                device.setSerialNumber(str(c, "serial_number"));
+                device.setDeviceName(str(c, "device_name"));
+                device.setStatus(str(c, "status"));
+                device.setBatteryPercent(num(c, "battery_percent"));
+                device.setCustomerName(str(c, "customer_name"));
+                device.setCustomerContact(str(c, "customer_contact"));
+                device.setAssignmentId(num(c, "assignment_id"));
+                device.setLatitude(real(c, "latitude"));
+                device.setLongitude(real(c, "longitude"));
+                device.setLastUpdate(str(c, "last_update"));
+                device.setMinutesAgo(num(c, "minutes_ago"));
+                device.prepareDisplay();
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Inventory
+    // ─────────────────────────────────────────────────────────
+
+    void replaceInventory(String tenant, List<CustomerDevice> available, List<CustomerDevice> active) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(T_DEVICES,     "tenant = ?", new String[]{tenant});
+            db.delete(T_ASSIGNMENTS, "tenant = ?", new String[]{tenant});
+            ContentValues values = new ContentValues();
+            for (int i = 0; i < available.size(); i++) {
+                CustomerDevice device = available.get(i);
+                values.clear();
+                values.put("tenant",          tenant);
+                values.put("position",        i);
+                values.put("serial_number",   device.getSerialNumber());
+                values.put("device_name",     device.getDeviceName());
+                values.put("battery_percent", device.getBatteryPercent());
+                db.insert(T_DEVICES, null, values);
+            }
+            for (int i = 0; i < active.size(); i++) {
+                CustomerDevice device = active.get(i);
+                values.clear();
+                values.put("tenant",           tenant);
+                values.put("position",         i);
+                values.put("assignment_id",    device.getAssignmentId());
+                values.put("serial_number",    device.getSerialNumber());
+                values.put("assigned_name",    device.getCustomerName());
+                values.put("assigned_contact", device.getCustomerContact());
+                values.put("assigned_by",      device.getAssignedBy());
+                values.put("device_status",    device.getStatus());
+                db.insert(T_ASSIGNMENTS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<CustomerDevice> getAvailableDevices(String tenant) {
+        List<CustomerDevice> devices = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(T_DEVICES, null, "tenant = ?",
+                new String[]{tenant}, null, null, "position")) {
+            while (c.moveToNext()) {
+                CustomerDevice device = new CustomerDevice();
+                device.setSerialNumber(str(c, "serial_number"));
+                device.setDeviceName(str(c, "device_name"));
+                device.setBatteryPercent(num(c, "battery_percent"));
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
+    public List<CustomerDevice> getAssignments(String tenant) {
+        List<CustomerDevice> devices = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(T_ASSIGNMENTS, null, "tenant = ?",
+                new String[]{tenant}, null, null, "position")) {
+            while (c.moveToNext()) {
+                CustomerDevice device = new CustomerDevice();
+                device.setAssignmentId(num(c, "assignment_id"));
+                device.setSerialNumber(str(c, "serial_number"));
+                device.setCustomerName(str(c, "assigned_name"));
+                device.setCustomerContact(str(c, "assigned_contact"));
+                device.setAssignedBy(str(c, "assigned_by"));
+                device.setStatus(str(c, "device_status"));
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Resolved SOS
+    // ─────────────────────────────────────────────────────────
+
+    /** Full snapshot: replace everything stored for this tenant. */
+    void replaceResolvedSos(String tenant, List<SOSAlert> alerts) {
+        mergeResolvedSos(tenant, alerts, null, true);
+    }
+
+    /** Delta: upsert changed alerts by id and drop deleted ones. */
+    void mergeResolvedSos(String tenant, List<SOSAlert> changed, List<Integer> deletedIds) {
+        mergeResolvedSos(tenant, changed, deletedIds, false);
+    }
+
+    private void mergeResolvedSos(String tenant, List<SOSAlert> alerts, List<Integer> deletedIds, boolean replace) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (replace) {
+                db.delete(T_RESOLVED, "tenant = ?", new String[]{tenant});
+            } else if (deletedIds != null) {
+                for (int id : deletedIds) {
+                    db.delete(T_RESOLVED, "tenant = ? AND id = ?", new String[]{tenant, String.valueOf(id)});
+                }
+            }
+            ContentValues values = new ContentValues();
+            for (SOSAlert alert : alerts) {
+                values.clear();
+                values.put("tenant",               tenant);
+                values.put("id",                   alert.getId());
+                values.put("transmitter_serial",   alert.getTransmitterSerial());
+                values.put("assignment_id",        alert.getAssignmentId());
+                values.put("customer_name",        alert.getCustomerName());
+                values.put("customer_contact",     alert.getCustomerContact());
+                values.put("latitude",             alert.getLatitude());
+                values.put("longitude",            alert.getLongitude());
+                values.put("battery_percent",      alert.getBatteryPercent());
+                values.put("rssi",                 alert.getRssi());
+                values.put("alert_time",           alert.getAlertTime());
+                values.put("acknowledged_at",      alert.getAcknowledgedAt());
+                values.put("acknowledged_by_name", alert.getAcknowledgedByName());
+                values.put("resolved_at",          alert.getResolvedAt());
+                values.put("resolved_by_name",     alert.getResolvedByName());
+                values.put("resolution_notes",     alert.getResolutionNotes());
+                db.insertWithOnConflict(T_RESOLVED, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * One page of the history, newest resolution first. The order comes
+     * straight from idx_resolved_time (idx_resolved_by with a resolver), so
+     * no page sorts or holds more than {@code limit} rows.
+     */
+    public List<SOSAlert> getResolvedSos(String tenant, HistoryFilter filter, int offset, int limit) {
+        List<SOSAlert> alerts = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(T_RESOLVED, null, filter.selection(),
+                filter.selectionArgs(tenant), null, null, RESOLVED_ORDER, limitClause(offset, limit))) {
+            while (c.moveToNext()) {
+                alerts.add(new SOSAlert(
+                    num(c, "id"), str(c, "transmitter_serial"), num(c, "assignment_id"),
+                    str(c, "customer_name"), str(c, "customer_contact"),
+                    real(c, "latitude"), real(c, "longitude"),
+                    num(c, "battery_percent"), num(c, "rssi"), str(c, "alert_time"),
+                    str(c, "acknowledged_at"), str(c, "acknowledged_by_name"),
+                    str(c, "resolved_at"), str(c, "resolved_by_name"), str(c, "resolution_notes")));
+            }
+        }
+        return alerts;
+    }
+
+    public int countResolvedSos(String tenant) {
+        return countResolvedSos(tenant, HistoryFilter.NONE);
+    }
+
+    public int countResolvedSos(String tenant, HistoryFilter filter) {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), T_RESOLVED,
+            filter.selection(), filter.selectionArgs(tenant));
+    }
+
+    /** Everyone who has resolved an alert for this tenant, A–Z (walks idx_resolved_by). */
+    public List<String> getResolvers(String tenant) {
+        List<String> names = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(true, T_RESOLVED, new String[]{"resolved_by_name"},
+                "tenant = ? AND resolved_by_name IS NOT NULL AND resolved_by_name != ''",
+                new String[]{tenant}, null, null, "resolved_by_name", null)) {
+            while (c.moveToNext()) {
+                names.add(c.getString(0));
+            }
+        }
+        return names;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Device activities
+    // ─────────────────────────────────────────────────────────
+
+    /** Plain paging: store one page; page 1 replaces what was there for this filter. */
+    void putActivityPage(String tenant, boolean filterByMe, int page, List<DeviceLocation> rows) {
+        mergeDeviceActivities(tenant, filterByMe, rows, null, page == 1);
+    }
+
+    /** Delta: upsert changed rows by id and drop deleted ones; {@code replace} for a full snapshot. */
+    void mergeDeviceActivities(String tenant, boolean filterByMe, List<DeviceLocation> rows,
+                               List<Integer> deletedIds, boolean replace) {
+        SQLiteDatabase db = getWritableDatabase();
+        String filter = filterByMe ? "1" : "0";
+        db.beginTransaction();
+        try {
+            if (replace) {
+                db.delete(T_ACTIVITIES, "tenant = ? AND filter_by_me = ?", new String[]{tenant, filter});
+            } else if (deletedIds != null) {
+                for (int id : deletedIds) {
+                    db.delete(T_ACTIVITIES, "tenant = ? AND filter_by_me = ? AND id = ?",
+                        new String[]{tenant, filter, String.valueOf(id)});
+                }
+            }
+            ContentValues values = new ContentValues();
+            for (DeviceLocation row : rows) {
+                values.clear();
+                values.put("tenant",           tenant);
+                values.put("filter_by_me",     filterByMe ? 1 : 0);
+                values.put("id",               row.getId());
+                values.put("serial_number",    row.getSerialNumber());
+                values.put("customer_name",    row.getCustomerName());
+                values.put("customer_contact", row.getCustomerContact());
+                putReal(values, "latitude",  row.getLatitude());
+                putReal(values, "longitude", row.getLongitude());
+                values.put("latitude_text",    row.getLatitudeText());
+                values.put("longitude_text",   row.getLongitudeText());
+                values.put("altitude",         row.getAltitude());
+                values.put("speed",            row.getSpeed());
+                values.put("recorded_at",      row.getDateTime());
+                values.put("battery_percent",  row.getBatteryPercent());
+                values.put("device_owner",     row.getDeviceOwner());
+                values.put("assigned_by",      row.getAssignedBy());
+                values.put("assigned_by_name", row.getAssignedByName());
+                values.put("assigned_at",      row.getAssignedAt());
+                db.insertWithOnConflict(T_ACTIVITIES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<DeviceLocation> getDeviceActivities(String tenant, boolean filterByMe) {
+        return getDeviceActivities(tenant, filterByMe, 0, -1);
+    }
+
+    /** @param limit rows to return, or -1 for all from {@code offset} */
+    public List<DeviceLocation> getDeviceActivities(String tenant, boolean filterByMe, int offset, int limit) {
+        List<DeviceLocation> rows = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(T_ACTIVITIES, null,
+                "tenant = ? AND filter_by_me = ?", new String[]{tenant, filterByMe ? "1" : "0"},
+                null, null, ACTIVITIES_ORDER, limitClause(offset, limit))) {
+            while (c.moveToNext()) {
+                DeviceLocation row = new DeviceLocation();
+                row.setId(num(c, "id"));
+                row.setSerialNumber(str(c, "serial_number"));
+                row.setCustomerName(str(c, "customer_name"));
+                row.setCustomerContact(str(c, "customer_contact"));
+                // The text as sent when there is one, so the list shows what it always did
+                String latitude  = str(c, "latitude_text");
+                String longitude = str(c, "longitude_text");
+                if (latitude != null) {
+                    row.setLatitude(latitude);
+                } else {
+                    row.setLatitude(realOrNaN(c, "latitude"));
+                }
+                if (longitude != null) {
+                    row.setLongitude(longitude);
+                } else {
+                    row.setLongitude(realOrNaN(c, "longitude"));
+                }
+                row.setAltitude(real(c, "altitude"));
+                row.setSpeed(real(c, "speed"));
+                row.setDateTime(str(c, "recorded_at"));
+                row.setBatteryPercent(num(c, "battery_percent"));
+                row.setDeviceOwner(str(c, "device_owner"));
+                row.setAssignedBy(num(c, "assigned_by"));
+                row.setAssignedByName(str(c, "assigned_by_name"));
+                row.setAssignedAt(str(c, "assigned_at"));
+                row.prepareDisplay();
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Sync state
+    // ─────────────────────────────────────────────────────────
+
+    void putState(String tenant, String name, String value) {
+        ContentValues values = new ContentValues();
+        values.put("tenant",    tenant);
+        values.put("name",      name);
+        values.put("value",     value);
+        values.put("synced_at", System.currentTimeMillis());
+        getWritableDatabase().insertWithOnConflict(T_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public int countDeviceActivities(String tenant, boolean filterByMe) {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), T_ACTIVITIES,
+            "tenant = ? AND filter_by_me = ?", new String[]{tenant, filterByMe ? "1" : "0"});
+    }
+
+    public String getState(String tenant, String name) {
+        try (Cursor c = getReadableDatabase().query(T_SYNC_STATE, new String[]{"value"},
+                "tenant = ? AND name = ?", new String[]{tenant, name}, null, null, null)) {
+            return c.moveToFirst() ? c.getString(0) : null;
+        }
+    }
+
+    void removeState(String tenant, String name) {
+        getWritableDatabase().delete(T_SYNC_STATE, "tenant = ? AND name = ?", new String[]{tenant, name});
+    }
+
+    public int getIntState(String tenant, String name, int fallback) {
+        String value = getState(tenant, name);
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Outbox
+    // ─────────────────────────────────────────────────────────
+
+    long addOutbox(Outbox.Entry entry) {
+        ContentValues values = new ContentValues();
+        values.put("idempotency_key", entry.key);
+        values.put("kind",            entry.kind);
+        values.put("order_key",       entry.orderKey);
+        values.put("url",             entry.url);
+        values.put("body",            entry.body);
+        values.put("lane",            entry.lane.name());
+        values.put("timeout_ms",      entry.timeoutMs);
+        values.put("created_at",      entry.createdAt);
+        return getWritableDatabase().insertOrThrow(T_OUTBOX, null, values);
+    }
+
+    /**
+     * Writes in {@code lane} that nothing else has to go before: no older write
+     * in the same lane has their order key. Writes without a key never wait.
+     */
+    private static final String OUTBOX_SENDABLE = "lane = ? AND (order_key IS NULL OR NOT EXISTS ("
+        + "SELECT 1 FROM " + T_OUTBOX + " p WHERE p.lane = " + T_OUTBOX + ".lane "
+        + "AND p.order_key = " + T_OUTBOX + ".order_key AND p.id < " + T_OUTBOX + ".id))";
+
+    /** The oldest write in {@code lane} that may be sent at {@code now}, or null if none. */
+    Outbox.Entry nextOutbox(RequestLane lane, long now) {
+        try (Cursor c = getReadableDatabase().query(T_OUTBOX, null,
+                OUTBOX_SENDABLE + " AND next_attempt_at <= ?",
+                new String[]{lane.name(), String.valueOf(now)}, null, null, "id", "1")) {
+            if (!c.moveToFirst()) return null;
+            return new Outbox.Entry(
+                c.getLong(c.getColumnIndexOrThrow("id")), str(c, "idempotency_key"), str(c, "kind"),
+                str(c, "order_key"), str(c, "url"), str(c, "body"), RequestLane.valueOf(str(c, "lane")),
+                num(c, "timeout_ms"), c.getLong(c.getColumnIndexOrThrow("created_at")), num(c, "attempts"),
+                c.getLong(c.getColumnIndexOrThrow("next_attempt_at")));
+        }
+    }
+
+    /** When the next write in {@code lane} that is backing off comes due, or null if none is. */
+    Long nextOutboxAttemptAt(RequestLane lane) {
+        try (Cursor c = getReadableDatabase().query(T_OUTBOX, new String[]{"MIN(next_attempt_at)"},
+                OUTBOX_SENDABLE, new String[]{lane.name()}, null, null, null)) {
+            return c.moveToFirst() && !c.isNull(0) ? c.getLong(0) : null;
+        }
+    }
+
+    void markOutboxAttempt(long id, int attempts, long nextAttemptAt, String error) {
+        ContentValues values = new ContentValues();
+        values.put("attempts",        attempts);
+        values.put("next_attempt_at", nextAttemptAt);
+        values.put("last_error",      error);
+        getWritableDatabase().update(T_OUTBOX, values, "id = ?", new String[]{String.valueOf(id)});
+    }
+
+    void removeOutbox(long id) {
+        getWritableDatabase().delete(T_OUTBOX, "id = ?", new String[]{String.valueOf(id)});
+    }
+
+    public int countOutbox() {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), T_OUTBOX);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Cursor helpers
+    // ─────────────────────────────────────────────────────────
+
+    private static String str(Cursor c, String column) {
+        int index = c.getColumnIndexOrThrow(column);
+        return c.isNull(index) ? null : c.getString(index);
+    }
+
+    private static int num(Cursor c, String column) {
+        return c.getInt(c.getColumnIndexOrThrow(column));
+    }
+
+    private static double real(Cursor c, String column) {
+        return c.getDouble(c.getColumnIndexOrThrow(column));
+    }
+
+    /** NULL, for a missing value, reads as NaN rather than 0. */
+    private static double realOrNaN(Cursor c, String column) {
+        int index = c.getColumnIndexOrThrow(column);
+        return c.isNull(index) ? Double.NaN : c.getDouble(index);
+    }
+
+    /**
+     * LIMIT for query(): SQLiteQueryBuilder takes only "n" or "offset,n" and
+     * throws on "n OFFSET m". A negative limit means all rows from offset.
+     */
+    private static String limitClause(int offset, int limit) {
+        if (limit < 0) {
+            return offset == 0 ? null : offset + "," + Integer.MAX_VALUE;
+        }
+        return offset == 0 ? String.valueOf(limit) : offset + "," + limit;
+    }
+
+    /** NaN is stored as NULL. */
+    private static void putReal(ContentValues values, String column, double value) {
+        if (Double.isNaN(value)) {
+            values.putNull(column);
+        } else {
+            values.put(column, value);
+        }
+    }
+}
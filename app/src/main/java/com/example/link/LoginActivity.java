@@ -13,11 +13,9 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.android.volley.AuthFailureError;
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
@@ -35,7 +33,7 @@ public class LoginActivity extends AppCompatActivity {
     private MaterialButton loginButton;
     private TextView forgotPasswordText;
 
-    private RequestQueue requestQueue;
+    private RequestScope requestScope;
 
     // SharedPreferences keys
     private static final String PREFS_NAME = "LinkPrefs";
@@ -59,8 +57,8 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        // Initialize Volley RequestQueue
-        requestQueue = Volley.newRequestQueue(this);
+        // Initialize shared ApiClient
+        requestScope = RequestScope.of(this);
 
         initViews();
         setupListeners();
@@ -198,6 +196,10 @@ public class LoginActivity extends AppCompatActivity {
                                 // Save user data to SharedPreferences
                                 saveUserData(userId, username, email, userType, contact, status, userObject);
 
+                                // Keep the login socket open for the dashboard's first requests
+                                ConnectionWarmer.getInstance(LoginActivity.this)
+                                    .warm(ConnectionWarmer.Reason.LOGIN);
+
                                 // Show success message
                                 Toast.makeText(LoginActivity.this, message, Toast.LENGTH_SHORT).show();
 
@@ -265,8 +267,8 @@ public class LoginActivity extends AppCompatActivity {
             }
         };
 
-        // Add request to the RequestQueue
-        requestQueue.add(jsonObjectRequest);
+        // Add request to the shared queue
+        requestScope.add(jsonObjectRequest);
     }
 
     private void saveUserData(int userId, String username, String email, String userType,
@@ -355,21 +357,13 @@ public class LoginActivity extends AppCompatActivity {
         }
     }
 
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Cancel all requests when activity is destroyed
-        if (requestQueue != null) {
-            requestQueue.cancelAll(this);
-        }
-    }
-
     // Helper method to clear user session (logout)
     public static void logout(android.content.Context context) {
         SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
         SharedPreferences.Editor editor = prefs.edit();
         editor.clear();
         editor.apply();
+        LinkDatabase.getInstance(context).clearAll();
 
         // Redirect to LoginActivity
         Intent intent = new Intent(context, LoginActivity.class);
@@ -47,6 +47,13 @@ public class MainActivity extends AppCompatActivity {
         setupBottomNavInsets();
         requestNotificationPermission();
 
+        // Send any SOS / assignment writes left over from a previous run
+        Outbox.getInstance(this).flush();
+        // Start tracking the link class before the first screen loads
+        NetworkQuality.getInstance(this);
+        // Open the API socket while the first screen inflates
+        ConnectionWarmer.getInstance(this).warm(ConnectionWarmer.Reason.APP_START);
+
         if (savedInstanceState == null) {
             Intent launchIntent = getIntent();
             boolean isAlert = isAlertIntent(launchIntent);
@@ -20,10 +20,6 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.Task;
@@ -32,15 +28,22 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Locale;
+import java.util.function.Consumer;
+
 public class MapFragment extends Fragment {
 
     private WebView leafletWebView;
     private FusedLocationProviderClient fusedLocationClient;
-    private RequestQueue requestQueue;
+    private RequestScope requestScope;
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
+    private static final long BASE_STATIONS_FRESH_MS = 10 * 60_000; // 10 min
     private SharedPrefManager sharedPrefManager;
     private boolean isFragmentActive = false;
 
+    // Tells the page when the connection class changes (tile buffering)
+    private final Consumer<NetworkQuality.Mode> dataModeListener = this::pushDataMode;
+
     // Pending alert args – stashed here so we can call zoomToAlert after the
     // page and Firebase have both finished loading.
     private String pendingAlertLat    = null;
@@ -129,6 +132,12 @@ public class MapFragment extends Fragment {
             return sharedPrefManager.isLoggedIn();
         }
 
+        /** "full", "reduced" or "minimal"; below full the page keeps no off-screen tile buffer. */
+        @JavascriptInterface
+        public String getDataMode() {
+            return dataModeName(NetworkQuality.getInstance(context).getMode());
+        }
+
         @JavascriptInterface
         public void onMapReady() {
             if (isFragmentValid() && getActivity() != null) {
@@ -146,6 +155,82 @@ public class MapFragment extends Fragment {
                 );
             }
         }
+
+        /**
+         * SOS acknowledge / resolve from the map page. Sent on the CRITICAL lane
+         * so it never waits behind history loads; the result comes back through
+         * window.onNativeResponse(callbackId, ok, payload).
+         *
+         * @param action "acknowledge" or "resolve"
+         */
+        @JavascriptInterface
+        public void postSos(String action, String bodyJson, String callbackId) {
+            if (!isFragmentValid() || getActivity() == null) return;
+            getActivity().runOnUiThread(() -> {
+                if (!isFragmentValid()) return;
+                JSONObject body;
+                try {
+                    body = new JSONObject(bodyJson);
+                } catch (JSONException e) {
+                    replyToPage(callbackId, false, "Invalid request body");
+                    return;
+                }
+
+                LinkApi api = LinkApi.getInstance(context);
+                ApiCall<JSONObject> call;
+                if ("acknowledge".equals(action)) {
+                    call = api.acknowledgeSos(body);
+                } else if ("resolve".equals(action)) {
+                    call = api.resolveSos(body);
+                } else {
+                    replyToPage(callbackId, false, "Unknown action: " + action);
+                    return;
+                }
+
+                call.whenComplete((response, error) -> {
+                    if (error == null) {
+                        replyToPage(callbackId, true, response.toString());
+                        return;
+                    }
+                    Throwable cause = ApiCall.unwrap(error);
+                    if (cause instanceof Outbox.QueuedException) {
+                        // Saved in the outbox; the page treats it as done, marked queued
+                        replyToPage(callbackId, true, queuedReply(cause.getMessage()));
+                    } else {
+                        replyToPage(callbackId, false, String.valueOf(cause.getMessage()));
+                    }
+                });
+            });
+        }
+    }
+
+    private static String queuedReply(String message) {
+        try {
+            return new JSONObject()
+                .put("success", true)
+                .put("queued",  true)
+                .put("message", message)
+                .toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String dataModeName(NetworkQuality.Mode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    private void pushDataMode(NetworkQuality.Mode mode) {
+        if (!isFragmentValid() || leafletWebView == null) return;
+        leafletWebView.evaluateJavascript("window.setDataMode && window.setDataMode("
+            + JSONObject.quote(dataModeName(mode)) + ")", null);
+    }
+
+    private void replyToPage(String callbackId, boolean ok, String payload) {
+        if (!isFragmentValid() || leafletWebView == null) return;
+        String javascript = "window.onNativeResponse && window.onNativeResponse("
+            + JSONObject.quote(callbackId) + "," + ok + "," + JSONObject.quote(payload) + ")";
+        leafletWebView.evaluateJavascript(javascript, null);
     }
 
     // ─────────────────────────────────────────────────────────
@@ -165,7 +250,7 @@ public class MapFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(requireActivity());
-        requestQueue        = Volley.newRequestQueue(requireContext());
+        requestScope        = RequestScope.of(this);
         sharedPrefManager   = SharedPrefManager.getInstance(requireContext());
 
         readAlertArguments();
@@ -189,6 +274,7 @@ public class MapFragment extends Fragment {
             new JavaScriptInterface(requireContext()),
             "AndroidApp"
         );
+        NetworkQuality.getInstance(requireContext()).addListener(dataModeListener);
 
         leafletWebView.setWebViewClient(new WebViewClient() {
             @Override
@@ -447,11 +533,11 @@ public class MapFragment extends Fragment {
             return;
         }
 
-        String url = ApiConfig.BASE_URL + "get_base_stations.php?user_id=" + adminUserId;
+        String url = ApiConfig.GET_BASE_STATIONS_URL + "?user_id=" + adminUserId;
         android.util.Log.d("MapFragment", "Loading base stations for admin_user_id=" + adminUserId + " url=" + url);
 
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET, url, null,
+        ApiRequest<JSONObject> request = new ApiRequest<>(
+            url, ApiRequest.JSON_OBJECT,
             response -> {
                 if (!isFragmentValid()) return;
                 try {
@@ -473,7 +559,11 @@ public class MapFragment extends Fragment {
                 showToast("Network error loading base station", Toast.LENGTH_SHORT);
             }
         );
-        requestQueue.add(request);
+        // Base stations rarely move; onViewCreated + onResume both land here,
+        // so the second call is served from cache without a round trip.
+        request.setTenant(adminUserId, sharedPrefManager.getStaffId())
+            .setCachePolicy(BASE_STATIONS_FRESH_MS, ApiRequest.LIST_MAX_STALE_MS);
+        requestScope.add(request);
     }
 
     private void sendBaseStationsToMap(String jsonData) {
@@ -587,6 +677,12 @@ public class MapFragment extends Fragment {
         isFragmentActive = false;
     }
 
+    @Override
+    public void onDestroyView() {
+        NetworkQuality.getInstance(requireContext()).removeListener(dataModeListener);
+        super.onDestroyView();
+    }
+
     @Override
     public void onDestroy() {
         super.onDestroy();
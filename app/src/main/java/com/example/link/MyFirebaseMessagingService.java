@@ -30,6 +30,9 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
         Log.d(TAG, "FCM Message Received from: " + remoteMessage.getFrom());
         Log.d(TAG, "═══════════════════════════════════════");
 
+        // The responder is about to open the map and resolve; have the socket ready
+        ConnectionWarmer.getInstance(this).warm(ConnectionWarmer.Reason.ALERT);
+
         String alertType = "sos";
         String title = null;
         String body = null;
@@ -43,6 +46,11 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             alertType = remoteMessage.getData().get("alertType");
         }
 
+        // Tighten dashboard polling while the SOS is live
+        if ("sos".equals(alertType)) {
+            AdaptiveRefreshPolicy.onSosAlertReceived();
+        }
+
         if (title == null || body == null) {
             title = alertType.equals("geofence") ? "⚠️ Geofence Alert" : "🚨 SOS Alert";
             body = "Alert received - tap to view location";
@@ -0,0 +1,164 @@
+package com.example.link;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * How much the current connection can take, from the platform's bandwidth
+ * estimate and metered flag for the default network.
+ *
+ *   FULL     ≥ 2 Mbps down                 normal page sizes, polls and images
+ *   REDUCED  < 2 Mbps, or metered with no  half page sizes, polls 2× apart
+ *            estimate
+ *   MINIMAL  < 250 kbps (2G-class)         quarter page sizes, polls 4× apart,
+ *                                          images only from cache, no map tile buffer
+ *
+ * SOS polling and SOS writes are never slowed down. The mode can be pinned
+ * from the debug panel ({@link #setOverride}) to try each class on a good link.
+ */
+public class NetworkQuality {
+
+    private static final String TAG = "NetworkQuality";
+
+    private static final int FULL_MIN_KBPS    = 2_000;
+    private static final int REDUCED_MIN_KBPS = 250;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public enum Mode {
+        FULL(0), REDUCED(1), MINIMAL(2);
+
+        private final int shift;
+
+        Mode(int shift) {
+            this.shift = shift;
+        }
+
+        /** {@code fullCount} scaled down for this mode, at least 1. */
+        public int scale(int fullCount) {
+            return Math.max(1, fullCount >> shift);
+        }
+
+        /** Multiplier for poll intervals. */
+        public int slowdown() {
+            return 1 << shift;
+        }
+    }
+
+    private static NetworkQuality instance;
+
+    private final List<Consumer<Mode>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Mode    measured    = Mode.FULL;
+    private volatile Mode    override    = null;
+    private volatile int     downKbps    = 0;
+    private volatile int     upKbps      = 0;
+    private volatile boolean metered     = false;
+    private volatile int     modeChanges = 0;
+
+    private NetworkQuality(Context context) {
+        ConnectivityManager connectivity =
+            (ConnectivityManager) context.getApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+        connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities caps) {
+                downKbps = caps.getLinkDownstreamBandwidthKbps();
+                upKbps   = caps.getLinkUpstreamBandwidthKbps();
+                metered  = !caps.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+                update(classify(downKbps, metered));
+            }
+        });
+    }
+
+    public static synchronized NetworkQuality getInstance(Context context) {
+        if (instance == null) {
+            instance = new NetworkQuality(context);
+        }
+        return instance;
+    }
+
+    /** @param downKbps estimate from NetworkCapabilities, 0 when unknown */
+    static Mode classify(int downKbps, boolean metered) {
+        if (downKbps <= 0) return metered ? Mode.REDUCED : Mode.FULL;
+        if (downKbps < REDUCED_MIN_KBPS) return Mode.MINIMAL;
+        if (downKbps < FULL_MIN_KBPS) return Mode.REDUCED;
+        return Mode.FULL;
+    }
+
+    private void update(Mode mode) {
+        Mode before = getMode();
+        measured = mode;
+        notifyIfChanged(before);
+    }
+
+    private void notifyIfChanged(Mode before) {
+        Mode after = getMode();
+        if (after == before) return;
+        modeChanges++;
+        Log.d(TAG, before + " → " + after + " (" + downKbps + " kbps down, metered " + metered + ")");
+        MAIN_HANDLER.post(() -> {
+            for (Consumer<Mode> listener : listeners) {
+                listener.accept(after);
+            }
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Queries
+    // ─────────────────────────────────────────────────────────
+
+    public Mode getMode() {
+        Mode pinned = override;
+        return pinned != null ? pinned : measured;
+    }
+
+    public boolean isMetered() {
+        return metered;
+    }
+
+    /** Whether images may come from the network; otherwise load them from cache only. */
+    public boolean allowsImageDownloads() {
+        return getMode() != Mode.MINIMAL;
+    }
+
+    /** Listeners run on the main thread when the mode changes. */
+    public void addListener(Consumer<Mode> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Mode> listener) {
+        listeners.remove(listener);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Debug
+    // ─────────────────────────────────────────────────────────
+
+    /** Pin the mode regardless of the link, or {@code null} to follow it again. */
+    public void setOverride(Mode mode) {
+        Mode before = getMode();
+        override = mode;
+        notifyIfChanged(before);
+    }
+
+    public Mode getOverride() {
+        return override;
+    }
+
+    public String getStats() {
+        return "Mode: "         + getMode() + (override != null ? " (pinned; measured " + measured + ")" : "") + "\n" +
+               "Down / up: "    + downKbps + " / " + upKbps + " kbps\n" +
+               "Metered: "      + metered + "\n" +
+               "Mode changes: " + modeChanges;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.link;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.net.ssl.SSLException;
+
+/**
+ * Per-endpoint latency, size and error figures for every HTTP attempt.
+ *
+ * {@link TelemetryStack} reports each attempt once its body has been read (or
+ * it failed). Per endpoint this keeps fixed-bucket histograms of time to first
+ * byte and total time (of attempts that got an answer, so timeouts do not skew
+ * them), byte totals, retries and a count per {@link ErrorClass}.
+ * The last RING_SIZE attempts are also kept in a ring of primitive arrays, for
+ * export. Recording takes one short lock and allocates nothing once an endpoint
+ * has been seen; the debug panel's telemetry benchmark measures the cost.
+ *
+ * TTFB covers DNS, connect, TLS, sending the request and the server's think
+ * time. HttpURLConnection does not expose those phases separately.
+ */
+public class NetworkTelemetry {
+
+    public enum ErrorClass { NONE, TIMEOUT, DNS, CONNECT, TLS, IO, HTTP_4XX, HTTP_5XX }
+
+    static final int RING_SIZE = 512;
+
+    /** Upper bounds of the histogram buckets, ms; the last bucket is open-ended. */
+    private static final int[] BUCKET_MS = {25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    /** Running figures for one endpoint. */
+    private static final class Endpoint {
+        final int    id;
+        final String name;
+        final long[] ttfb    = new long[BUCKET_MS.length + 1];
+        final long[] total   = new long[BUCKET_MS.length + 1];
+        final long[] errors  = new long[ErrorClass.values().length];
+        long attempts;
+        long retries;
+        long sentBytes;
+        long receivedBytes;
+        long totalMsSum;
+
+        Endpoint(int id, String name) {
+            this.id   = id;
+            this.name = name;
+        }
+    }
+
+    // Guarded by this
+    private final Map<String, Endpoint> byName    = new HashMap<>();
+    private final List<Endpoint>        endpoints = new ArrayList<>();
+
+    // Ring of recent attempts (guarded by this)
+    private final long[] ringTime     = new long[RING_SIZE];
+    private final int[]  ringEndpoint = new int[RING_SIZE];
+    private final int[]  ringStatus   = new int[RING_SIZE];
+    private final int[]  ringTtfbMs   = new int[RING_SIZE];
+    private final int[]  ringTotalMs  = new int[RING_SIZE];
+    private final int[]  ringSent     = new int[RING_SIZE];
+    private final int[]  ringReceived = new int[RING_SIZE];
+    private final byte[] ringRetry    = new byte[RING_SIZE];
+    private final byte[] ringError    = new byte[RING_SIZE];
+    private long recorded = 0;
+
+    // ─────────────────────────────────────────────────────────
+    //  Recording
+    // ─────────────────────────────────────────────────────────
+
+    /**
+     * @param endpoint   last path segment of the URL
+     * @param statusCode HTTP status, 0 when no answer arrived
+     * @param ttfbMs     time to the response headers, -1 when no answer arrived
+     * @param retry      the request's retry count for this attempt, 0 for the first
+     */
+    synchronized void record(String endpoint, int statusCode, ErrorClass error, int ttfbMs, int totalMs,
+                             int sentBytes, int receivedBytes, int retry) {
+        Endpoint e = byName.get(endpoint);
+        if (e == null) {
+            e = new Endpoint(endpoints.size(), endpoint);
+            byName.put(endpoint, e);
+            endpoints.add(e);
+        }
+        e.attempts++;
+        if (retry > 0) e.retries++;
+        e.errors[error.ordinal()]++;
+        e.sentBytes     += sentBytes;
+        e.receivedBytes += receivedBytes;
+        e.totalMsSum    += totalMs;
+        if (statusCode > 0) {
+            e.ttfb[bucket(ttfbMs)]++;
+            e.total[bucket(totalMs)]++;
+        }
+
+        int slot = (int) (recorded++ % RING_SIZE);
+        ringTime[slot]     = System.currentTimeMillis();
+        ringEndpoint[slot] = e.id;
+        ringStatus[slot]   = statusCode;
+        ringTtfbMs[slot]   = ttfbMs;
+        ringTotalMs[slot]  = totalMs;
+        ringSent[slot]     = sentBytes;
+        ringReceived[slot] = receivedBytes;
+        ringRetry[slot]    = (byte) Math.min(retry, Byte.MAX_VALUE);
+        ringError[slot]    = (byte) error.ordinal();
+    }
+
+    static ErrorClass classify(int statusCode) {
+        if (statusCode >= 500) return ErrorClass.HTTP_5XX;
+        if (statusCode >= 400) return ErrorClass.HTTP_4XX;
+        return ErrorClass.NONE;
+    }
+
+    static ErrorClass classify(IOException error) {
+        if (error instanceof SocketTimeoutException) return ErrorClass.TIMEOUT;
+        if (error instanceof UnknownHostException) return ErrorClass.DNS;
+        if (error instanceof ConnectException || error instanceof NoRouteToHostException) return ErrorClass.CONNECT;
+        if (error instanceof SSLException) return ErrorClass.TLS;
+        return ErrorClass.IO;
+    }
+
+    private static int bucket(int ms) {
+        for (int i = 0; i < BUCKET_MS.length; i++) {
+            if (ms <= BUCKET_MS[i]) return i;
+        }
+        return BUCKET_MS.length;
+    }
+
+    /**
+     * Upper bound, ms, of the total-time bucket holding the {@code fraction} quantile
+     * (twice the last bound for the open bucket), or -1 with fewer than {@code minSamples} answers.
+     */
+    synchronized int percentileMs(String endpoint, double fraction, int minSamples) {
+        Endpoint e = byName.get(endpoint);
+        if (e == null) return -1;
+        long answered = 0;
+        for (long n : e.total) answered += n;
+        if (answered < minSamples) return -1;
+
+        long target = (long) Math.ceil(answered * fraction);
+        long seen   = 0;
+        for (int i = 0; i < BUCKET_MS.length; i++) {
+            seen += e.total[i];
+            if (seen >= target) return BUCKET_MS[i];
+        }
+        return 2 * BUCKET_MS[BUCKET_MS.length - 1];
+    }
+
+    /** Upper bound of the bucket holding the {@code fraction} quantile, e.g. "≤250". */
+    private static String percentile(long[] histogram, double fraction) {
+        long count = 0;
+        for (long n : histogram) count += n;
+        if (count == 0) return "–";
+
+        long target = (long) Math.ceil(count * fraction);
+        long seen   = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return i < BUCKET_MS.length ? "≤" + BUCKET_MS[i] : ">" + BUCKET_MS[BUCKET_MS.length - 1];
+            }
+        }
+        return "–";
+    }
+
+    public synchronized void reset() {
+        byName.clear();
+        endpoints.clear();
+        recorded = 0;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Reports
+    // ─────────────────────────────────────────────────────────
+
+    public synchronized String getStats() {
+        if (endpoints.isEmpty()) return "No requests yet";
+
+        StringBuilder stats = new StringBuilder();
+        for (Endpoint e : endpoints) {
+            long failed = e.attempts - e.errors[ErrorClass.NONE.ordinal()];
+            stats.append(e.name).append('\n')
+                .append("  ").append(e.attempts).append(" attempts, ")
+                .append(e.retries).append(" retries, ")
+                .append(Math.round(100.0 * failed / e.attempts)).append("% failed\n")
+                .append("  TTFB p50/p95 ").append(percentile(e.ttfb, 0.5)).append(" / ")
+                .append(percentile(e.ttfb, 0.95)).append(" ms\n")
+                .append("  Total p50/p95 ").append(percentile(e.total, 0.5)).append(" / ")
+                .append(percentile(e.total, 0.95)).append(" ms, avg ")
+                .append(e.totalMsSum / e.attempts).append(" ms\n")
+                .append("  Avg sent / received ").append(e.sentBytes / e.attempts).append(" / ")
+                .append(e.receivedBytes / e.attempts).append(" B\n");
+            if (failed > 0) {
+                stats.append("  Errors:");
+                for (ErrorClass error : ErrorClass.values()) {
+                    long n = e.errors[error.ordinal()];
+                    if (error != ErrorClass.NONE && n > 0) {
+                        stats.append(' ').append(error).append('×').append(n);
+                    }
+                }
+                stats.append('\n');
+            }
+        }
+        return stats.toString().trim();
+    }
+
+    /** Summary plus the recent attempts as CSV, oldest first. */
+    public synchronized void export(Writer out) throws IOException {
+        SimpleDateFormat time = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.US);
+
+        out.write("# Link network telemetry, " + time.format(new Date()) + "\n");
+        out.write("# Histogram buckets (ms): ≤");
+        for (int i = 0; i < BUCKET_MS.length; i++) {
+            out.write((i > 0 ? ", ≤" : "") + BUCKET_MS[i]);
+        }
+        out.write(", >" + BUCKET_MS[BUCKET_MS.length - 1] + "\n#\n");
+        for (String line : getStats().split("\n")) {
+            out.write("# " + line + "\n");
+        }
+        for (Endpoint e : endpoints) {
+            out.write("# " + e.name + " ttfb " + join(e.ttfb) + " total " + join(e.total) + "\n");
+        }
+
+        out.write("time,endpoint,status,error,ttfb_ms,total_ms,sent_bytes,received_bytes,retry\n");
+        long count = Math.min(recorded, RING_SIZE);
+        for (long i = recorded - count; i < recorded; i++) {
+            int slot = (int) (i % RING_SIZE);
+            out.write(time.format(new Date(ringTime[slot])) + ","
+                + endpoints.get(ringEndpoint[slot]).name + ","
+                + ringStatus[slot] + ","
+                + ErrorClass.values()[ringError[slot]] + ","
+                + ringTtfbMs[slot] + ","
+                + ringTotalMs[slot] + ","
+                + ringSent[slot] + ","
+                + ringReceived[slot] + ","
+                + ringRetry[slot] + "\n");
+        }
+    }
+
+    private static String join(long[] values) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) joined.append('/');
+            joined.append(values[i]);
+        }
+        return joined.toString();
+    }
+}
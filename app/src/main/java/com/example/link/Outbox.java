@@ -0,0 +1,387 @@
+package com.example.link;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.android.volley.ParseError;
+import com.android.volley.VolleyError;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable queue for the writes a responder cannot afford to lose: SOS
+ * acknowledge/resolve and device assign/end. {@link LinkApi} sends them here.
+ *
+ * {@link #submit} stores the write in {@link LinkDatabase} with a fresh
+ * idempotency key before anything goes out, so it survives a dropped
+ * connection and process death. Each attempt carries the key in an
+ * Idempotency-Key header, letting the server ignore a replay whose first
+ * answer was lost.
+ *
+ * Every {@link RequestLane} drains on its own, oldest first, so SOS writes
+ * never wait behind an assignment that is backing off. Within a lane, a write
+ * waits only for older writes with the same order key (the transmitter), so
+ * an acknowledge always reaches the server before the resolve that follows it.
+ *
+ *   HTTP 2xx with JSON, or 4xx     final: removed; the call completes / fails with it
+ *   5xx, 408, 429                  this write is retried with its own backoff; the
+ *                                  rest of the lane carries on
+ *   no answer, or not JSON         the lane waits: retried with backoff and as soon
+ *   (e.g. a captive portal)        as the default network comes back
+ *
+ * Either way the call fails with {@link QueuedException} while the write stays
+ * queued. A write that keeps getting server errors is dropped after
+ * MAX_ATTEMPTS; connection failures never count against it.
+ */
+public class Outbox {
+
+    private static final String TAG = "Outbox";
+
+    private static final int  MAX_ATTEMPTS  = 10;
+    private static final long RETRY_BASE_MS = 2_000;
+    private static final long RETRY_MAX_MS  = 5 * 60_000;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static Outbox instance;
+    private final LinkDatabase db;
+    private final LinkApi      api;
+
+    // Main thread
+    private final Map<RequestLane, Queue> queues = new EnumMap<>(RequestLane.class);
+
+    // Stats
+    private final AtomicInteger depth          = new AtomicInteger();
+    private final AtomicLong    delivered      = new AtomicLong();
+    private final AtomicLong    rejected       = new AtomicLong();
+    private final AtomicLong    retries        = new AtomicLong();
+    private final AtomicLong    latencyTotalMs = new AtomicLong();
+    private final AtomicLong    latencyMaxMs   = new AtomicLong();
+
+    /** The write could not be sent now; it stays in the outbox and goes out later. */
+    public static class QueuedException extends Exception {
+        QueuedException(Throwable cause) {
+            super("Saved; will be sent when the connection returns", cause);
+        }
+    }
+
+    /** One stored write. */
+    static final class Entry {
+        final long        id;
+        final String      key;
+        final String      kind;
+        final String      orderKey;        // writes with the same key go out in order; null for none
+        final String      url;
+        final String      body;
+        final RequestLane lane;
+        final int         timeoutMs;
+        final long        createdAt;
+        final int         attempts;
+        final long        nextAttemptAt;   // wall clock; 0 when not backing off
+
+        Entry(long id, String key, String kind, String orderKey, String url, String body,
+              RequestLane lane, int timeoutMs, long createdAt, int attempts, long nextAttemptAt) {
+            this.id            = id;
+            this.key           = key;
+            this.kind          = kind;
+            this.orderKey      = orderKey;
+            this.url           = url;
+            this.body          = body;
+            this.lane          = lane;
+            this.timeoutMs     = timeoutMs;
+            this.createdAt     = createdAt;
+            this.attempts      = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    /** Send state of one lane. Main thread. */
+    private final class Queue {
+        final RequestLane lane;
+        final Map<String, Waiting> waiting = new HashMap<>();   // by idempotency key
+        final Runnable retry = () -> flush(this);
+        boolean flushing = false;
+        int     failures = 0;   // connection failures in a row; drives the lane backoff
+
+        Queue(RequestLane lane) {
+            this.lane = lane;
+        }
+    }
+
+    private static final class Waiting {
+        final ApiCall<JSONObject> call;
+        final String              orderKey;
+
+        Waiting(ApiCall<JSONObject> call, String orderKey) {
+            this.call     = call;
+            this.orderKey = orderKey;
+        }
+    }
+
+    private Outbox(Context context) {
+        this.db  = LinkDatabase.getInstance(context);
+        this.api = LinkApi.getInstance(context);
+        for (RequestLane lane : RequestLane.values()) {
+            queues.put(lane, new Queue(lane));
+        }
+
+        // Writes left over from a previous process
+        db.update(LinkDatabase::countOutbox, count -> {
+            depth.addAndGet(count);
+            if (count > 0) {
+                Log.d(TAG, count + " writes pending from last run");
+                flush();
+            }
+        }, error -> { });
+
+        ConnectivityManager connectivity =
+            (ConnectivityManager) context.getApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+        connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                MAIN_HANDLER.post(() -> {
+                    for (Queue queue : queues.values()) {
+                        queue.failures = 0;
+                    }
+                    flush();
+                });
+            }
+        });
+    }
+
+    public static synchronized Outbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new Outbox(context);
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Writes
+    // ─────────────────────────────────────────────────────────
+
+    /**
+     * Store a write and send it when its turn comes. Call on the main thread.
+     * Cancelling the returned call only drops the listener; the write still goes out.
+     *
+     * @param orderKey writes in the same lane with this key are sent in submit
+     *                 order, e.g. the transmitter serial; null if order doesn't matter
+     */
+    ApiCall<JSONObject> submit(String kind, String orderKey, String url, JSONObject body,
+                               RequestLane lane, int timeoutMs) {
+        ApiCall<JSONObject> call = new ApiCall<>();
+        Entry entry = new Entry(0, UUID.randomUUID().toString(), kind, orderKey, url, body.toString(),
+            lane, timeoutMs, System.currentTimeMillis(), 0, 0);
+        Queue queue = queues.get(lane);
+        queue.waiting.put(entry.key, new Waiting(call, orderKey));
+
+        db.update(d -> d.addOutbox(entry), id -> {
+            depth.incrementAndGet();
+            flush(queue);
+        }, error -> {
+            queue.waiting.remove(entry.key);
+            call.completeExceptionally(error);
+        });
+        return call;
+    }
+
+    /** Send what is pending in every lane, CRITICAL first. */
+    public void flush() {
+        for (RequestLane lane : RequestLane.values()) {
+            flush(queues.get(lane));
+        }
+    }
+
+    /** Send what is pending in one lane, unless it is already being sent. */
+    private void flush(Queue queue) {
+        if (queue.flushing) return;
+        MAIN_HANDLER.removeCallbacks(queue.retry);
+        queue.flushing = true;
+        sendNext(queue);
+    }
+
+    private void sendNext(Queue queue) {
+        long now = System.currentTimeMillis();
+        db.update(d -> d.nextOutbox(queue.lane, now), entry -> {
+            if (entry != null) {
+                send(queue, entry);
+                return;
+            }
+            queue.flushing = false;
+            queue.failures = 0;
+            wakeWhenDue(queue);
+        }, error -> queue.flushing = false);
+    }
+
+    /** Writes are still backing off: come back when the first is due. */
+    private void wakeWhenDue(Queue queue) {
+        db.update(d -> d.nextOutboxAttemptAt(queue.lane), dueAt -> {
+            if (dueAt == null || queue.flushing) return;
+            MAIN_HANDLER.removeCallbacks(queue.retry);
+            MAIN_HANDLER.postDelayed(queue.retry, Math.max(0, dueAt - System.currentTimeMillis()));
+        }, error -> { });
+    }
+
+    private void send(Queue queue, Entry entry) {
+        JSONObject body;
+        try {
+            body = new JSONObject(entry.body);
+        } catch (JSONException e) {
+            finish(queue, entry, null, new ParseError(e));   // the stored write itself is unreadable
+            return;
+        }
+
+        api.deliver(entry.url, body, entry.key, entry.lane, entry.timeoutMs)
+            .whenComplete((response, error) -> {
+                Throwable cause = error == null ? null : ApiCall.unwrap(error);
+                if (cause == null || isFinal(cause)) {
+                    finish(queue, entry, response, cause);
+                } else if (isServerError(cause)) {
+                    backOff(queue, entry, cause);
+                } else {
+                    retryLater(queue, entry, cause);
+                }
+            });
+    }
+
+    /** The server has answered for good: drop the write and move on to the next. */
+    private void finish(Queue queue, Entry entry, JSONObject response, Throwable error) {
+        db.update(d -> {
+            d.removeOutbox(entry.id);
+            return entry;
+        }, removed -> {
+            depth.decrementAndGet();
+            long latencyMs = System.currentTimeMillis() - entry.createdAt;
+            if (error == null) {
+                delivered.incrementAndGet();
+                latencyTotalMs.addAndGet(latencyMs);
+                latencyMaxMs.accumulateAndGet(latencyMs, Math::max);
+                Log.d(TAG, entry.kind + " delivered after " + latencyMs + " ms");
+            } else {
+                rejected.incrementAndGet();
+                Log.w(TAG, entry.kind + " rejected: " + error);
+            }
+
+            Waiting waiting = queue.waiting.remove(entry.key);
+            if (waiting != null) {
+                if (error == null) waiting.call.complete(response);
+                else waiting.call.completeExceptionally(error);
+            }
+            queue.failures = 0;
+            sendNext(queue);
+        }, e -> queue.flushing = false);
+    }
+
+    /**
+     * The server failed this one write: it backs off on its own, and the lane
+     * moves on to writes that don't have to follow it.
+     */
+    private void backOff(Queue queue, Entry entry, Throwable error) {
+        int attempts = entry.attempts + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+            finish(queue, entry, null, error);
+            return;
+        }
+
+        retries.incrementAndGet();
+        long delayMs = backoffMs(attempts);
+        long dueAt   = System.currentTimeMillis() + delayMs;
+        db.update(d -> {
+            d.markOutboxAttempt(entry.id, attempts, dueAt, String.valueOf(error));
+            return entry;
+        }, marked -> {
+            // This write and the ones that must follow it are late
+            Iterator<Map.Entry<String, Waiting>> it = queue.waiting.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Waiting> next = it.next();
+                if (next.getKey().equals(entry.key)
+                        || (entry.orderKey != null && entry.orderKey.equals(next.getValue().orderKey))) {
+                    next.getValue().call.completeExceptionally(new QueuedException(error));
+                    it.remove();
+                }
+            }
+            Log.d(TAG, entry.kind + " failed (" + error + "), retry in " + delayMs + " ms");
+            sendNext(queue);
+        }, e -> queue.flushing = false);
+    }
+
+    /** No usable connection: nothing in this lane can go out either, so the lane waits. */
+    private void retryLater(Queue queue, Entry entry, Throwable error) {
+        retries.incrementAndGet();
+        db.write(() -> db.markOutboxAttempt(entry.id, entry.attempts, entry.nextAttemptAt, String.valueOf(error)));
+
+        for (Waiting waiting : queue.waiting.values()) {
+            waiting.call.completeExceptionally(new QueuedException(error));
+        }
+        queue.waiting.clear();
+
+        queue.flushing = false;
+        queue.failures++;
+        long delayMs = backoffMs(queue.failures);
+        Log.d(TAG, queue.lane + " lane offline (" + error + "), " + depth.get() + " pending, retry in " + delayMs + " ms");
+        MAIN_HANDLER.postDelayed(queue.retry, delayMs);
+    }
+
+    private static long backoffMs(int failures) {
+        return Math.min(RETRY_MAX_MS, RETRY_BASE_MS << Math.min(failures - 1, 10));
+    }
+
+    /** A 4xx other than 408/429: the server has looked at the write and refused it. */
+    static boolean isFinal(Throwable error) {
+        int status = statusOf(error);
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    /**
+     * 5xx, 408 or 429: the server is there but failed this write. A 2xx that
+     * isn't JSON (ParseError, no status) is a captive portal or proxy, not the
+     * server, so it is handled like no connection.
+     */
+    static boolean isServerError(Throwable error) {
+        int status = statusOf(error);
+        return status >= 500 || status == 408 || status == 429;
+    }
+
+    private static int statusOf(Throwable error) {
+        if (!(error instanceof VolleyError) || ((VolleyError) error).networkResponse == null) return 0;
+        return ((VolleyError) error).networkResponse.statusCode;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /** Mean time from submit to the server accepting the write, across restarts. */
+    public long getAverageLatencyMs() {
+        long count = delivered.get();
+        return count == 0 ? 0 : latencyTotalMs.get() / count;
+    }
+
+    public String getStats() {
+        return "Pending: "     + depth.get()            + "\n" +
+               "Delivered: "   + delivered.get()        + "\n" +
+               "Rejected: "    + rejected.get()         + "\n" +
+               "Retries: "     + retries.get()          + "\n" +
+               "Avg latency: " + getAverageLatencyMs()  + " ms\n" +
+               "Max latency: " + latencyMaxMs.get()     + " ms";
+    }
+}
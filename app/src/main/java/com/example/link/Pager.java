@@ -0,0 +1,349 @@
+package com.example.link;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offset-paged list behind a RecyclerView, loaded in both directions as the
+ * user scrolls.
+ *
+ *   Page size        rows per request after the first window
+ *   Initial pages    pages fetched in one request by {@link #refresh()}
+ *   Prefetch         the next (or previous) page is requested once the visible
+ *                    rows are within this many rows of the loaded edge, so it
+ *                    is usually there before the user reaches it
+ *   Max pages        pages kept in memory; past it, pages are dropped from the
+ *                    far end and fetched again if the user scrolls back
+ *
+ * {@link #refresh()} keeps the rows on screen until page 1 arrives. It then
+ * diffs the new window against them, so the list never flashes empty.
+ *
+ * Main thread only. Also counts stalls: the user reaching a loaded edge while
+ * the page beyond it is still on its way (read by the debug scroll benchmark).
+ */
+public class Pager<T> {
+
+    private static final String TAG = "Pager";
+
+    /** Loads rows [(page - 1) × limit, page × limit) and the total row count. */
+    public interface Source<T> {
+        ApiCall<ApiParsers.ListResult<T>> load(int page, int limit);
+    }
+
+    public interface Callback<T> {
+        /** Page 1 of a {@link #refresh()} has replaced the rows (also when it failed softly: success=false). */
+        void onRefreshed(ApiParsers.ListResult<T> result);
+
+        void onError(Throwable error, boolean refresh);
+    }
+
+    private final int                        pageSize;
+    private final Source<T>                  source;
+    private final DiffUtil.ItemCallback<T>   diff;
+    private final Callback<T>                callback;
+    private int initialPages     = 1;
+    private int prefetchDistance = 0;
+    private int maxPages         = Integer.MAX_VALUE;
+
+    private final List<T>             items     = new ArrayList<>();
+    private final ArrayDeque<Integer> pageRows  = new ArrayDeque<>();   // rows per loaded page, first to last
+    private ListUpdateCallback        updates;
+    private LinearLayoutManager       layoutManager;
+
+    private int     firstPage  = 1;
+    private int     total      = 0;
+    private int     generation = 0;
+    private boolean lastFull   = false;   // the last page came back full, so more may follow
+    private boolean refreshing = false;
+    private boolean appending  = false;
+    private boolean prepending = false;
+
+    // Stall accounting
+    private int  lastFirstVisible = -1;
+    private long rowsScrolled     = 0;
+    private long stalls           = 0;
+    private long stalledMs        = 0;
+    private long stalledSince     = 0;
+
+    public Pager(int pageSize, Source<T> source, DiffUtil.ItemCallback<T> diff, Callback<T> callback) {
+        this.pageSize = pageSize;
+        this.source   = source;
+        this.diff     = diff;
+        this.callback = callback;
+    }
+
+    public Pager<T> setInitialPages(int initialPages) {
+        this.initialPages = Math.max(1, initialPages);
+        return this;
+    }
+
+    public Pager<T> setPrefetchDistance(int rows) {
+        this.prefetchDistance = Math.max(0, rows);
+        return this;
+    }
+
+    public Pager<T> setMaxPages(int maxPages) {
+        this.maxPages = Math.max(2, maxPages);
+        return this;
+    }
+
+    /** The rows for the adapter; read-only, changed only through the adapter's notify calls. */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        updates       = new AdapterListUpdateCallback(recyclerView.getAdapter());
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                onVisibleRangeChanged();
+            }
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Loading
+    // ─────────────────────────────────────────────────────────
+
+    /** Reload from page 1; the current rows stay on screen until it arrives. */
+    public void refresh() {
+        generation++;
+        refreshing = true;
+        appending  = false;
+        prepending = false;
+        stalledSince = 0;
+
+        int gen = generation;
+        int limit = initialPages * pageSize;
+        source.load(1, limit).whenComplete((result, error) -> {
+            if (gen != generation) return;
+            refreshing = false;
+            if (error != null) {
+                callback.onError(ApiCall.unwrap(error), true);
+                return;
+            }
+            if (result.success) {
+                replace(result.items);
+                firstPage = 1;
+                total     = result.total;
+                lastFull  = result.items.size() == limit;
+                pageRows.clear();
+                for (int i = 0; i < result.items.size(); i += pageSize) {
+                    pageRows.addLast(Math.min(pageSize, result.items.size() - i));
+                }
+            }
+            callback.onRefreshed(result);
+            onVisibleRangeChanged();
+        });
+    }
+
+    /** Rows to show while {@link #refresh()} is in flight, e.g. the stored copy of page 1. */
+    public void showInterim(List<T> rows) {
+        if (refreshing) replace(rows);
+    }
+
+    private int lastPage() {
+        return firstPage + pageRows.size() - 1;
+    }
+
+    private boolean hasAfter() {
+        return lastFull && lastPage() * pageSize < total;
+    }
+
+    private boolean hasBefore() {
+        return firstPage > 1;
+    }
+
+    private void loadAfter() {
+        if (refreshing || appending || !hasAfter()) return;
+        appending = true;
+        int gen  = generation;
+        int page = lastPage() + 1;
+        source.load(page, pageSize).whenComplete((result, error) -> {
+            if (gen != generation) return;
+            appending = false;
+            endStall();
+            if (error != null) {
+                callback.onError(ApiCall.unwrap(error), false);
+                return;
+            }
+            if (!result.success) return;
+
+            total = result.total;
+            List<T> rows = withoutOverlap(result.items, items.size() - pageSize, items.size());
+            int start = items.size();
+            items.addAll(rows);
+            pageRows.addLast(rows.size());
+            lastFull = result.items.size() == pageSize;
+            updates.onInserted(start, rows.size());
+            Log.d(TAG, "Appended page " + page + " (" + rows.size() + " rows)");
+
+            while (pageRows.size() > maxPages) {
+                int dropped = pageRows.removeFirst();
+                firstPage++;
+                items.subList(0, dropped).clear();
+                updates.onRemoved(0, dropped);
+                lastFirstVisible -= dropped;
+            }
+            onVisibleRangeChanged();
+        });
+    }
+
+    private void loadBefore() {
+        if (refreshing || prepending || !hasBefore()) return;
+        prepending = true;
+        int gen  = generation;
+        int page = firstPage - 1;
+        source.load(page, pageSize).whenComplete((result, error) -> {
+            if (gen != generation) return;
+            prepending = false;
+            endStall();
+            if (error != null) {
+                callback.onError(ApiCall.unwrap(error), false);
+                return;
+            }
+            if (!result.success) return;
+
+            total = result.total;
+            List<T> rows = withoutOverlap(result.items, 0, Math.min(pageSize, items.size()));
+            items.addAll(0, rows);
+            pageRows.addFirst(rows.size());
+            firstPage = page;
+            updates.onInserted(0, rows.size());
+            lastFirstVisible += rows.size();
+            Log.d(TAG, "Prepended page " + page + " (" + rows.size() + " rows)");
+
+            while (pageRows.size() > maxPages) {
+                int dropped = pageRows.removeLast();
+                int start   = items.size() - dropped;
+                lastFull = true;
+                items.subList(start, items.size()).clear();
+                updates.onRemoved(start, dropped);
+            }
+            onVisibleRangeChanged();
+        });
+    }
+
+    /**
+     * {@code rows} minus any already loaded in items[from, to). Offsets move
+     * when rows are added on the server, so a page can repeat a neighbour's edge.
+     */
+    private List<T> withoutOverlap(List<T> rows, int from, int to) {
+        List<T> fresh = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            boolean seen = false;
+            for (int i = Math.max(0, from); i < to && !seen; i++) {
+                seen = diff.areItemsTheSame(items.get(i), row);
+            }
+            if (!seen) fresh.add(row);
+        }
+        return fresh;
+    }
+
+    private void replace(List<T> rows) {
+        List<T> old = new ArrayList<>(items);
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return old.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return rows.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return diff.areItemsTheSame(old.get(oldPosition), rows.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return diff.areContentsTheSame(old.get(oldPosition), rows.get(newPosition));
+            }
+        });
+        items.clear();
+        items.addAll(rows);
+        result.dispatchUpdatesTo(updates);
+        lastFirstVisible = -1;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Scrolling
+    // ─────────────────────────────────────────────────────────
+
+    private void onVisibleRangeChanged() {
+        if (layoutManager == null || items.isEmpty()) return;
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last  = layoutManager.findLastVisibleItemPosition();
+        if (first < 0) return;
+
+        if (lastFirstVisible >= 0) rowsScrolled += Math.abs(first - lastFirstVisible);
+        lastFirstVisible = first;
+
+        if (last >= items.size() - 1 - prefetchDistance) loadAfter();
+        if (first <= prefetchDistance) loadBefore();
+
+        if ((appending && last >= items.size() - 1) || (prepending && first == 0)) {
+            if (stalledSince == 0) stalledSince = SystemClock.elapsedRealtime();
+        }
+    }
+
+    private void endStall() {
+        if (stalledSince == 0) return;
+        stalls++;
+        stalledMs += SystemClock.elapsedRealtime() - stalledSince;
+        stalledSince = 0;
+    }
+
+    /** True when the last row is on screen and nothing follows it. */
+    public boolean isAtEnd() {
+        return !hasAfter() && !appending && layoutManager != null
+            && layoutManager.findLastVisibleItemPosition() >= items.size() - 1;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    public long getRowsScrolled() {
+        return rowsScrolled;
+    }
+
+    public void resetStats() {
+        rowsScrolled = 0;
+        stalls       = 0;
+        stalledMs    = 0;
+        stalledSince = 0;
+    }
+
+    public String getStats() {
+        return String.format(Locale.US,
+            "Page size %d, prefetch %d rows, max %d pages\n" +
+            "Rows scrolled: %d\n" +
+            "Stalls: %d (%.1f per 1,000 rows)\n" +
+            "Time stalled: %d ms%s\n" +
+            "In memory: pages %d–%d, %d rows of %d",
+            pageSize, prefetchDistance, maxPages,
+            rowsScrolled,
+            stalls, rowsScrolled == 0 ? 0.0 : stalls * 1000.0 / rowsScrolled,
+            stalledMs, stalls == 0 ? "" : ", avg " + stalledMs / stalls + " ms",
+            firstPage, lastPage(), items.size(), total);
+    }
+}
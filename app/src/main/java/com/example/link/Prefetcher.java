@@ -0,0 +1,158 @@
+package com.example.link;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Warms History and Activities while the user is on the dashboard, so those
+ * screens open on rows that are already in {@link LinkDatabase}.
+ *
+ * TestFragment calls {@link #onDashboardLoaded} after each successful round.
+ * At most once per MIN_INTERVAL_MS, and only on an unmetered network that is
+ * not 2G-class ({@link NetworkQuality}) and outside battery saver, this syncs
+ * the resolved SOS history and the first screenful of device activities.
+ * Both run on the BACKGROUND lane, so they wait while an SOS write is in
+ * flight. Nothing is rendered here; the screens' own load* calls pick the
+ * rows up.
+ *
+ * Screens report {@link #recordOpen}; it is a hit when a prefetch for that
+ * screen finished within HIT_WINDOW_MS.
+ */
+public class Prefetcher {
+
+    public enum Target { HISTORY, ACTIVITIES }
+
+    private static final String TAG = "Prefetcher";
+
+    private static final long START_DELAY_MS  = 2_000;        // let the dashboard's own work settle
+    private static final long MIN_INTERVAL_MS = 5 * 60_000;
+    private static final long HIT_WINDOW_MS   = 15 * 60_000;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static Prefetcher instance;
+    private final ConnectivityManager connectivity;
+    private final PowerManager        power;
+    private final SyncEngine          syncEngine;
+    private final NetworkQuality      networkQuality;
+
+    // Main thread
+    private final long[] readyAt = new long[Target.values().length];
+    private final int[]  hits    = new int[Target.values().length];
+    private final int[]  misses  = new int[Target.values().length];
+    private Runnable pending;
+    private long lastRunAt        = 0;
+    private int  runs             = 0;
+    private int  skippedMetered   = 0;
+    private int  skippedPowerSave = 0;
+    private int  skippedOffline   = 0;
+
+    private Prefetcher(Context context) {
+        this(context, SyncEngine.getInstance(context));
+    }
+
+    /** Prefetches through {@code syncEngine} (e.g. one pointed at a test server). */
+    Prefetcher(Context context, SyncEngine syncEngine) {
+        Context appContext = context.getApplicationContext();
+        this.connectivity   = (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.power          = (PowerManager) appContext.getSystemService(Context.POWER_SERVICE);
+        this.syncEngine     = syncEngine;
+        this.networkQuality = NetworkQuality.getInstance(appContext);
+    }
+
+    public static synchronized Prefetcher getInstance(Context context) {
+        if (instance == null) {
+            instance = new Prefetcher(context);
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Prefetch
+    // ─────────────────────────────────────────────────────────
+
+    public void onDashboardLoaded(int userId, int staffId) {
+        if (pending != null) return;
+        if (lastRunAt != 0 && SystemClock.elapsedRealtime() - lastRunAt < MIN_INTERVAL_MS) return;
+
+        pending = () -> {
+            pending = null;
+            run(userId, staffId);
+        };
+        MAIN_HANDLER.postDelayed(pending, START_DELAY_MS);
+    }
+
+    private void run(int userId, int staffId) {
+        if (connectivity.getActiveNetwork() == null) {
+            skippedOffline++;
+            return;
+        }
+        if (connectivity.isActiveNetworkMetered()
+                || networkQuality.getMode() == NetworkQuality.Mode.MINIMAL) {
+            skippedMetered++;
+            Log.d(TAG, "Skipped: metered or slow network");
+            return;
+        }
+        if (power.isPowerSaveMode()) {
+            skippedPowerSave++;
+            Log.d(TAG, "Skipped: battery saver");
+            return;
+        }
+
+        lastRunAt = SystemClock.elapsedRealtime();
+        runs++;
+        Log.d(TAG, "Prefetching history and activities");
+
+        syncEngine.syncResolvedSos(userId, staffId)
+            .whenComplete((result, error) -> {
+                if (error == null && result.success) markReady(Target.HISTORY);
+            });
+        // The filter the screen opens with
+        syncEngine.syncDeviceActivities(userId, staffId, false, 1, DeviceLocationActivity.FIRST_LOAD_SIZE)
+            .whenComplete((result, error) -> {
+                if (error == null && result.success) markReady(Target.ACTIVITIES);
+            });
+    }
+
+    private void markReady(Target target) {
+        readyAt[target.ordinal()] = SystemClock.elapsedRealtime();
+    }
+
+    /** Call when {@code target}'s screen opens. */
+    public void recordOpen(Target target) {
+        long ready = readyAt[target.ordinal()];
+        boolean hit = ready != 0 && SystemClock.elapsedRealtime() - ready < HIT_WINDOW_MS;
+        if (hit) hits[target.ordinal()]++;
+        else misses[target.ordinal()]++;
+        Log.d(TAG, target + " opened: " + (hit ? "hit" : "miss"));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    /** Share of screen opens that found prefetched rows, 0–1. */
+    public double getHitRate(Target target) {
+        int total = hits[target.ordinal()] + misses[target.ordinal()];
+        return total == 0 ? 0 : (double) hits[target.ordinal()] / total;
+    }
+
+    public String getStats() {
+        StringBuilder stats = new StringBuilder()
+            .append("Prefetches: ").append(runs).append("\n")
+            .append("Skipped (metered or slow / battery saver / offline): ")
+            .append(skippedMetered).append(" / ").append(skippedPowerSave).append(" / ").append(skippedOffline);
+        for (Target target : Target.values()) {
+            stats.append("\n").append(target).append(": ")
+                .append(hits[target.ordinal()]).append(" hits, ")
+                .append(misses[target.ordinal()]).append(" misses (")
+                .append(Math.round(getHitRate(target) * 100)).append("%)");
+        }
+        return stats.toString();
+    }
+}
@@ -23,9 +23,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.bumptech.glide.Glide;
 import com.google.android.material.imageview.ShapeableImageView;
 
@@ -59,7 +57,7 @@ public class ProfileFragment extends Fragment {
     private String  base64Image      = null;
 
     private SharedPrefManager sharedPrefManager;
-    private RequestQueue      requestQueue;
+    private RequestScope      requestScope;
 
     @Nullable
     @Override
@@ -74,7 +72,7 @@ public class ProfileFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         sharedPrefManager = SharedPrefManager.getInstance(requireContext());
-        requestQueue      = Volley.newRequestQueue(requireContext());
+        requestScope      = RequestScope.of(this);
 
         profilePicture         = view.findViewById(R.id.profile_picture);
         cameraButton           = view.findViewById(R.id.camera_button);
@@ -135,6 +133,7 @@ public class ProfileFragment extends Fragment {
             Log.d(TAG, "Loading profile picture from: " + fullUrl);
             Glide.with(this)
                 .load(fullUrl)
+                .onlyRetrieveFromCache(!NetworkQuality.getInstance(requireContext()).allowsImageDownloads())
                 .circleCrop()
                 .placeholder(R.drawable.profile_picture_bg)
                 .error(R.drawable.profile_picture_bg)
@@ -357,7 +356,7 @@ public class ProfileFragment extends Fragment {
                 com.android.volley.DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
             ));
 
-            requestQueue.add(request);
+            requestScope.add(request);
 
         } catch (Exception e) {
             Log.e(TAG, "Error creating request: ", e);
@@ -366,12 +365,4 @@ public class ProfileFragment extends Fragment {
                 Toast.LENGTH_SHORT).show();
         }
     }
-
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(TAG);
-        }
-    }
 }
@@ -15,16 +15,16 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.NetworkResponse;
+import com.android.volley.VolleyError;
 import com.journeyapps.barcodescanner.BarcodeCallback;
 import com.journeyapps.barcodescanner.BarcodeResult;
 import com.journeyapps.barcodescanner.DecoratedBarcodeView;
 
 import org.json.JSONObject;
 
+import java.util.concurrent.CancellationException;
+
 public class QRScannerFragment extends Fragment {
 
     private DecoratedBarcodeView barcodeView;
@@ -33,7 +33,7 @@ public class QRScannerFragment extends Fragment {
     private boolean isProcessing = false;
 
     private SharedPrefManager sharedPrefManager;
-    private RequestQueue requestQueue;
+    private RequestScope requestScope;
 
     @Nullable
     @Override
@@ -44,10 +44,14 @@ public class QRScannerFragment extends Fragment {
 
         barcodeView = view.findViewById(R.id.barcodeScannerView);
         sharedPrefManager = SharedPrefManager.getInstance(requireContext());
-        requestQueue = Volley.newRequestQueue(requireContext());
+        return view;
+    }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        requestScope = RequestScope.of(this);
         checkCameraPermission();
-        return view;
     }
 
     private void checkCameraPermission() {
@@ -164,100 +168,45 @@ public class QRScannerFragment extends Fragment {
         android.util.Log.d("QRScanner", "Staff ID: " + staffId);
         android.util.Log.d("QRScanner", "URL: " + ApiConfig.RESOLVE_SOS_BY_QR_URL);
 
-        try {
-            JSONObject requestBody = new JSONObject();
-            requestBody.put("transmitter_serial", transmitterSerial);
-            requestBody.put("staff_id", staffId);
-            requestBody.put("resolution_notes", "Resolved via QR scan by " + sharedPrefManager.getUsername());
-
-            android.util.Log.d("QRScanner", "Request Body: " + requestBody.toString());
-
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                ApiConfig.RESOLVE_SOS_BY_QR_URL,
-                requestBody,
-                response -> {
-                    android.util.Log.d("QRScanner", "=== SUCCESS Response ===");
+        String notes = "Resolved via QR scan by " + sharedPrefManager.getUsername();
+        requestScope.track(LinkApi.getInstance(requireContext()).resolveSosByQr(transmitterSerial, staffId, notes))
+            .whenComplete((response, error) -> {
+                if (error == null) {
                     android.util.Log.d("QRScanner", "Response: " + response.toString());
-
-                    try {
-                        boolean success = response.getBoolean("success");
-                        String message = response.getString("message");
-
-                        if (success) {
-                            // Show success dialog
-                            showSuccessDialog(message, transmitterSerial);
-                        } else {
-                            showError(message);
-                            resumeScanning();
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        android.util.Log.e("QRScanner", "Parse error: " + e.getMessage());
-                        showError("Error processing response");
-                        resumeScanning();
-                    }
-                },
-                error -> {
-                    android.util.Log.e("QRScanner", "=== ERROR Response ===");
-                    android.util.Log.e("QRScanner", "Error: " + error.toString());
-
-                    String errorMessage = "Network error";
-
-                    if (error.networkResponse != null) {
-                        android.util.Log.e("QRScanner", "Status Code: " + error.networkResponse.statusCode);
-
-                        try {
-                            String responseBody = new String(error.networkResponse.data, "utf-8");
-                            android.util.Log.e("QRScanner", "Error Response Body: " + responseBody);
-
-                            JSONObject errorJson = new JSONObject(responseBody);
-                            if (errorJson.has("message")) {
-                                errorMessage = errorJson.getString("message");
-                            }
-                        } catch (Exception e) {
-                            android.util.Log.e("QRScanner", "Error parsing error response", e);
-                        }
+                    String message = response.optString("message", "Error processing response");
+                    if (response.optBoolean("success")) {
+                        showSuccessDialog(message, transmitterSerial);
                     } else {
-                        android.util.Log.e("QRScanner", "No network response - connection issue");
-                        if (error.getCause() != null) {
-                            android.util.Log.e("QRScanner", "Cause: " + error.getCause().getMessage());
-                        }
-                        errorMessage = "Cannot connect to server. Check:\n" +
-                            "1. Internet connection\n" +
-                            "2. Server URL: " + ApiConfig.RESOLVE_SOS_BY_QR_URL;
+                        showError(message);
+                        resumeScanning();
                     }
-
-                    showError(errorMessage);
-                    resumeScanning();
-                }
-            ) {
-                @Override
-                public java.util.Map<String, String> getHeaders() {
-                    java.util.Map<String, String> headers = new java.util.HashMap<>();
-                    headers.put("Content-Type", "application/json");
-                    headers.put("Accept", "application/json");
-                    android.util.Log.d("QRScanner", "Headers: " + headers.toString());
-                    return headers;
+                    return;
                 }
-            };
 
-            // Set timeout
-            request.setRetryPolicy(new com.android.volley.DefaultRetryPolicy(
-                30000,  // 30 seconds timeout
-                0,      // No retries
-                com.android.volley.DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-            ));
-
-            android.util.Log.d("QRScanner", "Adding request to queue...");
-            requestQueue.add(request);
+                Throwable cause = ApiCall.unwrap(error);
+                if (cause instanceof CancellationException) return;
+                if (cause instanceof Outbox.QueuedException) {
+                    // Kept in the outbox; it is sent as soon as the connection is back
+                    android.util.Log.w("QRScanner", "Resolution queued: " + cause.getCause());
+                    showQueuedDialog(transmitterSerial);
+                    return;
+                }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            android.util.Log.e("QRScanner", "Exception creating request: " + e.getMessage());
-            showError("Error creating request: " + e.getMessage());
-            resumeScanning();
-        }
+                android.util.Log.e("QRScanner", "Error: " + cause);
+                String errorMessage = "Network error";
+                if (cause instanceof VolleyError && ((VolleyError) cause).networkResponse != null) {
+                    NetworkResponse networkResponse = ((VolleyError) cause).networkResponse;
+                    android.util.Log.e("QRScanner", "Status Code: " + networkResponse.statusCode);
+                    try {
+                        JSONObject errorJson = new JSONObject(new String(networkResponse.data, "utf-8"));
+                        errorMessage = errorJson.optString("message", errorMessage);
+                    } catch (Exception e) {
+                        android.util.Log.e("QRScanner", "Error parsing error response", e);
+                    }
+                }
+                showError(errorMessage);
+                resumeScanning();
+            });
     }
 
     private void showSuccessDialog(String message, String serial) {
@@ -271,6 +220,18 @@ public class QRScannerFragment extends Fragment {
             .show();
     }
 
+    private void showQueuedDialog(String serial) {
+        new AlertDialog.Builder(requireContext())
+            .setTitle("Saved offline")
+            .setMessage("No connection right now. The resolution is saved and will be sent "
+                + "automatically when the connection returns.\n\nDevice: " + serial)
+            .setPositiveButton("OK", (dialog, which) -> {
+                closeScanner();
+            })
+            .setCancelable(false)
+            .show();
+    }
+
     private void showError(String message) {
         if (getActivity() != null) {
             Toast.makeText(requireContext(), message, Toast.LENGTH_LONG).show();
@@ -310,14 +271,6 @@ public class QRScannerFragment extends Fragment {
         }
     }
 
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(this);
-        }
-    }
-
     @Override
     public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
@@ -0,0 +1,212 @@
+package com.example.link;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single polling loop for a screen, owned by that screen's (view) lifecycle.
+ *
+ * Each data set is registered once as a {@link RefreshTask}. While the owner is
+ * resumed the scheduler runs "rounds": it fires every task, waits until they
+ * have all finished, then asks its {@link IntervalPolicy} how long to wait
+ * before the next round. It stops on pause and detaches itself on destroy, so
+ * there is never more than one loop per view.
+ *
+ * At most one refresh per data set is in flight:
+ *   - a round that finds the previous refresh still running skips it
+ *   - a manual {@link #refreshNow()} that finds one running is coalesced into it
+ */
+public class RefreshScheduler implements DefaultLifecycleObserver {
+
+    private static final String TAG = "RefreshScheduler";
+
+    public interface RefreshTask {
+        /**
+         * Start one refresh. {@code done} must be run exactly once when the
+         * refresh has finished, whether it succeeded or failed.
+         */
+        void refresh(Runnable done);
+    }
+
+    /** Decides the delay before the next round. A negative delay stops polling. */
+    public interface IntervalPolicy {
+        long nextDelayMs();
+
+        default void onForegroundChanged(boolean foreground) {}
+
+        /** The scheduler this policy now drives, for policies that {@link #reschedule()} it. */
+        default void attach(RefreshScheduler scheduler) {}
+    }
+
+    private static class Entry {
+        final RefreshTask task;
+        boolean inFlight;
+        int     generation;
+
+        Entry(RefreshTask task) {
+            this.task = task;
+        }
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<String, Entry> tasks = new LinkedHashMap<>();
+    private IntervalPolicy policy;
+    private boolean running       = false;
+    private boolean awaitingRound = false;
+
+    // Counters (main thread only)
+    private int firedCount     = 0;
+    private int skippedCount   = 0;
+    private int coalescedCount = 0;
+
+    private final Runnable tick = () -> runRound(false);
+
+    public RefreshScheduler(long intervalMs) {
+        this.policy = () -> intervalMs;
+    }
+
+    /** Register a data set. Call before {@link #bind(LifecycleOwner)}. */
+    public RefreshScheduler register(String name, RefreshTask task) {
+        tasks.put(name, new Entry(task));
+        return this;
+    }
+
+    /** Replace the fixed interval with an adaptive one. */
+    public RefreshScheduler setIntervalPolicy(IntervalPolicy policy) {
+        this.policy = policy;
+        policy.attach(this);
+        return this;
+    }
+
+    /** Tie the loop to a lifecycle (use getViewLifecycleOwner() in fragments). */
+    public void bind(LifecycleOwner owner) {
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Refresh every data set now. Data sets that already have a refresh in
+     * flight are not fired again; the caller gets that refresh's result.
+     */
+    public void refreshNow() {
+        runRound(true);
+    }
+
+    /**
+     * Drop the pending tick and ask the policy again, e.g. after an SOS shows
+     * up while a long back-off is scheduled. No-op while a round is running.
+     */
+    public void reschedule() {
+        if (running && !awaitingRound) {
+            scheduleNext();
+        }
+    }
+
+    private void runRound(boolean manual) {
+        handler.removeCallbacks(tick);
+        for (Map.Entry<String, Entry> e : tasks.entrySet()) {
+            if (e.getValue().inFlight) {
+                if (manual) {
+                    coalescedCount++;
+                } else {
+                    skippedCount++;
+                    Log.d(TAG, "Skipped " + e.getKey() + " (previous refresh still running)");
+                }
+            } else {
+                fire(e.getValue());
+            }
+        }
+        awaitingRound = true;
+        onRefreshFinished();
+    }
+
+    private void fire(Entry entry) {
+        entry.inFlight = true;
+        final int generation = ++entry.generation;
+        firedCount++;
+
+        entry.task.refresh(() -> handler.post(() -> {
+            // Ignore late or duplicate completions from an older refresh
+            if (entry.generation == generation && entry.inFlight) {
+                entry.inFlight = false;
+                onRefreshFinished();
+            }
+        }));
+    }
+
+    private void onRefreshFinished() {
+        if (!awaitingRound) return;
+        for (Entry entry : tasks.values()) {
+            if (entry.inFlight) return;
+        }
+        awaitingRound = false;
+        if (running) {
+            scheduleNext();
+        }
+    }
+
+    private void scheduleNext() {
+        handler.removeCallbacks(tick);
+        long delay = policy.nextDelayMs();
+        if (delay >= 0) {
+            handler.postDelayed(tick, delay);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Lifecycle
+    // ─────────────────────────────────────────────────────────
+
+    @Override
+    public void onResume(@NonNull LifecycleOwner owner) {
+        if (running) return;
+        running = true;
+        policy.onForegroundChanged(true);
+        runRound(true);
+    }
+
+    @Override
+    public void onPause(@NonNull LifecycleOwner owner) {
+        running = false;
+        handler.removeCallbacks(tick);
+        policy.onForegroundChanged(false);
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        running       = false;
+        awaitingRound = false;
+        handler.removeCallbacksAndMessages(null);
+        owner.getLifecycle().removeObserver(this);
+        for (Entry entry : tasks.values()) {
+            entry.inFlight = false;
+            entry.generation++;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    public int getFiredCount()     { return firedCount; }
+    public int getSkippedCount()   { return skippedCount; }
+    public int getCoalescedCount() { return coalescedCount; }
+
+    public boolean isInFlight(String name) {
+        Entry entry = tasks.get(name);
+        return entry != null && entry.inFlight;
+    }
+
+    public String getStats() {
+        return "Fired: "     + firedCount   + "\n" +
+               "Skipped: "   + skippedCount + "\n" +
+               "Coalesced: " + coalescedCount;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.link;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * De-duplicates identical GETs across screens.
+ *
+ * Two {@link ApiRequest}s are identical when they have the same cache key (URL,
+ * query and tenant) and the same parser. When one is added:
+ *   - a result delivered less than {@link #setFreshWindowMs(long) freshWindowMs}
+ *     ago is answered from memory, without a request
+ *   - otherwise, if an identical request is in flight, the new one is attached
+ *     to it and gets the same result
+ *   - otherwise it goes out and becomes the in-flight request for its key
+ *
+ * Owned by {@link ApiClient}; read the counters with
+ * ApiClient.getInstance(context).getCoalescer().getStats().
+ */
+public class RequestCoalescer {
+
+    public static final long DEFAULT_FRESH_WINDOW_MS = 2_000;
+
+    private static class Recent {
+        final ApiRequest.Parser<?> parser;
+        final Object result;
+        final long   at;
+
+        Recent(ApiRequest.Parser<?> parser, Object result, long at) {
+            this.parser = parser;
+            this.result = result;
+            this.at     = at;
+        }
+    }
+
+    private final Map<String, ApiRequest<?>> inFlight = new HashMap<>();
+    private final Map<String, Recent> recent = new HashMap<>();
+    private long freshWindowMs = DEFAULT_FRESH_WINDOW_MS;
+
+    private long sentCount   = 0;
+    private long joinedCount = 0;
+    private long memoryCount = 0;
+
+    /** How long a delivered result answers repeats from memory. 0 disables it. */
+    public synchronized void setFreshWindowMs(long freshWindowMs) {
+        this.freshWindowMs = freshWindowMs;
+        if (freshWindowMs <= 0) {
+            recent.clear();
+        }
+    }
+
+    /**
+     * @return true if the request was answered from memory or attached to an
+     *         in-flight one and must not be added to the queue
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> boolean offer(ApiRequest<T> request) {
+        String key = request.getCacheKey();
+        long   now = SystemClock.elapsedRealtime();
+
+        Recent last = recent.get(key);
+        if (last != null) {
+            if (now - last.at > freshWindowMs) {
+                recent.remove(key);
+            } else if (last.parser == request.getParser()) {
+                memoryCount++;
+                request.deliverFromMemory((T) last.result);
+                return true;
+            }
+        }
+
+        ApiRequest<?> pending = inFlight.get(key);
+        if (pending != null && pending.getParser() == request.getParser()
+                && ((ApiRequest<T>) pending).attach(request)) {
+            joinedCount++;
+            return true;
+        }
+
+        inFlight.put(key, request);
+        sentCount++;
+        return false;
+    }
+
+    /** @param result the final result, or null if there is none worth remembering */
+    synchronized void onFinished(ApiRequest<?> request, Object result) {
+        String key = request.getCacheKey();
+        if (inFlight.get(key) == request) {
+            inFlight.remove(key);
+        }
+        if (result != null && freshWindowMs > 0) {
+            recent.put(key, new Recent(request.getParser(), result, SystemClock.elapsedRealtime()));
+        }
+        pruneRecent();
+    }
+
+    /** Cancel attached followers with this tag; queued requests are cancelled by the queue. */
+    void cancelAll(Object tag) {
+        List<ApiRequest<?>> toCancel = new ArrayList<>();
+        synchronized (this) {
+            for (ApiRequest<?> pending : inFlight.values()) {
+                for (ApiRequest<?> follower : pending.getFollowers()) {
+                    if (follower.getTag() == tag) {
+                        toCancel.add(follower);
+                    }
+                }
+            }
+        }
+        for (ApiRequest<?> follower : toCancel) {
+            follower.cancel();
+        }
+    }
+
+    private void pruneRecent() {
+        long now = SystemClock.elapsedRealtime();
+        Iterator<Recent> it = recent.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().at > freshWindowMs) {
+                it.remove();
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    /** Requests that actually went to the queue. */
+    public synchronized long getSentCount()   { return sentCount; }
+    /** Requests attached to an identical in-flight request. */
+    public synchronized long getJoinedCount() { return joinedCount; }
+    /** Requests answered from the memory window. */
+    public synchronized long getMemoryCount() { return memoryCount; }
+    /** Requests that never hit the network thanks to coalescing. */
+    public synchronized long getSavedCount()  { return joinedCount + memoryCount; }
+
+    public synchronized void resetStats() {
+        sentCount   = 0;
+        joinedCount = 0;
+        memoryCount = 0;
+    }
+
+    public synchronized String getStats() {
+        return "Sent: "        + sentCount   + "\n" +
+               "Joined: "      + joinedCount + "\n" +
+               "From memory: " + memoryCount + "\n" +
+               "Saved: "       + (joinedCount + memoryCount);
+    }
+}
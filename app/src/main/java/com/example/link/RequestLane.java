@@ -0,0 +1,24 @@
+package com.example.link;
+
+import com.android.volley.Request;
+
+/**
+ * Priority class of a request, passed to {@link ApiClient#add(Request, RequestLane)}.
+ *
+ *   CRITICAL    – SOS acknowledge / resolve. Runs on its own dispatcher threads,
+ *                 so it never waits for a slot behind other traffic.
+ *   INTERACTIVE – what the user is looking at right now (default).
+ *   BACKGROUND  – bulk and paged history loads. Held back while any CRITICAL
+ *                 request is pending, and dispatched after INTERACTIVE ones.
+ */
+public enum RequestLane {
+    CRITICAL(Request.Priority.IMMEDIATE),
+    INTERACTIVE(Request.Priority.NORMAL),
+    BACKGROUND(Request.Priority.LOW);
+
+    public final Request.Priority priority;
+
+    RequestLane(Request.Priority priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.link;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.volley.NetworkError;
+import com.android.volley.NoConnectionError;
+import com.android.volley.Request;
+import com.android.volley.RetryPolicy;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Timeouts, retries and a circuit breaker for every request, per endpoint.
+ * {@link ApiClient} applies it to everything it sends.
+ *
+ *   Timeout   2 × the endpoint's observed p95 ({@link NetworkTelemetry}),
+ *             clamped to 2.5–30 s. The caller's own timeout applies until
+ *             MIN_SAMPLES attempts have been seen.
+ *   Retries   List GETs ({@link ApiRequest}) only, for timeouts, connection
+ *             failures and 5xx: up to GET_RETRIES times. The n-th retry goes
+ *             out after a random delay in [0, RETRY_BASE_MS × 2^n) (full
+ *             jitter, so clients that failed together don't come back
+ *             together) and waits BACKOFF_MULTIPLIER × longer for its answer.
+ *             Volley never re-sends on its own: {@link ApiClient} queues the
+ *             request again after the delay, so no dispatcher thread waits.
+ *             Writes are never retried here; the {@link Outbox} owns that.
+ *   Breaker   FAILURES_TO_OPEN failed requests in a row (a GET fails once its
+ *             last retry does) open it. While open,
+ *             requests fail at once with {@link CircuitOpenError} instead of
+ *             waiting out a timeout. List screens keep showing their cached
+ *             data, and the outbox keeps its writes. After the cool-down,
+ *             one request goes through as a probe. Success closes the
+ *             breaker; failure opens it again for twice as long.
+ *
+ * 4xx answers and parse errors mean the server is up, so they never count as
+ * failures.
+ */
+public class RequestPolicy {
+
+    private static final String TAG = "RequestPolicy";
+
+    private static final int   MIN_SAMPLES        = 20;
+    private static final int   MIN_TIMEOUT_MS     = 2_500;
+    private static final int   MAX_TIMEOUT_MS     = 30_000;
+    private static final int   GET_RETRIES        = 2;
+    private static final long  RETRY_BASE_MS      = 1_000;
+    private static final float BACKOFF_MULTIPLIER = 1f;       // as Volley's DefaultRetryPolicy
+    private static final int   FAILURES_TO_OPEN   = 5;
+    private static final long  OPEN_MIN_MS        = 15_000;
+    private static final long  OPEN_MAX_MS        = 2 * 60_000;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Sent instead of a request while its endpoint's breaker is open. */
+    public static class CircuitOpenError extends NoConnectionError {
+        CircuitOpenError(String endpoint) {
+            super(new VolleyError(endpoint + " is failing; not sending for now"));
+        }
+    }
+
+    private static final class Breaker {
+        State state    = State.CLOSED;
+        int   failures = 0;                 // in a row
+        long  openMs   = OPEN_MIN_MS;
+        long  openedAt = 0;
+        long  opened   = 0;
+        long  rejected = 0;
+    }
+
+    private final NetworkTelemetry telemetry;
+    private final Random           random = new Random();
+
+    // Guarded by this
+    private final Map<String, Breaker> breakers = new HashMap<>();
+
+    RequestPolicy(NetworkTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Timeouts and retries
+    // ─────────────────────────────────────────────────────────
+
+    /** Replace the request's retry policy; call before it is queued. */
+    void apply(Request<?> request) {
+        String endpoint = WireStats.endpointOf(request.getUrl());
+
+        int timeoutMs = request.getTimeoutMs();
+        int p95       = telemetry.percentileMs(endpoint, 0.95, MIN_SAMPLES);
+        if (p95 > 0) {
+            timeoutMs = Math.max(MIN_TIMEOUT_MS, Math.min(MAX_TIMEOUT_MS, 2 * p95));
+        }
+
+        request.setRetryPolicy(new Retry(endpoint, timeoutMs, request instanceof ApiRequest ? GET_RETRIES : 0));
+    }
+
+    /**
+     * After a failed attempt: how long to wait before sending {@code request}
+     * again, or -1 to give up and report the failure. Counts the retry.
+     * Runs on the network dispatcher thread.
+     */
+    long retryDelayMs(Request<?> request, VolleyError error) {
+        RetryPolicy policy = request.getRetryPolicy();
+        return policy instanceof Retry ? ((Retry) policy).next(error) : -1;
+    }
+
+    private final class Retry implements RetryPolicy {
+        private final String endpoint;
+        private final int    maxRetries;
+        private int timeoutMs;
+        private int retries = 0;
+
+        Retry(String endpoint, int timeoutMs, int maxRetries) {
+            this.endpoint   = endpoint;
+            this.timeoutMs  = timeoutMs;
+            this.maxRetries = maxRetries;
+        }
+
+        @Override
+        public int getCurrentTimeout() {
+            return timeoutMs;
+        }
+
+        @Override
+        public int getCurrentRetryCount() {
+            return retries;
+        }
+
+        /** Volley would re-send at once from the dispatcher thread; ApiClient does it later instead. */
+        @Override
+        public void retry(VolleyError error) throws VolleyError {
+            throw error;
+        }
+
+        long next(VolleyError error) {
+            if (retries >= maxRetries || error instanceof CircuitOpenError || !isFailure(error)
+                    || getState(endpoint) != State.CLOSED) {
+                return -1;
+            }
+            long window = RETRY_BASE_MS << retries;
+            retries++;
+            timeoutMs += (int) (timeoutMs * BACKOFF_MULTIPLIER);
+            return (long) (random.nextDouble() * window);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Breaker
+    // ─────────────────────────────────────────────────────────
+
+    /** @throws CircuitOpenError when the endpoint's breaker is open and this is not the probe */
+    synchronized void beforeSend(Request<?> request) throws CircuitOpenError {
+        String  endpoint = WireStats.endpointOf(request.getUrl());
+        Breaker breaker  = breakers.get(endpoint);
+        if (breaker == null || breaker.state == State.CLOSED) return;
+
+        if (breaker.state == State.OPEN
+                && SystemClock.elapsedRealtime() - breaker.openedAt >= breaker.openMs) {
+            breaker.state = State.HALF_OPEN;   // this request is the probe
+            Log.d(TAG, endpoint + ": probing");
+            return;
+        }
+        breaker.rejected++;
+        throw new CircuitOpenError(endpoint);
+    }
+
+    synchronized void onSuccess(Request<?> request) {
+        Breaker breaker = breakers.get(WireStats.endpointOf(request.getUrl()));
+        if (breaker == null) return;
+        if (breaker.state != State.CLOSED) {
+            Log.d(TAG, WireStats.endpointOf(request.getUrl()) + ": closed");
+        }
+        breaker.state    = State.CLOSED;
+        breaker.failures = 0;
+        breaker.openMs   = OPEN_MIN_MS;
+    }
+
+    synchronized void onError(Request<?> request, VolleyError error) {
+        if (error instanceof CircuitOpenError) return;
+        if (!isFailure(error)) {
+            onSuccess(request);
+            return;
+        }
+
+        String  endpoint = WireStats.endpointOf(request.getUrl());
+        Breaker breaker  = breakers.get(endpoint);
+        if (breaker == null) {
+            breaker = new Breaker();
+            breakers.put(endpoint, breaker);
+        }
+        breaker.failures++;
+
+        if (breaker.state == State.HALF_OPEN) {
+            breaker.openMs = Math.min(OPEN_MAX_MS, breaker.openMs * 2);
+            open(endpoint, breaker);
+        } else if (breaker.state == State.CLOSED && breaker.failures >= FAILURES_TO_OPEN) {
+            open(endpoint, breaker);
+        }
+    }
+
+    private void open(String endpoint, Breaker breaker) {
+        breaker.state    = State.OPEN;
+        breaker.openedAt = SystemClock.elapsedRealtime();
+        breaker.opened++;
+        Log.w(TAG, endpoint + ": open for " + breaker.openMs / 1000 + " s after "
+            + breaker.failures + " failures");
+    }
+
+    public synchronized State getState(String endpoint) {
+        Breaker breaker = breakers.get(endpoint);
+        return breaker == null ? State.CLOSED : breaker.state;
+    }
+
+    /** Timeouts, connection failures and 5xx; the server is down or unreachable. */
+    private static boolean isFailure(VolleyError error) {
+        if (error instanceof TimeoutError || error instanceof NetworkError) return true;
+        if (error instanceof ServerError) {   // ClientError (4xx) is a ServerError too
+            return error.networkResponse == null || error.networkResponse.statusCode >= 500;
+        }
+        return false;
+    }
+
+    public synchronized String getStats() {
+        if (breakers.isEmpty()) return "No failures yet";
+
+        StringBuilder stats = new StringBuilder();
+        for (Map.Entry<String, Breaker> entry : breakers.entrySet()) {
+            Breaker b = entry.getValue();
+            stats.append(entry.getKey()).append(": ").append(b.state)
+                .append(", ").append(b.failures).append(" failures in a row, opened ")
+                .append(b.opened).append("×, ").append(b.rejected).append(" failed fast\n");
+        }
+        return stats.toString().trim();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.link;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.activity.ComponentActivity;
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.android.volley.Request;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The network work one screen owns, cancelled together when the screen goes away.
+ *
+ *     requestScope = RequestScope.of(this);          // Activity.onCreate / Fragment.onViewCreated
+ *     requestScope.add(request);                      // instead of ApiClient.add
+ *     requestScope.track(LinkApi.getInstance(ctx).getDevices(...));
+ *
+ * Requests added here are tagged with the scope. On the owner's ON_DESTROY
+ * (for a fragment: its view's) every pending request and call is cancelled,
+ * which drops its listeners, so destroyed views are no longer retained and
+ * {@link ApiRequest} skips decoding a body nobody will read. Anything added
+ * after that is cancelled straight away.
+ */
+public class RequestScope implements DefaultLifecycleObserver {
+
+    private static final String TAG = "RequestScope";
+
+    private final ApiClient client;
+    private final String    name;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final Set<Request<?>> liveRequests = new HashSet<>();
+    private final Set<ApiCall<?>> liveCalls    = new HashSet<>();
+    private boolean closed    = false;
+    private long    completed = 0;
+    private long    cancelled = 0;
+
+    private RequestScope(Context context, LifecycleOwner owner, String name) {
+        this.client = ApiClient.getInstance(context);
+        this.name   = name;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    public static RequestScope of(ComponentActivity activity) {
+        return new RequestScope(activity, activity, activity.getClass().getSimpleName());
+    }
+
+    /** Bound to the fragment's view; call from onViewCreated. */
+    public static RequestScope of(Fragment fragment) {
+        return new RequestScope(fragment.requireContext(), fragment.getViewLifecycleOwner(),
+            fragment.getClass().getSimpleName());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Work
+    // ─────────────────────────────────────────────────────────
+
+    public <T> Request<T> add(Request<T> request) {
+        return add(request, RequestLane.INTERACTIVE);
+    }
+
+    public <T> Request<T> add(Request<T> request, RequestLane lane) {
+        request.setTag(this);
+        synchronized (lock) {
+            if (closed) {
+                cancelled++;
+                request.cancel();
+                return request;
+            }
+            liveRequests.add(request);
+        }
+        return client.add(request, lane);
+    }
+
+    /** Cancel {@code call} with the scope; it counts as completed when it settles first. */
+    public <T> ApiCall<T> track(ApiCall<T> call) {
+        synchronized (lock) {
+            if (closed) {
+                cancelled++;
+                call.cancel(false);
+                return call;
+            }
+            liveCalls.add(call);
+        }
+        call.whenComplete((value, error) -> {
+            synchronized (lock) {
+                if (liveCalls.remove(call)) {
+                    if (call.isCancelled()) cancelled++;
+                    else completed++;
+                }
+            }
+        });
+        return call;
+    }
+
+    /** Cancel everything pending; the scope stays usable. */
+    public void cancelAll() {
+        final List<ApiCall<?>> calls;
+        final int count;
+        synchronized (lock) {
+            count = liveRequests.size() + liveCalls.size();
+            cancelled += count;
+            liveRequests.clear();
+            calls = new ArrayList<>(liveCalls);
+            liveCalls.clear();
+        }
+        client.cancelAll(this);
+        for (ApiCall<?> call : calls) {
+            call.cancel(false);
+        }
+        if (count > 0) {
+            Log.d(TAG, name + ": cancelled " + count + " pending");
+        }
+    }
+
+    // Called by ApiClient / ApiRequest when a request finishes, on any thread
+    static void notifyFinished(Request<?> request) {
+        Object tag = request.getTag();
+        if (tag instanceof RequestScope) {
+            ((RequestScope) tag).onRequestFinished(request);
+        }
+    }
+
+    private void onRequestFinished(Request<?> request) {
+        synchronized (lock) {
+            if (liveRequests.remove(request)) {
+                if (request.isCanceled()) cancelled++;
+                else completed++;
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Lifecycle
+    // ─────────────────────────────────────────────────────────
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        synchronized (lock) {
+            closed = true;
+        }
+        cancelAll();
+        owner.getLifecycle().removeObserver(this);
+        Log.d(TAG, name + ": " + getStats().replace('\n', ' '));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Stats
+    // ─────────────────────────────────────────────────────────
+
+    public long getCompletedCount() {
+        synchronized (lock) {
+            return completed;
+        }
+    }
+
+    public long getCancelledCount() {
+        synchronized (lock) {
+            return cancelled;
+        }
+    }
+
+    public String getStats() {
+        synchronized (lock) {
+            return "Completed: " + completed + "\n" +
+                   "Cancelled: " + cancelled + "\n" +
+                   "Pending: "   + (liveRequests.size() + liveCalls.size());
+        }
+    }
+}
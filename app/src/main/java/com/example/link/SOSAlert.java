@@ -1,26 +1,37 @@
 package com.example.link;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Locale;
 
+/**
+ * A raised, acknowledged or resolved SOS. Immutable; built by ApiParsers and
+ * LinkDatabase off the main thread, which is also where the text the history
+ * rows show is worked out, once, so {@link SOSAlertAdapter} binds plain strings.
+ */
 public class SOSAlert {
-    private int id;
-    private String transmitterSerial;
-    private int assignmentId;
-    private String customerName;
-    private String customerContact;
-    private double latitude;
-    private double longitude;
-    private int batteryPercent;
-    private int rssi;
-    private String alertTime;
-    private String acknowledgedAt;
-    private String acknowledgedByName;
-    private String resolvedAt;
-    private String resolvedByName;
-    private String resolutionNotes;
+    private final int id;
+    private final String transmitterSerial;
+    private final int assignmentId;
+    private final String customerName;
+    private final String customerContact;
+    private final double latitude;
+    private final double longitude;
+    private final int batteryPercent;
+    private final int rssi;
+    private final String alertTime;
+    private final String acknowledgedAt;
+    private final String acknowledgedByName;
+    private final String resolvedAt;
+    private final String resolvedByName;
+    private final String resolutionNotes;
+
+    // Display values, precomputed
+    private final long   displayMillis;       // resolved_at, else alert_time; Timestamps.INVALID if neither parses
+    private final String formattedDate;
+    private final String formattedTime;
+    private final String formattedDateTime;
+    private final String formattedLocation;
+    private final String displayResolvedBy;
+    private final String displaySerial;
 
     // Constructor
     public SOSAlert(int id, String transmitterSerial, int assignmentId, String customerName,
@@ -42,6 +53,17 @@ public class SOSAlert {
         this.resolvedAt = resolvedAt;
         this.resolvedByName = resolvedByName;
         this.resolutionNotes = resolutionNotes;
+
+        // For resolved alerts, show the resolved time
+        boolean resolved = resolvedAt != null && !resolvedAt.isEmpty() && !resolvedAt.equals("null");
+        this.displayMillis     = Timestamps.parse(resolved ? resolvedAt : alertTime);
+        this.formattedDate     = displayMillis == Timestamps.INVALID ? "N/A" : Timestamps.formatDate(displayMillis);
+        this.formattedTime     = displayMillis == Timestamps.INVALID ? "N/A" : Timestamps.formatTime(displayMillis);
+        this.formattedDateTime = formattedDate + " " + formattedTime;
+        this.formattedLocation = String.format(Locale.US, "%.6f, %.6f", latitude, longitude);
+        this.displayResolvedBy = resolvedByName == null || resolvedByName.isEmpty() || resolvedByName.equals("null")
+            ? "Unknown" : resolvedByName;
+        this.displaySerial     = transmitterSerial == null || transmitterSerial.isEmpty() ? "N/A" : transmitterSerial;
     }
 
     // Getters
@@ -63,44 +85,12 @@ public class SOSAlert {
     public String getResolvedByName() { return resolvedByName; }
     public String getResolutionNotes() { return resolutionNotes; }
 
-    // Helper methods
-    public String getFormattedLocation() {
-        return String.format(Locale.US, "%.6f, %.6f", latitude, longitude);
-    }
-
-    public String getFormattedDate() {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
-            SimpleDateFormat outputFormat = new SimpleDateFormat("M/d/yyyy", Locale.US);
-
-            // For resolved alerts, show resolved date
-            String dateString = (resolvedAt != null && !resolvedAt.isEmpty() && !resolvedAt.equals("null"))
-                ? resolvedAt : alertTime;
-
-            Date date = inputFormat.parse(dateString);
-            return outputFormat.format(date);
-        } catch (ParseException e) {
-            return "N/A";
-        } catch (Exception e) {
-            return "N/A";
-        }
-    }
-
-    public String getFormattedTime() {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
-            SimpleDateFormat outputFormat = new SimpleDateFormat("h:mm a", Locale.US);
-
-            // For resolved alerts, show resolved time
-            String dateString = (resolvedAt != null && !resolvedAt.isEmpty() && !resolvedAt.equals("null"))
-                ? resolvedAt : alertTime;
-
-            Date date = inputFormat.parse(dateString);
-            return outputFormat.format(date);
-        } catch (ParseException e) {
-            return "N/A";
-        } catch (Exception e) {
-            return "N/A";
-        }
-    }
+    // Display values
+    public long getDisplayMillis() { return displayMillis; }
+    public String getFormattedLocation() { return formattedLocation; }
+    public String getFormattedDate() { return formattedDate; }
+    public String getFormattedTime() { return formattedTime; }
+    public String getFormattedDateTime() { return formattedDateTime; }
+    public String getDisplayResolvedBy() { return displayResolvedBy; }
+    public String getDisplaySerial() { return displaySerial; }
 }
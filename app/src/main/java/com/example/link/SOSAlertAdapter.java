@@ -5,9 +5,11 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class SOSAlertAdapter extends RecyclerView.Adapter<SOSAlertAdapter.ViewHolder> {
 
@@ -18,10 +20,33 @@ public class SOSAlertAdapter extends RecyclerView.Adapter<SOSAlertAdapter.ViewHo
         void onItemClick(SOSAlert alert);
     }
 
+    /** Same alert when the IDs match (for {@link Pager}). */
+    static final DiffUtil.ItemCallback<SOSAlert> DIFF = new DiffUtil.ItemCallback<SOSAlert>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull SOSAlert oldItem, @NonNull SOSAlert newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull SOSAlert oldItem, @NonNull SOSAlert newItem) {
+            return Objects.equals(oldItem.getCustomerName(), newItem.getCustomerName())
+                && Objects.equals(oldItem.getTransmitterSerial(), newItem.getTransmitterSerial())
+                && Objects.equals(oldItem.getResolvedAt(), newItem.getResolvedAt())
+                && Objects.equals(oldItem.getResolvedByName(), newItem.getResolvedByName())
+                && oldItem.getLatitude() == newItem.getLatitude()
+                && oldItem.getLongitude() == newItem.getLongitude();
+        }
+    };
+
     public SOSAlertAdapter() {
         this.alertList = new ArrayList<>();
     }
 
+    /** Shows {@code alerts} as they change; the owner notifies (e.g. a {@link Pager}). */
+    public SOSAlertAdapter(List<SOSAlert> alerts) {
+        this.alertList = alerts;
+    }
+
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
@@ -32,7 +57,7 @@ public class SOSAlertAdapter extends RecyclerView.Adapter<SOSAlertAdapter.ViewHo
     }
 
     public void clearAlerts() {
-        this.alertList.clear();
+        this.alertList = new ArrayList<>(); // lists from ApiParsers are read-only
         notifyDataSetChanged();
     }
 
@@ -72,28 +97,12 @@ public class SOSAlertAdapter extends RecyclerView.Adapter<SOSAlertAdapter.ViewHo
         }
 
         public void bind(SOSAlert alert, OnItemClickListener listener) {
-            // Set customer name
+            // Display strings are precomputed when the alert is built
             tvCustomerName.setText(alert.getCustomerName());
-
-            // Set location
             tvLocation.setText(alert.getFormattedLocation());
-
-            // Set date and time (using resolved time for resolved alerts)
-            tvDateTime.setText(alert.getFormattedDate() + " " + alert.getFormattedTime());
-
-            // Set resolved by name
-            String resolvedBy = alert.getResolvedByName();
-            if (resolvedBy == null || resolvedBy.isEmpty() || resolvedBy.equals("null")) {
-                resolvedBy = "Unknown";
-            }
-            tvResolvedBy.setText(resolvedBy);
-
-            // Set serial number
-            String serialNumber = alert.getTransmitterSerial();
-            if (serialNumber == null || serialNumber.isEmpty()) {
-                serialNumber = "N/A";
-            }
-            tvSerialNumber.setText(serialNumber);
+            tvDateTime.setText(alert.getFormattedDateTime());   // resolved time for resolved alerts
+            tvResolvedBy.setText(alert.getDisplayResolvedBy());
+            tvSerialNumber.setText(alert.getDisplaySerial());
 
             itemView.setOnClickListener(v -> {
                 if (listener != null) {
@@ -202,6 +202,9 @@ public class SharedPrefManager {
             .remove(KEY_ADMIN_USER_ID)
             .putBoolean(KEY_IS_LOGGED_IN, false)
             .apply();
+
+        // The next account must not see this one's stored lists
+        LinkDatabase.getInstance(mCtx).clearAll();
     }
 
     // ──────────────────────────────────────────────────────────────────────────
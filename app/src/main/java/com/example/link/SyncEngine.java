@@ -0,0 +1,353 @@
+package com.example.link;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@link LinkDatabase} in step with the server.
+ *
+ * Screens use it in two steps:
+ *
+ *     syncEngine.loadInventory(userId, staffId, this::render);            // local, one query
+ *     scope.track(syncEngine.syncInventory(userId, staffId))              // network
+ *          .whenComplete(...);
+ *
+ * load* answers on the main thread with the last synced copy, or null if there
+ * is none yet. sync* fetches through {@link LinkApi} and, once the call succeeds,
+ * stores the fresh result in the background; the returned call completes with
+ * what the screen should render (for delta-synced lists, the merged local copy).
+ * The resolved-SOS history is the exception: it can run to thousands of rows,
+ * so its sync only merges, and the screen reads it a page at a time with
+ * {@link #loadResolvedSosPage}.
+ *
+ * Everything is stored under {@link LinkDatabase#tenant}(userId, staffId), also
+ * for endpoints that only take user_id, so two logins on one device never share
+ * a row or a cursor.
+ *
+ * Delta sync (resolved SOS history and device activities)
+ *
+ *   Request:  since=<cursor>   opaque high-water mark from the previous answer;
+ *                              "" asks for everything from the start
+ *             delta_limit=<n>  (activities) rows per answer
+ *   Response: cursor           mark to send next time; its absence means the
+ *                              server does not do deltas, and the client falls
+ *                              back to full lists / offset pages
+ *             alerts | data    rows created or edited after since (edits such as
+ *                              resolution notes come back as the whole row)
+ *             deleted_ids      ids removed after since
+ *             full             true: drop the local copy before applying (cursor
+ *                              too old, or the first batch of since="")
+ *             has_more         true: more changes past cursor; ask again at once
+ *
+ * get_resolved_sos.php returns a cursor with every answer, so the first sync
+ * is a normal (HTTP-cached) full list and every later one a delta. Activities
+ * are paged, so their first delta sync asks with since="". Rows are merged by
+ * id into {@link LinkDatabase}, and once an activities cursor is stored,
+ * pages past the first are served from the local copy; offsets there do not
+ * shift while new rows arrive.
+ */
+public class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+
+    private static final int DELTA_BATCH      = 200;   // activity rows per delta answer (fewer on a slow link)
+    private static final int MAX_DELTA_ROUNDS = 10;    // has_more follow-ups per sync
+
+    private static SyncEngine instance;
+    private final LinkApi        api;
+    private final LinkDatabase   db;
+    private final NetworkQuality networkQuality;
+
+    // Delta stats
+    private final AtomicLong fullSyncs    = new AtomicLong();
+    private final AtomicLong deltaSyncs   = new AtomicLong();
+    private final AtomicLong rowsReceived = new AtomicLong();
+    private final AtomicLong rowsReused   = new AtomicLong();   // kept locally instead of re-sent
+
+    private SyncEngine(Context context) {
+        this(LinkApi.getInstance(context), LinkDatabase.getInstance(context), NetworkQuality.getInstance(context));
+    }
+
+    /** Syncs {@code db} against the server at {@code baseUrl} instead of {@link ApiConfig#BASE_URL}. */
+    SyncEngine(Context context, String baseUrl, LinkDatabase db) {
+        this(new LinkApi(context, baseUrl), db, NetworkQuality.getInstance(context));
+    }
+
+    private SyncEngine(LinkApi api, LinkDatabase db, NetworkQuality networkQuality) {
+        this.api            = api;
+        this.db             = db;
+        this.networkQuality = networkQuality;
+    }
+
+    public static synchronized SyncEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new SyncEngine(context);
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Dashboard
+    // ─────────────────────────────────────────────────────────
+
+    public void loadActiveCustomers(int userId, int staffId, Consumer<ApiParsers.CustomersResult> onResult) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        db.read(d -> {
+            List<CustomerDevice> devices = d.getCustomers(tenant);
+            return devices.isEmpty() ? null : new ApiParsers.CustomersResult(ApiParsers.localEnvelope(), devices);
+        }, onResult);
+    }
+
+    public ApiCall<ApiParsers.CustomersResult> syncActiveCustomers(int userId, int staffId) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        ApiCall<ApiParsers.CustomersResult> call = api.getActiveCustomers(userId, staffId);
+        call.thenAccept(result -> {
+            if (result.success) {
+                db.write(() -> db.replaceCustomers(tenant, result.items));
+            }
+        });
+        return call;
+    }
+
+    public void loadResolvedSosCount(int userId, int staffId, Consumer<ApiParsers.CountResult> onResult) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        db.read(d -> {
+            String count = d.getState(tenant, LinkDatabase.STATE_RESOLVED_COUNT);
+            return count == null ? null : new ApiParsers.CountResult(
+                ApiParsers.localEnvelope(), d.getIntState(tenant, LinkDatabase.STATE_RESOLVED_COUNT, 0));
+        }, onResult);
+    }
+
+    public ApiCall<ApiParsers.CountResult> syncResolvedSosCount(int userId, int staffId) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        ApiCall<ApiParsers.CountResult> call = api.getResolvedSosCount(userId);
+        call.thenAccept(result -> {
+            if (result.success) {
+                db.write(() -> db.putState(tenant, LinkDatabase.STATE_RESOLVED_COUNT, String.valueOf(result.count)));
+            }
+        });
+        return call;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Inventory
+    // ─────────────────────────────────────────────────────────
+
+    public void loadInventory(int userId, int staffId, Consumer<ApiParsers.InventoryResult> onResult) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        db.read(d -> {
+            String availableCount = d.getState(tenant, LinkDatabase.STATE_AVAILABLE_COUNT);
+            if (availableCount == null) return null;
+            return new ApiParsers.InventoryResult(
+                ApiParsers.localEnvelope(
+                    "available_count", availableCount,
+                    "active_count",    d.getState(tenant, LinkDatabase.STATE_ACTIVE_COUNT)),
+                d.getAvailableDevices(tenant),
+                d.getAssignments(tenant));
+        }, onResult);
+    }
+
+    public ApiCall<ApiParsers.InventoryResult> syncInventory(int userId, int staffId) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        ApiCall<ApiParsers.InventoryResult> call = api.getDevices(userId, staffId);
+        call.thenAccept(result -> {
+            if (!result.success) return;
+            db.write(() -> {
+                db.replaceInventory(tenant, result.available, result.active);
+                db.putState(tenant, LinkDatabase.STATE_AVAILABLE_COUNT, String.valueOf(result.availableCount));
+                db.putState(tenant, LinkDatabase.STATE_ACTIVE_COUNT,    String.valueOf(result.activeCount));
+            });
+        });
+        return call;
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  History
+    // ─────────────────────────────────────────────────────────
+
+    /** One page of the stored history that matches {@code filter}, with the number of matches as total. */
+    public ApiCall<ApiParsers.ListResult<SOSAlert>> loadResolvedSosPage(int userId, int staffId, HistoryFilter filter,
+                                                                       int page, int limit) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        return local(d -> new ApiParsers.ListResult<>(ApiParsers.localEnvelope(),
+            d.getResolvedSos(tenant, filter, (page - 1) * limit, limit),
+            d.countResolvedSos(tenant, filter)));
+    }
+
+    /** Names to offer in the history's resolver filter. */
+    public void loadResolvers(int userId, int staffId, Consumer<List<String>> onResult) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        db.read(d -> d.getResolvers(tenant), onResult);
+    }
+
+    /**
+     * Completes once the changes are merged in, with the stored row count as
+     * total and no items; the screen pages through them locally.
+     */
+    public ApiCall<ApiParsers.ListResult<SOSAlert>> syncResolvedSos(int userId, int staffId) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        return local(d -> d.getState(tenant, LinkDatabase.STATE_RESOLVED_CURSOR))
+            .thenCall(cursor -> pullResolvedSos(userId, staffId, tenant, cursor, 0));
+    }
+
+    private ApiCall<ApiParsers.ListResult<SOSAlert>> pullResolvedSos(int userId, int staffId, String tenant,
+                                                                     String since, int round) {
+        return api.getResolvedSos(userId, staffId, since).thenCall(result -> {
+            if (!result.success) return ApiCall.completed(result);
+            boolean delta = since != null && result.cursor != null && !result.full;
+
+            return local(d -> {
+                if (delta) {
+                    d.mergeResolvedSos(tenant, result.items, result.deletedIds);
+                } else {
+                    d.replaceResolvedSos(tenant, result.items);
+                }
+                putCursor(d, tenant, LinkDatabase.STATE_RESOLVED_CURSOR, result.cursor);
+                int stored = d.countResolvedSos(tenant);
+                d.putState(tenant, LinkDatabase.STATE_RESOLVED_TOTAL, String.valueOf(stored));
+                recordSync(delta, result.items.size(), stored);
+                return stored;
+            }).thenCall(stored -> {
+                if (delta && result.hasMore && round + 1 < MAX_DELTA_ROUNDS) {
+                    return pullResolvedSos(userId, staffId, tenant, result.cursor, round + 1);
+                }
+                return ApiCall.completed(new ApiParsers.ListResult<SOSAlert>(
+                    ApiParsers.localEnvelope(), Collections.emptyList(), stored));
+            });
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Device activities
+    // ─────────────────────────────────────────────────────────
+
+    /** The newest {@code limit} stored rows for this filter, the window page 1 will replace. */
+    public void loadDeviceActivities(int userId, int staffId, boolean filterByMe, int limit,
+                                     Consumer<ApiParsers.ListResult<DeviceLocation>> onResult) {
+        String tenant = LinkDatabase.tenant(userId, staffId);
+        String totalKey = LinkDatabase.STATE_ACTIVITIES_TOTAL + (filterByMe ? 1 : 0);
+        db.read(d -> {
+            List<DeviceLocation> rows = d.getDeviceActivities(tenant, filterByMe, 0, limit);
+            if (rows.isEmpty()) return null;
+            return new ApiParsers.ListResult<>(ApiParsers.localEnvelope(), rows,
+                d.getIntState(tenant, totalKey, rows.size()));
+        }, onResult);
+    }
+
+    /**
+     * One page of activity. Page 1 first catches the local copy up with the
+     * server; once it is in delta mode, later pages are read locally.
+     */
+    public ApiCall<ApiParsers.ListResult<DeviceLocation>> syncDeviceActivities(int userId, int staffId,
+                                                                               boolean filterByMe,
+                                                                               int page, int limit) {
+        String tenant    = LinkDatabase.tenant(userId, staffId);
+        String cursorKey = LinkDatabase.STATE_ACTIVITIES_CURSOR + (filterByMe ? 1 : 0);
+        return local(d -> d.getState(tenant, cursorKey)).thenCall(cursor -> {
+            if (page == 1) {
+                return pullDeviceActivities(userId, filterByMe, limit, tenant, cursor != null ? cursor : "", 0);
+            }
+            if (cursor != null) {
+                return local(d -> activityWindow(d, tenant, filterByMe, page, limit));
+            }
+            return fetchActivityPage(userId, filterByMe, page, limit, tenant);
+        });
+    }
+
+    private ApiCall<ApiParsers.ListResult<DeviceLocation>> pullDeviceActivities(int userId, boolean filterByMe,
+                                                                                int limit, String tenant,
+                                                                                String since, int round) {
+        String cursorKey = LinkDatabase.STATE_ACTIVITIES_CURSOR + (filterByMe ? 1 : 0);
+        String totalKey  = LinkDatabase.STATE_ACTIVITIES_TOTAL + (filterByMe ? 1 : 0);
+        int batch = networkQuality.getMode().scale(DELTA_BATCH);
+        return api.getDeviceActivities(userId, filterByMe, 1, limit, since, batch).thenCall(result -> {
+            if (!result.success) return ApiCall.completed(result);
+            if (result.cursor == null) {
+                // Server ignored since: this is plain page 1
+                return local(d -> {
+                    d.putActivityPage(tenant, filterByMe, 1, result.items);
+                    d.removeState(tenant, cursorKey);
+                    d.putState(tenant, totalKey, String.valueOf(result.total));
+                    recordSync(false, result.items.size(), result.items.size());
+                    return result;
+                });
+            }
+
+            return local(d -> {
+                d.mergeDeviceActivities(tenant, filterByMe, result.items, result.deletedIds, result.full);
+                putCursor(d, tenant, cursorKey, result.cursor);
+                int stored = d.countDeviceActivities(tenant, filterByMe);
+                d.putState(tenant, totalKey, String.valueOf(stored));
+                recordSync(!result.full, result.items.size(), stored);
+                return stored;
+            }).thenCall(stored -> {
+                if (result.hasMore && round + 1 < MAX_DELTA_ROUNDS) {
+                    return pullDeviceActivities(userId, filterByMe, limit, tenant, result.cursor, round + 1);
+                }
+                return local(d -> activityWindow(d, tenant, filterByMe, 1, limit));
+            });
+        });
+    }
+
+    private ApiCall<ApiParsers.ListResult<DeviceLocation>> fetchActivityPage(int userId, boolean filterByMe,
+                                                                             int page, int limit, String tenant) {
+        String totalKey = LinkDatabase.STATE_ACTIVITIES_TOTAL + (filterByMe ? 1 : 0);
+        ApiCall<ApiParsers.ListResult<DeviceLocation>> call =
+            api.getDeviceActivities(userId, filterByMe, page, limit, null, 0);
+        call.thenAccept(result -> {
+            if (!result.success) return;
+            db.write(() -> {
+                db.putActivityPage(tenant, filterByMe, page, result.items);
+                db.putState(tenant, totalKey, String.valueOf(result.total));
+            });
+        });
+        return call;
+    }
+
+    private static ApiParsers.ListResult<DeviceLocation> activityWindow(LinkDatabase d, String tenant,
+                                                                        boolean filterByMe, int page, int limit) {
+        List<DeviceLocation> rows = d.getDeviceActivities(tenant, filterByMe, (page - 1) * limit, limit);
+        return new ApiParsers.ListResult<>(ApiParsers.localEnvelope(), rows,
+            d.countDeviceActivities(tenant, filterByMe));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    /** Run {@code query} on the database writer, after any pending writes. */
+    private <T> ApiCall<T> local(LinkDatabase.Query<T> query) {
+        ApiCall<T> call = new ApiCall<>();
+        db.update(query, call::complete, call::completeExceptionally);
+        return call;
+    }
+
+    private static void putCursor(LinkDatabase d, String tenant, String key, String cursor) {
+        if (cursor != null) {
+            d.putState(tenant, key, cursor);
+        } else {
+            d.removeState(tenant, key);
+        }
+    }
+
+    private void recordSync(boolean delta, int received, int stored) {
+        (delta ? deltaSyncs : fullSyncs).incrementAndGet();
+        rowsReceived.addAndGet(received);
+        if (delta) {
+            rowsReused.addAndGet(Math.max(0, stored - received));
+        }
+        Log.d(TAG, (delta ? "Delta" : "Full") + " sync: " + received + " rows received, " + stored + " stored");
+    }
+
+    public String getStats() {
+        return "Full syncs: "    + fullSyncs.get()    + "\n" +
+               "Delta syncs: "   + deltaSyncs.get()   + "\n" +
+               "Rows received: " + rowsReceived.get() + "\n" +
+               "Rows reused: "   + rowsReused.get();
+    }
+}
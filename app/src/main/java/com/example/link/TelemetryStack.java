@@ -0,0 +1,92 @@
+package com.example.link;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Times each HTTP attempt and hands the figures to {@link NetworkTelemetry}.
+ *
+ * Sits directly on HurlStack, below {@link CompressionStack}, so the byte counts
+ * are what crossed the wire. An attempt is recorded when its body stream is
+ * closed, or straight away when it fails or has no body. ConnectionWarmer's
+ * HEADs are not recorded.
+ */
+class TelemetryStack extends BaseHttpStack {
+
+    private final BaseHttpStack    delegate;
+    private final NetworkTelemetry telemetry;
+
+    TelemetryStack(BaseHttpStack delegate, NetworkTelemetry telemetry) {
+        this.delegate  = delegate;
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        if (request instanceof ConnectionWarmer.WarmUp) {
+            return delegate.executeRequest(request, additionalHeaders);
+        }
+        String endpoint = WireStats.endpointOf(request.getUrl());
+        byte[] body     = request.getBody();
+        int    sent     = body != null ? body.length : 0;
+        int    retry    = request.getRetryPolicy().getCurrentRetryCount();
+        long   start    = SystemClock.elapsedRealtime();
+
+        HttpResponse response;
+        try {
+            response = delegate.executeRequest(request, additionalHeaders);
+        } catch (IOException e) {
+            int elapsed = (int) (SystemClock.elapsedRealtime() - start);
+            telemetry.record(endpoint, 0, NetworkTelemetry.classify(e), -1, elapsed, sent, 0, retry);
+            throw e;
+        }
+
+        int ttfb   = (int) (SystemClock.elapsedRealtime() - start);
+        int status = response.getStatusCode();
+        NetworkTelemetry.ErrorClass error = NetworkTelemetry.classify(status);
+
+        InputStream content = response.getContent();
+        if (content == null) {
+            telemetry.record(endpoint, status, error, ttfb, ttfb, sent, 0, retry);
+            return response;
+        }
+        InputStream timed = new FilterInputStream(content) {
+            private long    received;
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) received++;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) received += n;
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                super.close();
+                if (closed) return;
+                closed = true;
+                int total = (int) (SystemClock.elapsedRealtime() - start);
+                telemetry.record(endpoint, status, error, ttfb, total, sent, (int) received, retry);
+            }
+        };
+        return new HttpResponse(status, response.getHeaders(), response.getContentLength(), timed);
+    }
+}
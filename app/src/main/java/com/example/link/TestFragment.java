@@ -9,6 +9,7 @@ import android.location.LocationManager;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -25,20 +26,22 @@ import androidx.annotation.Nullable;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.android.volley.ParseError;
+import com.android.volley.VolleyError;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 public class TestFragment extends Fragment implements LocationListener {
 
+    private static final String TAG = "TestFragment";
+
     // UI Components
     private TextView activeDevicesCount;
     private TextView activeSuccessfulCount;
@@ -47,7 +50,7 @@ public class TestFragment extends Fragment implements LocationListener {
     private LinearLayout customersLayout;
     private LinearLayout activitiesLayout;
     private TextView seeAllText;
-    private LinearLayout customerCardsContainer;
+    private CustomerCardAdapter customerCardAdapter;
     private TextView noDataText;
 
     // Profile Header Components
@@ -72,10 +75,16 @@ public class TestFragment extends Fragment implements LocationListener {
     private SharedPrefManager sharedPrefManager;
 
     // API
-    private RequestQueue requestQueue;
-    private List<CustomerDevice> customerDevices = new ArrayList<>();
-    private Handler refreshHandler = new Handler(Looper.getMainLooper());
-    private static final long REFRESH_INTERVAL = 30000; // 30 seconds
+    private List<CustomerDevice> customerDevices = new ArrayList<>(); // read-only once loaded
+    private RefreshScheduler refreshScheduler;
+    private final AdaptiveRefreshPolicy refreshPolicy = new AdaptiveRefreshPolicy();
+    private static final long REFRESH_INTERVAL = 30000; // 30 seconds (fallback when no policy is set)
+    private static final long DASHBOARD_TIMEOUT_MS = 20000; // customers + resolved count, end to end
+    private static final String REFRESH_DASHBOARD = "dashboard";
+    private static final String REFRESH_CUSTOMERS = "active_customers";   // payload keys for refreshPolicy
+    private static final String REFRESH_SOS_COUNT = "resolved_sos_count";
+    private RequestScope requestScope;
+    private boolean dashboardFromNetwork = false;
 
     @Nullable
     @Override
@@ -84,26 +93,47 @@ public class TestFragment extends Fragment implements LocationListener {
         @Nullable ViewGroup container,
         @Nullable Bundle savedInstanceState
     ) {
-        View view = inflater.inflate(R.layout.fragment_test, container, false);
-
-        requestQueue = Volley.newRequestQueue(requireContext());
+        RecyclerView view = (RecyclerView) inflater.inflate(R.layout.fragment_test, container, false);
 
         sharedPrefManager = SharedPrefManager.getInstance(requireContext());
 
-        initializeViews(view);
+        // The profile header, counters and quick actions scroll with the cards as the list's first item
+        View header = inflater.inflate(R.layout.dashboard_header, view, false);
+        customerCardAdapter = new CustomerCardAdapter();
+        customerCardAdapter.setOnCardClickListener(this::onCustomerCardClicked);
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+            .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS)
+            .build();
+        view.setLayoutManager(new LinearLayoutManager(requireContext()));
+        view.setAdapter(new ConcatAdapter(config, new HeaderAdapter(header), customerCardAdapter));
+
+        initializeViews(header);
         setupProfileHeader();
         setupClickListeners();
-        loadData();
 
         // Request location permission
         requestLocationPermission();
 
-        // Start auto-refresh
-        startAutoRefresh();
-
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        // Cancels any dashboard round still in flight when the view is destroyed
+        requestScope = RequestScope.of(this);
+        loadStoredDashboard();
+
+        // One polling loop per view: it loads on resume, waits as long as
+        // refreshPolicy says between rounds and stops on pause / onDestroyView.
+        refreshPolicy.setNetworkQuality(NetworkQuality.getInstance(requireContext()));
+        refreshScheduler = new RefreshScheduler(REFRESH_INTERVAL)
+            .register(REFRESH_DASHBOARD, this::fetchDashboard)
+            .setIntervalPolicy(refreshPolicy);
+        refreshScheduler.bind(getViewLifecycleOwner());
+    }
+
     private void initializeViews(View view) {
         // Dashboard counters
         activeDevicesCount = view.findViewById(R.id.activeDevicesCount);
@@ -117,7 +147,6 @@ public class TestFragment extends Fragment implements LocationListener {
 
         // Customer status section
         seeAllText = view.findViewById(R.id.seeAllText);
-        customerCardsContainer = view.findViewById(R.id.customerCardsContainer);
         noDataText = view.findViewById(R.id.noDataText);
 
         // Profile Header Views
@@ -146,6 +175,13 @@ public class TestFragment extends Fragment implements LocationListener {
 
         if (welcomeText != null) {
             welcomeText.setText("Welcome, " + displayName);
+            // Debug builds: long-press the greeting for network / cache state
+            if (DebugPanel.isEnabled(requireContext())) {
+                welcomeText.setOnLongClickListener(v -> {
+                    DebugPanel.show(requireContext());
+                    return true;
+                });
+            }
         }
 
         // Load profile picture via Glide
@@ -155,8 +191,10 @@ public class TestFragment extends Fragment implements LocationListener {
                 String imageUrl = picturePath.startsWith("http")
                     ? picturePath
                     : ApiConfig.UPLOADS_URL + picturePath;
+                // On a 2G-class link show the cached picture or the placeholder
                 com.bumptech.glide.Glide.with(this)
                     .load(imageUrl)
+                    .onlyRetrieveFromCache(!NetworkQuality.getInstance(requireContext()).allowsImageDownloads())
                     .placeholder(R.drawable.profile)
                     .error(R.drawable.profile)
                     .centerCrop()
@@ -195,123 +233,137 @@ public class TestFragment extends Fragment implements LocationListener {
         }
     }
 
-    private void loadData() {
-        fetchActiveCustomers();
-        fetchResolvedSosCount();
+    /** Paint the last synced dashboard straight away, without waiting for the network. */
+    private void loadStoredDashboard() {
+        SharedPreferences prefs = requireActivity().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        int userId  = prefs.getInt(KEY_USER_ID, 0);
+        int staffId = prefs.getInt("staff_id", 0);
+        if (userId == 0) return;
+
+        SyncEngine syncEngine = SyncEngine.getInstance(requireContext());
+        syncEngine.loadActiveCustomers(userId, staffId, local -> {
+            if (local != null && !dashboardFromNetwork && isAdded()) {
+                applyCustomers(local);
+            }
+        });
+        syncEngine.loadResolvedSosCount(userId, staffId, local -> {
+            if (local != null && !dashboardFromNetwork && isAdded()) {
+                applyResolvedCount(local);
+            }
+        });
     }
 
-    private void fetchActiveCustomers() {
+    private void fetchDashboard(Runnable done) {
+        if (!isAdded() || getActivity() == null) {
+            done.run();
+            return;
+        }
+
         SharedPreferences prefs = getActivity().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         int userId = prefs.getInt(KEY_USER_ID, 0);
         String userType = prefs.getString("user_type", "");
         int staffId = prefs.getInt("staff_id", 0);
 
-        android.util.Log.d("TestFragment", "User Type: " + userType);
-        android.util.Log.d("TestFragment", "User ID: " + userId);
-        android.util.Log.d("TestFragment", "Staff ID: " + staffId);
+        Log.d(TAG, "User Type: " + userType);
+        Log.d(TAG, "User ID: " + userId);
+        Log.d(TAG, "Staff ID: " + staffId);
 
         if (userId == 0) {
-            android.util.Log.e("TestFragment", "User ID is 0 - cannot fetch customers");
+            Log.e(TAG, "User ID is 0 - cannot fetch customers");
             if (isAdded() && getContext() != null) {
                 Toast.makeText(getContext(), "User ID not found", Toast.LENGTH_SHORT).show();
             }
+            done.run();
             return;
         }
 
-        // Build URL with both user_id and staff_id
-        String url = ApiConfig.GET_ACTIVE_CUSTOMERS_URL + "?user_id=" + userId;
-
-        // Only add staff_id if it's actually set (staff members will have this)
-        if (staffId > 0) {
-            url += "&staff_id=" + staffId;
-        }
-
-        android.util.Log.d("TestFragment", "Request URL: " + url);
-
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET,
-            url,
-            null,
-            response -> {
-                try {
-                    android.util.Log.d("TestFragment", "Response received: " + response.toString());
-                    boolean success = response.getBoolean("success");
-
-                    if (success) {
-                        JSONArray devicesArray = response.getJSONArray("devices");
-                        customerDevices.clear();
-
-                        android.util.Log.d("TestFragment", "Found " + devicesArray.length() + " devices");
-
-                        for (int i = 0; i < devicesArray.length(); i++) {
-                            JSONObject deviceObj = devicesArray.getJSONObject(i);
-
-                            CustomerDevice device = new CustomerDevice();
-                            device.setSerialNumber(deviceObj.getString("serial_number"));
-                            device.setDeviceName(deviceObj.getString("device_name"));
-                            device.setStatus(deviceObj.getString("status"));
-                            device.setBatteryPercent(deviceObj.getInt("battery_percent"));
-                            device.setCustomerName(deviceObj.getString("customer_name"));
-                            device.setCustomerContact(deviceObj.optString("customer_contact", ""));
-                            device.setAssignmentId(deviceObj.getInt("assignment_id"));
-                            device.setLatitude(deviceObj.getDouble("latitude"));
-                            device.setLongitude(deviceObj.getDouble("longitude"));
-                            device.setLastUpdate(deviceObj.getString("last_update"));
-                            device.setMinutesAgo(deviceObj.getInt("minutes_ago"));
-
-                            customerDevices.add(device);
-                        }
-
-                        updateUI();
-                        updateDashboardStats(customerDevices.size(), -1); // resolved SOS count fetched separately
-                    } else {
-                        String message = response.optString("message", "Failed to load data");
-                        android.util.Log.e("TestFragment", "API returned success=false: " + message);
-                        showNoData();
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    android.util.Log.e("TestFragment", "Error parsing response: " + e.getMessage());
-                    if (isAdded() && getContext() != null) {
-                        Toast.makeText(getContext(), "Error parsing data", Toast.LENGTH_SHORT).show();
-                    }
-                    showNoData();
-                }
-            },
-            error -> {
-                error.printStackTrace();
-
-                // Detailed error logging
-                if (error.networkResponse != null) {
-                    android.util.Log.e("TestFragment", "Status Code: " + error.networkResponse.statusCode);
-                    try {
-                        String responseBody = new String(error.networkResponse.data, "utf-8");
-                        android.util.Log.e("TestFragment", "Error Response Body: " + responseBody);
-                    } catch (Exception e) {
-                        android.util.Log.e("TestFragment", "Error reading response: " + e.getMessage());
-                    }
-                } else {
-                    android.util.Log.e("TestFragment", "Network response is null - likely connection error");
-                }
+        SyncEngine syncEngine = SyncEngine.getInstance(requireContext());
 
-                if (error.getMessage() != null) {
-                    android.util.Log.e("TestFragment", "Error Message: " + error.getMessage());
-                }
+        // Both requests go out in parallel. A cached customer list paints at once
+        // (onInterim); the fresh list and the resolved count are bound together.
+        ApiCall<ApiParsers.CustomersResult> customers = syncEngine.syncActiveCustomers(userId, staffId)
+            .onInterim(this::applyCustomers);
+        ApiCall<ApiParsers.CountResult> resolvedCount = syncEngine.syncResolvedSosCount(userId, staffId)
+            .orDefault(null); // the count is secondary; never fail the dashboard for it
 
-                if (isAdded() && getContext() != null) {
-                    Toast.makeText(getContext(), "Network error", Toast.LENGTH_SHORT).show();
+        ApiCall<Void> dashboard = ApiCall.combine(customers, resolvedCount, (customerResult, countResult) -> {
+            if (isAdded()) {
+                dashboardFromNetwork = true;
+                applyCustomers(customerResult);
+                applyResolvedCount(countResult);
+
+                // Only the final network answer moves the refresh policy, never the stored or cached copy
+                if (customerResult.success) {
+                    refreshPolicy.onPayload(REFRESH_CUSTOMERS, customerResult.payloadHash);
+                    refreshPolicy.setSosActive(customerResult.sosActive);
+                }
+                if (countResult != null && countResult.success) {
+                    refreshPolicy.onPayload(REFRESH_SOS_COUNT, countResult.count);
                 }
-                showNoData();
             }
-        );
+            return (Void) null;
+        }).withTimeout(DASHBOARD_TIMEOUT_MS);
+
+        requestScope.track(dashboard).whenComplete((ignored, error) -> {
+            Throwable cause = error != null ? ApiCall.unwrap(error) : null;
+            if (cause == null && isAdded()) {
+                // Dashboard is up: warm History and Activities for the next tap
+                Prefetcher.getInstance(requireContext()).onDashboardLoaded(userId, staffId);
+            } else if (cause != null && !(cause instanceof CancellationException) && isAdded()) {
+                onCustomersError(cause);
+            }
+            done.run();
+        });
+    }
+
+    /** Binds customers from any source (stored, cached or network); the refresh policy is fed in fetchDashboard. */
+    private void applyCustomers(ApiParsers.CustomersResult result) {
+        if (!isAdded()) return;
+        if (result.success) {
+            // Parsed and hashed on the dispatcher thread; only binding happens here
+            Log.d(TAG, "Found " + result.items.size() + " devices");
+            customerDevices = result.items;
 
-        requestQueue.add(request);
+            updateUI();
+            updateDashboardStats(customerDevices.size(), -1); // resolved SOS count applied separately
+        } else {
+            Log.e(TAG, "API returned success=false: " + result.message);
+            showNoData();
+        }
     }
 
-    private void updateUI() {
-        if (customerCardsContainer == null) return;
+    private void applyResolvedCount(@Nullable ApiParsers.CountResult result) {
+        if (result == null || !result.success) {
+            Log.e(TAG, "Resolved SOS count unavailable");
+            return;
+        }
+        if (activeSuccessfulCount != null) {
+            activeSuccessfulCount.setText(String.valueOf(result.count));
+        }
+    }
 
-        customerCardsContainer.removeAllViews();
+    private void onCustomersError(Throwable error) {
+        VolleyError volleyError = error instanceof VolleyError ? (VolleyError) error : null;
+        if (volleyError != null && volleyError.networkResponse != null) {
+            byte[] body = volleyError.networkResponse.data;
+            Log.e(TAG, "Customers failed with status " + volleyError.networkResponse.statusCode
+                + (body != null ? ": " + new String(body, StandardCharsets.UTF_8) : ""), error);
+        } else {
+            Log.e(TAG, "Customers failed without a response (likely a connection error)", error);
+        }
+
+        if (getContext() != null) {
+            String message = error instanceof ParseError ? "Error parsing data" : "Network error";
+            Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+        }
+        // Offline: leave the stored customers on screen
+        if (customerDevices.isEmpty()) {
+            showNoData();
+        }
+    }
+
+    private void updateUI() {
+        if (customerCardAdapter == null) return;
 
         if (customerDevices.isEmpty()) {
             showNoData();
@@ -336,11 +388,8 @@ public class TestFragment extends Fragment implements LocationListener {
             noDataText.setVisibility(View.GONE);
         }
 
-        // Add cards only for devices with valid location
-        for (CustomerDevice device : devicesWithValidLocation) {
-            View cardView = createCustomerCard(device);
-            customerCardsContainer.addView(cardView);
-        }
+        // Diffed off the main thread; only changed cards are rebound
+        customerCardAdapter.submitList(devicesWithValidLocation);
 
         // Update active devices count (resolved SOS count updated separately)
         updateDashboardStats(devicesWithValidLocation.size(), -1);
@@ -351,339 +400,34 @@ public class TestFragment extends Fragment implements LocationListener {
         return device.getLatitude() != 0.0 && device.getLongitude() != 0.0;
     }
 
-    private View createCustomerCard(CustomerDevice device) {
-        LayoutInflater inflater = LayoutInflater.from(getContext());
-
-        // Create the card layout programmatically
-        androidx.cardview.widget.CardView cardView = new androidx.cardview.widget.CardView(requireContext());
-        LinearLayout.LayoutParams cardParams = new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        );
-        cardParams.setMargins(
-            dpToPx(8),  // start
-            0,          // top
-            dpToPx(8),  // end
-            dpToPx(24)  // bottom
-        );
-        cardView.setLayoutParams(cardParams);
-        cardView.setRadius(dpToPx(20));
-        cardView.setCardElevation(dpToPx(3));
-        cardView.setCardBackgroundColor(0xFFFFFFFF);
-
-        // Create main container
-        android.widget.FrameLayout frameLayout = new android.widget.FrameLayout(requireContext());
-        frameLayout.setLayoutParams(new ViewGroup.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-
-        // Add orange border
-        View orangeBorder = new View(requireContext());
-        android.widget.FrameLayout.LayoutParams borderParams = new android.widget.FrameLayout.LayoutParams(dpToPx(5), dpToPx(80));
-        borderParams.topMargin = dpToPx(30);
-        borderParams.leftMargin = dpToPx(-2);
-        orangeBorder.setLayoutParams(borderParams);
-        orangeBorder.setBackgroundResource(R.drawable.orange_left_border);
-        frameLayout.addView(orangeBorder);
-
-        // Create content LinearLayout
-        LinearLayout contentLayout = new LinearLayout(requireContext());
-        contentLayout.setLayoutParams(new ViewGroup.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        contentLayout.setOrientation(LinearLayout.VERTICAL);
-        contentLayout.setPadding(dpToPx(20), dpToPx(20), dpToPx(20), dpToPx(20));
-
-        // Header section
-        LinearLayout headerLayout = createHeaderSection(device);
-        contentLayout.addView(headerLayout);
-
-        // Location section
-        LinearLayout locationLayout = createLocationSection(device);
-        contentLayout.addView(locationLayout);
-
-        // Divider
-        View divider = new View(requireContext());
-        LinearLayout.LayoutParams dividerParams = new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            dpToPx(1)
-        );
-        dividerParams.bottomMargin = dpToPx(12);
-        divider.setLayoutParams(dividerParams);
-        divider.setBackgroundColor(0xFFEEEEEE);
-        contentLayout.addView(divider);
-
-        // Customer info section
-        LinearLayout customerLayout = createCustomerSection(device);
-        contentLayout.addView(customerLayout);
-
-        frameLayout.addView(contentLayout);
-        cardView.addView(frameLayout);
-
-        // Add click listener for the entire card
-        cardView.setOnClickListener(v -> {
-            // TODO: Open map view with this device location
-            if (isAdded() && getContext() != null) {
-                Toast.makeText(getContext(),
-                    "View map for " + device.getCustomerName(),
-                    Toast.LENGTH_SHORT).show();
-            }
-        });
-
-        return cardView;
-    }
-
-    private LinearLayout createHeaderSection(CustomerDevice device) {
-        LinearLayout headerLayout = new LinearLayout(requireContext());
-        LinearLayout.LayoutParams headerParams = new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        );
-        headerParams.bottomMargin = dpToPx(8);
-        headerLayout.setLayoutParams(headerParams);
-        headerLayout.setOrientation(LinearLayout.HORIZONTAL);
-        headerLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-
-        // Left side content
-        LinearLayout leftContent = new LinearLayout(requireContext());
-        LinearLayout.LayoutParams leftParams = new LinearLayout.LayoutParams(
-            0,
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            1.0f
-        );
-        leftContent.setLayoutParams(leftParams);
-        leftContent.setOrientation(LinearLayout.VERTICAL);
-
-        // Title row with live icon
-        LinearLayout titleRow = new LinearLayout(requireContext());
-        titleRow.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        titleRow.setOrientation(LinearLayout.HORIZONTAL);
-        titleRow.setGravity(android.view.Gravity.CENTER_VERTICAL);
-
-        // Live icon
-        android.widget.ImageView liveIcon = new android.widget.ImageView(requireContext());
-        LinearLayout.LayoutParams iconParams = new LinearLayout.LayoutParams(dpToPx(25), dpToPx(25));
-        iconParams.rightMargin = dpToPx(5);
-        liveIcon.setLayoutParams(iconParams);
-        liveIcon.setImageResource(R.drawable.live);
-        liveIcon.setAlpha(0.85f);
-        titleRow.addView(liveIcon);
-
-        // Device name
-        TextView deviceName = new TextView(requireContext());
-        LinearLayout.LayoutParams nameParams = new LinearLayout.LayoutParams(
-            0,
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            1.0f
-        );
-        deviceName.setLayoutParams(nameParams);
-        deviceName.setText(device.getDeviceName());
-        deviceName.setTextSize(13);
-        deviceName.setTextColor(0xFF1a1a1a);
-        deviceName.setTypeface(null, android.graphics.Typeface.BOLD);
-
-        titleRow.addView(deviceName);
-
-        // View Map text
-        TextView viewMapText = new TextView(requireContext());
-        viewMapText.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        viewMapText.setText("View Map  →");
-        viewMapText.setTextSize(12);
-        viewMapText.setTextColor(0xFFFF7A4D);
-        viewMapText.setTypeface(null, android.graphics.Typeface.BOLD);
-        titleRow.addView(viewMapText);
-
-        leftContent.addView(titleRow);
-
-        // Timestamp
-        TextView timestamp = new TextView(requireContext());
-        timestamp.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        timestamp.setText("Last Update: " + device.getFormattedLastUpdate());
-        timestamp.setTextSize(10);
-        timestamp.setTextColor(0xFF999999);
-        leftContent.addView(timestamp);
-
-        headerLayout.addView(leftContent);
-
-        return headerLayout;
-    }
-
-    private LinearLayout createLocationSection(CustomerDevice device) {
-        LinearLayout locationLayout = new LinearLayout(requireContext());
-        LinearLayout.LayoutParams locationParams = new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        );
-        locationParams.bottomMargin = dpToPx(10);
-        locationParams.topMargin = dpToPx(-5);
-        locationLayout.setLayoutParams(locationParams);
-        locationLayout.setOrientation(LinearLayout.HORIZONTAL);
-
-        LinearLayout innerLayout = new LinearLayout(requireContext());
-        LinearLayout.LayoutParams innerParams = new LinearLayout.LayoutParams(
-            0,
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            1.0f
-        );
-        innerLayout.setLayoutParams(innerParams);
-        innerLayout.setOrientation(LinearLayout.HORIZONTAL);
-
-        // Map pin icon
-        android.widget.ImageView mapPin = new android.widget.ImageView(requireContext());
-        LinearLayout.LayoutParams pinParams = new LinearLayout.LayoutParams(dpToPx(14), dpToPx(14));
-        pinParams.rightMargin = dpToPx(2);
-        mapPin.setLayoutParams(pinParams);
-        mapPin.setImageResource(R.drawable.map_pin);
-        mapPin.setAlpha(0.85f);
-        innerLayout.addView(mapPin);
-
-        // Location coordinates
-        TextView locationText = new TextView(requireContext());
-        locationText.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        locationText.setText(device.getFormattedLocation());
-        locationText.setTextSize(9);
-        locationText.setTextColor(0xFF6B6B6B);
-        innerLayout.addView(locationText);
-
-        locationLayout.addView(innerLayout);
-
-        return locationLayout;
-    }
-
-    private LinearLayout createCustomerSection(CustomerDevice device) {
-        LinearLayout customerLayout = new LinearLayout(requireContext());
-        customerLayout.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        customerLayout.setOrientation(LinearLayout.HORIZONTAL);
-        customerLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-
-        // Customer details
-        LinearLayout detailsLayout = new LinearLayout(requireContext());
-        LinearLayout.LayoutParams detailsParams = new LinearLayout.LayoutParams(
-            0,
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            1.0f
-        );
-        detailsLayout.setLayoutParams(detailsParams);
-        detailsLayout.setOrientation(LinearLayout.VERTICAL);
-
-        // Customer name
-        TextView customerName = new TextView(requireContext());
-        customerName.setLayoutParams(new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        ));
-        customerName.setText(device.getCustomerName());
-        customerName.setTextSize(10);
-        customerName.setTextColor(0xFF1a1a1a);
-        detailsLayout.addView(customerName);
-
-        // Customer label
-        TextView customerLabel = new TextView(requireContext());
-        LinearLayout.LayoutParams labelParams = new LinearLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        );
-        labelParams.topMargin = dpToPx(2);
-        customerLabel.setLayoutParams(labelParams);
-        customerLabel.setText("Customer");
-        customerLabel.setTextSize(8);
-        customerLabel.setTextColor(0xFF999999);
-        detailsLayout.addView(customerLabel);
-
-        customerLayout.addView(detailsLayout);
-
-        return customerLayout;
+    private void onCustomerCardClicked(CustomerDevice device) {
+        // TODO: Open map view with this device location
+        if (isAdded() && getContext() != null) {
+            Toast.makeText(getContext(),
+                "View map for " + device.getCustomerName(),
+                Toast.LENGTH_SHORT).show();
+        }
     }
 
     private void showNoData() {
-        if (customerCardsContainer != null) {
-            customerCardsContainer.removeAllViews();
+        if (customerCardAdapter != null) {
+            customerCardAdapter.submitList(null);
         }
         if (noDataText != null) {
             noDataText.setVisibility(View.VISIBLE);
         }
     }
 
-    private int dpToPx(int dp) {
-        float density = getResources().getDisplayMetrics().density;
-        return Math.round(dp * density);
-    }
-
     private void updateDashboardStats(int activeDevices, int successfulRescues) {
         if (activeDevicesCount != null) {
             activeDevicesCount.setText(String.valueOf(activeDevices));
         }
-        // -1 means skip — resolved SOS count is managed by fetchResolvedSosCount()
+        // -1 means skip — resolved SOS count is applied by applyResolvedCount()
         if (activeSuccessfulCount != null && successfulRescues >= 0) {
             activeSuccessfulCount.setText(String.valueOf(successfulRescues));
         }
     }
 
-    private void fetchResolvedSosCount() {
-        SharedPreferences prefs = requireActivity().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        int userId = prefs.getInt(KEY_USER_ID, 0);
-        if (userId == 0) return;
-
-        String url = ApiConfig.GET_RESOLVED_SOS_COUNT_URL + "?user_id=" + userId;
-
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET,
-            url,
-            null,
-            response -> {
-                try {
-                    if (response.getBoolean("success")) {
-                        int count = response.getInt("resolved_count");
-                        if (isAdded() && activeSuccessfulCount != null) {
-                            requireActivity().runOnUiThread(() ->
-                                activeSuccessfulCount.setText(String.valueOf(count))
-                            );
-                        }
-                    }
-                } catch (Exception e) {
-                    android.util.Log.e("TestFragment", "Error parsing resolved SOS count: " + e.getMessage());
-                }
-            },
-            error -> android.util.Log.e("TestFragment", "Error fetching resolved SOS count: " + error.getMessage())
-        );
-
-        requestQueue.add(request);
-    }
-
-    private void startAutoRefresh() {
-        refreshHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                if (isAdded() && getActivity() != null) {
-                    fetchActiveCustomers();
-                    fetchResolvedSosCount();
-                    refreshHandler.postDelayed(this, REFRESH_INTERVAL);
-                }
-            }
-        }, REFRESH_INTERVAL);
-    }
-
-    private void stopAutoRefresh() {
-        refreshHandler.removeCallbacksAndMessages(null);
-    }
-
     // Location Permission Methods
     private void requestLocationPermission() {
         if (ContextCompat.checkSelfPermission(requireContext(),
@@ -899,13 +643,13 @@ public class TestFragment extends Fragment implements LocationListener {
     @Override
     public void onResume() {
         super.onResume();
-        refreshData();
+        // Data refresh on resume is driven by refreshScheduler
+        setupProfileHeader();
         if (locationManager != null &&
             ActivityCompat.checkSelfPermission(requireContext(),
                 Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
             startLocationUpdates();
         }
-        startAutoRefresh();
     }
 
     @Override
@@ -914,7 +658,6 @@ public class TestFragment extends Fragment implements LocationListener {
         if (locationManager != null) {
             locationManager.removeUpdates(this);
         }
-        stopAutoRefresh();
     }
 
     @Override
@@ -923,11 +666,18 @@ public class TestFragment extends Fragment implements LocationListener {
         if (locationManager != null) {
             locationManager.removeUpdates(this);
         }
-        stopAutoRefresh();
     }
 
     public void refreshData() {
-        loadData();
+        if (refreshScheduler != null) {
+            refreshScheduler.refreshNow();
+        }
         setupProfileHeader();
     }
+
+    /** Fired / skipped / coalesced refresh counts for this view, or null before onViewCreated. */
+    @Nullable
+    public RefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
 }
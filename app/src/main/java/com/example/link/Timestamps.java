@@ -0,0 +1,132 @@
+package com.example.link;
+
+import java.util.TimeZone;
+
+/**
+ * The server's "yyyy-MM-dd HH:mm:ss" timestamps (device time zone), parsed and
+ * formatted by hand.
+ *
+ * The models call this once when they are built, on the parse or database
+ * thread, and keep the results, so row binds never parse or format a date.
+ * It replaces a pair of new SimpleDateFormat objects per call. The fixed
+ * layout needs no pattern matching: the digits are read at known offsets and
+ * the date is turned into days since the epoch by arithmetic.
+ */
+final class Timestamps {
+
+    /** {@link #parse} could not read the text. */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MS_PER_DAY = 86_400_000L;
+
+    private Timestamps() {
+    }
+
+    /**
+     * Epoch millis for "yyyy-MM-dd HH:mm:ss", "yyyy-MM-ddTHH:mm:ss" or
+     * "yyyy-MM-dd" (midnight), read in the device time zone. Anything after
+     * the seconds is ignored. Returns {@link #INVALID} for null or any other
+     * layout.
+     */
+    static long parse(String text) {
+        if (text == null) return INVALID;
+        int length = text.length();
+        if (length != 10 && length < 19) return INVALID;
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') return INVALID;
+
+        int year  = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day   = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return INVALID;
+
+        int hour = 0, minute = 0, second = 0;
+        if (length >= 19) {
+            char separator = text.charAt(10);
+            if ((separator != ' ' && separator != 'T') || text.charAt(13) != ':' || text.charAt(16) != ':') {
+                return INVALID;
+            }
+            hour   = digits(text, 11, 2);
+            minute = digits(text, 14, 2);
+            second = digits(text, 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) return INVALID;
+        }
+
+        long local = daysFromCivil(year, month, day) * MS_PER_DAY
+            + ((hour * 60L + minute) * 60L + second) * 1000L;
+        TimeZone zone = TimeZone.getDefault();
+        long guess = local - zone.getOffset(local);
+        return local - zone.getOffset(guess);   // the offset at the instant itself, across a DST change
+    }
+
+    /** "3/7/2025" */
+    static String formatDate(long millis) {
+        int[] f = fields(millis);
+        return f[1] + "/" + f[2] + "/" + f[0];
+    }
+
+    /** "9:05 PM" */
+    static String formatTime(long millis) {
+        int[] f = fields(millis);
+        return hour12(f[3]) + ":" + twoDigits(f[4]) + (f[3] < 12 ? " AM" : " PM");
+    }
+
+    /** "03/07/2025 09:05 PM" */
+    static String formatDateTime(long millis) {
+        int[] f = fields(millis);
+        return twoDigits(f[1]) + "/" + twoDigits(f[2]) + "/" + f[0] + " "
+            + twoDigits(hour12(f[3])) + ":" + twoDigits(f[4]) + (f[3] < 12 ? " AM" : " PM");
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Calendar arithmetic
+    // ─────────────────────────────────────────────────────────
+
+    /** The digits at text[start, start + count) as a number, or -1 if any is not a digit. */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Days from 1970-01-01 to the given proleptic Gregorian date. */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y    = month <= 2 ? year - 1 : year;
+        long era  = Math.floorDiv(y, 400);
+        long yoe  = y - era * 400;                                      // [0, 399]
+        long doy  = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe  = yoe * 365 + yoe / 4 - yoe / 100 + doy;              // [0, 146096]
+        return era * 146_097 + doe - 719_468;
+    }
+
+    /** {year, month, day, hour, minute} of {@code millis} in the device time zone. */
+    private static int[] fields(long millis) {
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        long days  = Math.floorDiv(local, MS_PER_DAY);
+        int  msOfDay = (int) Math.floorMod(local, MS_PER_DAY);
+
+        long z    = days + 719_468;
+        long era  = Math.floorDiv(z, 146_097);
+        long doe  = z - era * 146_097;
+        long yoe  = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy  = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp   = (5 * doy + 2) / 153;
+        int  day   = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int  month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int  year  = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+        return new int[]{year, month, day, msOfDay / 3_600_000, msOfDay / 60_000 % 60};
+    }
+
+    private static int hour12(int hour) {
+        int h = hour % 12;
+        return h == 0 ? 12 : h;
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+}
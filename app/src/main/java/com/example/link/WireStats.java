@@ -0,0 +1,103 @@
+package com.example.link;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bytes on the wire vs. bytes after decoding, per endpoint, in both directions.
+ *
+ * Filled by {@link CompressionStack} as each body finishes streaming; read it
+ * with {@link ApiClient#getWireStats()}. The endpoint is the last path segment
+ * of the URL (get_devices.php, update_profile.php …), so the figures line up
+ * with the screens that call them.
+ */
+public class WireStats {
+
+    /** Running totals for one endpoint. */
+    public static final class Totals {
+        long requests;
+        long compressedResponses;
+        long responseWire;
+        long responseDecoded;
+        long compressedRequests;
+        long requestWire;
+        long requestRaw;
+
+        /** Share of the decoded response size that did not cross the wire, 0–1. */
+        public double getResponseSaving() {
+            return responseDecoded == 0 ? 0 : 1 - (double) responseWire / responseDecoded;
+        }
+
+        public double getRequestSaving() {
+            return requestRaw == 0 ? 0 : 1 - (double) requestWire / requestRaw;
+        }
+    }
+
+    // Guarded by this
+    private final Map<String, Totals> endpoints = new TreeMap<>();
+
+    /** Last path segment of {@code url}, without the query. */
+    static String endpointOf(String url) {
+        int end = url.indexOf('?');
+        if (end < 0) end = url.length();
+        int start = url.lastIndexOf('/', end - 1) + 1;
+        return start < end ? url.substring(start, end) : "/";
+    }
+
+    synchronized void onResponse(String url, long wireBytes, long decodedBytes, boolean compressed) {
+        Totals totals = totals(url);
+        totals.requests++;
+        totals.responseWire    += wireBytes;
+        totals.responseDecoded += decodedBytes;
+        if (compressed) totals.compressedResponses++;
+    }
+
+    synchronized void onRequestBody(String url, long wireBytes, long rawBytes, boolean compressed) {
+        Totals totals = totals(url);
+        totals.requestWire += wireBytes;
+        totals.requestRaw  += rawBytes;
+        if (compressed) totals.compressedRequests++;
+    }
+
+    private Totals totals(String url) {
+        String endpoint = endpointOf(url);
+        Totals totals = endpoints.get(endpoint);
+        if (totals == null) {
+            totals = new Totals();
+            endpoints.put(endpoint, totals);
+        }
+        return totals;
+    }
+
+    public synchronized void reset() {
+        endpoints.clear();
+    }
+
+    public synchronized String getStats() {
+        if (endpoints.isEmpty()) return "No traffic yet";
+
+        StringBuilder stats = new StringBuilder();
+        long wire = 0, decoded = 0;
+        for (Map.Entry<String, Totals> entry : endpoints.entrySet()) {
+            Totals t = entry.getValue();
+            wire    += t.responseWire + t.requestWire;
+            decoded += t.responseDecoded + t.requestRaw;
+            stats.append(entry.getKey()).append(": ")
+                .append(kb(t.responseWire)).append(" / ").append(kb(t.responseDecoded)).append(" KB in (")
+                .append(Math.round(t.getResponseSaving() * 100)).append("% saved, ")
+                .append(t.compressedResponses).append("/").append(t.requests).append(" gzip)");
+            if (t.requestRaw > 0) {
+                stats.append(", ").append(kb(t.requestWire)).append(" / ").append(kb(t.requestRaw))
+                    .append(" KB out (").append(t.compressedRequests).append(" gzip)");
+            }
+            stats.append("\n");
+        }
+        stats.append("Total: ").append(kb(wire)).append(" KB on the wire for ")
+            .append(kb(decoded)).append(" KB of bodies");
+        return stats.toString();
+    }
+
+    private static String kb(long bytes) {
+        return String.valueOf(Math.round(bytes / 102.4) / 10.0);
+    }
+}
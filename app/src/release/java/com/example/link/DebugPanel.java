@@ -0,0 +1,20 @@
+package com.example.link;
+
+import android.content.Context;
+
+/**
+ * Release builds have no debug panel; the real one, with its tools, lives in
+ * src/debug.
+ */
+public final class DebugPanel {
+
+    private DebugPanel() {
+    }
+
+    public static boolean isEnabled(Context context) {
+        return false;
+    }
+
+    public static void show(Context context) {
+    }
+}
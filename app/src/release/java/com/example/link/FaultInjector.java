@@ -0,0 +1,17 @@
+package com.example.link;
+
+import com.android.volley.toolbox.BaseHttpStack;
+
+/**
+ * Release builds inject no faults: {@link ApiClient} talks to the real
+ * connection directly. The debug injector lives in src/debug.
+ */
+final class FaultInjector {
+
+    private FaultInjector() {
+    }
+
+    static BaseHttpStack install(BaseHttpStack delegate) {
+        return delegate;
+    }
+}
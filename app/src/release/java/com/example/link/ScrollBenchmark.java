@@ -0,0 +1,18 @@
+package com.example.link;
+
+import android.app.Activity;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Release builds have no scroll benchmark; DeviceLocationActivity only asks
+ * for one when {@link DebugPanel} is enabled. The real one lives in src/debug.
+ */
+final class ScrollBenchmark {
+
+    private ScrollBenchmark() {
+    }
+
+    static void start(Activity activity, RecyclerView recyclerView, Pager<?> pager) {
+    }
+}
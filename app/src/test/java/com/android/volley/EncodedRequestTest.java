@@ -0,0 +1,47 @@
+package com.android.volley;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.toolbox.StringRequest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class EncodedRequestTest {
+
+    @Test
+    public void delegatesEverythingButTheBodyToTheOriginal() throws Exception {
+        List<String> delivered = new ArrayList<>();
+        StringRequest original = new StringRequest(Request.Method.POST, "https://example.test/api/update.php",
+            delivered::add, error -> { });
+        original.setTag("screen");
+        byte[] body = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+        EncodedRequest<String> encoded = new EncodedRequest<>(original, body, "gzip");
+
+        assertArrayEquals(body, encoded.getBody());
+        assertEquals("gzip", encoded.getHeaders().get("Content-Encoding"));
+        assertEquals("screen", encoded.getTag());
+        assertEquals(original.getTimeoutMs(), encoded.getTimeoutMs());
+
+        Response<String> response = encoded.parseNetworkResponse(new NetworkResponse(
+            200, "ok".getBytes(StandardCharsets.UTF_8), false, 0, Collections.emptyList()));
+        assertTrue(response.isSuccess());
+        assertEquals("ok", response.result);
+
+        encoded.deliverResponse(response.result);
+        assertEquals(Collections.singletonList("ok"), delivered);
+
+        original.cancel();
+        assertTrue(encoded.isCanceled());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.link;
+
+import static org.junit.Assert.assertTrue;
+
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Nanoseconds per bind through the real adapters and inflated rows, with the
+ * display text precomputed, against the SimpleDateFormat / String.format work
+ * those binds used to do before setting the same views. The on-device
+ * numbers come from {@link BindBenchmark}; this is the JVM counterpart, with
+ * the views included.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AdapterBindBenchmarkTest {
+
+    private static final int ROWS   = 2_000;
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 20;
+
+    private interface Bind {
+        void bind(int position);
+    }
+
+    private FrameLayout parent;
+
+    @Before
+    public void setUp() {
+        parent = new FrameLayout(new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.Theme_LINK));
+    }
+
+    @Test
+    public void historyRows() {
+        List<SOSAlert> alerts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) alerts.add(alert(i));
+
+        SOSAlertAdapter adapter = new SOSAlertAdapter(alerts);
+        SOSAlertAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+
+        double now    = time(position -> adapter.onBindViewHolder(holder, position));
+        double before = time(position -> {
+            SOSAlert alert = alerts.get(position);
+            String resolvedAt = alert.getResolvedAt();
+            String dateString = resolvedAt != null && !resolvedAt.isEmpty() && !resolvedAt.equals("null")
+                ? resolvedAt : alert.getAlertTime();
+            String date, time;
+            try {
+                date = new SimpleDateFormat("M/d/yyyy", Locale.US)
+                    .format(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).parse(dateString));
+                time = new SimpleDateFormat("h:mm a", Locale.US)
+                    .format(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).parse(dateString));
+            } catch (ParseException e) {
+                date = time = "N/A";
+            }
+            holder.tvCustomerName.setText(alert.getCustomerName());
+            holder.tvLocation.setText(String.format(Locale.US, "%.6f, %.6f",
+                alert.getLatitude(), alert.getLongitude()));
+            holder.tvDateTime.setText(date + " " + time);
+            String resolvedBy = alert.getResolvedByName();
+            holder.tvResolvedBy.setText(resolvedBy == null || resolvedBy.isEmpty() || resolvedBy.equals("null")
+                ? "Unknown" : resolvedBy);
+            String serial = alert.getTransmitterSerial();
+            holder.tvSerialNumber.setText(serial == null || serial.isEmpty() ? "N/A" : serial);
+        });
+
+        report("SOSAlertAdapter", before, now);
+        assertTrue(now < before);
+    }
+
+    @Test
+    public void activityRows() {
+        List<DeviceLocation> locations = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) locations.add(location(i));
+
+        DeviceLocationAdapter adapter = new DeviceLocationAdapter(locations);
+        DeviceLocationAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+
+        double now    = time(position -> adapter.onBindViewHolder(holder, position));
+        double before = time(position -> {
+            DeviceLocation location = locations.get(position);
+            Date date = null;
+            for (SimpleDateFormat format : new SimpleDateFormat[]{
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()),
+                    new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault()),
+                    new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault())}) {
+                try {
+                    date = format.parse(location.getDateTime());
+                    if (date != null) break;
+                } catch (ParseException e) {
+                    // Try next format
+                }
+            }
+            holder.tvSerialNumber.setText(location.getSerialNumber());
+            holder.tvCustomerName.setText(location.getCustomerName());
+            holder.tvLocation.setText(String.valueOf(location.getLongitude()));
+            holder.tvResolvedBy.setText(String.valueOf(location.getLatitude()));
+            holder.tvDateTime.setText(date != null
+                ? new SimpleDateFormat("MM/dd/yyyy hh:mm a", Locale.getDefault()).format(date)
+                : location.getDateTime());
+        });
+
+        report("DeviceLocationAdapter", before, now);
+        assertTrue(now < before);
+    }
+
+    @Test
+    public void dashboardRows() {
+        List<CustomerDevice> devices = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) devices.add(device(i));
+
+        CustomerCardAdapter adapter = new CustomerCardAdapter();
+        adapter.submitList(devices);   // first list is set synchronously
+        CustomerCardAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+
+        double now    = time(position -> adapter.onBindViewHolder(holder, position));
+        double before = time(position -> {
+            CustomerDevice device = devices.get(position);
+            int minutes = device.getMinutesAgo();
+            String lastUpdate = minutes < 60 ? minutes + " minutes ago" : minutes / 60 + " hours ago";
+            holder.deviceName.setText(device.getDeviceName());
+            holder.lastUpdate.setText("Last Update: " + lastUpdate);
+            holder.location.setText(String.format("%.5f, %.5f", device.getLatitude(), device.getLongitude()));
+            holder.customerName.setText(device.getCustomerName());
+        });
+
+        report("CustomerCardAdapter", before, now);
+        assertTrue(now < before);
+    }
+
+    /** The inventory adapters never formatted anything; their bind cost is here for reference. */
+    @Test
+    public void inventoryRows() {
+        List<CustomerDevice> devices = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) devices.add(device(i));
+
+        ActiveDeviceAdapter active = new ActiveDeviceAdapter();
+        active.submitList(devices);
+        ActiveDeviceAdapter.ViewHolder activeHolder = active.onCreateViewHolder(parent, 0);
+
+        AvailableDeviceAdapter available = new AvailableDeviceAdapter();
+        available.submitList(devices);
+        AvailableDeviceAdapter.ViewHolder availableHolder = available.onCreateViewHolder(parent, 0);
+
+        System.out.printf(Locale.US, "%,d rows: ActiveDeviceAdapter %,.0f ns/bind, AvailableDeviceAdapter %,.0f ns/bind%n",
+            ROWS, time(position -> active.onBindViewHolder(activeHolder, position)),
+            time(position -> available.onBindViewHolder(availableHolder, position)));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    /** Mean nanoseconds per bind over every row, after a warm-up. */
+    private static double time(Bind bind) {
+        for (int round = 0; round < WARMUP; round++) {
+            for (int position = 0; position < ROWS; position++) bind.bind(position);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int position = 0; position < ROWS; position++) bind.bind(position);
+        }
+        return (double) (System.nanoTime() - start) / ROUNDS / ROWS;
+    }
+
+    private static void report(String adapter, double before, double now) {
+        System.out.printf(Locale.US, "%,d rows: %s %,.0f ns/bind formatting on bind, %,.0f ns/bind precomputed%n",
+            ROWS, adapter, before, now);
+    }
+
+    private static String timestamp(int i) {
+        return String.format(Locale.US, "2025-%02d-%02d %02d:%02d:%02d",
+            1 + i % 12, 1 + i % 28, i % 24, i % 60, (i * 7) % 60);
+    }
+
+    private static SOSAlert alert(int i) {
+        return new SOSAlert(i, "TX-" + (100_000 + i), i, "Customer " + i, "0917" + i,
+            14.5 + i * 1e-4, 121.0 + i * 1e-4, 80, -70, timestamp(i), timestamp(i + 1), "Staff",
+            timestamp(i + 2), "Resolver " + i % 5, "");
+    }
+
+    private static DeviceLocation location(int i) {
+        DeviceLocation location = new DeviceLocation();
+        location.setId(i);
+        location.setSerialNumber("TX-" + (100_000 + i));
+        location.setCustomerName("Customer " + i);
+        location.setLatitude(14.5 + i * 1e-4);
+        location.setLongitude(121.0 + i * 1e-4);
+        location.setDateTime(timestamp(i));
+        location.prepareDisplay();
+        return location;
+    }
+
+    private static CustomerDevice device(int i) {
+        CustomerDevice device = new CustomerDevice();
+        device.setAssignmentId(i);
+        device.setSerialNumber("TX-" + (100_000 + i));
+        device.setDeviceName("Device " + i);
+        device.setCustomerName("Customer " + i);
+        device.setCustomerContact("0917" + i);
+        device.setAssignedBy("Staff " + i % 5);
+        device.setStatus(i % 3 == 0 ? "offline" : "registered");
+        device.setBatteryPercent(i % 100);
+        device.setLatitude(14.5 + i * 1e-4);
+        device.setLongitude(121.0 + i * 1e-4);
+        device.setLastUpdate(timestamp(i));
+        device.setMinutesAgo(i % 180);
+        device.prepareDisplay();
+        return device;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+@RunWith(RobolectricTestRunner.class)
+public class AdaptiveRefreshPolicyTest {
+
+    private static final long BASE = AdaptiveRefreshPolicy.BASE_INTERVAL_MS;
+
+    private AdaptiveRefreshPolicy policy;
+
+    @Before
+    public void setUp() {
+        AdaptiveRefreshPolicy.resetSosAlert();
+        policy = new AdaptiveRefreshPolicy();
+    }
+
+    @After
+    public void tearDown() {
+        policy.onForegroundChanged(false);
+        AdaptiveRefreshPolicy.resetSosAlert();
+    }
+
+    @Test
+    public void askingAgainDoesNotStretchTheDelay() {
+        policy.onPayload("customers", 1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(BASE, policy.nextDelayMs());
+        }
+    }
+
+    @Test
+    public void unchangedPayloadsBackOff() {
+        policy.onPayload("customers", 1);
+        policy.onPayload("customers", 1);
+        assertAround(2 * BASE, policy.nextDelayMs());
+        policy.onPayload("customers", 1);
+        assertAround(4 * BASE, policy.nextDelayMs());
+
+        for (int i = 0; i < 10; i++) {
+            policy.onPayload("customers", 1);
+        }
+        assertAround(AdaptiveRefreshPolicy.MAX_INTERVAL_MS, policy.nextDelayMs());
+    }
+
+    @Test
+    public void anyDataSetChangingResetsTheBackOff() {
+        for (int i = 0; i < 3; i++) {
+            policy.onPayload("customers", 1);
+            policy.onPayload("sos_count", 0);
+        }
+        assertAround(4 * BASE, policy.nextDelayMs());
+
+        policy.onPayload("customers", 1);
+        policy.onPayload("sos_count", 1);
+        assertEquals(BASE, policy.nextDelayMs());
+    }
+
+    @Test
+    public void sosPollsFast() {
+        policy.onPayload("customers", 1);
+        policy.onPayload("customers", 1);
+        policy.setSosActive(true);
+        assertEquals(AdaptiveRefreshPolicy.SOS_INTERVAL_MS, policy.nextDelayMs());
+    }
+
+    @Test
+    public void backgroundStopsPolling() {
+        policy.onForegroundChanged(false);
+        assertEquals(-1, policy.nextDelayMs());
+    }
+
+    @Test
+    public void sosAlertReschedulesResumedScreensOnly() {
+        CountingScheduler scheduler = new CountingScheduler();
+        scheduler.setIntervalPolicy(policy);
+
+        policy.onForegroundChanged(true);
+        AdaptiveRefreshPolicy.onSosAlertReceived();
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, scheduler.rescheduled);
+        assertEquals(AdaptiveRefreshPolicy.SOS_INTERVAL_MS, policy.nextDelayMs());
+
+        policy.onForegroundChanged(false);
+        AdaptiveRefreshPolicy.onSosAlertReceived();
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, scheduler.rescheduled);
+    }
+
+    private static void assertAround(long expected, long actual) {
+        assertTrue(actual + " is not " + expected + " ± 20 %",
+            actual >= expected * 0.8 && actual <= expected * 1.2);
+    }
+
+    private static final class CountingScheduler extends RefreshScheduler {
+        int rescheduled;
+
+        CountingScheduler() {
+            super(BASE);
+        }
+
+        @Override
+        public void reschedule() {
+            rescheduled++;
+        }
+    }
+}
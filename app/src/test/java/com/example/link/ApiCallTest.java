@@ -0,0 +1,76 @@
+package com.example.link;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.TimeoutError;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApiCallTest {
+
+    @Test
+    public void timeoutOnceSentWaitsForTheDispatch() throws Exception {
+        ApiCall<String> call = new ApiCall<>();
+        ApiRequest<String> request = request(call);
+        call.withTimeoutOnceSent(1_000);
+
+        // Held behind CRITICAL traffic for longer than the timeout
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        assertFalse(call.isDone());
+
+        request.onDispatched();
+        ShadowLooper.idleMainLooper(999, TimeUnit.MILLISECONDS);
+        assertFalse(call.isDone());
+        ShadowLooper.idleMainLooper(1, TimeUnit.MILLISECONDS);
+        assertTimedOut(call);
+        assertTrue(request.isCanceled());
+    }
+
+    @Test
+    public void timeoutOnceSentStartsAtOnceForASentRequest() throws Exception {
+        ApiCall<String> call = new ApiCall<>();
+        ApiRequest<String> request = request(call);
+        request.onDispatched();
+        call.withTimeoutOnceSent(1_000);
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        assertTimedOut(call);
+    }
+
+    @Test
+    public void answeredCallsDoNotTimeOut() {
+        ApiCall<String> call = new ApiCall<>();
+        ApiRequest<String> request = request(call);
+        call.withTimeoutOnceSent(1_000);
+        request.onDispatched();
+
+        call.onResult("ok");
+        call.onFinished();
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        assertFalse(call.isCompletedExceptionally());
+    }
+
+    private static ApiRequest<String> request(ApiCall<String> call) {
+        ApiRequest<String> request = new ApiRequest<>("https://example.test/api/get_resolved_sos.php",
+            (data, charset) -> new String(data, charset), call::onResult, call::onError);
+        call.bind(request);
+        return request;
+    }
+
+    private static void assertTimedOut(ApiCall<?> call) throws InterruptedException {
+        assertTrue(call.isCompletedExceptionally());
+        try {
+            call.get();
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof TimeoutError);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.android.volley.Request;
+import com.android.volley.toolbox.StringRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApiClientTest {
+
+    private final CountDownLatch slow  = new CountDownLatch(1);
+    private final List<String>   paths = Collections.synchronizedList(new ArrayList<>());
+
+    private TestServer server;
+    private ApiClient  client;
+
+    @Before
+    public void setUp() throws Exception {
+        // slow.php answers once the test releases it; everything else at once
+        server = new TestServer(exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            paths.add(path.substring(path.lastIndexOf('/') + 1));
+            if (path.endsWith("slow.php")) {
+                try {
+                    slow.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            TestServer.respond(exchange, 200, "{\"success\":true}");
+        });
+        client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        slow.countDown();
+        server.close();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Connection pool
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void requestsReuseThePooledConnection() throws Exception {
+        AtomicInteger answered = new AtomicInteger();
+        for (int i = 1; i <= 3; i++) {
+            client.add(new StringRequest(Request.Method.GET, server.url("get_devices.php?page=" + i),
+                response -> answered.incrementAndGet(), error -> { }));
+            int expected = i;
+            TestServer.await(() -> answered.get() == expected);
+        }
+
+        assertEquals(3, server.hits());
+        assertEquals(1, new HashSet<>(server.clientPorts()).size());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Lanes
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void criticalIsAnsweredWhileEveryDispatcherIsBusy() throws Exception {
+        AtomicInteger bulk = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            client.add(get("slow.php?page=" + i, bulk), RequestLane.INTERACTIVE);
+        }
+        TestServer.await(() -> count("slow.php") == 4);   // all four dispatcher threads
+
+        AtomicInteger critical = new AtomicInteger();
+        client.add(post("acknowledge_sos.php", critical), RequestLane.CRITICAL);
+        TestServer.await(() -> critical.get() == 1);
+        assertEquals(0, bulk.get());
+
+        slow.countDown();
+        TestServer.await(() -> bulk.get() == 8);
+    }
+
+    @Test
+    public void backgroundWaitsForPendingCriticalRequests() throws Exception {
+        AtomicInteger critical = new AtomicInteger();
+        client.add(post("slow.php", critical), RequestLane.CRITICAL);
+        TestServer.await(() -> count("slow.php") == 1);
+
+        AtomicInteger background = new AtomicInteger();
+        client.add(get("get_resolved_sos.php", background), RequestLane.BACKGROUND);
+        Thread.sleep(200);
+        assertEquals(0, count("get_resolved_sos.php"));
+
+        slow.countDown();
+        TestServer.await(() -> critical.get() == 1 && background.get() == 1);
+    }
+
+    @Test
+    public void screensShareOneClient() {
+        ApiClient other = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+        assertSame(client, other);
+        assertSame(client.getRequestQueue(), other.getRequestQueue());
+    }
+
+    private Request<String> get(String path, AtomicInteger answered) {
+        StringRequest request = new StringRequest(Request.Method.GET, server.url(path),
+            response -> answered.incrementAndGet(), error -> { });
+        request.setShouldCache(false);
+        return request;
+    }
+
+    private Request<String> post(String path, AtomicInteger answered) {
+        return new StringRequest(Request.Method.POST, server.url(path),
+            response -> answered.incrementAndGet(), error -> { });
+    }
+
+    private int count(String endpoint) {
+        synchronized (paths) {
+            return Collections.frequency(paths, endpoint);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApiParsersTest {
+
+    // ─────────────────────────────────────────────────────────
+    //  JSON
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void customersReadLenientlyAndSkipUnknownFields() throws Exception {
+        ApiParsers.CustomersResult result = ApiParsers.ACTIVE_CUSTOMERS.parse(json(
+            "{'success':true,'debug':{'query':['a',{'b':1}]},'devices':[",
+            " {'serial_number':'TX-1','status':'sos','battery_percent':'87','latitude':14.5,",
+            "  'longitude':'121.25','minutes_ago':3.0,'extra':[1,2],'customer_contact':null},",
+            " 'not an object',",
+            " {'serial_number':'TX-2','status':'active','battery_percent':null}",
+            "],'message':'ok'}"), "UTF-8");
+
+        assertTrue(result.success);
+        assertEquals("ok", result.message);
+        assertEquals(2, result.items.size());
+        assertTrue(result.sosActive);
+
+        CustomerDevice first = result.items.get(0);
+        assertEquals("TX-1", first.getSerialNumber());
+        assertEquals(87, first.getBatteryPercent());
+        assertEquals(121.25, first.getLongitude(), 0);
+        assertEquals(3, first.getMinutesAgo());
+        assertEquals("", first.getCustomerContact());
+        assertEquals(0, result.items.get(1).getBatteryPercent());
+    }
+
+    @Test
+    public void customerHashIgnoresMinutesAgo() throws Exception {
+        String row = "{'serial_number':'TX-1','status':'active','minutes_ago':%d}";
+        int before = ApiParsers.ACTIVE_CUSTOMERS.parse(
+            json("{'success':true,'devices':[" + String.format(row, 1) + "]}"), "UTF-8").payloadHash;
+        int after  = ApiParsers.ACTIVE_CUSTOMERS.parse(
+            json("{'success':true,'devices':[" + String.format(row, 2) + "]}"), "UTF-8").payloadHash;
+        int moved  = ApiParsers.ACTIVE_CUSTOMERS.parse(
+            json("{'success':true,'devices':[{'serial_number':'TX-1','status':'sos'}]}"), "UTF-8").payloadHash;
+
+        assertEquals(before, after);
+        assertTrue(before != moved);
+    }
+
+    @Test
+    public void nullListsAreEmpty() throws Exception {
+        ApiParsers.CustomersResult result = ApiParsers.ACTIVE_CUSTOMERS.parse(
+            json("{'success':false,'message':'No devices','devices':null}"), "UTF-8");
+
+        assertFalse(result.success);
+        assertTrue(result.items.isEmpty());
+        assertFalse(result.sosActive);
+    }
+
+    @Test
+    public void resolvedSosReadsAlertsAndDeltaFields() throws Exception {
+        ApiParsers.ListResult<SOSAlert> result = ApiParsers.RESOLVED_SOS.parse(json(
+            "{'success':'1','count':'40','cursor':'2025-03-07 21:05:00|17','has_more':true,",
+            " 'deleted_ids':[4,'5',0,null],'alerts':[{'id':17,'transmitter_serial':'TX-9',",
+            " 'resolved_by_name':null,'latitude':'14.6','resolved_at':'2025-03-07 21:05:00'}]}"), "UTF-8");
+
+        assertTrue(result.success);
+        assertEquals(40, result.total);
+        assertEquals("2025-03-07 21:05:00|17", result.cursor);
+        assertTrue(result.hasMore);
+        assertFalse(result.full);
+        assertEquals(Arrays.asList(4, 5), result.deletedIds);
+
+        SOSAlert alert = result.items.get(0);
+        assertEquals(17, alert.getId());
+        assertEquals("TX-9", alert.getTransmitterSerial());
+        assertEquals("Unknown", alert.getResolvedByName());
+        assertEquals("Unknown Customer", alert.getCustomerName());
+        assertEquals(14.6, alert.getLatitude(), 0);
+    }
+
+    @Test
+    public void deviceActivitiesReadTotalAndCoordinates() throws Exception {
+        ApiParsers.ListResult<DeviceLocation> result = ApiParsers.DEVICE_ACTIVITIES.parse(json(
+            "{'success':true,'total_items':120,'filter_status':'mine','data':[",
+            " {'id':'3','latitude':'14.59950000','longitude':null,'speed':2.5,'assigned_by':7}]}"), "UTF-8");
+
+        assertEquals(120, result.total);
+        assertEquals("mine", result.filterStatus);
+        assertNull(result.cursor);
+
+        DeviceLocation location = result.items.get(0);
+        assertEquals(3, location.getId());
+        assertEquals("14.59950000", location.getFormattedLatitude());
+        assertEquals("N/A", location.getFormattedLongitude());
+        assertEquals(2.5, location.getSpeed(), 0);
+    }
+
+    @Test
+    public void devicesReadBothListsWithDefaults() throws Exception {
+        ApiParsers.InventoryResult result = ApiParsers.DEVICES.parse(json(
+            "{'success':true,'available_count':'9',",
+            " 'available_devices':[{'serial_number':'TX-1'},{'device_name':'Spare'}],",
+            " 'active_devices':[{'serial_number':'TX-2','assigned_name':'Ana','assignment_id':'12'}]}"), "UTF-8");
+
+        assertEquals(9, result.availableCount);
+        assertEquals(1, result.activeCount);
+        assertEquals("TX-1", result.available.get(0).getDeviceName());
+        assertEquals("—", result.available.get(1).getSerialNumber());
+        assertEquals("Ana", result.active.get(0).getCustomerName());
+        assertEquals(12, result.active.get(0).getAssignmentId());
+    }
+
+    @Test
+    public void resolvedCountAcceptsANumberAsText() throws Exception {
+        ApiParsers.CountResult result = ApiParsers.RESOLVED_SOS_COUNT.parse(
+            json("{'success':true,'resolved_count':'12'}"), "UTF-8");
+        assertEquals(12, result.count);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  CBOR
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void listEndpointsAskForCbor() {
+        assertEquals(ApiParsers.CBOR_ACCEPT, ApiParsers.acceptFor(ApiParsers.DEVICE_ACTIVITIES));
+        assertEquals(ApiParsers.CBOR_ACCEPT, ApiParsers.acceptFor(ApiParsers.ACTIVE_CUSTOMERS));
+        assertNull(ApiParsers.acceptFor(ApiParsers.RESOLVED_SOS));
+    }
+
+    @Test
+    public void deviceActivitiesReadColumnarCbor() throws Exception {
+        ApiParsers.ListResult<DeviceLocation> result = ApiParsers.DEVICE_ACTIVITIES.parse(new CborReaderTest.Cbor()
+            .map(5)
+                .text("success").bool(true)
+                .text("total_items").number(120)
+                .text("columns").array(5)
+                    .text("id").text("serial_number").text("latitude").text("altitude").text("recorded_at")
+                .text("data").array(2)
+                    .array(6).number(3).text("TX-3").text("14.59950000").half(0x3E00)
+                        .text("2025-03-07 21:05:00").text("past the columns")
+                    .map(2).text("id").number(4).text("longitude").float64(121.25)
+                .text("deleted_ids").array(2).number(5).nil()
+            .bytes(), "UTF-8");
+
+        assertTrue(result.success);
+        assertEquals(120, result.total);
+        assertEquals(Arrays.asList(5), result.deletedIds);
+        assertEquals(2, result.items.size());
+
+        DeviceLocation columnar = result.items.get(0);
+        assertEquals(3, columnar.getId());
+        assertEquals("TX-3", columnar.getSerialNumber());
+        assertEquals("14.59950000", columnar.getFormattedLatitude());
+        assertEquals(1.5, columnar.getAltitude(), 0);
+        assertEquals("2025-03-07 21:05:00", columnar.getDateTime());
+        assertEquals(121.25, result.items.get(1).getLongitude(), 0);
+    }
+
+    @Test
+    public void customersReadColumnarCbor() throws Exception {
+        ApiParsers.CustomersResult result = ApiParsers.ACTIVE_CUSTOMERS.parse(new CborReaderTest.Cbor()
+            .openMap()
+                .text("success").bool(true)
+                .text("columns").array(3).text("serial_number").text("status").text("battery_percent")
+                .text("devices").openArray()
+                    .array(3).text("TX-1").text("sos").text("87")
+                    .array(3).text("TX-2").text("active").nil()
+                .close()
+            .close()
+            .bytes(), "UTF-8");
+
+        assertEquals(2, result.items.size());
+        assertTrue(result.sosActive);
+        assertEquals(87, result.items.get(0).getBatteryPercent());
+        assertEquals(0, result.items.get(1).getBatteryPercent());
+    }
+
+    /** JSON written with single quotes, to keep the fixtures readable. */
+    static byte[] json(String... lines) {
+        return String.join("", lines).replace('\'', '"').getBytes(StandardCharsets.UTF_8);
+    }
+}
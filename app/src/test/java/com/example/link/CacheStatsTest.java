@@ -0,0 +1,97 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class CacheStatsTest {
+
+    private static final ApiRequest.Parser<String> TEXT = String::new;
+
+    private final AtomicInteger conditional = new AtomicInteger();
+    private final List<String>  delivered   = new ArrayList<>();
+
+    private TestServer server;
+    private ApiClient  client;
+    private CacheStats stats;
+
+    @Before
+    public void setUp() throws Exception {
+        // Answers 304 to a request that already has the current ETag
+        server = new TestServer(exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                conditional.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            TestServer.respond(exchange, 200, "{\"items\":[1,2,3]}");
+        });
+        client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+        stats  = client.getCacheStats();
+        stats.reset();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void firstLoadIsAMiss() throws Exception {
+        load(ApiRequest.LIST_FRESH_MS);
+
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getRevalidations());
+    }
+
+    @Test
+    public void staleEntryPaintsThenRevalidatesWithA304() throws Exception {
+        load(ApiRequest.LIST_FRESH_MS);
+        load(ApiRequest.LIST_FRESH_MS);
+        TestServer.await(() -> stats.getNotModified() == 1);
+
+        assertEquals(2, server.hits());
+        assertEquals(1, conditional.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getStaleHits());
+        assertEquals(1, stats.getRevalidations());
+        assertEquals(2, delivered.size());   // the 304 does not deliver the same body again
+        assertEquals(delivered.get(0), delivered.get(1));
+    }
+
+    @Test
+    public void freshEntryNeedsNoRequest() throws Exception {
+        load(60_000);
+        load(60_000);
+
+        assertEquals(1, server.hits());
+        assertEquals(1, stats.getHits());
+        assertEquals(0, stats.getStaleHits());
+        assertEquals(0.5, stats.getHitRate(), 0);
+    }
+
+    /** One list load, past the coalescer's memory window so it reaches the cache. */
+    private void load(long freshMs) throws InterruptedException {
+        ShadowSystemClock.advanceBy(Duration.ofMillis(RequestCoalescer.DEFAULT_FRESH_WINDOW_MS + 1));
+        int before = delivered.size();
+        client.add(new ApiRequest<>(server.url("get_resolved_sos.php?user_id=7"), TEXT,
+                delivered::add, error -> { })
+            .setTenant(7, 3)
+            .setCachePolicy(freshMs, ApiRequest.LIST_MAX_STALE_MS));
+        TestServer.await(() -> delivered.size() > before);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class CborReaderTest {
+
+    @Test
+    public void readsDefiniteAndIndefiniteContainers() throws Exception {
+        CborReader reader = new CborReader(new Cbor()
+            .map(3)
+                .text("ids").array(3).number(1).number(-2).number(70_000)
+                .text("names").openArray().text("a").text("b").close()
+                .text("nested").openMap().text("x").number(4).close()
+            .bytes());
+
+        reader.beginMap();
+        assertEquals("ids", reader.nextName());
+        reader.beginArray();
+        assertEquals(1, reader.nextInt(0));
+        assertEquals(-2, reader.nextInt(0));
+        assertEquals(70_000, reader.nextInt(0));
+        assertFalse(reader.hasNext());
+        reader.end();
+
+        assertEquals("names", reader.nextName());
+        assertEquals(CborReader.Kind.ARRAY, reader.peek());
+        reader.beginArray();
+        assertEquals("a", reader.nextString(null));
+        assertEquals("b", reader.nextString(null));
+        assertFalse(reader.hasNext());
+        reader.end();
+
+        assertEquals("nested", reader.nextName());
+        reader.beginMap();
+        assertEquals("x", reader.nextName());
+        assertEquals(4, reader.nextInt(0));
+        reader.end();
+        assertFalse(reader.hasNext());
+        reader.end();
+    }
+
+    @Test
+    public void tagsAndUnreadItemsAreSkipped() throws Exception {
+        CborReader reader = new CborReader(new Cbor()
+            .map(2)
+                .text("skipped").openMap().text("deep").array(2).number(1).openArray().close().close()
+                .text("at").tag(1).number(1_741_381_500)
+            .bytes());
+
+        reader.beginMap();
+        assertEquals("skipped", reader.nextName());
+        reader.skipValue();
+        assertEquals("at", reader.nextName());
+        assertEquals(1_741_381_500L, reader.nextLong(0));
+        reader.end();
+
+        reader = new CborReader(new Cbor().array(3).number(1).text("left").openMap().close().number(9).bytes());
+        reader.beginArray();
+        assertEquals(1, reader.nextInt(0));
+        reader.end();   // closes over the unread items
+    }
+
+    @Test
+    public void scalarsAreLenient() throws Exception {
+        CborReader reader = new CborReader(new Cbor()
+            .array(9)
+                .text("12").number(5).nil().half(0x3E00).float32(2.5f).float64(14.5995)
+                .bool(true).text("n/a").nil()
+            .bytes());
+
+        reader.beginArray();
+        assertEquals(12, reader.nextInt(0));                       // number sent as text
+        assertEquals("5", reader.nextString(null));                // and text as a number
+        assertNull(reader.nextString(null));                       // null is the fallback
+        assertEquals(1.5, reader.nextDouble(0), 0);                // half precision
+        assertEquals(2.5, reader.nextDouble(0), 0);
+        assertEquals("14.5995", reader.nextString(null));
+        assertEquals(1, reader.nextInt(0));
+        assertEquals(-1, reader.nextDouble(-1), 0);
+        assertEquals(7, reader.nextInt(7));
+        reader.end();
+    }
+
+    @Test
+    public void onlyAMapHeaderIsCbor() {
+        assertTrue(CborReader.isCbor(new Cbor().map(0).bytes()));
+        assertTrue(CborReader.isCbor(new Cbor().openMap().close().bytes()));
+        assertFalse(CborReader.isCbor(ApiParsersTest.json("{'success':true}")));
+        assertFalse(CborReader.isCbor(new byte[0]));
+    }
+
+    @Test
+    public void truncatedBodyFails() {
+        byte[] whole = new Cbor().map(1).text("message").text("cut short").bytes();
+        CborReader reader = new CborReader(Arrays.copyOf(whole, whole.length - 3));
+        try {
+            reader.beginMap();
+            reader.nextName();
+            reader.nextString(null);
+            fail("Read past the end");
+        } catch (IOException expected) {
+            // thrown
+        }
+    }
+
+    /** Just enough of an encoder to write test bodies. */
+    static final class Cbor {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Cbor map(int pairs)     { return head(5, pairs); }
+        Cbor array(int items)   { return head(4, items); }
+        Cbor openMap()          { return write(0xBF); }
+        Cbor openArray()        { return write(0x9F); }
+        Cbor close()            { return write(0xFF); }
+        Cbor tag(long tag)      { return head(6, tag); }
+        Cbor nil()              { return write(0xF6); }
+        Cbor bool(boolean b)    { return write(b ? 0xF5 : 0xF4); }
+
+        Cbor number(long value) {
+            return value < 0 ? head(1, -1 - value) : head(0, value);
+        }
+
+        Cbor text(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            head(3, utf8.length);
+            out.write(utf8, 0, utf8.length);
+            return this;
+        }
+
+        Cbor half(int bits)        { write(0xF9); return be(bits, 2); }
+        Cbor float32(float value)  { write(0xFA); return be(Float.floatToIntBits(value), 4); }
+        Cbor float64(double value) { write(0xFB); return be(Double.doubleToLongBits(value), 8); }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+
+        private Cbor head(int major, long value) {
+            if (value < 24) return write(major << 5 | (int) value);
+            if (value < 0x100) { write(major << 5 | 24); return be(value, 1); }
+            if (value < 0x10000) { write(major << 5 | 25); return be(value, 2); }
+            if (value < 0x100000000L) { write(major << 5 | 26); return be(value, 4); }
+            write(major << 5 | 27);
+            return be(value, 8);
+        }
+
+        private Cbor be(long value, int bytes) {
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write((int) (value >>> (8 * i)) & 0xFF);
+            }
+            return this;
+        }
+
+        private Cbor write(int b) {
+            out.write(b);
+            return this;
+        }
+    }
+}
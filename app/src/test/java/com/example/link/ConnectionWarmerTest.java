@@ -0,0 +1,72 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.Request;
+import com.android.volley.toolbox.StringRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConnectionWarmerTest {
+
+    private TestServer server;
+    private String     url;
+    private ApiClient  client;
+
+    @Before
+    public void setUp() throws Exception {
+        // Every request fails with a 503, which the breaker counts
+        server = new TestServer(exchange -> TestServer.respond(exchange, 503, "{\"success\":false}"));
+        url    = server.url("");
+        client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+        client.getTelemetry().reset();
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(1));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void warmUpsAreSentOnceAndNotCounted() throws Exception {
+        long idle = client.getIdleMs();
+        for (int i = 0; i < 6; i++) {
+            send(new ConnectionWarmer.WarmUp(url, headers -> { }, error -> { }));
+        }
+
+        assertEquals(6, server.hits());   // no retries
+        assertEquals(RequestPolicy.State.CLOSED, client.getPolicy().getState(WireStats.endpointOf(url)));
+        assertEquals("No requests yet", client.getTelemetry().getStats());
+        assertEquals(idle, client.getIdleMs());
+    }
+
+    @Test
+    public void appRequestsAreStillCounted() throws Exception {
+        send(new StringRequest(Request.Method.GET, url, response -> { }, error -> { }));
+
+        assertEquals(1, server.hits());   // only list GETs are retried
+        assertTrue(client.getTelemetry().getStats().contains("1 attempts"));
+        assertEquals(0, client.getIdleMs());
+    }
+
+    private void send(Request<?> request) throws InterruptedException {
+        AtomicBoolean finished = new AtomicBoolean();
+        client.getRequestQueue().addRequestFinishedListener(r -> {
+            if (r == request) finished.set(true);
+        });
+        client.add(request);
+        TestServer.await(finished::get);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * Time of the first request to an HTTPS host, cold against after
+ * {@link ConnectionWarmer#warm}. Each round starts a new server on a new port
+ * (self-signed certificate, src/test/resources/localhost.p12), so nothing is
+ * pooled for it yet. The time runs on the dispatcher thread from HurlStack
+ * asking for the headers, just before it connects, to the parse of the
+ * body, so TCP and the TLS handshake are included when they happen.
+ * (Volley's networkTimeMs would read Robolectric's paused clock.)
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ConnectionWarmupLatencyTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+    private static final int    ROUNDS   = 7;
+
+    private SSLContext       tls;
+    private SSLSocketFactory defaultFactory;
+    private HostnameVerifier defaultVerifier;
+    private ApiClient        client;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyStore keys = KeyStore.getInstance("PKCS12");
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("localhost.p12")) {
+            keys.load(in, PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keys, PASSWORD);
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keys);
+        tls = SSLContext.getInstance("TLS");
+        tls.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+
+        // HurlStack uses the platform defaults; trust the test certificate for the run
+        defaultFactory  = HttpsURLConnection.getDefaultSSLSocketFactory();
+        defaultVerifier = HttpsURLConnection.getDefaultHostnameVerifier();
+        HttpsURLConnection.setDefaultSSLSocketFactory(tls.getSocketFactory());
+        HttpsURLConnection.setDefaultHostnameVerifier((host, session) -> "127.0.0.1".equals(host));
+
+        client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        HttpsURLConnection.setDefaultSSLSocketFactory(defaultFactory);
+        HttpsURLConnection.setDefaultHostnameVerifier(defaultVerifier);
+    }
+
+    @Test
+    public void warmedHostAnswersTheFirstRequestSooner() throws Exception {
+        firstRequestMs(false);   // class loading and JIT for the TLS code
+        firstRequestMs(true);
+
+        long[] cold = new long[ROUNDS];
+        long[] warm = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            cold[round] = firstRequestMs(false);
+            warm[round] = firstRequestMs(true);
+        }
+
+        long coldMs = median(cold), warmMs = median(warm);
+        System.out.printf(Locale.US, "First HTTPS request (median of %d): cold %d ms, after warm() %d ms%n",
+            ROUNDS, coldMs, warmMs);
+        assertTrue("cold " + Arrays.toString(cold) + ", warm " + Arrays.toString(warm), warmMs < coldMs);
+    }
+
+    /** Network time of the first GET to a new host, optionally after a warm-up HEAD. */
+    private long firstRequestMs(boolean warmFirst) throws Exception {
+        try (TestServer server = new TestServer(
+                exchange -> TestServer.respond(exchange, 200, "{\"success\":true}"), tls)) {
+            // Let the link look idle, or the warmer leaves it to the app's own traffic
+            ShadowSystemClock.advanceBy(Duration.ofSeconds(10));
+
+            if (warmFirst) {
+                ConnectionWarmer warmer = new ConnectionWarmer(RuntimeEnvironment.getApplication(), server.url(""));
+                warmer.warm(ConnectionWarmer.Reason.ALERT);
+                TestServer.await(() -> warmer.getStats().contains("Cold HEADs: 1"));
+                assertEquals(1, server.hits());
+            }
+
+            AtomicLong networkNs = new AtomicLong(-1);
+            client.add(new Timed(server.url("get_active_customers.php"), networkNs));
+            TestServer.await(() -> networkNs.get() >= 0);
+            if (warmFirst) {
+                assertEquals(1, server.clientPorts().stream().distinct().count());   // the warmed socket
+            }
+            return networkNs.get() / 1_000_000;
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /** A GET that times its own connect, exchange and body read. */
+    private static final class Timed extends Request<Long> {
+        private final AtomicLong networkNs;
+        private volatile long    sentAt;
+
+        Timed(String url, AtomicLong networkNs) {
+            super(Method.GET, url, error -> { throw new AssertionError(error); });
+            this.networkNs = networkNs;
+            setShouldCache(false);
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            sentAt = System.nanoTime();
+            return super.getHeaders();
+        }
+
+        @Override
+        protected Response<Long> parseNetworkResponse(NetworkResponse response) {
+            return Response.success(System.nanoTime() - sentAt, null);
+        }
+
+        @Override
+        protected void deliverResponse(Long elapsedNs) {
+            networkNs.set(elapsedNs);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The diff callbacks behind CustomerActivity's two lists: which rows count
+ * as the same device, and which changes rebind a row. A refresh that changes
+ * one device touches one row.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CustomerDeviceDiffTest {
+
+    // ─────────────────────────────────────────────────────────
+    //  Available devices (keyed by serial number)
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void availableRowsAreKeyedBySerial() {
+        DiffUtil.ItemCallback<CustomerDevice> diff = AvailableDeviceAdapter.DIFF;
+
+        assertTrue(diff.areItemsTheSame(available("TX-1", "Unit 1", 80), available("TX-1", "Renamed", 10)));
+        assertFalse(diff.areItemsTheSame(available("TX-1", "Unit 1", 80), available("TX-2", "Unit 1", 80)));
+    }
+
+    @Test
+    public void availableRowsRebindOnNameOrBattery() {
+        DiffUtil.ItemCallback<CustomerDevice> diff = AvailableDeviceAdapter.DIFF;
+        CustomerDevice shown = available("TX-1", "Unit 1", 80);
+
+        assertFalse(diff.areContentsTheSame(shown, available("TX-1", "Unit 1b", 80)));
+        assertFalse(diff.areContentsTheSame(shown, available("TX-1", "Unit 1", 79)));
+
+        // Fields the row does not show
+        CustomerDevice moved = available("TX-1", "Unit 1", 80);
+        moved.setLatitude(14.6);
+        moved.setLastUpdate("2025-03-01 09:00:00");
+        assertTrue(diff.areContentsTheSame(shown, moved));
+    }
+
+    @Test
+    public void availableRefreshTouchesOnlyChangedRows() {
+        List<String> updates = diff(AvailableDeviceAdapter.DIFF,
+            Arrays.asList(available("TX-1", "Unit 1", 80), available("TX-2", "Unit 2", 60),
+                available("TX-3", "Unit 3", 40)),
+            Arrays.asList(available("TX-1", "Unit 1", 80), available("TX-3", "Unit 3", 15),
+                available("TX-4", "Unit 4", 90)));
+
+        // Dispatched back to front, in old-list positions
+        assertEquals(Arrays.asList("inserted 1 at 3", "changed 1 at 2", "removed 1 at 1"), updates);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Active assignments (keyed by assignment ID)
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void activeRowsAreKeyedByAssignment() {
+        DiffUtil.ItemCallback<CustomerDevice> diff = ActiveDeviceAdapter.DIFF;
+
+        // The same transmitter assigned again is a new row
+        assertFalse(diff.areItemsTheSame(active(11, "TX-1", "Ana"), active(12, "TX-1", "Ana")));
+        assertTrue(diff.areItemsTheSame(active(11, "TX-1", "Ana"), active(11, "TX-1", "Ben")));
+    }
+
+    @Test
+    public void activeRowsRebindOnWhatTheRowShows() {
+        DiffUtil.ItemCallback<CustomerDevice> diff = ActiveDeviceAdapter.DIFF;
+        CustomerDevice shown = active(11, "TX-1", "Ana");
+
+        assertTrue(diff.areContentsTheSame(shown, active(11, "TX-1", "Ana")));
+        assertFalse(diff.areContentsTheSame(shown, active(11, "TX-1", "Ben")));
+        assertFalse(diff.areContentsTheSame(shown, active(11, "TX-2", "Ana")));
+
+        CustomerDevice contact = active(11, "TX-1", "Ana");
+        contact.setCustomerContact("0918");
+        assertFalse(diff.areContentsTheSame(shown, contact));
+
+        CustomerDevice assignedBy = active(11, "TX-1", "Ana");
+        assignedBy.setAssignedBy("Other staff");
+        assertFalse(diff.areContentsTheSame(shown, assignedBy));
+
+        CustomerDevice status = active(11, "TX-1", "Ana");
+        status.setStatus("offline");
+        assertFalse(diff.areContentsTheSame(shown, status));
+
+        CustomerDevice battery = active(11, "TX-1", "Ana");
+        battery.setBatteryPercent(5);
+        assertTrue(diff.areContentsTheSame(shown, battery));
+    }
+
+    @Test
+    public void endingOneAssignmentRemovesOneRow() {
+        List<String> updates = diff(ActiveDeviceAdapter.DIFF,
+            Arrays.asList(active(11, "TX-1", "Ana"), active(12, "TX-2", "Ben"), active(13, "TX-3", "Cy")),
+            Arrays.asList(active(11, "TX-1", "Ana"), active(13, "TX-3", "Cy")));
+
+        assertEquals(Arrays.asList("removed 1 at 1"), updates);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private static CustomerDevice available(String serial, String name, int battery) {
+        CustomerDevice device = new CustomerDevice();
+        device.setSerialNumber(serial);
+        device.setDeviceName(name);
+        device.setBatteryPercent(battery);
+        device.setStatus("available");
+        return device;
+    }
+
+    private static CustomerDevice active(int assignmentId, String serial, String customer) {
+        CustomerDevice device = new CustomerDevice();
+        device.setAssignmentId(assignmentId);
+        device.setSerialNumber(serial);
+        device.setCustomerName(customer);
+        device.setCustomerContact("0917");
+        device.setAssignedBy("Staff");
+        device.setStatus("registered");
+        device.setBatteryPercent(80);
+        return device;
+    }
+
+    /** The updates ListAdapter would dispatch for {@code oldList} → {@code newList}. */
+    private static List<String> diff(DiffUtil.ItemCallback<CustomerDevice> callback,
+                                     List<CustomerDevice> oldList, List<CustomerDevice> newList) {
+        List<String> updates = new ArrayList<>();
+        DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return callback.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+        }).dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                updates.add("inserted " + count + " at " + position);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                updates.add("removed " + count + " at " + position);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                updates.add("moved " + fromPosition + " to " + toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                updates.add("changed " + count + " at " + position);
+            }
+        });
+        return updates;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.link;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * The server side of {@link SyncEngine}'s delta contract, for {@link TestServer}
+ * handlers. Every insert, edit and delete takes the next sequence number;
+ * the cursor is the last sequence number an answer covered, so a delta is
+ * simply the changes after it, oldest first, up to the batch size.
+ */
+final class DeltaFeed {
+
+    private final String                                 arrayName;   // "alerts" or "data"
+    private final BiFunction<Integer, Integer, String>   row;         // (id, version) -> JSON object
+    private final int                                    batch;       // most changes per answer
+
+    private final TreeMap<Integer, int[]> live    = new TreeMap<>();  // id -> {seq, version}
+    private final Map<Integer, Integer>   deleted = new HashMap<>();  // id -> seq
+    private int seq;
+
+    DeltaFeed(String arrayName, int batch, BiFunction<Integer, Integer, String> row) {
+        this.arrayName = arrayName;
+        this.batch     = batch;
+        this.row       = row;
+    }
+
+    synchronized void insert(int id) {
+        live.put(id, new int[] { ++seq, 1 });
+        deleted.remove(id);
+    }
+
+    synchronized void edit(int id) {
+        int[] state = live.get(id);
+        state[0] = ++seq;
+        state[1]++;
+    }
+
+    synchronized void delete(int id) {
+        live.remove(id);
+        deleted.put(id, ++seq);
+    }
+
+    /** Everything, with a cursor: the answer to a request without since. */
+    synchronized String fullList() {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"count\":").append(live.size())
+            .append(",\"total_items\":").append(live.size())
+            .append(",\"cursor\":\"").append(seq).append("\",\"").append(arrayName).append("\":[");
+        boolean first = true;
+        for (Map.Entry<Integer, int[]> entry : live.descendingMap().entrySet()) {
+            if (!first) json.append(',');
+            json.append(row.apply(entry.getKey(), entry.getValue()[1]));
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * @param since cursor from the client; "" for everything as a snapshot
+     * @param limit the client's delta_limit, or 0 for none
+     */
+    synchronized String delta(String since, int limit) {
+        boolean snapshot = since.isEmpty();
+        int     after    = snapshot ? 0 : Integer.parseInt(since);
+        int     max      = limit > 0 ? Math.min(limit, batch) : batch;
+
+        // Changes after the cursor, oldest first: {seq, id, deleted}
+        List<int[]> changes = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> entry : live.entrySet()) {
+            if (entry.getValue()[0] > after) changes.add(new int[] { entry.getValue()[0], entry.getKey(), 0 });
+        }
+        if (!snapshot) {
+            for (Map.Entry<Integer, Integer> entry : deleted.entrySet()) {
+                if (entry.getValue() > after) changes.add(new int[] { entry.getValue(), entry.getKey(), 1 });
+            }
+        }
+        changes.sort((a, b) -> Integer.compare(a[0], b[0]));
+        boolean hasMore = changes.size() > max;
+        List<int[]> sent = hasMore ? changes.subList(0, max) : changes;
+        int cursor = hasMore ? sent.get(sent.size() - 1)[0] : seq;
+
+        StringBuilder rows = new StringBuilder();
+        StringBuilder ids  = new StringBuilder();
+        for (int[] change : sent) {
+            if (change[2] == 1) {
+                ids.append(ids.length() > 0 ? "," : "").append(change[1]);
+            } else {
+                rows.append(rows.length() > 0 ? "," : "").append(row.apply(change[1], live.get(change[1])[1]));
+            }
+        }
+        return "{\"success\":true,\"count\":" + live.size() + ",\"total_items\":" + live.size()
+            + ",\"cursor\":\"" + cursor + "\",\"full\":" + snapshot + ",\"has_more\":" + hasMore
+            + ",\"" + arrayName + "\":[" + rows + "],\"deleted_ids\":[" + ids + "]}";
+    }
+}
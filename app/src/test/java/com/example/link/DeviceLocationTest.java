@@ -0,0 +1,40 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DeviceLocationTest {
+
+    @Test
+    public void coordinatesShowAsSent() {
+        DeviceLocation row = new DeviceLocation();
+        row.setLatitude("14.59950000");
+        row.setLongitude("121.00000000");
+
+        assertEquals("14.59950000", row.getFormattedLatitude());
+        assertEquals("121.00000000", row.getFormattedLongitude());
+        assertEquals(14.5995, row.getLatitude(), 0);
+    }
+
+    @Test
+    public void zeroIsAPosition() {
+        DeviceLocation row = new DeviceLocation();
+        row.setLatitude("0.0");
+        row.setLongitude(0.0);
+
+        assertEquals("0.0", row.getFormattedLatitude());
+        assertEquals("0.0", row.getFormattedLongitude());
+    }
+
+    @Test
+    public void missingCoordinatesShowNA() {
+        DeviceLocation row = new DeviceLocation();
+        assertEquals("N/A", row.getFormattedLatitude());
+
+        row.setLongitude((String) null);
+        assertTrue(Double.isNaN(row.getLongitude()));
+        assertEquals("N/A", row.getFormattedLongitude());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.link;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistoryFilterTest {
+
+    @Test
+    public void noFilterIsJustTheTenant() {
+        assertTrue(HistoryFilter.NONE.isEmpty());
+        assertEquals("", HistoryFilter.NONE.describe());
+        assertEquals("tenant = ?", HistoryFilter.NONE.selection());
+        assertArrayEquals(new String[]{"7:3"}, HistoryFilter.NONE.selectionArgs("7:3"));
+    }
+
+    @Test
+    public void reversedDatesAreSwapped() {
+        HistoryFilter filter = HistoryFilter.NONE.withDates("2025-03-07", "2025-03-01");
+
+        assertEquals("2025-03-01", filter.fromDate);
+        assertEquals("2025-03-07", filter.toDate);
+        assertEquals("2025-03-01 – 2025-03-07", filter.describe());
+        assertArrayEquals(new String[]{"t", "2025-03-01 00:00:00", "2025-03-07 23:59:59"},
+            filter.selectionArgs("t"));
+        assertEquals("… – 2025-03-07", HistoryFilter.NONE.withDates(null, "2025-03-07").describe());
+    }
+
+    @Test
+    public void serialPrefixIsTrimmedAndUpperCased() {
+        assertEquals("TX-2026", HistoryFilter.NONE.withSerialPrefix("  tx-2026 ").serialPrefix);
+        assertNull(HistoryFilter.NONE.withSerialPrefix("   ").serialPrefix);
+        assertTrue(HistoryFilter.NONE.withSerialPrefix(null).isEmpty());
+    }
+
+    @Test
+    public void everyPartNarrowsTheSelection() {
+        HistoryFilter filter = HistoryFilter.NONE
+            .withDates("2025-03-01", null)
+            .withResolver("Ana Cruz")
+            .withSerialPrefix("tx-2026");
+
+        assertFalse(filter.isEmpty());
+        assertEquals("2025-03-01 – … · Ana Cruz · TX-2026…", filter.describe());
+        assertEquals("tenant = ? AND resolved_at >= ? AND resolved_by_name = ?"
+            + " AND transmitter_serial >= ? AND transmitter_serial < ?", filter.selection());
+        assertArrayEquals(new String[]{"t", "2025-03-01 00:00:00", "Ana Cruz", "TX-2026", "TX-2026\uffff"},
+            filter.selectionArgs("t"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.link;
+
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The POST calls, which ride a plain JsonObjectRequest rather than an
+ * {@link ApiRequest}: cancelling the request settles the call.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LinkApiTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private TestServer server;
+    private LinkApi    api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestServer(exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TestServer.respond(exchange, 200, "{\"success\":true}");
+        });
+        api = new LinkApi(RuntimeEnvironment.getApplication(), server.url(""));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.close();
+    }
+
+    @Test
+    public void answeredPostCompletes() throws Exception {
+        release.countDown();
+        ApiCall<JSONObject> call = api.login("staff@example.test", "secret");
+
+        TestServer.await(call::isDone);
+        assertTrue(call.get().getBoolean("success"));
+    }
+
+    @Test
+    public void cancelledPostCompletesWithCancellation() throws Exception {
+        ApiCall<JSONObject> call = api.login("staff@example.test", "secret");
+        TestServer.await(() -> server.hits() == 1);
+
+        // What ApiClient.cancelAll(tag) and a destroyed RequestScope do to the request
+        call.getRequest().cancel();
+        release.countDown();
+
+        TestServer.await(call::isDone);
+        assertTrue(call.isCancelled());
+        try {
+            call.join();
+        } catch (CancellationException expected) {
+            return;
+        }
+        throw new AssertionError("completed normally");
+    }
+
+    @Test
+    public void cancellingTheCallCancelsTheRequest() throws Exception {
+        ApiCall<JSONObject> call = api.login("staff@example.test", "secret");
+        TestServer.await(() -> server.hits() == 1);
+
+        assertTrue(call.cancel(false));
+        assertTrue(call.getRequest().isCanceled());
+    }
+}
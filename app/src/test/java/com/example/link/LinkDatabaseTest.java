@@ -0,0 +1,250 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class LinkDatabaseTest {
+
+    private static final String TENANT = LinkDatabase.tenant(7, 3);
+
+    private Context      context;
+    private LinkDatabase db;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        db = new LinkDatabase(context);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Device activities
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void activitiesKeepAltitudeAndSpeed() {
+        DeviceLocation row = activity(1, "2025-03-07 21:05:00");
+        row.setAltitude(123.5);
+        row.setSpeed(4.25);
+        db.mergeDeviceActivities(TENANT, false, Collections.singletonList(row), null, true);
+
+        DeviceLocation stored = db.getDeviceActivities(TENANT, false).get(0);
+        assertEquals(123.5, stored.getAltitude(), 0);
+        assertEquals(4.25, stored.getSpeed(), 0);
+        assertEquals(14.5, stored.getLatitude(), 0);
+    }
+
+    @Test
+    public void activitiesKeepCoordinatesAsSent() {
+        DeviceLocation sent    = activity(1, "2025-03-07 21:05:00");
+        DeviceLocation missing = activity(2, "2025-03-07 20:05:00");
+        sent.setLatitude("14.59950000");
+        sent.setLongitude("0.0");
+        missing.setLatitude((String) null);
+        missing.setLongitude((String) null);
+        db.mergeDeviceActivities(TENANT, false, Arrays.asList(sent, missing), null, true);
+
+        List<DeviceLocation> rows = db.getDeviceActivities(TENANT, false);
+        assertEquals("14.59950000", rows.get(0).getFormattedLatitude());
+        assertEquals("0.0", rows.get(0).getFormattedLongitude());
+        assertEquals("N/A", rows.get(1).getFormattedLatitude());
+        assertTrue(Double.isNaN(rows.get(1).getLongitude()));
+    }
+
+    @Test
+    public void activityDeltasUpsertAndDeleteById() {
+        db.mergeDeviceActivities(TENANT, false, Arrays.asList(
+            activity(1, "2025-03-07 10:00:00"), activity(2, "2025-03-07 11:00:00")), null, true);
+
+        DeviceLocation edited = activity(1, "2025-03-07 12:00:00");
+        edited.setCustomerName("Edited");
+        db.mergeDeviceActivities(TENANT, false, Arrays.asList(edited, activity(3, "2025-03-07 09:00:00")),
+            Collections.singletonList(2), false);
+
+        List<DeviceLocation> rows = db.getDeviceActivities(TENANT, false);
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).getId());   // newest first
+        assertEquals("Edited", rows.get(0).getCustomerName());
+        assertEquals(3, rows.get(1).getId());
+    }
+
+    @Test
+    public void activityPagesComeFromTheMergedCopy() {
+        db.mergeDeviceActivities(TENANT, false, Arrays.asList(activity(1, "2025-03-07 10:00:00"),
+            activity(2, "2025-03-07 11:00:00"), activity(3, "2025-03-07 12:00:00")), null, true);
+        db.mergeDeviceActivities(TENANT, false, Collections.singletonList(activity(4, "2025-03-07 13:00:00")),
+            Collections.emptyList(), false);
+
+        List<DeviceLocation> second = db.getDeviceActivities(TENANT, false, 2, 2);
+        assertEquals(2, second.size());
+        assertEquals(2, second.get(0).getId());
+        assertEquals(1, second.get(1).getId());
+        assertEquals(1, db.getDeviceActivities(TENANT, false, 3, -1).size());
+    }
+
+    @Test
+    public void cursorsArePerTenant() {
+        String key = LinkDatabase.STATE_ACTIVITIES_CURSOR + 0;
+        db.putState(TENANT, key, "2025-03-07 21:05:00|17");
+
+        assertEquals("2025-03-07 21:05:00|17", db.getState(TENANT, key));
+        assertNull(db.getState(LinkDatabase.tenant(7, 0), key));
+        db.removeState(TENANT, key);
+        assertNull(db.getState(TENANT, key));
+    }
+
+    @Test
+    public void tenantsAndFiltersAreSeparate() {
+        db.mergeDeviceActivities(TENANT, false, Collections.singletonList(activity(1, "2025-03-07 10:00:00")),
+            null, true);
+
+        assertEquals(0, db.countDeviceActivities(LinkDatabase.tenant(7, 0), false));
+        assertEquals(0, db.countDeviceActivities(TENANT, true));
+        assertEquals(1, db.countDeviceActivities(TENANT, false));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Resolved SOS history
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void historyPagesNewestFirst() {
+        db.replaceResolvedSos(TENANT, Arrays.asList(
+            resolved(1, "TX-2026-01", "Ana", "2025-03-01 10:00:00"),
+            resolved(2, "TX-2026-02", "Ben", "2025-03-03 10:00:00"),
+            resolved(3, "TX-2026-03", "Ana", "2025-03-05 10:00:00"),
+            resolved(4, "TX-2027-01", "Ben", "2025-03-07 10:00:00")));
+
+        assertEquals(Arrays.asList(4, 3), ids(db.getResolvedSos(TENANT, HistoryFilter.NONE, 0, 2)));
+        assertEquals(Arrays.asList(2, 1), ids(db.getResolvedSos(TENANT, HistoryFilter.NONE, 2, 2)));
+        assertTrue(db.getResolvedSos(TENANT, HistoryFilter.NONE, 4, 2).isEmpty());
+        assertEquals(0, db.countResolvedSos(LinkDatabase.tenant(7, 0)));
+    }
+
+    @Test
+    public void historyFiltersByDatesResolverAndSerial() {
+        db.replaceResolvedSos(TENANT, Arrays.asList(
+            resolved(1, "TX-2026-01", "Ana", "2025-03-01 10:00:00"),
+            resolved(2, "TX-2026-02", "Ben", "2025-03-03 23:59:59"),
+            resolved(3, "TX-2026-03", "Ana", "2025-03-05 10:00:00"),
+            resolved(4, "TX-2027-01", "Ben", "2025-03-07 10:00:00")));
+
+        HistoryFilter dates = HistoryFilter.NONE.withDates("2025-03-05", "2025-03-02");
+        assertEquals(Arrays.asList(3, 2), ids(db.getResolvedSos(TENANT, dates, 0, 10)));
+        assertEquals(2, db.countResolvedSos(TENANT, dates));
+
+        HistoryFilter ana = HistoryFilter.NONE.withResolver("Ana");
+        assertEquals(Arrays.asList(3), ids(db.getResolvedSos(TENANT, ana, 0, 1)));
+        assertEquals(Arrays.asList(1), ids(db.getResolvedSos(TENANT, ana, 1, 1)));
+
+        HistoryFilter serial = HistoryFilter.NONE.withSerialPrefix(" tx-2026 ");
+        assertEquals(3, db.countResolvedSos(TENANT, serial));
+        assertEquals(Arrays.asList(2), ids(db.getResolvedSos(TENANT, serial.withResolver("Ben"), 0, 10)));
+
+        assertEquals(Arrays.asList("Ana", "Ben"), db.getResolvers(TENANT));
+    }
+
+    @Test
+    public void resolvedDeltaUpsertsEditsAndDropsDeletedIds() throws Exception {
+        db.replaceResolvedSos(TENANT, resolved(
+            "{'success':true,'cursor':'c1','alerts':[" + alert(1, "") + "," + alert(2, "") + "," + alert(3, "") + "]}").items);
+
+        ApiParsers.ListResult<SOSAlert> delta = resolved(
+            "{'success':true,'cursor':'c2','deleted_ids':[3],'alerts':[" + alert(2, "False alarm") + "," + alert(4, "") + "]}");
+        db.mergeResolvedSos(TENANT, delta.items, delta.deletedIds);
+
+        List<SOSAlert> rows = db.getResolvedSos(TENANT, HistoryFilter.NONE, 0, 10);
+        assertEquals(Arrays.asList(4, 2, 1), ids(rows));
+        assertEquals("False alarm", rows.get(1).getResolutionNotes());
+    }
+
+    @Test
+    public void fullAnswerReplacesTheLocalCopy() throws Exception {
+        db.mergeResolvedSos(TENANT, resolved("{'success':true,'alerts':[" + alert(1, "") + "," + alert(2, "") + "]}").items,
+            Collections.emptyList());
+        db.replaceResolvedSos(TENANT, resolved("{'success':true,'full':true,'alerts':[" + alert(5, "") + "]}").items);
+
+        assertEquals(1, db.countResolvedSos(TENANT));
+        assertEquals(5, db.getResolvedSos(TENANT, HistoryFilter.NONE, 0, 10).get(0).getId());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Versions
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void downgradeRebuildsTheCachesAndKeepsTheOutbox() {
+        db.mergeDeviceActivities(TENANT, false, Collections.singletonList(activity(1, "2025-03-07 10:00:00")),
+            null, true);
+        db.addOutbox(new Outbox.Entry(0, "key-1", "ack", "TX-1", "https://example.test/ack.php", "{}",
+            RequestLane.CRITICAL, 10_000, 1, 0, 0));
+        int version = db.getReadableDatabase().getVersion();
+        db.close();
+
+        // A newer build left the file at a higher version
+        File file = context.getDatabasePath("link.db");
+        SQLiteDatabase raw = SQLiteDatabase.openDatabase(file.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        raw.setVersion(version + 1);
+        raw.close();
+
+        db = new LinkDatabase(context);
+        assertEquals(version, db.getReadableDatabase().getVersion());
+        assertEquals(0, db.countDeviceActivities(TENANT, false));
+        assertEquals(1, db.countOutbox());
+        assertTrue(db.nextOutbox(RequestLane.CRITICAL, 1) != null);
+    }
+
+    private static ApiParsers.ListResult<SOSAlert> resolved(String body) throws Exception {
+        return ApiParsers.RESOLVED_SOS.parse(ApiParsersTest.json(body), "UTF-8");
+    }
+
+    /** A resolved alert as JSON; a higher id was resolved later. */
+    private static String alert(int id, String notes) {
+        return "{'id':" + id + ",'transmitter_serial':'TX-" + id + "','resolved_by_name':'Ana',"
+            + "'resolved_at':'2025-03-0" + id + " 10:00:00','resolution_notes':'" + notes + "'}";
+    }
+
+    private static SOSAlert resolved(int id, String serial, String resolvedBy, String resolvedAt) {
+        return new SOSAlert(id, serial, id, "Customer " + id, "", 14.5, 121.0, 80, -70,
+            resolvedAt, resolvedAt, resolvedBy, resolvedAt, resolvedBy, "");
+    }
+
+    private static List<Integer> ids(List<SOSAlert> alerts) {
+        List<Integer> ids = new ArrayList<>();
+        for (SOSAlert alert : alerts) ids.add(alert.getId());
+        return ids;
+    }
+
+    private static DeviceLocation activity(int id, String recordedAt) {
+        DeviceLocation row = new DeviceLocation();
+        row.setId(id);
+        row.setSerialNumber("TX-" + id);
+        row.setCustomerName("Customer " + id);
+        row.setLatitude(14.5);
+        row.setLongitude(121.0);
+        row.setDateTime(recordedAt);
+        return row;
+    }
+}
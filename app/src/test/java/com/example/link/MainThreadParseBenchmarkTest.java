@@ -0,0 +1,127 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.Request;
+import com.android.volley.toolbox.JsonObjectRequest;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Main-thread time to turn a 5,000-row get_device_activities.php answer into
+ * models, both ways, through the real ApiClient and a local server:
+ *
+ *   before  JsonObjectRequest; the listener walks the JSONObject on the main
+ *           thread with has()/getString() chains, as the screens used to
+ *   after   ApiRequest with ApiParsers; the dispatcher builds the list and the
+ *           listener only receives it
+ *
+ * Only the listener is timed: that is all the main thread does either way.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MainThreadParseBenchmarkTest {
+
+    private static final int ROWS   = 5_000;
+    private static final int ROUNDS = 7;
+
+    @Test
+    public void modelsAreBuiltOffTheMainThread() throws Exception {
+        byte[] body = Payloads.deviceActivities(ROWS).getBytes(StandardCharsets.UTF_8);
+        ApiClient client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+
+        long[] before = new long[ROUNDS];
+        long[] after  = new long[ROUNDS];
+        try (TestServer server = new TestServer(exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        })) {
+            for (int round = 0; round < ROUNDS; round++) {
+                String url = server.url("get_device_activities.php?round=" + round);
+                before[round] = oldWay(client, url + "&old");
+                after[round]  = newWay(client, url + "&new");
+            }
+        }
+
+        long oldMs = median(before), newMs = median(after);
+        System.out.printf("%,d rows, main thread per response (median of %d): org.json walk %.2f ms, "
+            + "ApiParsers delivery %.3f ms%n", ROWS, ROUNDS, oldMs / 1e6, newMs / 1e6);
+        assertTrue(newMs < oldMs);
+    }
+
+    private static long oldWay(ApiClient client, String url) throws InterruptedException {
+        AtomicReference<Long> elapsed = new AtomicReference<>();
+        client.add(new JsonObjectRequest(Request.Method.GET, url, null, response -> {
+            long start = System.nanoTime();
+            List<DeviceLocation> rows;
+            try {
+                rows = walk(response);
+            } catch (JSONException e) {
+                throw new AssertionError(e);
+            }
+            elapsed.set(System.nanoTime() - start);
+            assertEquals(ROWS, rows.size());
+        }, error -> { throw new AssertionError(error); }));
+        TestServer.await(() -> elapsed.get() != null);
+        return elapsed.get();
+    }
+
+    private static long newWay(ApiClient client, String url) throws InterruptedException {
+        AtomicReference<Long> elapsed = new AtomicReference<>();
+        List<DeviceLocation> shown = new ArrayList<>();
+        client.add(new ApiRequest<>(url, ApiParsers.DEVICE_ACTIVITIES, result -> {
+            long start = System.nanoTime();
+            shown.addAll(result.items);
+            elapsed.set(System.nanoTime() - start);
+        }, error -> { throw new AssertionError(error); }));
+        TestServer.await(() -> elapsed.get() != null);
+        assertEquals(ROWS, shown.size());
+        return elapsed.get();
+    }
+
+    /** DeviceLocationActivity's listener before the parsing moved to the dispatcher. */
+    private static List<DeviceLocation> walk(JSONObject response) throws JSONException {
+        List<DeviceLocation> rows = new ArrayList<>();
+        if (!response.getBoolean("success")) return rows;
+        JSONArray data = response.getJSONArray("data");
+        for (int i = 0; i < data.length(); i++) {
+            JSONObject obj = data.getJSONObject(i);
+            DeviceLocation row = new DeviceLocation();
+            if (obj.has("id")) row.setId(obj.getInt("id"));
+            if (obj.has("serial_number")) row.setSerialNumber(obj.getString("serial_number"));
+            if (obj.has("latitude")) row.setLatitude(obj.getString("latitude"));
+            if (obj.has("longitude")) row.setLongitude(obj.getString("longitude"));
+            if (obj.has("recorded_at")) row.setDateTime(obj.getString("recorded_at"));
+            if (obj.has("customer_name")) row.setCustomerName(obj.getString("customer_name"));
+            if (obj.has("customer_contact")) row.setCustomerContact(obj.getString("customer_contact"));
+            if (obj.has("battery_percent") && !obj.isNull("battery_percent")) {
+                row.setBatteryPercent(obj.getInt("battery_percent"));
+            }
+            if (obj.has("device_owner")) row.setDeviceOwner(obj.getString("device_owner"));
+            if (obj.has("assigned_by")) row.setAssignedBy(obj.getInt("assigned_by"));
+            if (obj.has("assigned_by_name")) row.setAssignedByName(obj.getString("assigned_by_name"));
+            if (obj.has("assigned_at")) row.setAssignedAt(obj.getString("assigned_at"));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.link.NetworkQuality.Mode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class NetworkQualityTest {
+
+    @Test
+    public void linksAreClassifiedByDownstreamEstimate() {
+        assertEquals(Mode.FULL, NetworkQuality.classify(50_000, false));      // LTE
+        assertEquals(Mode.FULL, NetworkQuality.classify(2_000, true));
+        assertEquals(Mode.REDUCED, NetworkQuality.classify(1_999, false));    // 3G
+        assertEquals(Mode.REDUCED, NetworkQuality.classify(250, false));
+        assertEquals(Mode.MINIMAL, NetworkQuality.classify(249, false));      // EDGE
+        assertEquals(Mode.MINIMAL, NetworkQuality.classify(40, true));        // GPRS
+    }
+
+    @Test
+    public void meteredLinkWithoutAnEstimateIsReduced() {
+        assertEquals(Mode.FULL, NetworkQuality.classify(0, false));
+        assertEquals(Mode.REDUCED, NetworkQuality.classify(0, true));
+    }
+
+    @Test
+    public void modesShrinkPagesAndStretchPolls() {
+        assertEquals(50, Mode.FULL.scale(50));
+        assertEquals(25, Mode.REDUCED.scale(50));
+        assertEquals(12, Mode.MINIMAL.scale(50));
+        assertEquals(1, Mode.MINIMAL.scale(2));   // never down to nothing
+
+        assertEquals(1, Mode.FULL.slowdown());
+        assertEquals(2, Mode.REDUCED.slowdown());
+        assertEquals(4, Mode.MINIMAL.slowdown());
+    }
+}
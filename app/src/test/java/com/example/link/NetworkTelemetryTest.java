@@ -0,0 +1,90 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.link.NetworkTelemetry.ErrorClass;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.net.ssl.SSLHandshakeException;
+
+public class NetworkTelemetryTest {
+
+    private final NetworkTelemetry telemetry = new NetworkTelemetry();
+
+    @Test
+    public void attemptsRetriesAndErrorsAreCounted() {
+        telemetry.record("get_devices.php", 0, ErrorClass.TIMEOUT, -1, 10_000, 200, 0, 0);
+        telemetry.record("get_devices.php", 503, ErrorClass.HTTP_5XX, 40, 45, 200, 30, 1);
+        telemetry.record("get_devices.php", 200, ErrorClass.NONE, 60, 80, 200, 970, 2);
+
+        String stats = telemetry.getStats();
+        assertTrue(stats, stats.startsWith("get_devices.php\n  3 attempts, 2 retries, 67% failed"));
+        assertTrue(stats, stats.contains("Avg sent / received 200 / 333 B"));
+        assertTrue(stats, stats.contains("Errors: TIMEOUT×1 HTTP_5XX×1"));
+    }
+
+    @Test
+    public void percentilesOnlyCountAnsweredAttempts() {
+        telemetry.record("get_devices.php", 0, ErrorClass.TIMEOUT, -1, 30_000, 200, 0, 0);
+        assertEquals(-1, telemetry.percentileMs("get_devices.php", 0.95, 1));
+
+        for (int i = 0; i < 19; i++) {
+            telemetry.record("get_devices.php", 200, ErrorClass.NONE, 20, 80, 200, 500, 0);
+        }
+        assertEquals(-1, telemetry.percentileMs("get_devices.php", 0.95, 20));
+        telemetry.record("get_devices.php", 200, ErrorClass.NONE, 9_000, 12_000, 200, 500, 0);
+
+        assertEquals(100, telemetry.percentileMs("get_devices.php", 0.95, 20));
+        assertEquals(20_000, telemetry.percentileMs("get_devices.php", 1.0, 20));   // open bucket
+        assertEquals(-1, telemetry.percentileMs("get_sos.php", 0.5, 0));
+    }
+
+    @Test
+    public void failuresAreClassified() {
+        assertEquals(ErrorClass.NONE, NetworkTelemetry.classify(304));
+        assertEquals(ErrorClass.HTTP_4XX, NetworkTelemetry.classify(404));
+        assertEquals(ErrorClass.HTTP_5XX, NetworkTelemetry.classify(502));
+        assertEquals(ErrorClass.TIMEOUT, NetworkTelemetry.classify(new SocketTimeoutException()));
+        assertEquals(ErrorClass.DNS, NetworkTelemetry.classify(new UnknownHostException()));
+        assertEquals(ErrorClass.CONNECT, NetworkTelemetry.classify(new ConnectException()));
+        assertEquals(ErrorClass.TLS, NetworkTelemetry.classify(new SSLHandshakeException("bad cert")));
+        assertEquals(ErrorClass.IO, NetworkTelemetry.classify(new IOException()));
+    }
+
+    @Test
+    public void exportKeepsTheNewestAttemptsOldestFirst() throws IOException {
+        int count = NetworkTelemetry.RING_SIZE + 2;
+        for (int i = 0; i < count; i++) {
+            telemetry.record("get_devices.php", 200, ErrorClass.NONE, 10, 20, i, 100, 0);
+        }
+        StringWriter out = new StringWriter();
+        telemetry.export(out);
+
+        List<String> rows = new ArrayList<>();
+        for (String line : out.toString().split("\n")) {
+            if (!line.startsWith("#") && !line.startsWith("time,")) rows.add(line);
+        }
+        assertEquals(NetworkTelemetry.RING_SIZE, rows.size());
+        assertEquals("2", rows.get(0).split(",")[6]);
+        assertEquals(String.valueOf(count - 1), rows.get(rows.size() - 1).split(",")[6]);
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        telemetry.record("get_devices.php", 200, ErrorClass.NONE, 10, 20, 200, 100, 0);
+        telemetry.reset();
+
+        assertEquals("No requests yet", telemetry.getStats());
+        assertEquals(-1, telemetry.percentileMs("get_devices.php", 0.5, 0));
+    }
+}
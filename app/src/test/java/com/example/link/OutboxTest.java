@@ -0,0 +1,113 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ParseError;
+import com.android.volley.ServerError;
+import com.android.volley.VolleyError;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class OutboxTest {
+
+    private static final long NOW = 1_000_000;
+
+    private Context      context;
+    private LinkDatabase db;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        db      = new LinkDatabase(context);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Order
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void oldestWriteGoesFirst() {
+        long ack = db.addOutbox(entry("acknowledge_sos", "TX-1", RequestLane.CRITICAL));
+        db.addOutbox(entry("acknowledge_sos", "TX-2", RequestLane.CRITICAL));
+
+        assertEquals(ack, db.nextOutbox(RequestLane.CRITICAL, NOW).id);
+    }
+
+    @Test
+    public void writeWaitsOnlyForOlderWritesToTheSameTransmitter() {
+        long ack     = db.addOutbox(entry("acknowledge_sos", "TX-1", RequestLane.CRITICAL));
+        long resolve = db.addOutbox(entry("resolve_sos", "TX-1", RequestLane.CRITICAL));
+        long other   = db.addOutbox(entry("acknowledge_sos", "TX-2", RequestLane.CRITICAL));
+
+        // The acknowledge is backing off: its resolve waits, TX-2 goes ahead
+        db.markOutboxAttempt(ack, 1, NOW + 2_000, "503");
+        assertEquals(other, db.nextOutbox(RequestLane.CRITICAL, NOW).id);
+
+        db.removeOutbox(other);
+        assertNull(db.nextOutbox(RequestLane.CRITICAL, NOW));
+        assertEquals(NOW + 2_000, (long) db.nextOutboxAttemptAt(RequestLane.CRITICAL));
+
+        assertEquals(ack, db.nextOutbox(RequestLane.CRITICAL, NOW + 2_000).id);
+        db.removeOutbox(ack);
+        assertEquals(resolve, db.nextOutbox(RequestLane.CRITICAL, NOW).id);
+    }
+
+    @Test
+    public void lanesDrainOnTheirOwn() {
+        long assign = db.addOutbox(entry("assign_device", "TX-1", RequestLane.INTERACTIVE));
+        db.markOutboxAttempt(assign, 1, NOW + 60_000, "503");
+        long ack = db.addOutbox(entry("acknowledge_sos", "TX-1", RequestLane.CRITICAL));
+
+        assertEquals(ack, db.nextOutbox(RequestLane.CRITICAL, NOW).id);
+        assertNull(db.nextOutbox(RequestLane.INTERACTIVE, NOW));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Answers
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void answersAreClassified() {
+        assertTrue(Outbox.isFinal(status(400)));
+        assertTrue(Outbox.isFinal(status(409)));
+        assertFalse(Outbox.isFinal(status(408)));
+        assertTrue(Outbox.isServerError(status(408)));
+        assertTrue(Outbox.isServerError(status(429)));
+        assertTrue(Outbox.isServerError(status(503)));
+
+        // Captive portals and dead links: neither final nor the server's fault
+        for (VolleyError error : new VolleyError[]{new ParseError(), new NoConnectionError()}) {
+            assertFalse(Outbox.isFinal(error));
+            assertFalse(Outbox.isServerError(error));
+        }
+    }
+
+    private static Outbox.Entry entry(String kind, String transmitter, RequestLane lane) {
+        return new Outbox.Entry(0, kind + "-" + System.nanoTime(), kind, transmitter,
+            "https://example.test/" + kind + ".php", "{}", lane, 10_000, NOW, 0, 0);
+    }
+
+    private static ServerError status(int code) {
+        return new ServerError(new NetworkResponse(code, new byte[0], false, 0, Collections.emptyList()));
+    }
+}
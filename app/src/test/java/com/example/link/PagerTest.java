@@ -0,0 +1,211 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Pager} behind a real RecyclerView ten rows tall: when the next and
+ * previous pages are asked for, and how many pages stay in memory. Pages are
+ * answered by hand, so a request still in flight stays visible.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PagerTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH  = 5;
+    private static final int TOTAL     = 200;
+    private static final int ROW_PX    = 100;
+    private static final int HEIGHT_PX = 10 * ROW_PX;
+
+    private static final DiffUtil.ItemCallback<Integer> DIFF = new DiffUtil.ItemCallback<Integer>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Integer oldItem, @NonNull Integer newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Integer oldItem, @NonNull Integer newItem) {
+            return true;
+        }
+    };
+
+    private final List<String>                                          requests = new ArrayList<>();   // "page×limit"
+    private final Map<Integer, ApiCall<ApiParsers.ListResult<Integer>>> pending  = new HashMap<>();
+    private final Map<Integer, Integer>                                 limits   = new HashMap<>();
+
+    private RecyclerView   recyclerView;
+    private Pager<Integer> pager;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        pager = new Pager<>(PAGE_SIZE, this::load, DIFF, new Pager.Callback<Integer>() {
+            @Override
+            public void onRefreshed(ApiParsers.ListResult<Integer> result) {
+            }
+
+            @Override
+            public void onError(Throwable error, boolean refresh) {
+                throw new AssertionError(error);
+            }
+        }).setPrefetchDistance(PREFETCH);
+
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+            @NonNull
+            @Override
+            public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+                TextView row = new TextView(parent.getContext());
+                row.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_PX));
+                return new RecyclerView.ViewHolder(row) { };
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+                ((TextView) holder.itemView).setText(String.valueOf(pager.getItems().get(position)));
+            }
+
+            @Override
+            public int getItemCount() {
+                return pager.getItems().size();
+            }
+        });
+        pager.attach(recyclerView);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Prefetch
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void firstLoadFetchesTheInitialPagesInOneRequest() {
+        pager.setInitialPages(2).refresh();
+        answer(1);
+
+        assertEquals(Arrays.asList("1×40"), requests);
+        assertEquals(40, pager.getItems().size());
+        assertEquals(39, (int) pager.getItems().get(39));
+    }
+
+    @Test
+    public void nextPageIsRequestedWithinPrefetchDistanceOfTheEnd() {
+        pager.refresh();
+        answer(1);
+
+        scrollTo(4);                        // rows 4–13: six rows short of the edge
+        assertEquals(Arrays.asList("1×20"), requests);
+
+        scrollTo(5);                        // rows 5–14: PREFETCH rows from the last loaded row
+        assertEquals(Arrays.asList("1×20", "2×20"), requests);
+
+        // Still in flight: scrolling further does not ask again
+        scrollTo(10);
+        assertEquals(2, requests.size());
+
+        answer(2);
+        assertEquals(40, pager.getItems().size());
+        assertEquals(20, (int) pager.getItems().get(20));
+    }
+
+    @Test
+    public void nothingIsRequestedPastTheTotal() {
+        pager.refresh();
+        answer(1);
+        for (int page = 2; page <= TOTAL / PAGE_SIZE; page++) {
+            scrollTo(pager.getItems().size() - 1);
+            answer(page);
+        }
+        scrollTo(pager.getItems().size() - 1);
+
+        assertEquals(TOTAL / PAGE_SIZE, requests.size());
+        assertTrue(pager.isAtEnd());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Memory cap
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void pagesPastTheCapAreDroppedAndFetchedAgainOnTheWayBack() {
+        pager.setMaxPages(3).refresh();
+        answer(1);
+        for (int page = 2; page <= 4; page++) {
+            scrollTo(pager.getItems().size() - 1);
+            answer(page);
+        }
+
+        // Page 1 made room for page 4
+        assertEquals(3 * PAGE_SIZE, pager.getItems().size());
+        assertEquals(PAGE_SIZE, (int) pager.getItems().get(0));
+        assertEquals(4 * PAGE_SIZE - 1, (int) pager.getItems().get(pager.getItems().size() - 1));
+        assertTrue(pager.getStats(), pager.getStats().contains("In memory: pages 2–4, 60 rows of 200"));
+
+        // Back at the top, page 1 is fetched again and page 4 goes
+        scrollTo(0);
+        assertEquals("1×20", requests.get(requests.size() - 1));
+        answer(1);
+        assertEquals(3 * PAGE_SIZE, pager.getItems().size());
+        assertEquals(0, (int) pager.getItems().get(0));
+        assertEquals(3 * PAGE_SIZE - 1, (int) pager.getItems().get(pager.getItems().size() - 1));
+        assertTrue(pager.getStats(), pager.getStats().contains("In memory: pages 1–3, 60 rows of 200"));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private ApiCall<ApiParsers.ListResult<Integer>> load(int page, int limit) {
+        ApiCall<ApiParsers.ListResult<Integer>> call = new ApiCall<>();
+        requests.add(page + "×" + limit);
+        pending.put(page, call);
+        limits.put(page, limit);
+        return call;
+    }
+
+    /** Answers the pending request for {@code page} with rows numbered by their offset, then lays out. */
+    private void answer(int page) {
+        int limit = limits.get(page);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = (page - 1) * limit; row < Math.min(page * limit, TOTAL); row++) {
+            rows.add(row);
+        }
+        pending.remove(page).complete(new ApiParsers.ListResult<>(ApiParsers.localEnvelope(), rows, TOTAL));
+        layout();
+    }
+
+    /** Puts {@code position} at the top (or as near as the end of the list allows). */
+    private void scrollTo(int position) {
+        ((LinearLayoutManager) recyclerView.getLayoutManager()).scrollToPositionWithOffset(position, 0);
+        layout();
+    }
+
+    private void layout() {
+        recyclerView.measure(
+            View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, HEIGHT_PX, HEIGHT_PX);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocation and throughput of the streaming history parser against the
+ * org.json tree walk it replaced, over the same 5,000-alert
+ * get_resolved_sos.php body. Allocation is what this thread allocated
+ * (com.sun.management.ThreadMXBean) per parse; throughput is parses per
+ * second after a warm-up.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ParserAllocationBenchmarkTest {
+
+    private static final int ROWS       = 5_000;
+    private static final int WARMUP     = 10;
+    private static final int ITERATIONS = 20;
+
+    private interface Parse {
+        List<SOSAlert> run(byte[] data) throws Exception;
+    }
+
+    @Test
+    public void streamingAllocatesLessThanTheTree() throws Exception {
+        byte[] body = Payloads.resolvedSos(ROWS).getBytes(StandardCharsets.UTF_8);
+
+        Parse streaming = data -> ApiParsers.RESOLVED_SOS.parse(data, "utf-8").items;
+        Parse tree      = ParserAllocationBenchmarkTest::orgJson;
+        assertEquals(ROWS, streaming.run(body).size());
+        assertEquals(ROWS, tree.run(body).size());
+
+        double[] streamed = measure(streaming, body);
+        double[] walked   = measure(tree, body);
+        System.out.printf("%,d alerts (%,d bytes): ApiParsers %,.0f B/parse %.1f ops/s, "
+                + "org.json %,.0f B/parse %.1f ops/s%n",
+            ROWS, body.length, streamed[0], streamed[1], walked[0], walked[1]);
+
+        assertTrue(streamed[0] < walked[0]);
+    }
+
+    /** @return bytes allocated per parse and parses per second */
+    private static double[] measure(Parse parse, byte[] body) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) parse.run(body);
+
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) parse.run(body);
+        long elapsed = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+        return new double[] { (double) bytes / ITERATIONS, ITERATIONS * 1e9 / elapsed };
+    }
+
+    /** ApiParsers.RESOLVED_SOS before it streamed: the whole body as a JSONObject tree. */
+    private static List<SOSAlert> orgJson(byte[] data) throws Exception {
+        JSONObject json = new JSONObject(new String(data, StandardCharsets.UTF_8));
+        List<SOSAlert> alerts = new ArrayList<>();
+        JSONArray array = json.optBoolean("success") ? json.getJSONArray("alerts") : null;
+        int length = array != null ? array.length() : 0;
+        for (int i = 0; i < length; i++) {
+            JSONObject obj = array.getJSONObject(i);
+            alerts.add(new SOSAlert(
+                obj.getInt("id"),
+                obj.getString("transmitter_serial"),
+                obj.getInt("assignment_id"),
+                obj.getString("customer_name"),
+                obj.optString("customer_contact", ""),
+                obj.getDouble("latitude"),
+                obj.getDouble("longitude"),
+                obj.getInt("battery_percent"),
+                obj.getInt("rssi"),
+                obj.getString("alert_time"),
+                obj.optString("acknowledged_at", null),
+                obj.optString("acknowledged_by_name", "Unknown"),
+                obj.optString("resolved_at", null),
+                obj.optString("resolved_by_name", "Unknown"),
+                obj.optString("resolution_notes", "")
+            ));
+        }
+        return alerts;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.link;
+
+import java.util.Locale;
+
+/** Synthetic list responses shaped like the server's, for the benchmarks. */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /** get_device_activities.php with {@code rows} rows. */
+    static String deviceActivities(int rows) {
+        StringBuilder json = new StringBuilder(rows * 400);
+        json.append("{\"success\":true,\"total_items\":").append(rows).append(",\"filter_status\":\"all\",\"data\":[");
+        for (int i = 1; i <= rows; i++) {
+            if (i > 1) json.append(',');
+            json.append(String.format(Locale.US,
+                "{\"id\":%d,\"serial_number\":\"TX-2026-%05d\",\"latitude\":\"%.8f\",\"longitude\":\"%.8f\","
+                    + "\"altitude\":%.1f,\"speed\":%.2f,\"recorded_at\":\"2025-03-%02d %02d:%02d:%02d\","
+                    + "\"customer_name\":\"Customer %d\",\"customer_contact\":\"0917%07d\",\"battery_percent\":%d,"
+                    + "\"device_owner\":\"Owner %d\",\"assigned_by\":%d,\"assigned_by_name\":\"Staff %d\","
+                    + "\"assigned_at\":\"2025-02-%02d 08:00:00\"}",
+                i, i, 14.5 + i * 1e-5, 121.0 + i * 1e-5, 10 + i % 90 / 10.0, i % 7 * 1.25,
+                1 + i % 28, i % 24, i % 60, i % 60, i, i, i % 100, i % 50, 1 + i % 9, 1 + i % 9, 1 + i % 28));
+        }
+        return json.append("]}").toString();
+    }
+
+    /** get_resolved_sos.php with {@code rows} alerts. */
+    static String resolvedSos(int rows) {
+        StringBuilder json = new StringBuilder(rows * 500);
+        json.append("{\"success\":true,\"count\":").append(rows).append(",\"alerts\":[");
+        for (int i = 1; i <= rows; i++) {
+            if (i > 1) json.append(',');
+            json.append(String.format(Locale.US,
+                "{\"id\":%d,\"transmitter_serial\":\"TX-2026-%05d\",\"assignment_id\":%d,"
+                    + "\"customer_name\":\"Customer %d\",\"customer_contact\":\"0917%07d\","
+                    + "\"latitude\":\"%.8f\",\"longitude\":\"%.8f\",\"battery_percent\":%d,\"rssi\":%d,"
+                    + "\"alert_time\":\"2025-03-%02d %02d:%02d:00\",\"acknowledged_at\":\"2025-03-%02d %02d:%02d:30\","
+                    + "\"acknowledged_by_name\":\"Staff %d\",\"resolved_at\":\"2025-03-%02d %02d:%02d:59\","
+                    + "\"resolved_by_name\":\"Staff %d\",\"resolution_notes\":\"Checked on site, note %d\"}",
+                i, i, i, i, i, 14.5 + i * 1e-5, 121.0 + i * 1e-5, i % 100, -40 - i % 60,
+                1 + i % 28, i % 24, i % 60, 1 + i % 28, i % 24, i % 60, 1 + i % 9,
+                1 + i % 28, i % 24, i % 60, 1 + i % 9, i));
+        }
+        return json.append("]}").toString();
+    }
+}
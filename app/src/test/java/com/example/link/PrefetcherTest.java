@@ -0,0 +1,211 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.PowerManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowConnectivityManager;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowNetworkInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When {@link Prefetcher} runs (unmetered, not 2G-class, outside battery
+ * saver, at most once per five minutes) and how screen opens are counted
+ * against finished prefetches.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PrefetcherTest {
+
+    private static final int USER  = 63;
+    private static final int STAFF = 2;
+
+    private Context                   context;
+    private ShadowConnectivityManager connectivity;
+    private LinkDatabase              db;
+    private TestServer                server;
+    private Prefetcher                prefetcher;
+
+    private final List<ApiCall<?>> syncs = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        context      = RuntimeEnvironment.getApplication();
+        connectivity = shadowOf((ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE));
+        onNetwork(ConnectivityManager.TYPE_WIFI);
+
+        db     = new LinkDatabase(context);
+        server = new TestServer(exchange -> TestServer.respond(exchange, 200,
+            exchange.getRequestURI().getPath().endsWith("get_resolved_sos.php")
+                ? Payloads.resolvedSos(3) : Payloads.deviceActivities(3)));
+        prefetcher = new Prefetcher(context, new SyncEngine(context, server.url(""), db) {
+            @Override
+            public ApiCall<ApiParsers.ListResult<SOSAlert>> syncResolvedSos(int userId, int staffId) {
+                return record(super.syncResolvedSos(userId, staffId));
+            }
+
+            @Override
+            public ApiCall<ApiParsers.ListResult<DeviceLocation>> syncDeviceActivities(int userId, int staffId,
+                                                                                       boolean filterByMe,
+                                                                                       int page, int limit) {
+                return record(super.syncDeviceActivities(userId, staffId, filterByMe, page, limit));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        NetworkQuality.getInstance(context).setOverride(null);
+        server.close();
+        db.close();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Skip rules
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void prefetchesHistoryAndActivitiesOnAnUnmeteredNetwork() throws Exception {
+        dashboardLoaded();
+
+        awaitSyncs();
+        assertEquals(2, server.hits());
+        assertTrue(prefetcher.getStats().startsWith("Prefetches: 1\n"));
+        assertTrue(prefetcher.getStats().contains("0 / 0 / 0"));
+    }
+
+    @Test
+    public void skipsWhenOffline() throws Exception {
+        connectivity.setActiveNetworkInfo(null);
+        dashboardLoaded();
+
+        assertSkipped("0 / 0 / 1");
+    }
+
+    @Test
+    public void skipsOnAMeteredNetwork() throws Exception {
+        onNetwork(ConnectivityManager.TYPE_MOBILE);
+        dashboardLoaded();
+
+        assertSkipped("1 / 0 / 0");
+    }
+
+    @Test
+    public void skipsOnA2gClassLink() throws Exception {
+        NetworkQuality.getInstance(context).setOverride(NetworkQuality.Mode.MINIMAL);
+        dashboardLoaded();
+
+        assertSkipped("1 / 0 / 0");
+    }
+
+    @Test
+    public void skipsInBatterySaver() throws Exception {
+        shadowOf((PowerManager) context.getSystemService(Context.POWER_SERVICE)).setIsPowerSaveMode(true);
+        dashboardLoaded();
+
+        assertSkipped("0 / 1 / 0");
+    }
+
+    @Test
+    public void runsAtMostOncePerInterval() throws Exception {
+        dashboardLoaded();
+        awaitSyncs();
+
+        ShadowLooper.idleMainLooper(4, TimeUnit.MINUTES);
+        dashboardLoaded();
+        assertEquals(2, server.hits());
+        assertTrue(prefetcher.getStats().startsWith("Prefetches: 1\n"));
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.MINUTES);   // MIN_INTERVAL_MS is up
+        dashboardLoaded();
+        awaitSyncs();
+        assertEquals(4, server.hits());
+        assertTrue(prefetcher.getStats().startsWith("Prefetches: 2\n"));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Hits and misses
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void opensAfterAPrefetchAreHits() throws Exception {
+        prefetcher.recordOpen(Prefetcher.Target.HISTORY);   // nothing prefetched yet
+        assertEquals(0.0, prefetcher.getHitRate(Prefetcher.Target.HISTORY), 0);
+
+        dashboardLoaded();
+        awaitSyncs();
+
+        prefetcher.recordOpen(Prefetcher.Target.HISTORY);
+        prefetcher.recordOpen(Prefetcher.Target.ACTIVITIES);
+        assertEquals(0.5, prefetcher.getHitRate(Prefetcher.Target.HISTORY), 0);
+        assertEquals(1.0, prefetcher.getHitRate(Prefetcher.Target.ACTIVITIES), 0);
+
+        ShadowLooper.idleMainLooper(15, TimeUnit.MINUTES);   // HIT_WINDOW_MS is up
+        prefetcher.recordOpen(Prefetcher.Target.ACTIVITIES);
+        assertEquals(0.5, prefetcher.getHitRate(Prefetcher.Target.ACTIVITIES), 0);
+        assertTrue(prefetcher.getStats().contains("HISTORY: 1 hits, 1 misses (50%)"));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private void onNetwork(int type) {
+        connectivity.setActiveNetworkInfo(ShadowNetworkInfo.newInstance(
+            NetworkInfo.DetailedState.CONNECTED, type, 0, true, NetworkInfo.State.CONNECTED));
+    }
+
+    /** Reports the dashboard and lets START_DELAY_MS pass. */
+    private void dashboardLoaded() {
+        prefetcher.onDashboardLoaded(USER, STAFF);
+        ShadowLooper.idleMainLooper(2, TimeUnit.SECONDS);
+    }
+
+    private void assertSkipped(String counts) {
+        assertTrue(prefetcher.getStats(), prefetcher.getStats().startsWith("Prefetches: 0\n"));
+        assertTrue(prefetcher.getStats(), prefetcher.getStats().contains(counts));
+        assertEquals(0, server.hits());
+    }
+
+    private <T> ApiCall<T> record(ApiCall<T> call) {
+        synchronized (syncs) {
+            syncs.add(call);
+        }
+        return call;
+    }
+
+    /** Waits until every sync started so far has finished and reported back. */
+    private void awaitSyncs() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!syncsSettled() && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(5);
+        }
+        assertTrue("timed out waiting for the prefetch", syncsSettled());
+    }
+
+    private boolean syncsSettled() {
+        synchronized (syncs) {
+            if (syncs.isEmpty()) return false;
+            for (ApiCall<?> call : syncs) {
+                // markReady runs as a dependent of the call
+                if (!call.isDone() || call.getNumberOfDependents() > 0) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.lifecycle.LifecycleOwner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class RefreshSchedulerTest {
+
+    private static final long INTERVAL_MS = 30_000;
+
+    // onResume and onPause don't look at the owner
+    private final LifecycleOwner owner = () -> null;
+
+    private RefreshScheduler scheduler;
+    private Task customers;
+    private Task sosCount;
+
+    @Before
+    public void setUp() {
+        customers = new Task();
+        sosCount  = new Task();
+        scheduler = new RefreshScheduler(INTERVAL_MS)
+            .register("customers", customers)
+            .register("sos_count", sosCount);
+    }
+
+    @Test
+    public void resumeFiresEachDataSetOnce() {
+        scheduler.onResume(owner);
+        scheduler.onResume(owner);
+
+        assertEquals(2, scheduler.getFiredCount());
+        assertEquals(1, customers.calls);
+        assertEquals(1, sosCount.calls);
+        assertTrue(scheduler.isInFlight("customers"));
+    }
+
+    @Test
+    public void manualRefreshJoinsTheRefreshInFlight() {
+        scheduler.onResume(owner);
+        scheduler.refreshNow();
+
+        assertEquals(2, scheduler.getFiredCount());
+        assertEquals(2, scheduler.getCoalescedCount());
+        assertEquals(1, customers.calls);
+    }
+
+    @Test
+    public void nextRoundWaitsForTheSlowestDataSet() {
+        scheduler.onResume(owner);
+        customers.finish();
+        idle(INTERVAL_MS * 2);
+        assertEquals(2, scheduler.getFiredCount());
+
+        sosCount.finish();
+        idle(INTERVAL_MS - 1);
+        assertEquals(2, scheduler.getFiredCount());
+        idle(1);
+        assertEquals(4, scheduler.getFiredCount());
+        assertEquals(0, scheduler.getSkippedCount());
+    }
+
+    @Test
+    public void pauseStopsTheLoop() {
+        scheduler.onResume(owner);
+        scheduler.onPause(owner);
+        customers.finish();
+        sosCount.finish();
+        idle(INTERVAL_MS * 3);
+
+        assertEquals(2, scheduler.getFiredCount());
+        assertFalse(scheduler.isInFlight("customers"));
+    }
+
+    @Test
+    public void lateCompletionsAreIgnored() {
+        scheduler.onResume(owner);
+        Runnable done = customers.pending.get(0);
+        customers.finish();
+        sosCount.finish();
+        idle(INTERVAL_MS);
+        assertEquals(4, scheduler.getFiredCount());
+
+        done.run();   // the first round's refresh, finishing twice
+        ShadowLooper.idleMainLooper();
+        assertTrue(scheduler.isInFlight("customers"));
+    }
+
+    private static void idle(long ms) {
+        ShadowLooper.idleMainLooper(ms, TimeUnit.MILLISECONDS);
+    }
+
+    /** Holds each refresh open until the test finishes it. */
+    private static final class Task implements RefreshScheduler.RefreshTask {
+        final List<Runnable> pending = new ArrayList<>();
+        int calls;
+
+        @Override
+        public void refresh(Runnable done) {
+            calls++;
+            pending.add(done);
+        }
+
+        void finish() {
+            pending.remove(0).run();
+            ShadowLooper.idleMainLooper();
+        }
+    }
+}
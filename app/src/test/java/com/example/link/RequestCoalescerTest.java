@@ -0,0 +1,121 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestCoalescerTest {
+
+    private static final String URL = "https://example.test/api/get_active_customers.php?user_id=7";
+
+    private static final ApiRequest.Parser<String> TEXT  = String::new;
+    private static final ApiRequest.Parser<String> OTHER = String::new;
+
+    private final List<String> delivered = new ArrayList<>();
+
+    private RequestCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new RequestCoalescer();
+    }
+
+    @Test
+    public void identicalRequestJoinsTheOneInFlight() {
+        ApiRequest<String> leader = request(TEXT, 3);
+        assertFalse(coalescer.offer(leader));
+        assertTrue(coalescer.offer(request(TEXT, 3)));
+
+        answer(leader, "rows");
+        assertEquals(2, delivered.size());
+        assertEquals(1, coalescer.getSentCount());
+        assertEquals(1, coalescer.getJoinedCount());
+    }
+
+    @Test
+    public void otherTenantOrParserIsSentSeparately() {
+        assertFalse(coalescer.offer(request(TEXT, 3)));
+        assertFalse(coalescer.offer(request(TEXT, 4)));
+        assertFalse(coalescer.offer(request(OTHER, 3)));
+        assertEquals(3, coalescer.getSentCount());
+        assertEquals(0, coalescer.getSavedCount());
+    }
+
+    @Test
+    public void quickRepeatIsAnsweredFromMemory() {
+        ApiRequest<String> first = request(TEXT, 3);
+        coalescer.offer(first);
+        answer(first, "rows");
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(RequestCoalescer.DEFAULT_FRESH_WINDOW_MS));
+        assertTrue(coalescer.offer(request(TEXT, 3)));
+        ShadowLooper.idleMainLooper();
+        assertEquals(2, delivered.size());
+        assertEquals(1, coalescer.getMemoryCount());
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(1));
+        assertFalse(coalescer.offer(request(TEXT, 3)));
+    }
+
+    @Test
+    public void zeroWindowDisablesTheMemory() {
+        coalescer.setFreshWindowMs(0);
+        ApiRequest<String> first = request(TEXT, 3);
+        coalescer.offer(first);
+        answer(first, "rows");
+
+        assertFalse(coalescer.offer(request(TEXT, 3)));
+    }
+
+    @Test
+    public void cancelledFollowerIsNotDelivered() {
+        Object screen = new Object();
+        ApiRequest<String> leader   = request(TEXT, 3);
+        ApiRequest<String> follower = request(TEXT, 3);
+        follower.setTag(screen);
+        coalescer.offer(leader);
+        coalescer.offer(follower);
+
+        coalescer.cancelAll(screen);
+        answer(leader, "rows");
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void cancelledLeaderKeepsRunningForItsFollowers() {
+        ApiRequest<String> leader = request(TEXT, 3);
+        coalescer.offer(leader);
+        coalescer.offer(request(TEXT, 3));
+
+        leader.cancel();
+        assertFalse(leader.isCanceled());
+        answer(leader, "rows");
+        assertEquals(1, delivered.size());   // the follower's copy only
+    }
+
+    private ApiRequest<String> request(ApiRequest.Parser<String> parser, int staffId) {
+        ApiRequest<String> request = new ApiRequest<>(URL, parser, delivered::add, error -> { })
+            .setTenant(7, staffId);
+        request.setCoalescer(coalescer);
+        return request;
+    }
+
+    /** What Volley's dispatcher does with a network answer. */
+    private static void answer(ApiRequest<String> request, String result) {
+        request.deliverResponse(result);
+        request.onFinished();
+        ShadowLooper.idleMainLooper();
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.RetryPolicy;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.StringRequest;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestPolicyTest {
+
+    private static final String URL      = "https://example.test/api/get_customers.php?user_id=1";
+    private static final String ENDPOINT = "get_customers.php";
+
+    private RequestPolicy policy;
+
+    @Before
+    public void setUp() {
+        policy = new RequestPolicy(new NetworkTelemetry());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Breaker
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void opensAfterFiveFailuresInARow() throws Exception {
+        Request<?> request = get();
+        for (int i = 0; i < 4; i++) {
+            policy.onError(request, new TimeoutError());
+        }
+        assertEquals(RequestPolicy.State.CLOSED, policy.getState(ENDPOINT));
+        policy.beforeSend(request);
+
+        policy.onError(request, new TimeoutError());
+        assertEquals(RequestPolicy.State.OPEN, policy.getState(ENDPOINT));
+        assertRejected(request);
+    }
+
+    @Test
+    public void successResetsTheCount() {
+        Request<?> request = get();
+        for (int i = 0; i < 4; i++) {
+            policy.onError(request, new TimeoutError());
+        }
+        policy.onSuccess(request);
+        for (int i = 0; i < 4; i++) {
+            policy.onError(request, new TimeoutError());
+        }
+        assertEquals(RequestPolicy.State.CLOSED, policy.getState(ENDPOINT));
+    }
+
+    @Test
+    public void clientErrorsAndParseErrorsAreNotFailures() {
+        Request<?> request = get();
+        for (int i = 0; i < 10; i++) {
+            policy.onError(request, status(404));
+            policy.onError(request, new ParseError());
+        }
+        assertEquals(RequestPolicy.State.CLOSED, policy.getState(ENDPOINT));
+    }
+
+    @Test
+    public void probesAfterTheCoolDownAndClosesOnSuccess() throws Exception {
+        Request<?> request = open();
+
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(14));
+        assertRejected(request);
+
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(1));
+        policy.beforeSend(request);
+        assertEquals(RequestPolicy.State.HALF_OPEN, policy.getState(ENDPOINT));
+        assertRejected(request);   // only one probe at a time
+
+        policy.onSuccess(request);
+        assertEquals(RequestPolicy.State.CLOSED, policy.getState(ENDPOINT));
+        policy.beforeSend(request);
+    }
+
+    @Test
+    public void failedProbeReopensForTwiceAsLong() throws Exception {
+        Request<?> request = open();
+
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(15));
+        policy.beforeSend(request);
+        policy.onError(request, status(503));
+        assertEquals(RequestPolicy.State.OPEN, policy.getState(ENDPOINT));
+
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(29));
+        assertRejected(request);
+        ShadowSystemClock.advanceBy(Duration.ofSeconds(1));
+        policy.beforeSend(request);
+        assertEquals(RequestPolicy.State.HALF_OPEN, policy.getState(ENDPOINT));
+    }
+
+    @Test
+    public void breakersArePerEndpoint() throws Exception {
+        open();
+        Request<?> other = new StringRequest(Request.Method.GET,
+            "https://example.test/api/get_sos_history.php", response -> { }, error -> { });
+        policy.beforeSend(other);
+        assertEquals(RequestPolicy.State.CLOSED, policy.getState("get_sos_history.php"));
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Retries
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void getsRetryTwiceAfterAJitteredDelay() throws Exception {
+        Request<?> request = list();
+        request.setRetryPolicy(new DefaultRetryPolicy(4_000, 0, 1f));
+        policy.apply(request);
+        RetryPolicy retry = request.getRetryPolicy();
+
+        assertEquals(4_000, retry.getCurrentTimeout());
+        assertInRange(policy.retryDelayMs(request, new TimeoutError()), 1_000);
+        assertEquals(8_000, retry.getCurrentTimeout());
+        assertInRange(policy.retryDelayMs(request, status(502)), 2_000);
+        assertEquals(16_000, retry.getCurrentTimeout());
+        assertEquals(2, retry.getCurrentRetryCount());
+        assertEquals(-1, policy.retryDelayMs(request, new NoConnectionError()));
+    }
+
+    @Test
+    public void retryDelaysAreSpreadOverTheWholeWindow() {
+        Set<Long> delays = new HashSet<>();
+        long max = 0;
+        for (int i = 0; i < 200; i++) {
+            Request<?> request = list();
+            policy.apply(request);
+            long delay = policy.retryDelayMs(request, new TimeoutError());
+            assertInRange(delay, 1_000);
+            delays.add(delay);
+            max = Math.max(max, delay);
+        }
+        assertTrue(delays.size() > 100);
+        assertTrue(max >= 500);
+    }
+
+    @Test
+    public void volleyNeverResendsOnItsOwn() {
+        Request<?> request = list();
+        policy.apply(request);
+        assertGivesUp(request.getRetryPolicy(), new TimeoutError());
+        assertEquals(0, request.getRetryPolicy().getCurrentRetryCount());
+    }
+
+    @Test
+    public void getsDoNotRetryAnswersFromAWorkingServer() {
+        Request<?> request = list();
+        policy.apply(request);
+        assertEquals(-1, policy.retryDelayMs(request, status(404)));
+        assertEquals(-1, policy.retryDelayMs(request, new ParseError()));
+    }
+
+    @Test
+    public void getsDoNotRetryWhileTheBreakerIsOpen() {
+        open();
+        Request<?> request = list();
+        policy.apply(request);
+        assertEquals(-1, policy.retryDelayMs(request, new TimeoutError()));
+        assertEquals(-1, policy.retryDelayMs(request, new RequestPolicy.CircuitOpenError(ENDPOINT)));
+    }
+
+    @Test
+    public void writesAreNeverRetried() {
+        Request<?> request = new StringRequest(Request.Method.POST, URL, response -> { }, error -> { });
+        policy.apply(request);
+        assertEquals(-1, policy.retryDelayMs(request, new TimeoutError()));
+        assertEquals(-1, policy.retryDelayMs(request, status(503)));
+        assertFalse(request.shouldRetryServerErrors());
+        assertFalse(request.shouldRetryConnectionErrors());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Against a failing server
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void retriesWaitTheirDelayAndThenSucceed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try (TestServer server = new TestServer(exchange -> {
+            boolean up = calls.incrementAndGet() > 2;
+            TestServer.respond(exchange, up ? 200 : 503, "{\"success\":" + up + "}");
+        })) {
+            ApiClient client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+            AtomicReference<Object> result = new AtomicReference<>();
+            client.add(new ApiRequest<>(server.url("flaky_list.php"), ApiRequest.JSON_OBJECT,
+                result::set, result::set));
+
+            TestServer.await(() -> server.hits() == 1);
+            Thread.sleep(200);
+            ShadowLooper.idleMainLooper();
+            assertEquals(1, server.hits());   // the first retry waits for its delay
+
+            awaitAdvancing(() -> result.get() != null);
+            assertEquals(3, server.hits());
+            assertTrue(result.get() instanceof JSONObject);
+            assertEquals(RequestPolicy.State.CLOSED, client.getPolicy().getState("flaky_list.php"));
+        }
+    }
+
+    @Test
+    public void breakerOpensAfterFiveFailedRequestsAndFailsFast() throws Exception {
+        try (TestServer server = new TestServer(exchange ->
+                TestServer.respond(exchange, 503, "{\"success\":false}"))) {
+            ApiClient client = ApiClient.getInstance(RuntimeEnvironment.getApplication());
+            for (int i = 0; i < 5; i++) {
+                assertTrue(send(client, server.url("down_list.php?page=" + i)) instanceof ServerError);
+            }
+            assertEquals(15, server.hits());   // three attempts each
+            assertEquals(RequestPolicy.State.OPEN, client.getPolicy().getState("down_list.php"));
+
+            assertTrue(send(client, server.url("down_list.php?page=5")) instanceof RequestPolicy.CircuitOpenError);
+            assertEquals(15, server.hits());
+        }
+    }
+
+    private static Object send(ApiClient client, String url) throws InterruptedException {
+        AtomicReference<Object> result = new AtomicReference<>();
+        client.add(new ApiRequest<>(url, ApiRequest.JSON_OBJECT, result::set, result::set));
+        awaitAdvancing(() -> result.get() != null);
+        return result.get();
+    }
+
+    /** Like TestServer.await, but lets the clock run so delayed retries go out. */
+    private static void awaitAdvancing(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+            Thread.sleep(5);
+        }
+        assertTrue("timed out waiting for the server", condition.getAsBoolean());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private static Request<?> get() {
+        return new StringRequest(Request.Method.GET, URL, response -> { }, error -> { });
+    }
+
+    private static Request<?> list() {
+        return new ApiRequest<>(URL, ApiRequest.JSON_OBJECT, response -> { }, error -> { });
+    }
+
+    private Request<?> open() {
+        Request<?> request = get();
+        for (int i = 0; i < 5; i++) {
+            policy.onError(request, new TimeoutError());
+        }
+        assertEquals(RequestPolicy.State.OPEN, policy.getState(ENDPOINT));
+        return request;
+    }
+
+    private static ServerError status(int code) {
+        return new ServerError(new NetworkResponse(code, new byte[0], false, 0, Collections.emptyList()));
+    }
+
+    private void assertRejected(Request<?> request) {
+        try {
+            policy.beforeSend(request);
+            fail("expected the breaker to reject " + request.getUrl());
+        } catch (RequestPolicy.CircuitOpenError expected) {
+            // failed fast
+        }
+    }
+
+    private static void assertInRange(long delayMs, long windowMs) {
+        assertTrue(delayMs + " ms", delayMs >= 0 && delayMs < windowMs);
+    }
+
+    private static void assertGivesUp(RetryPolicy retry, VolleyError error) {
+        try {
+            retry.retry(error);
+            fail("expected no retry for " + error);
+        } catch (VolleyError thrown) {
+            assertSame(error, thrown);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.activity.ComponentActivity;
+
+import com.android.volley.Request;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A screen's requests and calls are cancelled when its lifecycle reaches
+ * ON_DESTROY, their listeners never run, and work added afterwards is
+ * cancelled straight away.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RequestScopeTest {
+
+    private final CountDownLatch release   = new CountDownLatch(1);
+    private final AtomicInteger  delivered = new AtomicInteger();
+
+    private TestServer                            server;
+    private LinkApi                               api;
+    private ActivityController<ComponentActivity> controller;
+    private RequestScope                          scope;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestServer(exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TestServer.respond(exchange, 200, "{\"success\":true}");
+        });
+        controller = Robolectric.buildActivity(ComponentActivity.class).setup();
+        api        = new LinkApi(controller.get(), server.url(""));
+        scope      = RequestScope.of(controller.get());
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.close();
+    }
+
+    @Test
+    public void destroyCancelsPendingRequestsAndCalls() throws Exception {
+        Request<String>     request = scope.add(request("get_resolved_sos.php"));
+        ApiCall<JSONObject> call   = scope.track(api.login("staff@example.test", "secret"));
+        TestServer.await(() -> server.hits() == 2);
+        assertEquals("Completed: 0\nCancelled: 0\nPending: 2", scope.getStats());
+
+        controller.destroy();
+        assertTrue(request.isCanceled());
+        assertTrue(call.isCancelled());
+        assertTrue(call.getRequest().isCanceled());
+
+        // The server answers anyway; nothing reaches the destroyed screen
+        release.countDown();
+        awaitServerDone();
+        assertEquals(0, delivered.get());
+        assertEquals(2, scope.getCancelledCount());
+        assertEquals(0, scope.getCompletedCount());
+    }
+
+    @Test
+    public void workAddedAfterDestroyIsCancelledAtOnce() {
+        controller.destroy();
+
+        Request<String>     request = scope.add(request("get_resolved_sos.php"));
+        ApiCall<JSONObject> call   = scope.track(api.login("staff@example.test", "secret"));
+        assertTrue(request.isCanceled());
+        assertTrue(call.isCancelled());
+        assertEquals(2, scope.getCancelledCount());
+    }
+
+    @Test
+    public void settledWorkCountsAsCompleted() throws Exception {
+        release.countDown();
+        Request<String>     request = scope.add(request("get_resolved_sos.php"));
+        ApiCall<JSONObject> call   = scope.track(api.login("staff@example.test", "secret"));
+        TestServer.await(() -> call.isDone() && delivered.get() == 1);
+        TestServer.await(() -> scope.getCompletedCount() == 2);
+
+        controller.destroy();
+        assertFalse(request.isCanceled());
+        assertEquals(0, scope.getCancelledCount());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private ApiRequest<String> request(String path) {
+        ApiRequest<String> request = new ApiRequest<>(server.url(path),
+            (data, charset) -> new String(data, charset),
+            response -> delivered.incrementAndGet(),
+            error -> delivered.incrementAndGet());
+        request.setShouldCache(false);
+        return request;
+    }
+
+    /** Lets the cancelled exchanges finish on the dispatcher threads and the main looper. */
+    private static void awaitServerDone() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 500;
+        while (System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.net.Uri;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * syncResolvedSos and syncDeviceActivities against a server that keeps the
+ * delta contract ({@link DeltaFeed}): inserts, edits and deletes reach the
+ * database, has_more is followed for at most ten rounds per sync, and a delta
+ * costs a fraction of the bytes of a full fetch.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SyncDeltaTest {
+
+    private static final int USER  = 52;
+    private static final int STAFF = 8;
+    private static final int ROWS  = 300;
+
+    private final List<String> sinces = new ArrayList<>();
+    private final AtomicLong   bytes  = new AtomicLong();
+
+    private Context      context;
+    private LinkDatabase db;
+    private TestServer   server;
+    private SyncEngine   engine;
+    private DeltaFeed    history;
+    private DeltaFeed    activities;
+
+    @Before
+    public void setUp() throws Exception {
+        context    = RuntimeEnvironment.getApplication();
+        db         = new LinkDatabase(context);
+        history    = new DeltaFeed("alerts", 50, SyncDeltaTest::alert);
+        activities = new DeltaFeed("data", 50, SyncDeltaTest::activity);
+        for (int id = 1; id <= ROWS; id++) {
+            history.insert(id);
+            activities.insert(id);
+        }
+        server = new TestServer(exchange -> {
+            Uri      uri   = Uri.parse(exchange.getRequestURI().toString());
+            String   since = uri.getQueryParameter("since");
+            DeltaFeed feed = uri.getPath().endsWith("get_resolved_sos.php") ? history : activities;
+            String   limit = uri.getQueryParameter("delta_limit");
+
+            String body = since == null ? feed.fullList()
+                : feed.delta(since, limit != null ? Integer.parseInt(limit) : 0);
+            synchronized (sinces) {
+                sinces.add(since);
+            }
+            bytes.addAndGet(body.getBytes(StandardCharsets.UTF_8).length);
+            TestServer.respond(exchange, 200, body);
+        });
+        engine = new SyncEngine(context, server.url(""), db);
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        db.close();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Resolved SOS history
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void historyDeltasCarryInsertsEditsAndDeletes() throws Exception {
+        assertEquals(ROWS, sync(engine.syncResolvedSos(USER, STAFF)).total);
+        assertEquals(null, since(0));   // first sync is the plain, cacheable list
+
+        history.insert(ROWS + 1);
+        history.edit(10);
+        history.delete(20);
+        long fullBytes = history.fullList().getBytes(StandardCharsets.UTF_8).length;
+        bytes.set(0);
+
+        assertEquals(ROWS, sync(engine.syncResolvedSos(USER, STAFF)).total);
+        assertEquals(2, hits());
+        assertEquals(String.valueOf(ROWS), since(1));
+
+        List<SOSAlert> stored =
+            db.getResolvedSos(LinkDatabase.tenant(USER, STAFF), HistoryFilter.NONE, 0, ROWS + 10);
+        assertEquals(ROWS, stored.size());
+        assertEquals(ROWS + 1, stored.get(0).getId());
+        assertEquals("note 10 v2", find(stored, 10).getResolutionNotes());
+        assertEquals(null, find(stored, 20));
+
+        System.out.printf(Locale.US, "History: delta %,d bytes, full list %,d bytes%n", bytes.get(), fullBytes);
+        assertTrue(bytes.get() * 20 < fullBytes);
+    }
+
+    @Test
+    public void historyFollowsHasMoreForTenRoundsAtMost() throws Exception {
+        sync(engine.syncResolvedSos(USER, STAFF));
+        for (int id = ROWS + 1; id <= ROWS + 600; id++) history.insert(id);   // 12 answers of 50
+
+        assertEquals(ROWS + 500, sync(engine.syncResolvedSos(USER, STAFF)).total);
+        assertEquals(1 + 10, hits());
+
+        // The next sync picks up where the cap stopped
+        assertEquals(ROWS + 600, sync(engine.syncResolvedSos(USER, STAFF)).total);
+        assertEquals(1 + 10 + 2, hits());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Device activities
+    // ─────────────────────────────────────────────────────────
+
+    @Test
+    public void activityDeltasCarryInsertsEditsAndDeletes() throws Exception {
+        // since="" asks for a snapshot; it arrives 50 rows at a time
+        ApiParsers.ListResult<DeviceLocation> first =
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+        assertEquals("", since(0));
+        assertEquals(ROWS / 50, hits());
+        assertEquals(ROWS, first.total);
+        assertEquals(20, first.items.size());
+
+        activities.insert(ROWS + 1);
+        activities.edit(ROWS);
+        activities.delete(ROWS - 1);
+        long fullBytes = activities.fullList().getBytes(StandardCharsets.UTF_8).length;
+        bytes.set(0);
+
+        ApiParsers.ListResult<DeviceLocation> next =
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+        assertEquals(ROWS / 50 + 1, hits());
+        assertEquals(ROWS, next.total);
+        assertEquals(ROWS + 1, next.items.get(0).getId());
+        assertEquals("Customer 300 v2", next.items.get(1).getCustomerName());
+        assertEquals(ROWS - 2, next.items.get(2).getId());
+
+        // Later pages come from the database
+        ApiParsers.ListResult<DeviceLocation> page2 =
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 2, 20));
+        assertEquals(ROWS / 50 + 1, hits());
+        assertEquals(20, page2.items.size());
+
+        System.out.printf(Locale.US, "Activities: delta %,d bytes, full list %,d bytes%n", bytes.get(), fullBytes);
+        assertTrue(bytes.get() * 20 < fullBytes);
+    }
+
+    @Test
+    public void activitiesFollowHasMoreForTenRoundsAtMost() throws Exception {
+        sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+        int afterSnapshot = hits();
+        for (int id = ROWS + 1; id <= ROWS + 600; id++) activities.insert(id);
+
+        assertEquals(ROWS + 500, sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20)).total);
+        assertEquals(afterSnapshot + 10, hits());
+
+        ApiParsers.ListResult<DeviceLocation> caughtUp =
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+        assertEquals(afterSnapshot + 10 + 2, hits());
+        assertEquals(ROWS + 600, caughtUp.total);
+        assertEquals(ROWS + 600, caughtUp.items.get(0).getId());
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    /** Resolved later the higher the id, so the newest row is first. */
+    private static String alert(int id, int version) {
+        return String.format(Locale.US,
+            "{\"id\":%d,\"transmitter_serial\":\"TX-%05d\",\"assignment_id\":%d,\"customer_name\":\"Customer %d\","
+                + "\"latitude\":\"14.5\",\"longitude\":\"121.0\",\"battery_percent\":80,\"rssi\":-70,"
+                + "\"alert_time\":\"2025-01-01 00:00:00\",\"resolved_at\":\"2025-01-01 %02d:%02d:%02d\","
+                + "\"resolved_by_name\":\"Staff\",\"resolution_notes\":\"note %d v%d\"}",
+            id, id, id, id, id / 3600, id / 60 % 60, id % 60, id, version);
+    }
+
+    private static String activity(int id, int version) {
+        return String.format(Locale.US,
+            "{\"id\":%d,\"serial_number\":\"TX-%05d\",\"latitude\":\"14.5\",\"longitude\":\"121.0\","
+                + "\"recorded_at\":\"2025-01-01 %02d:%02d:%02d\",\"customer_name\":\"Customer %d v%d\"}",
+            id, id, id / 3600, id / 60 % 60, id % 60, id, version);
+    }
+
+    private static SOSAlert find(List<SOSAlert> alerts, int id) {
+        for (SOSAlert alert : alerts) {
+            if (alert.getId() == id) return alert;
+        }
+        return null;
+    }
+
+    private int hits() {
+        synchronized (sinces) {
+            return sinces.size();
+        }
+    }
+
+    private String since(int request) {
+        synchronized (sinces) {
+            return sinces.get(request);
+        }
+    }
+
+    /**
+     * Waits for {@code call}. The clock is moved past the coalescer's window
+     * first, so a sync that repeats a URL goes to the server.
+     */
+    private static <T> T sync(ApiCall<T> call) throws InterruptedException, ExecutionException {
+        ShadowLooper.idleMainLooper(RequestCoalescer.DEFAULT_FRESH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!call.isDone() && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(5);
+        }
+        assertTrue("timed out waiting for the sync", call.isDone());
+        return call.get();
+    }
+}
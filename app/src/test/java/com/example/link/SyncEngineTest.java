@@ -0,0 +1,197 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Each list screen's load → sync → load against a local server: nothing
+ * stored before the first sync, the synced rows afterwards, and the same rows
+ * from the database once the server is gone.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SyncEngineTest {
+
+    private static final int USER  = 41;
+    private static final int STAFF = 6;
+
+    private static final String CUSTOMERS = "{'success':true,'devices':["
+        + "{'serial_number':'TX-1','device_name':'Unit 1','status':'registered','customer_name':'Ana',"
+        + "'assignment_id':11,'latitude':14.5,'longitude':121.0,'last_update':'2025-03-01 08:00:00','minutes_ago':5},"
+        + "{'serial_number':'TX-2','device_name':'Unit 2','status':'registered','customer_name':'Ben',"
+        + "'assignment_id':12,'latitude':14.6,'longitude':121.1,'last_update':'2025-03-01 08:01:00','minutes_ago':4}]}";
+    private static final String COUNT     = "{'success':true,'resolved_count':37}";
+    private static final String INVENTORY = "{'success':true,'available_count':1,'active_count':1,"
+        + "'available_devices':[{'serial_number':'TX-9','device_name':'Spare','battery_percent':90}],"
+        + "'active_devices':[{'serial_number':'TX-1','assigned_name':'Ana','assigned_contact':'0917',"
+        + "'assigned_by':'Staff','device_status':'registered','assignment_id':11}]}";
+
+    private Context      context;
+    private LinkDatabase db;
+    private TestServer   server;
+    private SyncEngine   engine;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.getApplication();
+        db      = new LinkDatabase(context);
+        server  = new TestServer(exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String body;
+            if (path.endsWith("get_active_customers.php"))          body = CUSTOMERS.replace('\'', '"');
+            else if (path.endsWith("get_resolved_sos_count.php"))   body = COUNT.replace('\'', '"');
+            else if (path.endsWith("get_devices.php"))              body = INVENTORY.replace('\'', '"');
+            else if (path.endsWith("get_resolved_sos.php"))         body = Payloads.resolvedSos(30);
+            else if (path.endsWith("get_device_activities.php"))    body = Payloads.deviceActivities(25);
+            else {
+                TestServer.respond(exchange, 404, "{\"success\":false}");
+                return;
+            }
+            TestServer.respond(exchange, 200, body);
+        });
+        engine = new SyncEngine(context, server.url(""), db);
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        db.close();
+    }
+
+    @Test
+    public void dashboard() throws Exception {
+        assertNull(this.<ApiParsers.CustomersResult>load(r -> engine.loadActiveCustomers(USER, STAFF, r)));
+        assertNull(this.<ApiParsers.CountResult>load(r -> engine.loadResolvedSosCount(USER, STAFF, r)));
+
+        assertEquals(2, sync(engine.syncActiveCustomers(USER, STAFF)).items.size());
+        assertEquals(37, sync(engine.syncResolvedSosCount(USER, STAFF)).count);
+        awaitWrites();
+
+        assertEquals(2, this.<ApiParsers.CustomersResult>load(r -> engine.loadActiveCustomers(USER, STAFF, r))
+            .items.size());
+        assertEquals(37, this.<ApiParsers.CountResult>load(r -> engine.loadResolvedSosCount(USER, STAFF, r)).count);
+
+        server.close();
+        ApiParsers.CustomersResult offline = load(r -> engine.loadActiveCustomers(USER, STAFF, r));
+        assertEquals("Ana", offline.items.get(0).getCustomerName());
+        assertEquals(37, this.<ApiParsers.CountResult>load(r -> engine.loadResolvedSosCount(USER, STAFF, r)).count);
+    }
+
+    @Test
+    public void inventory() throws Exception {
+        assertNull(this.<ApiParsers.InventoryResult>load(r -> engine.loadInventory(USER, STAFF, r)));
+
+        ApiParsers.InventoryResult synced = sync(engine.syncInventory(USER, STAFF));
+        assertEquals(1, synced.available.size());
+        assertEquals(1, synced.active.size());
+        awaitWrites();
+
+        server.close();
+        ApiParsers.InventoryResult offline = load(r -> engine.loadInventory(USER, STAFF, r));
+        assertEquals("TX-9", offline.available.get(0).getSerialNumber());
+        assertEquals(11, offline.active.get(0).getAssignmentId());
+        assertEquals(1, offline.availableCount);
+    }
+
+    @Test
+    public void history() throws Exception {
+        assertEquals(0, sync(engine.loadResolvedSosPage(USER, STAFF, HistoryFilter.NONE, 1, 20)).total);
+
+        assertEquals(30, sync(engine.syncResolvedSos(USER, STAFF)).total);
+
+        ApiParsers.ListResult<SOSAlert> page2 =
+            sync(engine.loadResolvedSosPage(USER, STAFF, HistoryFilter.NONE, 2, 20));
+        assertEquals(10, page2.items.size());
+        assertEquals(30, page2.total);
+
+        server.close();
+        ApiParsers.ListResult<SOSAlert> offline =
+            sync(engine.loadResolvedSosPage(USER, STAFF, HistoryFilter.NONE, 1, 20));
+        assertEquals(20, offline.items.size());
+        assertEquals(30, offline.total);
+    }
+
+    @Test
+    public void deviceActivities() throws Exception {
+        assertNull(this.<ApiParsers.ListResult<DeviceLocation>>load(
+            r -> engine.loadDeviceActivities(USER, STAFF, false, 20, r)));
+
+        ApiParsers.ListResult<DeviceLocation> synced =
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+        assertEquals(25, synced.items.size());   // the server ignores limit
+        awaitWrites();
+
+        ApiParsers.ListResult<DeviceLocation> stored =
+            load(r -> engine.loadDeviceActivities(USER, STAFF, false, 20, r));
+        assertEquals(20, stored.items.size());
+        assertEquals(25, stored.total);
+
+        server.close();
+        ShadowLooper.idleMainLooper(RequestCoalescer.DEFAULT_FRESH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        try {
+            sync(engine.syncDeviceActivities(USER, STAFF, false, 1, 20));
+            fail("synced without a server");
+        } catch (ExecutionException expected) {
+            // The screen keeps what load gave it
+        }
+        ApiParsers.ListResult<DeviceLocation> offline =
+            load(r -> engine.loadDeviceActivities(USER, STAFF, false, 20, r));
+        assertEquals(20, offline.items.size());
+        assertEquals(25, offline.total);
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    private interface Loader<T> {
+        void load(Consumer<T> onResult);
+    }
+
+    /** What a load* call hands the screen (null: nothing stored). */
+    private <T> T load(Loader<T> loader) throws InterruptedException {
+        AtomicBoolean      done   = new AtomicBoolean();
+        AtomicReference<T> result = new AtomicReference<>();
+        loader.load(value -> {
+            result.set(value);
+            done.set(true);
+        });
+        TestServer.await(done::get);
+        return result.get();
+    }
+
+    /** Waits for the stores that sync* queued after its call completed. */
+    private void awaitWrites() throws InterruptedException, ExecutionException {
+        ApiCall<Void> flushed = new ApiCall<>();
+        db.update(d -> null, flushed::complete, flushed::completeExceptionally);
+        sync(flushed);
+    }
+
+    /** Waits for {@code call}, letting delayed retries come due. */
+    private static <T> T sync(ApiCall<T> call) throws InterruptedException, ExecutionException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!call.isDone() && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+            Thread.sleep(5);
+        }
+        assertTrue("timed out waiting for the sync", call.isDone());
+        return call.get();
+    }
+}
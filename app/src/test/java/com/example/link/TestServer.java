@@ -0,0 +1,121 @@
+package com.example.link;
+
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.net.ssl.SSLContext;
+
+/**
+ * A local HTTP server for tests that go through {@link ApiClient} and the real
+ * HurlStack. Handlers run on their own threads, so one may block while others
+ * answer.
+ */
+final class TestServer implements Closeable {
+
+    static {
+        // Without this, small answers wait on Nagle's algorithm against the client's delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private final HttpServer      server;
+    private final ExecutorService executor    = Executors.newCachedThreadPool();
+    private final AtomicInteger   hits        = new AtomicInteger();
+    private final List<Integer>   clientPorts = Collections.synchronizedList(new ArrayList<>());
+
+    TestServer(Handler handler) throws IOException {
+        this(handler, null);
+    }
+
+    /** @param tls serves HTTPS with this context's certificate, or plain HTTP when null */
+    TestServer(Handler handler, SSLContext tls) throws IOException {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 0);
+        if (tls != null) {
+            HttpsServer https = HttpsServer.create(address, 0);
+            https.setHttpsConfigurator(new HttpsConfigurator(tls));
+            server = https;
+        } else {
+            server = HttpServer.create(address, 0);
+        }
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url(String path) {
+        String scheme = server instanceof HttpsServer ? "https" : "http";
+        return scheme + "://127.0.0.1:" + server.getAddress().getPort() + "/LinkApi/" + path;
+    }
+
+    int hits() {
+        return hits.get();
+    }
+
+    /** The client-side port of every request, in arrival order; equal ports mean a reused socket. */
+    List<Integer> clientPorts() {
+        synchronized (clientPorts) {
+            return new ArrayList<>(clientPorts);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ─────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────
+
+    /** Sends {@code body} as JSON; HEAD requests get the status alone. */
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /** Runs the main looper, where Volley delivers, until {@code condition} holds. */
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(5);
+        }
+        assertTrue("timed out waiting for the server", condition.getAsBoolean());
+    }
+}
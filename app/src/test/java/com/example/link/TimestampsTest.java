@@ -0,0 +1,85 @@
+package com.example.link;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+public class TimestampsTest {
+
+    private static final String[] ZONES = {"Asia/Manila", "America/New_York", "UTC", "Australia/Adelaide"};
+
+    private static final String[] SAMPLES = {
+        "2025-03-07 21:05:00", "2025-03-07 00:00:00", "2025-01-01 12:30:59", "2024-12-31 23:59:59",
+        "2024-02-29 08:15:00", "2000-02-29 11:11:11", "1999-12-31 00:00:01", "2025-03-09 03:30:00",
+        "2025-11-03 01:30:00", "2038-01-19 03:14:08", "1970-01-01 00:00:00"
+    };
+
+    private final TimeZone defaultZone = TimeZone.getDefault();
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    public void parsingAndFormattingMatchSimpleDateFormat() throws Exception {
+        for (String zone : ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(zone));
+            SimpleDateFormat server   = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+            SimpleDateFormat date     = new SimpleDateFormat("M/d/yyyy", Locale.US);
+            SimpleDateFormat time     = new SimpleDateFormat("h:mm a", Locale.US);
+            SimpleDateFormat dateTime = new SimpleDateFormat("MM/dd/yyyy hh:mm a", Locale.US);
+
+            for (String sample : SAMPLES) {
+                long millis = Timestamps.parse(sample);
+                String where = sample + " in " + zone;
+                assertEquals(where, server.parse(sample).getTime(), millis);
+                assertEquals(where, date.format(millis), Timestamps.formatDate(millis));
+                assertEquals(where, time.format(millis), Timestamps.formatTime(millis));
+                assertEquals(where, dateTime.format(millis), Timestamps.formatDateTime(millis));
+            }
+        }
+    }
+
+    @Test
+    public void acceptsDatesIsoSeparatorAndTrailingFractions() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Manila"));
+        long evening = Timestamps.parse("2025-03-07 21:05:00");
+
+        assertEquals(evening, Timestamps.parse("2025-03-07T21:05:00"));
+        assertEquals(evening, Timestamps.parse("2025-03-07 21:05:00.123456"));
+        assertEquals(evening - (21 * 60 + 5) * 60_000L, Timestamps.parse("2025-03-07"));
+        assertEquals("3/7/2025", Timestamps.formatDate(evening));
+        assertEquals("9:05 PM", Timestamps.formatTime(evening));
+        assertEquals("03/07/2025 09:05 PM", Timestamps.formatDateTime(evening));
+    }
+
+    @Test
+    public void otherLayoutsAreInvalid() {
+        String[] invalid = {
+            null, "", "2025-03-07 21:05", "2025/03/07 21:05:00", "07-03-2025", "2025-13-01 00:00:00",
+            "2025-03-00 00:00:00", "2025-03-07 24:00:00", "2025-03-07 21:60:00", "2025-03-07 21-05-00",
+            "2025-03-07x21:05:00", "20a5-03-07 21:05:00", "0000-00-00 00:00:00"
+        };
+        for (String text : invalid) {
+            assertEquals(String.valueOf(text), Timestamps.INVALID, Timestamps.parse(text));
+        }
+    }
+
+    @Test
+    public void modelsFallBackToTheRawText() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Manila"));
+        DeviceLocation parsed = new DeviceLocation();
+        parsed.setDateTime("2025-03-07 21:05:00");
+        DeviceLocation garbled = new DeviceLocation();
+        garbled.setDateTime("yesterday");
+
+        assertEquals("03/07/2025 09:05 PM", parsed.getFormattedDateTime());
+        assertEquals("yesterday", garbled.getFormattedDateTime());
+    }
+}